@@ -1,24 +1,33 @@
 package com.openmeteo.mcp.chat.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 /**
  * Redis configuration for chat conversation memory.
+ * <p>
+ * Created for both the {@code redis} and the {@code redis-reactive} memory
+ * types. The Open-Meteo call quota has its own template
+ * ({@link com.openmeteo.mcp.config.QuotaRedisConfig}).
+ * </p>
  * 
  * @since 2.0.0
  */
 @Configuration
-@ConditionalOnProperty(name = "openmeteo.chat.memory.type", havingValue = "redis")
+@ConditionalOnExpression("'${openmeteo.chat.memory.type:inmemory}'.startsWith('redis')")
 public class RedisConfig {
     
     /**
      * Configure RedisTemplate for String keys and values.
-     * Used for storing serialized chat sessions and messages.
      */
     @Bean
     public RedisTemplate<String, String> redisTemplate(RedisConnectionFactory connectionFactory) {
@@ -35,4 +44,40 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
+    
+    /**
+     * Configure RedisTemplate for String keys and binary values.
+     * Used for storing chat sessions and messages encoded by the
+     * {@link com.openmeteo.mcp.chat.service.ConversationCodec}.
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> conversationRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        
+        StringRedisSerializer keySerializer = new StringRedisSerializer();
+        template.setKeySerializer(keySerializer);
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setHashKeySerializer(keySerializer);
+        template.setHashValueSerializer(RedisSerializer.byteArray());
+        
+        template.afterPropertiesSet();
+        return template;
+    }
+    
+    /**
+     * Reactive counterpart of {@link #conversationRedisTemplate}, used by the
+     * {@code redis-reactive} memory type.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "openmeteo.chat.memory.type", havingValue = "redis-reactive")
+    public ReactiveRedisTemplate<String, byte[]> reactiveConversationRedisTemplate(
+            ReactiveRedisConnectionFactory connectionFactory) {
+        RedisSerializationContext<String, byte[]> context = RedisSerializationContext
+            .<String, byte[]>newSerializationContext(new StringRedisSerializer())
+            .value(RedisSerializer.byteArray())
+            .hashValue(RedisSerializer.byteArray())
+            .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
 }
@@ -1,6 +1,7 @@
 package com.openmeteo.mcp.chat.controller;
 
 import com.openmeteo.mcp.chat.service.ChatHandler;
+import com.openmeteo.mcp.service.StreamPacer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -8,6 +9,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 
@@ -25,9 +27,11 @@ public class StreamingChatController {
     private static final Logger log = LoggerFactory.getLogger(StreamingChatController.class);
     
     private final ChatHandler chatHandler;
+    private final StreamPacer streamPacer;
     
-    public StreamingChatController(ChatHandler chatHandler) {
+    public StreamingChatController(ChatHandler chatHandler, StreamPacer streamPacer) {
         this.chatHandler = chatHandler;
+        this.streamPacer = streamPacer;
     }
     
     /**
@@ -49,60 +53,40 @@ public class StreamingChatController {
     ) {
         log.info("Starting streaming chat for session: {}", sessionId);
         
-        return Flux.<ServerSentEvent<String>>create(sink -> {
-            // Send start event
-            sink.next(ServerSentEvent.<String>builder()
-                .event("start")
-                .data("{\"status\":\"processing\"}")
-                .build());
-            
-            // Process chat message asynchronously
-            chatHandler.chat(sessionId, request.message())
-                .thenAccept(response -> {
-                    // Simulate streaming by chunking the response
-                    // In a real implementation, this would stream from the LLM
-                    var content = response.content();
-                    var chunkSize = 50;
-                    
-                    for (int i = 0; i < content.length(); i += chunkSize) {
-                        var end = Math.min(i + chunkSize, content.length());
-                        var chunk = content.substring(i, end);
-                        
-                        sink.next(ServerSentEvent.<String>builder()
-                            .event("chunk")
-                            .data(chunk)
-                            .build());
-                        
-                        // Small delay to simulate streaming
-                        try {
-                            Thread.sleep(50);
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                        }
-                    }
-                    
+        // Chunks are sent as fast as the client reads them
+        return streamPacer.pace("api-chat", Mono.fromFuture(() -> chatHandler.chat(sessionId, request.message()))
+            .flatMapMany(response -> {
+                // Simulate streaming by chunking the response
+                // In a real implementation, this would stream from the LLM
+                var content = response.content();
+                var chunkSize = 50;
+                var metadata = response.metadata();
+
+                return Flux.range(0, (content.length() + chunkSize - 1) / chunkSize)
+                    .map(i -> ServerSentEvent.<String>builder()
+                        .event("chunk")
+                        .data(content.substring(i * chunkSize, Math.min((i + 1) * chunkSize, content.length())))
+                        .build())
                     // Send complete event with metadata
-                    var metadata = response.metadata();
-                    sink.next(ServerSentEvent.<String>builder()
+                    .concatWith(Mono.fromSupplier(() -> ServerSentEvent.<String>builder()
                         .event("complete")
                         .data(String.format("{\"content\":\"%s\",\"latencyMs\":%s}", 
                             content.replace("\"", "\\\""),
                             metadata.getOrDefault("latencyMs", 0)))
-                        .build());
-                    
-                    sink.complete();
-                })
-                .exceptionally(error -> {
-                    log.error("Error in streaming chat", error);
-                    sink.next(ServerSentEvent.<String>builder()
-                        .event("error")
-                        .data("{\"error\":\"" + error.getMessage() + "\"}")
-                        .build());
-                    sink.complete();
-                    return null;
-                });
-        })
-        .delayElements(Duration.ofMillis(10)); // Smooth streaming
+                        .build()));
+            })
+            .onErrorResume(error -> {
+                log.error("Error in streaming chat", error);
+                return Mono.just(ServerSentEvent.<String>builder()
+                    .event("error")
+                    .data("{\"error\":\"" + error.getMessage() + "\"}")
+                    .build());
+            })
+            // Send start event
+            .startWith(ServerSentEvent.<String>builder()
+                .event("start")
+                .data("{\"status\":\"processing\"}")
+                .build()));
     }
     
     /**
@@ -23,7 +23,9 @@ public class ChatMetrics {
     private final Counter chatRequestsSuccess;
     private final Counter chatRequestsFailure;
     private final Timer chatResponseTime;
+    private final Timer chatRequestLatency;
     private final AtomicLong activeSessions;
+    private final AtomicLong inFlightRequests;
     
     public ChatMetrics(MeterRegistry meterRegistry) {
         // Request counters
@@ -48,9 +50,19 @@ public class ChatMetrics {
             .tag("service", "chathandler")
             .register(meterRegistry);
         
+        // End-to-end latency timer, from request to reply
+        this.chatRequestLatency = Timer.builder("chat.request.latency")
+            .description("End-to-end chat request latency")
+            .tag("service", "chathandler")
+            .register(meterRegistry);
+        
         // Active sessions gauge
         this.activeSessions = meterRegistry.gauge("chat.sessions.active",
             new AtomicLong(0));
+        
+        // In-flight requests gauge
+        this.inFlightRequests = meterRegistry.gauge("chat.requests.inflight",
+            new AtomicLong(0));
     }
     
     /**
@@ -88,6 +100,28 @@ public class ChatMetrics {
         chatResponseTime.record(Duration.ofMillis(milliseconds));
     }
     
+    /**
+     * Record the start of a chat request that is now in flight
+     */
+    public void recordRequestStarted() {
+        inFlightRequests.incrementAndGet();
+    }
+    
+    /**
+     * Record the end of an in-flight chat request and its end-to-end latency
+     */
+    public void recordRequestFinished(Duration latency) {
+        inFlightRequests.decrementAndGet();
+        chatRequestLatency.record(latency);
+    }
+    
+    /**
+     * Get current in-flight requests count
+     */
+    public long getInFlightRequests() {
+        return inFlightRequests.get();
+    }
+    
     /**
      * Increment active sessions
      */
@@ -11,9 +11,14 @@ import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.util.Map;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 /**
  * Core ChatHandler service that processes chat messages using Spring AI ChatModel.
@@ -31,21 +36,44 @@ public class ChatHandler {
     private final ConversationMemoryService memoryService;
     private final ContextEnrichmentService contextEnrichment;
     private final ChatMetrics metrics;
+    private final ConversationSummarizer summarizer;
+    private final Executor llmExecutor;
     
     public ChatHandler(
         ChatModel chatModel,
         ConversationMemoryService memoryService,
         ContextEnrichmentService contextEnrichment,
-        ChatMetrics metrics
+        ChatMetrics metrics,
+        ConversationSummarizer summarizer
+    ) {
+        this(chatModel, memoryService, contextEnrichment, metrics, summarizer,
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("chat-llm-", 0).factory()));
+    }
+    
+    ChatHandler(
+        ChatModel chatModel,
+        ConversationMemoryService memoryService,
+        ContextEnrichmentService contextEnrichment,
+        ChatMetrics metrics,
+        ConversationSummarizer summarizer,
+        Executor llmExecutor
     ) {
         this.chatModel = chatModel;
         this.memoryService = memoryService;
         this.contextEnrichment = contextEnrichment;
         this.metrics = metrics;
+        this.summarizer = summarizer;
+        this.llmExecutor = llmExecutor;
     }
     
     /**
      * Process a chat message and return AI response.
+     * <p>
+     * The session with its rolling summary and recent history and the location
+     * mentioned in the message are loaded concurrently. The blocking LLM call runs
+     * on a virtual thread, so slow providers never tie up a shared pool. The turn
+     * is persisted after the reply is returned, off the critical path, and older
+     * turns are then folded into the summary by the {@link ConversationSummarizer}.
      * 
      * @param sessionId Session identifier
      * @param userMessage User's message
@@ -54,77 +82,96 @@ public class ChatHandler {
     public CompletableFuture<AiResponse> chat(String sessionId, String userMessage) {
         log.info("Processing chat message for session: {}", sessionId);
         metrics.recordRequest();
+        metrics.recordRequestStarted();
+        var requestStart = System.nanoTime();
         
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                // Get or create session
-                var session = memoryService.getSession(sessionId)
-                    .join()
-                    .orElseGet(() -> {
-                        log.info("Creating new session: {}", sessionId);
-                        metrics.incrementActiveSessions();
-                        var newSession = ChatSession.create(sessionId);
-                        memoryService.saveSession(newSession).join();
-                        return newSession;
-                    });
-                
-                // Save user message
-                var userMsg = Message.user(sessionId, userMessage);
-                memoryService.saveMessage(userMsg).join();
-                
-                // Extract location from message and update context if found
-                var extractedLocation = contextEnrichment.extractLocation(userMessage).join();
-                if (extractedLocation != null) {
-                    var updatedContext = session.context().withLocation(extractedLocation);
-                    session = session.withContext(updatedContext);
-                    memoryService.saveSession(session).join();
-                    log.debug("Updated session context with location: {}", extractedLocation);
-                }
-                
-                // Get conversation history
-                var history = memoryService.getRecentMessages(sessionId, 10).join();
-                
-                // Enrich prompt with conversation context
-                var enrichedPrompt = contextEnrichment.enrichPrompt(userMessage, session.context()).join();
-                log.debug("Enriched prompt: {} chars", enrichedPrompt.length());
-                
-                // Call LLM with enriched prompt
-                var startTime = Instant.now();
-                var prompt = new Prompt(enrichedPrompt);
-                var chatResponse = chatModel.call(prompt);
-                var response = chatResponse.getResult().getOutput().getText();
-                var endTime = Instant.now();
-                
-                // Calculate latency
-                var latencyMs = endTime.toEpochMilli() - startTime.toEpochMilli();
-                metrics.recordResponseTime(latencyMs);
-                
-                // Save assistant response
-                var assistantMsg = Message.assistant(sessionId, response);
-                memoryService.saveMessage(assistantMsg).join();
-                
-                // Update session activity
-                var updatedSession = session.touch();
-                memoryService.saveSession(updatedSession).join();
-                
-                // Build AI response with metadata
-                var metadata = new java.util.HashMap<String, Object>();
-                metadata.put("latencyMs", latencyMs);
-                metadata.put("messageCount", history.size() + 2);
-                metadata.put("sessionId", sessionId);
-                
-                log.info("Chat response generated in {}ms for session: {}", latencyMs, sessionId);
-                metrics.recordSuccess();
-                return AiResponse.of(response, metadata);
-                
-            } catch (Exception e) {
-                log.error("Error processing chat message for session: {}", sessionId, e);
+        CompletableFuture<AiResponse> pipeline;
+        try {
+            var userMsg = Message.user(sessionId, userMessage);
+            
+            // Independent lookups run concurrently
+            var turnFuture = memoryService.getTurnContext(sessionId, summarizer.recentMessages());
+            var sessionFuture = turnFuture
+                .thenApply(turn -> turn.session().orElseGet(() -> {
+                    log.info("Creating new session: {}", sessionId);
+                    metrics.incrementActiveSessions();
+                    return ChatSession.create(sessionId);
+                }));
+            var locationFuture = contextEnrichment.extractLocation(userMessage);
+            
+            // Update context with the extracted location, if any
+            pipeline = sessionFuture.thenCombine(locationFuture, (session, location) -> {
+                    if (location == null) {
+                        return session;
+                    }
+                    log.debug("Updated session context with location: {}", location);
+                    return session.withContext(session.context().withLocation(location));
+                })
+                .thenCompose(session -> contextEnrichment.enrichPrompt(userMessage, session.context())
+                    .thenCombine(turnFuture, (enrichedPrompt, turn) ->
+                        buildConversationContext(turn.summary(), turn.recentMessages()) + enrichedPrompt)
+                    .thenCompose(prompt -> {
+                        log.debug("Enriched prompt: {} chars", prompt.length());
+                        return CompletableFuture.supplyAsync(() -> callModel(prompt), llmExecutor);
+                    })
+                    .thenCombine(turnFuture, (reply, turn) -> {
+                        persistTurn(session, userMsg, Message.assistant(sessionId, reply.text()));
+                        
+                        // Build AI response with metadata
+                        var metadata = new java.util.HashMap<String, Object>();
+                        metadata.put("latencyMs", reply.latencyMs());
+                        metadata.put("messageCount", turn.recentMessages().size() + 2);
+                        metadata.put("sessionId", sessionId);
+                        
+                        log.info("Chat response generated in {}ms for session: {}", reply.latencyMs(), sessionId);
+                        return AiResponse.of(reply.text(), metadata);
+                    }));
+        } catch (Exception e) {
+            pipeline = CompletableFuture.failedFuture(e);
+        }
+        
+        return pipeline.handle((response, error) -> {
+            metrics.recordRequestFinished(Duration.ofNanos(System.nanoTime() - requestStart));
+            if (error != null) {
+                var cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+                log.error("Error processing chat message for session: {}", sessionId, cause);
                 metrics.recordFailure();
-                throw new ChatException("Failed to process chat message", e);
+                throw new ChatException("Failed to process chat message", cause);
             }
+            metrics.recordSuccess();
+            return response;
         });
     }
     
+    /**
+     * Call the LLM and record its latency
+     */
+    private ModelReply callModel(String enrichedPrompt) {
+        var startTime = Instant.now();
+        var chatResponse = chatModel.call(new Prompt(enrichedPrompt));
+        var response = chatResponse.getResult().getOutput().getText();
+        var latencyMs = Instant.now().toEpochMilli() - startTime.toEpochMilli();
+        metrics.recordResponseTime(latencyMs);
+        return new ModelReply(response, latencyMs);
+    }
+    
+    /**
+     * Persist the user message, the reply and the session activity without blocking the caller,
+     * then compact the history
+     */
+    private void persistTurn(ChatSession session, Message userMsg, Message assistantMsg) {
+        memoryService.saveMessage(userMsg)
+            .thenCompose(saved -> memoryService.saveMessage(assistantMsg))
+            .thenCombine(memoryService.saveSession(session.touch()), (message, saved) -> saved)
+            .thenCompose(saved -> summarizer.compact(session.sessionId()))
+            .whenComplete((saved, error) -> {
+                if (error != null) {
+                    log.warn("Failed to persist chat turn for session: {}", session.sessionId(), error);
+                }
+            });
+    }
+    
     /**
      * Get chat session
      */
@@ -150,26 +197,22 @@ public class ChatHandler {
     }
     
     /**
-     * Build conversation context from message history
+     * Build conversation context from the rolling summary and recent message history
      */
-    private String buildConversationContext(java.util.List<Message> history) {
-        if (history.isEmpty()) {
-            return "";
-        }
-        
+    private String buildConversationContext(Optional<String> summary, List<Message> history) {
         var context = new StringBuilder();
-        context.append("Previous conversation:\n");
-        
-        for (var msg : history) {
-            var role = switch (msg.type()) {
-                case USER -> "User";
-                case ASSISTANT -> "Assistant";
-                case SYSTEM -> "System";
-                case FUNCTION -> "Function";
-            };
-            context.append(role).append(": ").append(msg.content()).append("\n");
+        summary.ifPresent(text -> context.append("Summary of earlier conversation:\n").append(text).append("\n\n"));
+        if (!history.isEmpty()) {
+            context.append("Previous conversation:\n")
+                .append(ConversationSummarizer.transcript(history))
+                .append("\n");
         }
-        
         return context.toString();
     }
+    
+    /**
+     * LLM reply with its latency
+     */
+    private record ModelReply(String text, long latencyMs) {
+    }
 }
@@ -0,0 +1,42 @@
+package com.openmeteo.mcp.chat.service;
+
+import com.openmeteo.mcp.chat.model.ChatSession;
+import com.openmeteo.mcp.chat.model.Message;
+
+/**
+ * Encodes chat sessions and messages for the Redis conversation stores.
+ * Implementations must keep reading every format they have ever written.
+ *
+ * @since 2.0.0
+ */
+public interface ConversationCodec {
+
+    /**
+     * Encode a session
+     *
+     * @throws IllegalArgumentException if the session cannot be encoded
+     */
+    byte[] encode(ChatSession session);
+
+    /**
+     * Encode a message. The message id must appear verbatim in the result, so
+     * Redis scripts can recognise stored messages without decoding them.
+     *
+     * @throws IllegalArgumentException if the message cannot be encoded
+     */
+    byte[] encode(Message message);
+
+    /**
+     * Decode a session
+     *
+     * @throws IllegalArgumentException if the data is not a readable session
+     */
+    ChatSession decodeSession(byte[] data);
+
+    /**
+     * Decode a message
+     *
+     * @throws IllegalArgumentException if the data is not a readable message
+     */
+    Message decodeMessage(byte[] data);
+}
@@ -45,6 +45,40 @@ public interface ConversationMemoryService {
      */
     CompletableFuture<List<Message>> getRecentMessages(String sessionId, int limit);
     
+    /**
+     * Get a session together with its rolling summary and recent messages, as needed
+     * for a chat turn. Remote stores should override this to fetch all in a single round trip.
+     */
+    default CompletableFuture<TurnContext> getTurnContext(String sessionId, int limit) {
+        var session = getSession(sessionId);
+        var summary = getSummary(sessionId);
+        var recentMessages = getRecentMessages(sessionId, limit);
+        return CompletableFuture.allOf(session, summary, recentMessages)
+            .thenApply(done -> new TurnContext(session.join(), summary.join(), recentMessages.join()));
+    }
+    
+    /**
+     * Get the messages before the most recent {@code keep}, oldest first
+     */
+    CompletableFuture<List<Message>> getOlderMessages(String sessionId, int keep);
+    
+    /**
+     * Remove the given messages from the start of the history and replace the rolling
+     * summary with one that covers them, in one step, provided they are still its oldest
+     * ones. Returns false if the history changed; neither is modified then.
+     */
+    CompletableFuture<Boolean> trimMessages(String sessionId, List<Message> oldest, String summary);
+    
+    /**
+     * Get the rolling summary of messages trimmed from the history
+     */
+    CompletableFuture<Optional<String>> getSummary(String sessionId);
+    
+    /**
+     * Replace the rolling summary of a session
+     */
+    CompletableFuture<Void> saveSummary(String sessionId, String summary);
+    
     /**
      * Delete all messages for a session
      */
@@ -54,4 +88,10 @@ public interface ConversationMemoryService {
      * Clean up expired sessions
      */
     CompletableFuture<Integer> cleanupExpiredSessions(long ttlMinutes);
+    
+    /**
+     * Session (if it exists), its rolling summary (if any) and its recent messages
+     */
+    record TurnContext(Optional<ChatSession> session, Optional<String> summary, List<Message> recentMessages) {
+    }
 }
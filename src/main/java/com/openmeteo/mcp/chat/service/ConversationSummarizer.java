@@ -0,0 +1,179 @@
+package com.openmeteo.mcp.chat.service;
+
+import com.openmeteo.mcp.chat.model.Message;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps conversation history bounded by folding older turns into a rolling summary.
+ * <p>
+ * The last {@code recent-turns} turns are kept verbatim. Once
+ * {@code summarize-batch-turns} more have accumulated, the older messages and the
+ * previous summary are condensed by the ChatModel into a new summary, which
+ * replaces the old one in the same step that trims the summarized messages from
+ * the store (one script with LTRIM in Redis).
+ * Prompt size, stored history and per-turn deserialization cost therefore stay
+ * bounded however long a session runs.
+ * </p>
+ * <p>
+ * Compaction runs off the request path, one at a time per session on this
+ * instance. The store only trims messages that are still the oldest ones, so a
+ * concurrent compaction on another instance can never drop unsummarized messages;
+ * the summary of a compaction that lost that race is discarded, so no turn is
+ * both summarized and kept.
+ * </p>
+ *
+ * @since 2.0.0
+ */
+@Service
+@ConditionalOnProperty(name = "openmeteo.chat.enabled", havingValue = "true")
+public class ConversationSummarizer {
+
+    private static final Logger log = LoggerFactory.getLogger(ConversationSummarizer.class);
+
+    private final ChatModel chatModel;
+    private final ConversationMemoryService memoryService;
+    private final Executor llmExecutor;
+    private final boolean enabled;
+    private final int recentMessages;
+    private final int batchMessages;
+    private final int summaryMaxWords;
+    private final Set<String> compacting = ConcurrentHashMap.newKeySet();
+
+    private final Counter successfulCompactions;
+    private final Counter failedCompactions;
+
+    public ConversationSummarizer(
+        ChatModel chatModel,
+        ConversationMemoryService memoryService,
+        MeterRegistry meterRegistry,
+        @Value("${openmeteo.chat.memory.history.enabled:true}") boolean enabled,
+        @Value("${openmeteo.chat.memory.history.recent-turns:10}") int recentTurns,
+        @Value("${openmeteo.chat.memory.history.summarize-batch-turns:5}") int batchTurns,
+        @Value("${openmeteo.chat.memory.history.summary-max-words:200}") int summaryMaxWords
+    ) {
+        this(chatModel, memoryService, meterRegistry, enabled, recentTurns, batchTurns, summaryMaxWords,
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("chat-summary-", 0).factory()));
+    }
+
+    ConversationSummarizer(
+        ChatModel chatModel,
+        ConversationMemoryService memoryService,
+        MeterRegistry meterRegistry,
+        boolean enabled,
+        int recentTurns,
+        int batchTurns,
+        int summaryMaxWords,
+        Executor llmExecutor
+    ) {
+        this.chatModel = chatModel;
+        this.memoryService = memoryService;
+        this.llmExecutor = llmExecutor;
+        this.enabled = enabled;
+        // A turn is a user message and the reply
+        this.recentMessages = Math.max(1, recentTurns) * 2;
+        this.batchMessages = Math.max(1, batchTurns) * 2;
+        this.summaryMaxWords = summaryMaxWords;
+
+        this.successfulCompactions = Counter.builder("chat.history.compactions")
+            .description("Older turns folded into the rolling summary")
+            .tag("result", "success")
+            .register(meterRegistry);
+        this.failedCompactions = Counter.builder("chat.history.compactions")
+            .description("Older turns folded into the rolling summary")
+            .tag("result", "error")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Number of most recent messages kept verbatim and sent with each prompt
+     */
+    public int recentMessages() {
+        return recentMessages;
+    }
+
+    /**
+     * Fold the turns before the recent ones into the rolling summary, if enough have accumulated.
+     *
+     * @param sessionId Session identifier
+     * @return Whether messages were summarized and trimmed; never completes exceptionally
+     */
+    public CompletableFuture<Boolean> compact(String sessionId) {
+        if (!enabled || !compacting.add(sessionId)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return memoryService.getOlderMessages(sessionId, recentMessages)
+            .thenCompose(older -> {
+                if (older.size() < batchMessages) {
+                    return CompletableFuture.completedFuture(false);
+                }
+                return memoryService.getSummary(sessionId)
+                    .thenApplyAsync(summary -> summarize(summary.orElse(null), older), llmExecutor)
+                    .thenCompose(summary -> memoryService.trimMessages(sessionId, older, summary))
+                    .thenApply(trimmed -> {
+                        if (trimmed) {
+                            successfulCompactions.increment();
+                            log.debug("Folded {} messages into the summary of session: {}", older.size(), sessionId);
+                        } else {
+                            log.debug("History of session {} changed during compaction, summary discarded", sessionId);
+                        }
+                        return trimmed;
+                    });
+            })
+            .handle((trimmed, error) -> {
+                compacting.remove(sessionId);
+                if (error != null) {
+                    failedCompactions.increment();
+                    log.warn("Failed to compact history of session: {}", sessionId, error);
+                    return false;
+                }
+                return trimmed;
+            });
+    }
+
+    /**
+     * Condense the previous summary and older messages into a new summary
+     */
+    private String summarize(String previousSummary, List<Message> older) {
+        var prompt = new StringBuilder()
+            .append("Summarize this weather assistant conversation in at most ").append(summaryMaxWords)
+            .append(" words, as context for later turns. Keep locations, dates, units, preferences ")
+            .append("and open questions.\n\n");
+        if (previousSummary != null) {
+            prompt.append("Summary so far:\n").append(previousSummary).append("\n\n");
+        }
+        prompt.append("Conversation to add:\n").append(transcript(older));
+        return chatModel.call(new Prompt(prompt.toString())).getResult().getOutput().getText();
+    }
+
+    /**
+     * Render messages as a role-prefixed transcript
+     */
+    static String transcript(List<Message> messages) {
+        var transcript = new StringBuilder();
+        for (var msg : messages) {
+            var role = switch (msg.type()) {
+                case USER -> "User";
+                case ASSISTANT -> "Assistant";
+                case SYSTEM -> "System";
+                case FUNCTION -> "Function";
+            };
+            transcript.append(role).append(": ").append(msg.content()).append("\n");
+        }
+        return transcript.toString();
+    }
+}
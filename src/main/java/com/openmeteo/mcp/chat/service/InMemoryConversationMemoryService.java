@@ -2,107 +2,422 @@ package com.openmeteo.mcp.chat.service;
 
 import com.openmeteo.mcp.chat.model.ChatSession;
 import com.openmeteo.mcp.chat.model.Message;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * In-memory implementation of ConversationMemoryService.
- * Used for development and testing. Not suitable for production with multiple instances.
- * 
+ * Not shared between instances; use Redis when running more than one.
+ * <p>
+ * Each session keeps its last {@code max-messages-per-session} messages in a
+ * lock-free ring buffer, so concurrent appends and reads never block and older
+ * messages are overwritten instead of growing the history. When the estimated
+ * size of all sessions exceeds {@code memory-budget-mb}, the least recently
+ * used sessions are evicted. Sessions idle for {@code session-ttl-minutes} are
+ * removed by a sweep every {@code sweep-interval-seconds}.
+ * </p>
+ *
  * @since 2.0.0
  */
 @Service
 @ConditionalOnProperty(name = "openmeteo.chat.memory.type", havingValue = "inmemory", matchIfMissing = true)
 public class InMemoryConversationMemoryService implements ConversationMemoryService {
-    
+
     private static final Logger log = LoggerFactory.getLogger(InMemoryConversationMemoryService.class);
-    
-    private final Map<String, ChatSession> sessions = new ConcurrentHashMap<>();
-    private final Map<String, List<Message>> messages = new ConcurrentHashMap<>();
-    
+    private static final int MESSAGE_OVERHEAD_BYTES = 256;
+    private static final int METADATA_ENTRY_BYTES = 64;
+
+    private final Map<String, Conversation> conversations = new ConcurrentHashMap<>();
+    private final int maxMessagesPerSession;
+    private final long memoryBudgetBytes;
+    private final Duration sessionTtl;
+    private final Clock clock;
+    private final AtomicLong estimatedBytes = new AtomicLong();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private Disposable sweeper;
+
+    private final Counter expiredEvictions;
+    private final Counter budgetEvictions;
+
+    public InMemoryConversationMemoryService(
+        MeterRegistry meterRegistry,
+        @Value("${openmeteo.chat.memory.max-messages-per-session:50}") int maxMessagesPerSession,
+        @Value("${openmeteo.chat.memory.memory-budget-mb:64}") long memoryBudgetMb,
+        @Value("${openmeteo.chat.memory.session-ttl-minutes:60}") long sessionTtlMinutes,
+        @Value("${openmeteo.chat.memory.sweep-interval-seconds:60}") long sweepIntervalSeconds
+    ) {
+        this(meterRegistry, maxMessagesPerSession, memoryBudgetMb * 1024 * 1024,
+            Duration.ofMinutes(sessionTtlMinutes), Clock.systemUTC());
+        var interval = Duration.ofSeconds(Math.max(1, sweepIntervalSeconds));
+        this.sweeper = Flux.interval(interval, interval).subscribe(tick -> sweep());
+    }
+
+    InMemoryConversationMemoryService(
+        MeterRegistry meterRegistry,
+        int maxMessagesPerSession,
+        long memoryBudgetBytes,
+        Duration sessionTtl,
+        Clock clock
+    ) {
+        this.maxMessagesPerSession = Math.max(1, maxMessagesPerSession);
+        this.memoryBudgetBytes = Math.max(0, memoryBudgetBytes);
+        this.sessionTtl = sessionTtl;
+        this.clock = clock;
+
+        this.expiredEvictions = Counter.builder("chat.memory.evictions")
+            .description("In-memory sessions dropped")
+            .tag("reason", "expired")
+            .register(meterRegistry);
+        this.budgetEvictions = Counter.builder("chat.memory.evictions")
+            .description("In-memory sessions dropped")
+            .tag("reason", "budget")
+            .register(meterRegistry);
+        Gauge.builder("chat.memory.bytes", estimatedBytes, AtomicLong::get)
+            .description("Estimated size of all in-memory sessions")
+            .register(meterRegistry);
+    }
+
     @Override
     public CompletableFuture<ChatSession> saveSession(ChatSession session) {
         log.debug("Saving session: {}", session.sessionId());
-        sessions.put(session.sessionId(), session);
+        conversation(session.sessionId()).session = session;
         return CompletableFuture.completedFuture(session);
     }
-    
+
     @Override
     public CompletableFuture<Optional<ChatSession>> getSession(String sessionId) {
         log.debug("Getting session: {}", sessionId);
-        return CompletableFuture.completedFuture(Optional.ofNullable(sessions.get(sessionId)));
+        return CompletableFuture.completedFuture(find(sessionId).map(conversation -> conversation.session));
     }
-    
+
     @Override
     public CompletableFuture<Void> deleteSession(String sessionId) {
         log.debug("Deleting session: {}", sessionId);
-        sessions.remove(sessionId);
-        messages.remove(sessionId);
+        var removed = conversations.remove(sessionId);
+        if (removed != null) {
+            estimatedBytes.addAndGet(-removed.bytes.get());
+        }
         return CompletableFuture.completedFuture(null);
     }
-    
+
     @Override
     public CompletableFuture<Message> saveMessage(Message message) {
         log.debug("Saving message for session: {}", message.sessionId());
-        messages.computeIfAbsent(message.sessionId(), k -> new ArrayList<>()).add(message);
+        conversation(message.sessionId()).append(message);
+        enforceBudget();
         return CompletableFuture.completedFuture(message);
     }
-    
+
     @Override
     public CompletableFuture<List<Message>> getMessages(String sessionId) {
         log.debug("Getting all messages for session: {}", sessionId);
         return CompletableFuture.completedFuture(
-            new ArrayList<>(messages.getOrDefault(sessionId, List.of()))
+            find(sessionId).map(Conversation::all).orElseGet(List::of)
         );
     }
-    
+
     @Override
     public CompletableFuture<List<Message>> getRecentMessages(String sessionId, int limit) {
         log.debug("Getting {} recent messages for session: {}", limit, sessionId);
-        var allMessages = messages.getOrDefault(sessionId, List.of());
-        var startIndex = Math.max(0, allMessages.size() - limit);
         return CompletableFuture.completedFuture(
-            new ArrayList<>(allMessages.subList(startIndex, allMessages.size()))
+            find(sessionId).map(conversation -> conversation.recent(limit)).orElseGet(List::of)
         );
     }
-    
+
+    @Override
+    public CompletableFuture<List<Message>> getOlderMessages(String sessionId, int keep) {
+        log.debug("Getting messages before the last {} for session: {}", keep, sessionId);
+        return CompletableFuture.completedFuture(
+            find(sessionId).map(conversation -> conversation.older(keep)).orElseGet(List::of)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Boolean> trimMessages(String sessionId, List<Message> oldest, String summary) {
+        log.debug("Trimming {} messages for session: {}", oldest.size(), sessionId);
+        var trimmed = find(sessionId).filter(conversation -> conversation.trim(oldest)).map(conversation -> {
+            conversation.saveSummary(summary);
+            return true;
+        }).orElse(false);
+        if (trimmed) {
+            enforceBudget();
+        }
+        return CompletableFuture.completedFuture(trimmed);
+    }
+
+    @Override
+    public CompletableFuture<Optional<String>> getSummary(String sessionId) {
+        return CompletableFuture.completedFuture(find(sessionId).map(conversation -> conversation.summary));
+    }
+
+    @Override
+    public CompletableFuture<Void> saveSummary(String sessionId, String summary) {
+        log.debug("Saving summary for session: {}", sessionId);
+        conversation(sessionId).saveSummary(summary);
+        enforceBudget();
+        return CompletableFuture.completedFuture(null);
+    }
+
     @Override
     public CompletableFuture<Void> deleteMessages(String sessionId) {
         log.debug("Deleting all messages for session: {}", sessionId);
-        messages.remove(sessionId);
+        find(sessionId).ifPresent(Conversation::clear);
         return CompletableFuture.completedFuture(null);
     }
-    
+
+    /**
+     * Removes sessions that have not been read or written for {@code ttlMinutes}.
+     */
     @Override
     public CompletableFuture<Integer> cleanupExpiredSessions(long ttlMinutes) {
         log.debug("Cleaning up expired sessions (TTL: {} minutes)", ttlMinutes);
-        var expiredSessions = sessions.values().stream()
-            .filter(session -> session.isExpired(ttlMinutes))
-            .map(ChatSession::sessionId)
-            .toList();
-        
-        expiredSessions.forEach(sessionId -> {
-            sessions.remove(sessionId);
-            messages.remove(sessionId);
-        });
-        
-        log.info("Cleaned up {} expired sessions", expiredSessions.size());
-        return CompletableFuture.completedFuture(expiredSessions.size());
-    }
-    
+        var expired = expire(Duration.ofMinutes(ttlMinutes));
+        log.info("Cleaned up {} expired sessions", expired);
+        return CompletableFuture.completedFuture(expired);
+    }
+
+    /**
+     * Periodic expiry of idle sessions. Also recounts the size estimate, which may
+     * drift when a session is removed while a message is appended to it.
+     */
+    void sweep() {
+        try {
+            var expired = expire(sessionTtl);
+            if (expired > 0) {
+                log.debug("Expired {} idle sessions", expired);
+            }
+            estimatedBytes.set(conversations.values().stream().mapToLong(conversation -> conversation.bytes.get()).sum());
+            enforceBudget();
+        } catch (RuntimeException e) {
+            log.warn("Session sweep failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sweeper != null) {
+            sweeper.dispose();
+        }
+    }
+
     /**
      * Get statistics for monitoring
      */
     public Map<String, Object> getStats() {
         return Map.of(
-            "totalSessions", sessions.size(),
-            "totalMessages", messages.values().stream().mapToInt(List::size).sum()
+            "totalSessions", conversations.values().stream().filter(conversation -> conversation.session != null).count(),
+            "totalMessages", conversations.values().stream().mapToInt(conversation -> conversation.all().size()).sum(),
+            "estimatedBytes", estimatedBytes.get()
         );
     }
+
+    private Optional<Conversation> find(String sessionId) {
+        var conversation = conversations.get(sessionId);
+        if (conversation != null) {
+            conversation.lastAccessMillis = clock.millis();
+        }
+        return Optional.ofNullable(conversation);
+    }
+
+    private Conversation conversation(String sessionId) {
+        var conversation = conversations.computeIfAbsent(sessionId, id -> new Conversation());
+        conversation.lastAccessMillis = clock.millis();
+        return conversation;
+    }
+
+    private int expire(Duration ttl) {
+        var now = clock.millis();
+        var expired = 0;
+        for (var entry : conversations.entrySet()) {
+            var conversation = entry.getValue();
+            if (now - conversation.lastAccessMillis >= ttl.toMillis()
+                    && conversations.remove(entry.getKey(), conversation)) {
+                estimatedBytes.addAndGet(-conversation.bytes.get());
+                expiredEvictions.increment();
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Evicts least recently used sessions until the memory budget is met
+     */
+    private void enforceBudget() {
+        if (estimatedBytes.get() <= memoryBudgetBytes || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            record Candidate(String sessionId, Conversation conversation, long lastAccessMillis) {
+            }
+            var candidates = new ArrayList<Candidate>();
+            var total = 0L;
+            for (var entry : conversations.entrySet()) {
+                var conversation = entry.getValue();
+                candidates.add(new Candidate(entry.getKey(), conversation, conversation.lastAccessMillis));
+                total += conversation.bytes.get();
+            }
+            candidates.sort(Comparator.comparingLong(Candidate::lastAccessMillis));
+            for (var candidate : candidates) {
+                if (total <= memoryBudgetBytes) {
+                    break;
+                }
+                if (conversations.remove(candidate.sessionId(), candidate.conversation())) {
+                    total -= candidate.conversation().bytes.get();
+                    budgetEvictions.increment();
+                    log.debug("Evicted session {} over memory budget", candidate.sessionId());
+                }
+            }
+            estimatedBytes.set(total);
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * Estimated in-memory size of a message
+     */
+    private static int estimateBytes(Message message) {
+        return MESSAGE_OVERHEAD_BYTES + 2 * message.content().length()
+            + METADATA_ENTRY_BYTES * message.metadata().size();
+    }
+
+    private record Slot(long position, Message message, int bytes) {
+    }
+
+    /**
+     * Session, summary and message ring of one conversation.
+     * <p>
+     * Messages get increasing positions from {@code tail} and are stored at
+     * {@code position % capacity}. Each slot records its position, so readers
+     * skip slots that have been overwritten or are still being written, and an
+     * older append never replaces a newer one. Trimming moves {@code head}.
+     * </p>
+     */
+    private final class Conversation {
+        private final AtomicReferenceArray<Slot> slots = new AtomicReferenceArray<>(maxMessagesPerSession);
+        private final AtomicLong tail = new AtomicLong();
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private volatile ChatSession session;
+        private volatile String summary;
+        private volatile long lastAccessMillis;
+
+        void append(Message message) {
+            var position = tail.getAndIncrement();
+            var slot = new Slot(position, message, estimateBytes(message));
+            var replaced = slots.getAndUpdate(index(position),
+                current -> current == null || current.position() < position ? slot : current);
+            if (replaced == null) {
+                resize(slot.bytes());
+            } else if (replaced.position() < position) {
+                resize(slot.bytes() - replaced.bytes());
+            }
+        }
+
+        List<Message> all() {
+            var end = tail.get();
+            return range(first(end), end);
+        }
+
+        List<Message> recent(int limit) {
+            var end = tail.get();
+            return range(Math.max(first(end), end - limit), end);
+        }
+
+        List<Message> older(int keep) {
+            var end = tail.get();
+            return range(first(end), end - keep);
+        }
+
+        /**
+         * Drops the oldest messages if the last of them is still in place
+         */
+        boolean trim(List<Message> oldest) {
+            if (oldest.isEmpty()) {
+                return false;
+            }
+            while (true) {
+                var start = head.get();
+                var first = Math.max(start, tail.get() - maxMessagesPerSession);
+                var last = first + oldest.size() - 1;
+                var slot = slots.get(index(last));
+                if (slot == null || slot.position() != last || !slot.message().id().equals(oldest.getLast().id())) {
+                    return false;
+                }
+                if (head.compareAndSet(start, last + 1)) {
+                    release(first, last + 1);
+                    return true;
+                }
+            }
+        }
+
+        void clear() {
+            var end = tail.get();
+            var start = first(end);
+            head.accumulateAndGet(end, Math::max);
+            release(start, end);
+        }
+
+        void saveSummary(String updated) {
+            var previous = summary;
+            summary = updated;
+            resize(2L * updated.length() - (previous == null ? 0 : 2L * previous.length()));
+        }
+
+        private long first(long end) {
+            return Math.max(head.get(), end - maxMessagesPerSession);
+        }
+
+        private List<Message> range(long from, long to) {
+            var messages = new ArrayList<Message>((int) Math.max(0, to - from));
+            for (var position = from; position < to; position++) {
+                var slot = slots.get(index(position));
+                if (slot != null && slot.position() == position) {
+                    messages.add(slot.message());
+                }
+            }
+            return messages;
+        }
+
+        /**
+         * Frees the slots of positions [from, to) unless they have been reused
+         */
+        private void release(long from, long to) {
+            for (var position = Math.max(from, to - maxMessagesPerSession); position < to; position++) {
+                var index = index(position);
+                var slot = slots.get(index);
+                if (slot != null && slot.position() == position && slots.compareAndSet(index, slot, null)) {
+                    resize(-slot.bytes());
+                }
+            }
+        }
+
+        private int index(long position) {
+            return (int) (position % maxMessagesPerSession);
+        }
+
+        private void resize(long delta) {
+            bytes.addAndGet(delta);
+            estimatedBytes.addAndGet(delta);
+        }
+    }
 }
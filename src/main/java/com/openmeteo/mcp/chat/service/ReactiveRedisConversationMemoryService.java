@@ -0,0 +1,291 @@
+package com.openmeteo.mcp.chat.service;
+
+import com.openmeteo.mcp.chat.model.ChatSession;
+import com.openmeteo.mcp.chat.model.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Reactive Redis-backed implementation of ConversationMemoryService.
+ * <p>
+ * Uses the non-blocking Lettuce connection behind {@link ReactiveRedisTemplate}
+ * instead of blocking calls on the common pool. Every operation is a single round
+ * trip: multi-step updates run as Lua scripts, which Redis executes atomically, and
+ * {@link #getTurnContext} reads the session, its summary and its recent messages in
+ * one script.
+ * Keys and values are compatible with {@link RedisConversationMemoryService}; both
+ * store sessions and messages in the format of the {@link ConversationCodec}.
+ * </p>
+ *
+ * @since 2.0.0
+ */
+@Service
+@ConditionalOnProperty(name = "openmeteo.chat.memory.type", havingValue = "redis-reactive")
+public class ReactiveRedisConversationMemoryService implements ConversationMemoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveRedisConversationMemoryService.class);
+    private static final String SESSION_KEY_PREFIX = "chat:session:";
+    private static final String MESSAGES_KEY_PREFIX = "chat:messages:";
+    private static final String SUMMARY_KEY_PREFIX = "chat:summary:";
+    private static final Duration TTL = Duration.ofHours(24);
+    private static final byte[] EMPTY = new byte[0];
+
+    /**
+     * Appends a message and refreshes the TTL of the list and the summary: KEYS[1] messages,
+     * KEYS[2] summary, ARGV[1] message, ARGV[2] TTL in ms.
+     */
+    static final RedisScript<Long> APPEND_MESSAGE = RedisScript.of("""
+        local size = redis.call('RPUSH', KEYS[1], ARGV[1])
+        redis.call('PEXPIRE', KEYS[1], ARGV[2])
+        redis.call('PEXPIRE', KEYS[2], ARGV[2])
+        return size
+        """, Long.class);
+
+    /**
+     * Reads a session, its summary and its last messages: KEYS[1] session, KEYS[2] messages,
+     * KEYS[3] summary, ARGV[1] limit. The session and the summary ('' if absent) come first,
+     * followed by the messages.
+     */
+    @SuppressWarnings("rawtypes")
+    static final RedisScript<List> READ_TURN = RedisScript.of("""
+        local result = redis.call('LRANGE', KEYS[2], -tonumber(ARGV[1]), -1)
+        table.insert(result, 1, redis.call('GET', KEYS[3]) or '')
+        table.insert(result, 1, redis.call('GET', KEYS[1]) or '')
+        return result
+        """, List.class);
+
+    private final ReactiveRedisTemplate<String, byte[]> redisTemplate;
+    private final ConversationCodec codec;
+
+    public ReactiveRedisConversationMemoryService(
+        ReactiveRedisTemplate<String, byte[]> redisTemplate,
+        ConversationCodec codec
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.codec = codec;
+    }
+
+    @Override
+    public CompletableFuture<ChatSession> saveSession(ChatSession session) {
+        return Mono.fromCallable(() -> {
+                log.debug("Saving session to Redis: {}", session.sessionId());
+                return encode(() -> codec.encode(session), "session");
+            })
+            .flatMap(data -> redisTemplate.opsForValue().set(SESSION_KEY_PREFIX + session.sessionId(), data, TTL))
+            .thenReturn(session)
+            .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<Optional<ChatSession>> getSession(String sessionId) {
+        log.debug("Getting session from Redis: {}", sessionId);
+        return redisTemplate.opsForValue().get(SESSION_KEY_PREFIX + sessionId)
+            .map(this::readSession)
+            .defaultIfEmpty(Optional.empty())
+            .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteSession(String sessionId) {
+        log.debug("Deleting session from Redis: {}", sessionId);
+        return redisTemplate.delete(SESSION_KEY_PREFIX + sessionId, MESSAGES_KEY_PREFIX + sessionId,
+                SUMMARY_KEY_PREFIX + sessionId)
+            .then()
+            .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<Message> saveMessage(Message message) {
+        return Mono.fromCallable(() -> {
+                log.debug("Saving message to Redis for session: {}", message.sessionId());
+                return encode(() -> codec.encode(message), "message");
+            })
+            .flatMap(data -> redisTemplate.execute(APPEND_MESSAGE,
+                    List.of(MESSAGES_KEY_PREFIX + message.sessionId(), SUMMARY_KEY_PREFIX + message.sessionId()),
+                    List.of(data, utf8(Long.toString(TTL.toMillis()))))
+                .then())
+            .thenReturn(message)
+            .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<List<Message>> getMessages(String sessionId) {
+        log.debug("Getting all messages from Redis for session: {}", sessionId);
+        return range(sessionId, 0)
+            .onErrorResume(e -> {
+                log.error("Error getting messages", e);
+                return Mono.just(List.of());
+            })
+            .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<List<Message>> getRecentMessages(String sessionId, int limit) {
+        log.debug("Getting {} recent messages from Redis for session: {}", limit, sessionId);
+        if (limit <= 0) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        return range(sessionId, -limit)
+            .onErrorResume(e -> {
+                log.error("Error getting recent messages", e);
+                return Mono.just(List.of());
+            })
+            .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<TurnContext> getTurnContext(String sessionId, int limit) {
+        log.debug("Getting session, summary and {} recent messages from Redis: {}", limit, sessionId);
+        if (limit <= 0) {
+            return getSession(sessionId).thenCombine(getSummary(sessionId),
+                (session, summary) -> new TurnContext(session, summary, List.of()));
+        }
+        return redisTemplate.execute(READ_TURN,
+                List.of(SESSION_KEY_PREFIX + sessionId, MESSAGES_KEY_PREFIX + sessionId,
+                    SUMMARY_KEY_PREFIX + sessionId),
+                List.of(utf8(Integer.toString(limit))))
+            .collectList()
+            .map(reply -> {
+                var values = flatten(reply);
+                var sessionData = values.isEmpty() ? EMPTY : values.get(0);
+                var summary = values.size() > 1 ? values.get(1) : EMPTY;
+                var session = sessionData.length == 0 ? Optional.<ChatSession>empty() : readSession(sessionData);
+                var messages = values.size() > 2 ? readMessages(values.subList(2, values.size())) : List.<Message>of();
+                return new TurnContext(session,
+                    summary.length == 0 ? Optional.empty() : Optional.of(new String(summary, StandardCharsets.UTF_8)),
+                    messages);
+            })
+            .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<List<Message>> getOlderMessages(String sessionId, int keep) {
+        log.debug("Getting messages before the last {} from Redis for session: {}", keep, sessionId);
+        // A negative end index leaves out the most recent messages in the same command
+        return redisTemplate.opsForList().range(MESSAGES_KEY_PREFIX + sessionId, 0, -(keep + 1L))
+            .collectList()
+            .map(this::readMessages)
+            .onErrorResume(e -> {
+                log.error("Error getting older messages", e);
+                return Mono.just(List.of());
+            })
+            .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> trimMessages(String sessionId, List<Message> oldest, String summary) {
+        if (oldest.isEmpty()) {
+            return CompletableFuture.completedFuture(false);
+        }
+        log.debug("Trimming {} messages in Redis for session: {}", oldest.size(), sessionId);
+        return redisTemplate.execute(RedisConversationMemoryService.TRIM_OLDEST,
+                List.of(MESSAGES_KEY_PREFIX + sessionId, SUMMARY_KEY_PREFIX + sessionId),
+                List.of(utf8(String.valueOf(oldest.size())), utf8(oldest.getLast().id()), utf8(summary),
+                    utf8(Long.toString(TTL.toMillis()))))
+            .next()
+            .map(trimmed -> trimmed == 1L)
+            .defaultIfEmpty(false)
+            .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<Optional<String>> getSummary(String sessionId) {
+        log.debug("Getting summary from Redis for session: {}", sessionId);
+        return redisTemplate.opsForValue().get(SUMMARY_KEY_PREFIX + sessionId)
+            .map(data -> Optional.of(new String(data, StandardCharsets.UTF_8)))
+            .defaultIfEmpty(Optional.empty())
+            .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<Void> saveSummary(String sessionId, String summary) {
+        log.debug("Saving summary to Redis for session: {}", sessionId);
+        return redisTemplate.opsForValue().set(SUMMARY_KEY_PREFIX + sessionId, utf8(summary), TTL)
+            .then()
+            .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteMessages(String sessionId) {
+        log.debug("Deleting all messages from Redis for session: {}", sessionId);
+        return redisTemplate.delete(MESSAGES_KEY_PREFIX + sessionId)
+            .then()
+            .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<Integer> cleanupExpiredSessions(long ttlMinutes) {
+        log.info("Cleanup for Redis is handled by TTL expiration");
+        // Redis automatically handles expiration via TTL
+        return CompletableFuture.completedFuture(0);
+    }
+
+    private Mono<List<Message>> range(String sessionId, long start) {
+        return redisTemplate.opsForList().range(MESSAGES_KEY_PREFIX + sessionId, start, -1)
+            .collectList()
+            .map(this::readMessages);
+    }
+
+    private byte[] encode(Supplier<byte[]> encoder, String kind) {
+        try {
+            return encoder.get();
+        } catch (IllegalArgumentException e) {
+            log.error("Error serializing {}", kind, e);
+            throw new RuntimeException("Failed to save " + kind, e);
+        }
+    }
+
+    private Optional<ChatSession> readSession(byte[] data) {
+        try {
+            return Optional.of(codec.decodeSession(data));
+        } catch (IllegalArgumentException e) {
+            log.error("Error deserializing session", e);
+            return Optional.empty();
+        }
+    }
+
+    private List<Message> readMessages(List<byte[]> entries) {
+        return entries.stream()
+            .map(data -> {
+                try {
+                    return codec.decodeMessage(data);
+                } catch (IllegalArgumentException e) {
+                    log.error("Error deserializing message", e);
+                    return null;
+                }
+            })
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
+    /**
+     * Lettuce emits a multi-bulk script reply either as one list or element by element.
+     */
+    @SuppressWarnings("rawtypes")
+    static List<byte[]> flatten(List<List> reply) {
+        var values = new ArrayList<byte[]>();
+        for (Object element : reply) {
+            if (element instanceof List<?> nested) {
+                nested.forEach(value -> values.add(value instanceof byte[] data ? data : EMPTY));
+            } else {
+                values.add(element instanceof byte[] data ? data : EMPTY);
+            }
+        }
+        return values;
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
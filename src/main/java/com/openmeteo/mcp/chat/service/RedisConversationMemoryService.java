@@ -1,15 +1,15 @@
 package com.openmeteo.mcp.chat.service;
 
-import tools.jackson.core.JacksonException;
-import tools.jackson.databind.ObjectMapper;
 import com.openmeteo.mcp.chat.model.ChatSession;
 import com.openmeteo.mcp.chat.model.Message;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
@@ -17,6 +17,7 @@ import java.util.concurrent.CompletableFuture;
 /**
  * Redis-backed implementation of ConversationMemoryService.
  * Suitable for production with multiple instances and persistence.
+ * Sessions and messages are stored in the format of the {@link ConversationCodec}.
  * 
  * @since 2.0.0
  */
@@ -27,16 +28,33 @@ public class RedisConversationMemoryService implements ConversationMemoryService
     private static final Logger log = LoggerFactory.getLogger(RedisConversationMemoryService.class);
     private static final String SESSION_KEY_PREFIX = "chat:session:";
     private static final String MESSAGES_KEY_PREFIX = "chat:messages:";
+    private static final String SUMMARY_KEY_PREFIX = "chat:summary:";
     
-    private final RedisTemplate<String, String> redisTemplate;
-    private final ObjectMapper objectMapper;
+    /**
+     * Trims the oldest messages and replaces the summary if the last of them is still in place:
+     * KEYS[1] messages, KEYS[2] summary, ARGV[1] number of messages, ARGV[2] id of the last one,
+     * ARGV[3] summary, ARGV[4] summary TTL in ms.
+     * Encoded messages carry their id verbatim, so they are matched without decoding.
+     */
+    static final RedisScript<Long> TRIM_OLDEST = RedisScript.of("""
+        local last = redis.call('LINDEX', KEYS[1], tonumber(ARGV[1]) - 1)
+        if last and string.find(last, ARGV[2], 1, true) then
+            redis.call('LTRIM', KEYS[1], ARGV[1], -1)
+            redis.call('SET', KEYS[2], ARGV[3], 'PX', ARGV[4])
+            return 1
+        end
+        return 0
+        """, Long.class);
+    
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final ConversationCodec codec;
     
     public RedisConversationMemoryService(
-        RedisTemplate<String, String> redisTemplate,
-        ObjectMapper objectMapper
+        RedisTemplate<String, byte[]> redisTemplate,
+        ConversationCodec codec
     ) {
         this.redisTemplate = redisTemplate;
-        this.objectMapper = objectMapper;
+        this.codec = codec;
     }
     
     @Override
@@ -45,10 +63,9 @@ public class RedisConversationMemoryService implements ConversationMemoryService
             try {
                 log.debug("Saving session to Redis: {}", session.sessionId());
                 var key = SESSION_KEY_PREFIX + session.sessionId();
-                var json = objectMapper.writeValueAsString(session);
-                redisTemplate.opsForValue().set(key, json, Duration.ofHours(24));
+                redisTemplate.opsForValue().set(key, codec.encode(session), Duration.ofHours(24));
                 return session;
-            } catch (JacksonException e) {
+            } catch (IllegalArgumentException e) {
                 log.error("Error serializing session", e);
                 throw new RuntimeException("Failed to save session", e);
             }
@@ -61,13 +78,12 @@ public class RedisConversationMemoryService implements ConversationMemoryService
             try {
                 log.debug("Getting session from Redis: {}", sessionId);
                 var key = SESSION_KEY_PREFIX + sessionId;
-                var json = redisTemplate.opsForValue().get(key);
-                if (json == null) {
+                var data = redisTemplate.opsForValue().get(key);
+                if (data == null) {
                     return Optional.empty();
                 }
-                var session = objectMapper.readValue(json, ChatSession.class);
-                return Optional.of(session);
-            } catch (JacksonException e) {
+                return Optional.of(codec.decodeSession(data));
+            } catch (IllegalArgumentException e) {
                 log.error("Error deserializing session", e);
                 return Optional.empty();
             }
@@ -80,8 +96,10 @@ public class RedisConversationMemoryService implements ConversationMemoryService
             log.debug("Deleting session from Redis: {}", sessionId);
             var sessionKey = SESSION_KEY_PREFIX + sessionId;
             var messagesKey = MESSAGES_KEY_PREFIX + sessionId;
+            var summaryKey = SUMMARY_KEY_PREFIX + sessionId;
             redisTemplate.delete(sessionKey);
             redisTemplate.delete(messagesKey);
+            redisTemplate.delete(summaryKey);
         });
     }
     
@@ -91,12 +109,12 @@ public class RedisConversationMemoryService implements ConversationMemoryService
             try {
                 log.debug("Saving message to Redis for session: {}", message.sessionId());
                 var key = MESSAGES_KEY_PREFIX + message.sessionId();
-                var json = objectMapper.writeValueAsString(message);
-                redisTemplate.opsForList().rightPush(key, json);
-                // Set expiration on messages list
+                redisTemplate.opsForList().rightPush(key, codec.encode(message));
+                // Set expiration on messages list and keep the summary alive with it
                 redisTemplate.expire(key, Duration.ofHours(24));
+                redisTemplate.expire(SUMMARY_KEY_PREFIX + message.sessionId(), Duration.ofHours(24));
                 return message;
-            } catch (JacksonException e) {
+            } catch (IllegalArgumentException e) {
                 log.error("Error serializing message", e);
                 throw new RuntimeException("Failed to save message", e);
             }
@@ -109,21 +127,7 @@ public class RedisConversationMemoryService implements ConversationMemoryService
             try {
                 log.debug("Getting all messages from Redis for session: {}", sessionId);
                 var key = MESSAGES_KEY_PREFIX + sessionId;
-                var jsonList = redisTemplate.opsForList().range(key, 0, -1);
-                if (jsonList == null || jsonList.isEmpty()) {
-                    return List.of();
-                }
-                return jsonList.stream()
-                    .map(json -> {
-                        try {
-                            return objectMapper.readValue(json, Message.class);
-                        } catch (JacksonException e) {
-                            log.error("Error deserializing message", e);
-                            return null;
-                        }
-                    })
-                    .filter(Objects::nonNull)
-                    .toList();
+                return readMessages(redisTemplate.opsForList().range(key, 0, -1));
             } catch (Exception e) {
                 log.error("Error getting messages", e);
                 return List.of();
@@ -142,21 +146,7 @@ public class RedisConversationMemoryService implements ConversationMemoryService
                     return List.of();
                 }
                 var start = Math.max(0, size - limit);
-                var jsonList = redisTemplate.opsForList().range(key, start, -1);
-                if (jsonList == null || jsonList.isEmpty()) {
-                    return List.of();
-                }
-                return jsonList.stream()
-                    .map(json -> {
-                        try {
-                            return objectMapper.readValue(json, Message.class);
-                        } catch (JacksonException e) {
-                            log.error("Error deserializing message", e);
-                            return null;
-                        }
-                    })
-                    .filter(Objects::nonNull)
-                    .toList();
+                return readMessages(redisTemplate.opsForList().range(key, start, -1));
             } catch (Exception e) {
                 log.error("Error getting recent messages", e);
                 return List.of();
@@ -164,6 +154,53 @@ public class RedisConversationMemoryService implements ConversationMemoryService
         });
     }
     
+    @Override
+    public CompletableFuture<List<Message>> getOlderMessages(String sessionId, int keep) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                log.debug("Getting messages before the last {} from Redis for session: {}", keep, sessionId);
+                var key = MESSAGES_KEY_PREFIX + sessionId;
+                // A negative end index leaves out the most recent messages in the same command
+                return readMessages(redisTemplate.opsForList().range(key, 0, -(keep + 1L)));
+            } catch (Exception e) {
+                log.error("Error getting older messages", e);
+                return List.of();
+            }
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Boolean> trimMessages(String sessionId, List<Message> oldest, String summary) {
+        if (oldest.isEmpty()) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            log.debug("Trimming {} messages in Redis for session: {}", oldest.size(), sessionId);
+            var trimmed = redisTemplate.execute(TRIM_OLDEST,
+                List.of(MESSAGES_KEY_PREFIX + sessionId, SUMMARY_KEY_PREFIX + sessionId),
+                utf8(String.valueOf(oldest.size())), utf8(oldest.getLast().id()), utf8(summary),
+                utf8(String.valueOf(Duration.ofHours(24).toMillis())));
+            return trimmed != null && trimmed == 1L;
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Optional<String>> getSummary(String sessionId) {
+        return CompletableFuture.supplyAsync(() -> {
+            log.debug("Getting summary from Redis for session: {}", sessionId);
+            return Optional.ofNullable(redisTemplate.opsForValue().get(SUMMARY_KEY_PREFIX + sessionId))
+                .map(data -> new String(data, StandardCharsets.UTF_8));
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Void> saveSummary(String sessionId, String summary) {
+        return CompletableFuture.runAsync(() -> {
+            log.debug("Saving summary to Redis for session: {}", sessionId);
+            redisTemplate.opsForValue().set(SUMMARY_KEY_PREFIX + sessionId, utf8(summary), Duration.ofHours(24));
+        });
+    }
+    
     @Override
     public CompletableFuture<Void> deleteMessages(String sessionId) {
         return CompletableFuture.runAsync(() -> {
@@ -182,4 +219,25 @@ public class RedisConversationMemoryService implements ConversationMemoryService
             return 0;
         });
     }
+    
+    private List<Message> readMessages(List<byte[]> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return List.of();
+        }
+        return entries.stream()
+            .map(data -> {
+                try {
+                    return codec.decodeMessage(data);
+                } catch (IllegalArgumentException e) {
+                    log.error("Error deserializing message", e);
+                    return null;
+                }
+            })
+            .filter(Objects::nonNull)
+            .toList();
+    }
+    
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
 }
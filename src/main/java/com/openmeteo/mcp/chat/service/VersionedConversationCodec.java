@@ -0,0 +1,229 @@
+package com.openmeteo.mcp.chat.service;
+
+import com.openmeteo.mcp.chat.model.ChatSession;
+import com.openmeteo.mcp.chat.model.Message;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.MapperFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.cfg.EnumFeature;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Versioned binary codec for chat sessions and messages.
+ * <p>
+ * Entries start with a small header:
+ * </p>
+ * <pre>
+ * 0      marker 0x00 (version 0 entries are plain JSON and start with '{')
+ * 1      format version (1)
+ * 2      payload encoding: 0 = JSON, 1 = Smile
+ * 3      flags: bit 0 = payload is Deflate-compressed
+ * 4      id length n, followed by n bytes of message id (0 for sessions)
+ * 5 + n  payload
+ * </pre>
+ * <p>
+ * Smile (binary JSON) is smaller and faster to parse than JSON text.
+ * Payloads of at least {@code compression-threshold-bytes} are compressed
+ * when that makes them smaller. Version 0 entries, written before the codec
+ * existed, are still read. The Smile mapper copies the configuration of
+ * the application's JSON mapper.
+ * </p>
+ *
+ * @since 2.0.0
+ */
+@Component
+@ConditionalOnExpression("'${openmeteo.chat.memory.type:inmemory}'.startsWith('redis')")
+public class VersionedConversationCodec implements ConversationCodec {
+
+    static final byte MARKER = 0;
+    static final byte VERSION = 1;
+    static final byte FLAG_DEFLATE = 1;
+    private static final int HEADER_SIZE = 5;
+
+    /**
+     * Payload encoding
+     */
+    public enum Format {
+        JSON,
+        SMILE
+    }
+
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+    private final Format format;
+    private final int compressionThreshold;
+
+    public VersionedConversationCodec(
+        ObjectMapper objectMapper,
+        @Value("${openmeteo.chat.memory.codec.format:smile}") String format,
+        @Value("${openmeteo.chat.memory.codec.compression-threshold-bytes:512}") int compressionThreshold
+    ) {
+        this(objectMapper, Format.valueOf(format.trim().toUpperCase(Locale.ROOT)), compressionThreshold);
+    }
+
+    VersionedConversationCodec(ObjectMapper objectMapper, Format format, int compressionThreshold) {
+        this.jsonMapper = objectMapper;
+        this.smileMapper = smileMapper(objectMapper);
+        this.format = format;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] encode(ChatSession session) {
+        return encode(session, "");
+    }
+
+    @Override
+    public byte[] encode(Message message) {
+        return encode(message, message.id());
+    }
+
+    @Override
+    public ChatSession decodeSession(byte[] data) {
+        return decode(data, ChatSession.class);
+    }
+
+    @Override
+    public Message decodeMessage(byte[] data) {
+        return decode(data, Message.class);
+    }
+
+    private byte[] encode(Object value, String id) {
+        byte[] payload;
+        try {
+            payload = mapper(format).writeValueAsBytes(value);
+        } catch (JacksonException e) {
+            throw new IllegalArgumentException("Cannot encode " + value.getClass().getSimpleName(), e);
+        }
+        byte flags = 0;
+        if (compressionThreshold > 0 && payload.length >= compressionThreshold) {
+            var compressed = deflate(payload);
+            if (compressed.length < payload.length) {
+                payload = compressed;
+                flags |= FLAG_DEFLATE;
+            }
+        }
+
+        var idBytes = id.getBytes(StandardCharsets.UTF_8);
+        if (idBytes.length > 255) {
+            throw new IllegalArgumentException("Id too long: " + id);
+        }
+        var entry = new byte[HEADER_SIZE + idBytes.length + payload.length];
+        entry[0] = MARKER;
+        entry[1] = VERSION;
+        entry[2] = (byte) format.ordinal();
+        entry[3] = flags;
+        entry[4] = (byte) idBytes.length;
+        System.arraycopy(idBytes, 0, entry, HEADER_SIZE, idBytes.length);
+        System.arraycopy(payload, 0, entry, HEADER_SIZE + idBytes.length, payload.length);
+        return entry;
+    }
+
+    private <T> T decode(byte[] data, Class<T> type) {
+        try {
+            if (data.length > 0 && data[0] != MARKER) {
+                // Version 0: plain JSON
+                return jsonMapper.readValue(data, type);
+            }
+            if (data.length < HEADER_SIZE || data[1] != VERSION) {
+                throw new IllegalArgumentException("Unsupported " + type.getSimpleName() + " entry version");
+            }
+            if (data[2] < 0 || data[2] >= Format.values().length) {
+                throw new IllegalArgumentException("Unknown " + type.getSimpleName() + " encoding: " + data[2]);
+            }
+            var mapper = mapper(Format.values()[data[2]]);
+            int offset = HEADER_SIZE + (data[4] & 0xFF);
+            if ((data[3] & FLAG_DEFLATE) != 0) {
+                return mapper.readValue(inflate(data, offset), type);
+            }
+            return mapper.readValue(data, offset, data.length - offset, type);
+        } catch (JacksonException e) {
+            throw new IllegalArgumentException("Cannot decode " + type.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Builds a Smile mapper with the modules, features, naming and inclusion
+     * of the application's JSON mapper, so both payload encodings map values
+     * the same way.
+     */
+    static SmileMapper smileMapper(ObjectMapper jsonMapper) {
+        var config = jsonMapper.serializationConfig();
+        var builder = SmileMapper.builder()
+                .addModules(jsonMapper.registeredModules())
+                .propertyNamingStrategy(config.getPropertyNamingStrategy())
+                .changeDefaultPropertyInclusion(inclusion -> config.getDefaultPropertyInclusion())
+                .defaultTimeZone(config.getTimeZone())
+                .defaultLocale(config.getLocale());
+        for (var feature : MapperFeature.values()) {
+            builder.configure(feature, jsonMapper.isEnabled(feature));
+        }
+        for (var feature : SerializationFeature.values()) {
+            builder.configure(feature, jsonMapper.isEnabled(feature));
+        }
+        for (var feature : DeserializationFeature.values()) {
+            builder.configure(feature, jsonMapper.isEnabled(feature));
+        }
+        for (var feature : DateTimeFeature.values()) {
+            builder.configure(feature, jsonMapper.isEnabled(feature));
+        }
+        for (var feature : EnumFeature.values()) {
+            builder.configure(feature, jsonMapper.isEnabled(feature));
+        }
+        return builder.build();
+    }
+
+    private ObjectMapper mapper(Format format) {
+        return format == Format.SMILE ? smileMapper : jsonMapper;
+    }
+
+    private static byte[] deflate(byte[] data) {
+        var deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            var out = new ByteArrayOutputStream(data.length / 2);
+            var buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data, int offset) {
+        var inflater = new Inflater();
+        try {
+            inflater.setInput(data, offset, data.length - offset);
+            var out = new ByteArrayOutputStream((data.length - offset) * 3);
+            var buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Truncated compressed entry");
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt compressed entry", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
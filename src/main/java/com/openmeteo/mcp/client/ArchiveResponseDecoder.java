@@ -0,0 +1,323 @@
+package com.openmeteo.mcp.client;
+
+import com.openmeteo.mcp.exception.OpenMeteoException;
+import com.openmeteo.mcp.model.column.DoubleColumn;
+import com.openmeteo.mcp.model.column.IntColumn;
+import com.openmeteo.mcp.model.column.TimeAxis;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.ObjectReadContext;
+import tools.jackson.core.async.ByteArrayFeeder;
+import tools.jackson.core.json.JsonFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Incremental decoder for Open-Meteo archive responses.
+ * <p>
+ * The body is fed to a non-blocking Jackson parser buffer by buffer as it
+ * arrives, so there is no in-memory codec limit and the raw JSON is never
+ * held in full. Arrays inside the {@code daily} and {@code hourly} objects
+ * go straight into primitive columns ({@link TimeAxis} for time strings,
+ * {@link IntColumn} for weather codes, {@link DoubleColumn} otherwise);
+ * every other value is decoded into plain maps and lists.
+ * </p>
+ * <p>
+ * Each numeric column value is also handed to a {@link ValueListener} as it
+ * is decoded, so callers can aggregate in the same pass.
+ * </p>
+ */
+public final class ArchiveResponseDecoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final Set<String> COLUMNAR_OBJECTS = Set.of("daily", "hourly");
+    private static final Set<String> INT_COLUMNS = Set.of("weathercode", "weather_code");
+
+    /**
+     * Receives numeric column values while the response is decoded.
+     */
+    @FunctionalInterface
+    public interface ValueListener {
+
+        /**
+         * Called for every non-null number in a column.
+         *
+         * @param column Column (variable) name
+         * @param value  Value
+         */
+        void onValue(String column, double value);
+    }
+
+    private ArchiveResponseDecoder() {
+    }
+
+    /**
+     * Decodes an archive response body.
+     *
+     * @param body     Response body buffers; each is released once fed
+     * @param listener Listener for numeric column values
+     * @return Mono of the decoded response, with primitive-backed column lists
+     */
+    public static Mono<Map<String, Object>> decode(Flux<DataBuffer> body, ValueListener listener) {
+        return Mono.defer(() -> {
+            Decoding decoding = new Decoding(listener);
+            return body
+                    .doOnNext(buffer -> {
+                        try {
+                            decoding.feed(buffer);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .then(Mono.fromCallable(decoding::finish))
+                    .doFinally(signal -> decoding.close());
+        });
+    }
+
+    /**
+     * Parser state for one response.
+     */
+    private static final class Decoding {
+        private final ValueListener listener;
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+        private final Deque<Frame> stack = new ArrayDeque<>();
+        private byte[] chunk = new byte[8192];
+        private Map<String, Object> root;
+
+        private Decoding(ValueListener listener) {
+            this.listener = listener;
+            this.parser = JSON_FACTORY.createNonBlockingByteArrayParser(ObjectReadContext.empty());
+            this.feeder = (ByteArrayFeeder) parser.nonBlockingInputFeeder();
+        }
+
+        private void feed(DataBuffer buffer) {
+            int length = buffer.readableByteCount();
+            if (length == 0) {
+                return;
+            }
+            // The parser copies partial tokens, so the chunk can be reused once it asks for more input
+            if (chunk.length < length) {
+                chunk = new byte[Math.max(length, chunk.length * 2)];
+            }
+            buffer.read(chunk, 0, length);
+            feeder.feedInput(chunk, 0, length);
+            drain();
+        }
+
+        private Map<String, Object> finish() {
+            feeder.endOfInput();
+            drain();
+            if (root == null || !stack.isEmpty()) {
+                throw new OpenMeteoException("Incomplete archive response", 502);
+            }
+            return root;
+        }
+
+        private void close() {
+            parser.close();
+        }
+
+        private void drain() {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                handle(token);
+            }
+        }
+
+        private void handle(JsonToken token) {
+            Frame top = stack.peek();
+            switch (token) {
+                case PROPERTY_NAME -> ((ObjectFrame) top).name = parser.currentName();
+                case START_OBJECT -> {
+                    boolean columnar = top instanceof ObjectFrame parent
+                            && stack.size() == 1
+                            && COLUMNAR_OBJECTS.contains(parent.name);
+                    stack.push(new ObjectFrame(columnar));
+                }
+                case START_ARRAY -> stack.push(top instanceof ObjectFrame parent && parent.columnar
+                        ? new ColumnFrame(parent.name)
+                        : new ListFrame());
+                case END_OBJECT, END_ARRAY -> {
+                    Frame done = stack.pop();
+                    Object value = done.build();
+                    if (stack.isEmpty()) {
+                        if (!(value instanceof Map<?, ?>)) {
+                            throw new OpenMeteoException("Archive response is not a JSON object", 502);
+                        }
+                        @SuppressWarnings("unchecked")
+                        Map<String, Object> map = (Map<String, Object>) value;
+                        root = map;
+                    } else {
+                        stack.peek().add(value);
+                    }
+                }
+                default -> {
+                    if (top == null) {
+                        throw new OpenMeteoException("Archive response is not a JSON object", 502);
+                    }
+                    if (top instanceof ColumnFrame column) {
+                        column.addToken(token);
+                    } else {
+                        top.add(scalar(token));
+                    }
+                }
+            }
+        }
+
+        private Object scalar(JsonToken token) {
+            return switch (token) {
+                case VALUE_STRING -> parser.getString();
+                case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getNumberValue();
+                case VALUE_TRUE -> Boolean.TRUE;
+                case VALUE_FALSE -> Boolean.FALSE;
+                default -> null;
+            };
+        }
+
+        private abstract static class Frame {
+            abstract void add(Object value);
+
+            abstract Object build();
+        }
+
+        private static final class ObjectFrame extends Frame {
+            private final boolean columnar;
+            private final Map<String, Object> values = new LinkedHashMap<>();
+            private String name;
+
+            private ObjectFrame(boolean columnar) {
+                this.columnar = columnar;
+            }
+
+            @Override
+            void add(Object value) {
+                values.put(name, value);
+            }
+
+            @Override
+            Object build() {
+                return values;
+            }
+        }
+
+        private static final class ListFrame extends Frame {
+            private final List<Object> values = new ArrayList<>();
+
+            @Override
+            void add(Object value) {
+                values.add(value);
+            }
+
+            @Override
+            Object build() {
+                return values;
+            }
+        }
+
+        /**
+         * One column; the column type is chosen by name or by its first non-null value.
+         */
+        private final class ColumnFrame extends Frame {
+            private final String name;
+            private int leadingNulls;
+            private DoubleColumn.Builder doubles;
+            private IntColumn.Builder ints;
+            private TimeAxis.Builder times;
+
+            private ColumnFrame(String name) {
+                this.name = name;
+            }
+
+            private void addToken(JsonToken token) {
+                if (token == JsonToken.VALUE_NULL) {
+                    if (doubles != null) {
+                        doubles.addMissing();
+                    } else if (ints != null) {
+                        ints.addMissing();
+                    } else if (times != null) {
+                        times.addUnparsed(null);
+                    } else {
+                        leadingNulls++;
+                    }
+                    return;
+                }
+
+                if (doubles == null && ints == null && times == null) {
+                    start(token);
+                }
+                if (times != null) {
+                    if (token == JsonToken.VALUE_STRING) {
+                        times.add(parser.getStringCharacters(), parser.getStringOffset(), parser.getStringLength());
+                    } else {
+                        times.addUnparsed(parser.getString());
+                    }
+                    return;
+                }
+                if (!token.isNumeric()) {
+                    throw new OpenMeteoException("Unexpected " + token + " in archive column " + name, 502);
+                }
+                double value = parser.getDoubleValue();
+                if (ints != null) {
+                    ints.add(token == JsonToken.VALUE_NUMBER_INT ? parser.getIntValue() : (int) value);
+                } else {
+                    doubles.add(value);
+                }
+                listener.onValue(name, value);
+            }
+
+            private void start(JsonToken token) {
+                if (token == JsonToken.VALUE_STRING) {
+                    times = new TimeAxis.Builder();
+                    for (int i = 0; i < leadingNulls; i++) {
+                        times.addUnparsed(null);
+                    }
+                } else if (INT_COLUMNS.contains(name)) {
+                    ints = new IntColumn.Builder();
+                    for (int i = 0; i < leadingNulls; i++) {
+                        ints.addMissing();
+                    }
+                } else {
+                    doubles = new DoubleColumn.Builder();
+                    for (int i = 0; i < leadingNulls; i++) {
+                        doubles.addMissing();
+                    }
+                }
+            }
+
+            @Override
+            void add(Object value) {
+                throw new OpenMeteoException("Unexpected nested value in archive column " + name, 502);
+            }
+
+            @Override
+            Object build() {
+                if (times != null) {
+                    return times.build();
+                }
+                if (ints != null) {
+                    return ints.build();
+                }
+                if (doubles != null) {
+                    return doubles.build();
+                }
+                // Empty or all-null column
+                DoubleColumn.Builder builder = new DoubleColumn.Builder();
+                for (int i = 0; i < leadingNulls; i++) {
+                    builder.addMissing();
+                }
+                return builder.build();
+            }
+        }
+    }
+}
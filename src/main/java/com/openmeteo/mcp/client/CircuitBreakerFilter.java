@@ -0,0 +1,254 @@
+package com.openmeteo.mcp.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-host circuit breaker for upstream exchanges.
+ * <p>
+ * Outcomes of the last {@code windowSize} calls are kept in a ring. A call
+ * fails if it errors or returns 5xx, and is slow if its response headers
+ * take longer than {@code slowCallThreshold}. Once at least
+ * {@code minimumCalls} have been recorded and either the failure rate or the
+ * slow-call rate reaches its threshold, the circuit opens.
+ * </p>
+ * <p>
+ * While open, exchanges fail immediately with {@link CircuitOpenException}
+ * instead of waiting for the upstream timeout. After {@code openDuration}
+ * the circuit is half-open and lets {@code halfOpenProbes} calls through:
+ * if they all succeed it closes, any failure opens it again.
+ * </p>
+ */
+public class CircuitBreakerFilter implements ExchangeFilterFunction {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreakerFilter.class);
+
+    /**
+     * Circuit states; the ordinal is exported as the state gauge value.
+     */
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    /**
+     * Circuit breaker settings.
+     *
+     * @param failureRateThreshold  Failure rate (0-1) that opens the circuit
+     * @param slowCallRateThreshold Slow-call rate (0-1) that opens the circuit
+     * @param slowCallThreshold     Response time above which a call counts as slow
+     * @param windowSize            Number of recent calls evaluated
+     * @param minimumCalls          Calls required before the rates are evaluated
+     * @param openDuration          Time spent open before probing
+     * @param halfOpenProbes        Successful probes required to close again
+     */
+    public record Settings(
+            double failureRateThreshold,
+            double slowCallRateThreshold,
+            Duration slowCallThreshold,
+            int windowSize,
+            int minimumCalls,
+            Duration openDuration,
+            int halfOpenProbes) {
+    }
+
+    private final String host;
+    private final Settings settings;
+    private final Clock clock;
+
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int recorded;
+    private int position;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long openedAtMillis;
+    private int probesInFlight;
+    private int probesSucceeded;
+
+    private final Counter rejected;
+    private final Map<State, Counter> transitions = new EnumMap<>(State.class);
+
+    /**
+     * Creates a circuit breaker for one upstream host.
+     *
+     * @param host          Host name used in metric tags and errors
+     * @param settings      Thresholds and timings
+     * @param meterRegistry Registry for circuit metrics
+     */
+    public CircuitBreakerFilter(String host, Settings settings, MeterRegistry meterRegistry) {
+        this(host, settings, meterRegistry, Clock.systemUTC());
+    }
+
+    CircuitBreakerFilter(String host, Settings settings, MeterRegistry meterRegistry, Clock clock) {
+        this.host = host;
+        this.settings = settings;
+        this.clock = clock;
+        this.failed = new boolean[Math.max(1, settings.windowSize())];
+        this.slow = new boolean[failed.length];
+
+        this.rejected = Counter.builder("openmeteo.circuit.rejected")
+                .description("Calls rejected while the circuit was open")
+                .tag("host", host)
+                .register(meterRegistry);
+        for (State target : State.values()) {
+            transitions.put(target, Counter.builder("openmeteo.circuit.transitions")
+                    .description("Circuit state transitions")
+                    .tag("host", host)
+                    .tag("state", target.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        Gauge.builder("openmeteo.circuit.state", this, f -> f.state().ordinal())
+                .description("Circuit state (0 = closed, 1 = half-open, 2 = open)")
+                .tag("host", host)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            boolean probe;
+            synchronized (this) {
+                State current = currentState();
+                if (current == State.OPEN
+                        || (current == State.HALF_OPEN && probesInFlight >= settings.halfOpenProbes())) {
+                    rejected.increment();
+                    return Mono.error(new CircuitOpenException(host));
+                }
+                probe = current == State.HALF_OPEN;
+                if (probe) {
+                    probesInFlight++;
+                }
+            }
+
+            long start = System.nanoTime();
+            AtomicBoolean done = new AtomicBoolean();
+            return next.exchange(request)
+                    .doOnNext(response -> {
+                        if (done.compareAndSet(false, true)) {
+                            record(probe, response.statusCode().is5xxServerError(), System.nanoTime() - start);
+                        }
+                    })
+                    .doOnError(error -> {
+                        if (done.compareAndSet(false, true)) {
+                            // A local quota rejection never reached the host
+                            if (error instanceof QuotaExceededException) {
+                                releaseProbe(probe);
+                            } else {
+                                record(probe, true, System.nanoTime() - start);
+                            }
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        // Cancelled calls (e.g. a losing hedge) carry no signal
+                        if (done.compareAndSet(false, true)) {
+                            releaseProbe(probe);
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Returns the current state, moving from open to half-open once the open duration has elapsed.
+     *
+     * @return Circuit state
+     */
+    public synchronized State state() {
+        return currentState();
+    }
+
+    private State currentState() {
+        if (state == State.OPEN && clock.millis() - openedAtMillis >= settings.openDuration().toMillis()) {
+            transition(State.HALF_OPEN);
+        }
+        return state;
+    }
+
+    private synchronized void releaseProbe(boolean probe) {
+        if (probe) {
+            probesInFlight = Math.max(0, probesInFlight - 1);
+        }
+    }
+
+    private synchronized void record(boolean probe, boolean failure, long elapsedNanos) {
+        boolean slowCall = elapsedNanos > settings.slowCallThreshold().toNanos();
+
+        if (probe) {
+            probesInFlight = Math.max(0, probesInFlight - 1);
+            if (state != State.HALF_OPEN) {
+                return;
+            }
+            if (failure || slowCall) {
+                transition(State.OPEN);
+            } else if (++probesSucceeded >= settings.halfOpenProbes()) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (state != State.CLOSED) {
+            return;
+        }
+
+        if (recorded == failed.length) {
+            failures -= failed[position] ? 1 : 0;
+            slowCalls -= slow[position] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failed[position] = failure;
+        slow[position] = slowCall;
+        failures += failure ? 1 : 0;
+        slowCalls += slowCall ? 1 : 0;
+        position = (position + 1) % failed.length;
+
+        if (recorded >= settings.minimumCalls()) {
+            double failureRate = (double) failures / recorded;
+            double slowRate = (double) slowCalls / recorded;
+            if (failureRate >= settings.failureRateThreshold() || slowRate >= settings.slowCallRateThreshold()) {
+                log.warn("Opening circuit for {}: failure rate {}, slow-call rate {} over {} calls",
+                        host, failureRate, slowRate, recorded);
+                transition(State.OPEN);
+            }
+        }
+    }
+
+    private void transition(State target) {
+        if (state == target) {
+            return;
+        }
+        log.info("Circuit for {} {} -> {}", host, state, target);
+        state = target;
+        transitions.get(target).increment();
+        switch (target) {
+            case OPEN -> openedAtMillis = clock.millis();
+            case HALF_OPEN -> {
+                probesInFlight = 0;
+                probesSucceeded = 0;
+            }
+            case CLOSED -> {
+                recorded = 0;
+                position = 0;
+                failures = 0;
+                slowCalls = 0;
+            }
+        }
+    }
+}
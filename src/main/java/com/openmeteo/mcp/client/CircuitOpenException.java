@@ -0,0 +1,30 @@
+package com.openmeteo.mcp.client;
+
+import com.openmeteo.mcp.exception.OpenMeteoException;
+
+/**
+ * Thrown without contacting upstream while a host's circuit is open.
+ */
+public class CircuitOpenException extends OpenMeteoException {
+
+    private final String host;
+
+    /**
+     * Constructs a new CircuitOpenException for the given host.
+     *
+     * @param host upstream host whose circuit is open
+     */
+    public CircuitOpenException(String host) {
+        super("Open-Meteo " + host + " API is unavailable (circuit open)", 503);
+        this.host = host;
+    }
+
+    /**
+     * Returns the upstream host whose circuit is open.
+     *
+     * @return host name
+     */
+    public String getHost() {
+        return host;
+    }
+}
@@ -0,0 +1,447 @@
+package com.openmeteo.mcp.client;
+
+import com.openmeteo.mcp.model.dto.Staleness;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache for Open-Meteo responses.
+ * <p>
+ * Keys snap coordinates to the model grid resolution of each data product,
+ * so nearby coordinates that resolve to the same grid cell share one entry
+ * (e.g., Bern at 46.9479 and at 46.948).
+ * </p>
+ * <p>
+ * Entries expire at the next epoch-aligned boundary of the product's update
+ * cycle rather than a sliding TTL, so all entries for a product roll over
+ * together when upstream publishes new data. The cache is bounded by entry
+ * count with least-recently-used eviction.
+ * </p>
+ * <p>
+ * Expired entries move to a separate, equally bounded last-known-good store
+ * for the stale retention period. {@link #lookupStale} serves them as a
+ * fallback while upstream is unavailable, together with a staleness marker
+ * decided by that same lookup.
+ * </p>
+ * <p>
+ * Expired entries are also moved, and last-known-good values past the
+ * retention period dropped, by a purge every {@code purge-interval-seconds},
+ * so keys that are never looked up again do not hold memory until evicted
+ * by size.
+ * </p>
+ */
+@Component
+public class ForecastCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ForecastCache.class);
+
+    /**
+     * Cached Open-Meteo data products.
+     */
+    public enum DataProduct {
+        FORECAST("forecast"),
+        AIR_QUALITY("air_quality"),
+        GEOCODING("geocoding");
+
+        private final String tag;
+
+        DataProduct(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+    }
+
+    /**
+     * Cache policy for a data product.
+     *
+     * @param updateIntervalMillis Upstream update cycle; entries expire at the next boundary
+     * @param gridDegrees          Grid resolution in degrees used to snap coordinates (0 = no snapping)
+     */
+    public record ProductPolicy(long updateIntervalMillis, double gridDegrees) {}
+
+    private record Entry(DataProduct product, Object value, long storedAtMillis, long expiresAtMillis) {}
+
+    /**
+     * Result of {@link #lookupStale}.
+     *
+     * @param value     Cached value
+     * @param staleness Staleness marker if the value came from the last-known-good store
+     */
+    public record Lookup(Object value, Optional<Staleness> staleness) {}
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long staleRetentionMillis;
+    private final Clock clock;
+    private final Map<DataProduct, ProductPolicy> policies = new EnumMap<>(DataProduct.class);
+    private final Map<DataProduct, Counter> hits = new EnumMap<>(DataProduct.class);
+    private final Map<DataProduct, Counter> misses = new EnumMap<>(DataProduct.class);
+    private final Map<DataProduct, Counter> sizeEvictions = new EnumMap<>(DataProduct.class);
+    private final Map<DataProduct, Counter> expirations = new EnumMap<>(DataProduct.class);
+    private final Map<DataProduct, Counter> staleHits = new EnumMap<>(DataProduct.class);
+    private final LinkedHashMap<String, Entry> entries;
+    private final LinkedHashMap<String, Entry> staleEntries;
+    private Disposable purger;
+
+    public ForecastCache(
+            MeterRegistry meterRegistry,
+            @Value("${openmeteo.cache.enabled:true}") boolean enabled,
+            @Value("${openmeteo.cache.max-entries:5000}") int maxEntries,
+            @Value("${openmeteo.cache.forecast-ttl-seconds:900}") int forecastTtlSeconds,
+            @Value("${openmeteo.cache.forecast-grid-degrees:0.01}") double forecastGridDegrees,
+            @Value("${openmeteo.cache.air-quality-ttl-seconds:3600}") int airQualityTtlSeconds,
+            @Value("${openmeteo.cache.air-quality-grid-degrees:0.1}") double airQualityGridDegrees,
+            @Value("${openmeteo.cache.geocoding-ttl-seconds:86400}") int geocodingTtlSeconds,
+            @Value("${openmeteo.cache.stale-retention-seconds:86400}") int staleRetentionSeconds,
+            @Value("${openmeteo.cache.purge-interval-seconds:60}") long purgeIntervalSeconds) {
+        this(meterRegistry, enabled, maxEntries, Map.of(
+                DataProduct.FORECAST, new ProductPolicy(forecastTtlSeconds * 1000L, forecastGridDegrees),
+                DataProduct.AIR_QUALITY, new ProductPolicy(airQualityTtlSeconds * 1000L, airQualityGridDegrees),
+                DataProduct.GEOCODING, new ProductPolicy(geocodingTtlSeconds * 1000L, 0.0)),
+                staleRetentionSeconds * 1000L,
+                Clock.systemUTC());
+        if (enabled) {
+            var interval = Duration.ofSeconds(Math.max(1, purgeIntervalSeconds));
+            this.purger = Flux.interval(interval, interval).subscribe(tick -> purge());
+        }
+    }
+
+    ForecastCache(
+            MeterRegistry meterRegistry,
+            boolean enabled,
+            int maxEntries,
+            Map<DataProduct, ProductPolicy> policies,
+            long staleRetentionMillis,
+            Clock clock) {
+        this.enabled = enabled;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.staleRetentionMillis = staleRetentionMillis;
+        this.clock = clock;
+        this.policies.putAll(policies);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ForecastCache.this.maxEntries) {
+                    sizeEvictions.get(eldest.getValue().product()).increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.staleEntries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ForecastCache.this.maxEntries;
+            }
+        };
+
+        for (DataProduct product : DataProduct.values()) {
+            hits.put(product, Counter.builder("openmeteo.cache.requests")
+                    .description("Cache lookups")
+                    .tag("product", product.tag())
+                    .tag("result", "hit")
+                    .register(meterRegistry));
+            misses.put(product, Counter.builder("openmeteo.cache.requests")
+                    .description("Cache lookups")
+                    .tag("product", product.tag())
+                    .tag("result", "miss")
+                    .register(meterRegistry));
+            sizeEvictions.put(product, Counter.builder("openmeteo.cache.evictions")
+                    .description("Entries removed from the cache")
+                    .tag("product", product.tag())
+                    .tag("cause", "size")
+                    .register(meterRegistry));
+            expirations.put(product, Counter.builder("openmeteo.cache.evictions")
+                    .description("Entries removed from the cache")
+                    .tag("product", product.tag())
+                    .tag("cause", "expired")
+                    .register(meterRegistry));
+            staleHits.put(product, Counter.builder("openmeteo.cache.requests")
+                    .description("Cache lookups")
+                    .tag("product", product.tag())
+                    .tag("result", "stale")
+                    .register(meterRegistry));
+        }
+        Gauge.builder("openmeteo.cache.size", this, ForecastCache::size)
+                .description("Entries currently held in the cache")
+                .register(meterRegistry);
+
+        log.info("ForecastCache initialized (enabled={}, maxEntries={}, policies={})",
+                enabled, this.maxEntries, this.policies);
+    }
+
+    /**
+     * Returns the cached value for the key, or loads and caches it on a miss.
+     * <p>
+     * Only successful results are cached; failures propagate to the caller
+     * and the next lookup retries upstream.
+     * </p>
+     *
+     * @param product Data product the key belongs to
+     * @param key     Cache key (see {@link #key})
+     * @param loader  Loader invoked on a miss
+     * @param <T>     Value type
+     * @return CompletableFuture with the cached or loaded value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> getOrLoad(DataProduct product, String key, Supplier<CompletableFuture<T>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        T cached = (T) lookup(product, key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        return loader.get().thenApply(value -> {
+            put(product, key, value);
+            return value;
+        });
+    }
+
+    /**
+     * Returns the cached value for the key, or null on a miss.
+     *
+     * @param product Data product the key belongs to
+     * @param key     Cache key
+     * @return Cached value or null
+     */
+    public Object lookup(DataProduct product, String key) {
+        if (!enabled) {
+            return null;
+        }
+        long now = clock.millis();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAtMillis() > now) {
+                hits.get(product).increment();
+                return entry.value();
+            }
+            if (entry != null) {
+                entries.remove(key);
+                expirations.get(product).increment();
+                retainStale(key, entry);
+            }
+        }
+        misses.get(product).increment();
+        return null;
+    }
+
+    /**
+     * Returns the last known good value for the key, even if it has expired.
+     * <p>
+     * Intended as a fallback while upstream is unavailable; values older
+     * than the stale retention period are not returned. The result says
+     * whether this lookup found a current entry or a last known good one,
+     * so callers never have to work it out from the value afterwards.
+     * </p>
+     *
+     * @param product Data product the key belongs to
+     * @param key     Cache key
+     * @param reason  Why stale data is being served, for the staleness marker
+     * @return Current or last known good value, or null if none is retained
+     */
+    public Lookup lookupStale(DataProduct product, String key, String reason) {
+        if (!enabled) {
+            return null;
+        }
+        long now = clock.millis();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAtMillis() > now) {
+                hits.get(product).increment();
+                return new Lookup(entry.value(), Optional.empty());
+            }
+            if (entry != null) {
+                entries.remove(key);
+                expirations.get(product).increment();
+                retainStale(key, entry);
+            }
+
+            Entry stale = staleEntries.get(key);
+            if (stale != null && now - stale.storedAtMillis() <= staleRetentionMillis) {
+                staleHits.get(product).increment();
+                return new Lookup(stale.value(), Optional.of(new Staleness(
+                        true,
+                        Instant.ofEpochMilli(stale.storedAtMillis()).toString(),
+                        (now - stale.storedAtMillis()) / 1000,
+                        reason)));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores a value until the next update boundary of its data product.
+     *
+     * @param product Data product the key belongs to
+     * @param key     Cache key
+     * @param value   Value to cache (ignored if null)
+     */
+    public void put(DataProduct product, String key, Object value) {
+        if (!enabled || value == null) {
+            return;
+        }
+        long now = clock.millis();
+        long expiresAt = nextBoundary(now, policies.get(product).updateIntervalMillis());
+        synchronized (entries) {
+            entries.put(key, new Entry(product, value, now, expiresAt));
+            // A fresh value supersedes the last known good one
+            staleEntries.remove(key);
+        }
+    }
+
+    /**
+     * Builds a cache key with coordinates snapped to the product's grid.
+     *
+     * @param product    Data product
+     * @param latitude   Latitude in decimal degrees
+     * @param longitude  Longitude in decimal degrees
+     * @param qualifiers Additional request parameters that change the response
+     * @return Cache key
+     */
+    public String key(DataProduct product, double latitude, double longitude, Object... qualifiers) {
+        double grid = policies.get(product).gridDegrees();
+        StringBuilder key = new StringBuilder(product.tag()).append(':')
+                .append(snap(latitude, grid)).append(':')
+                .append(snap(longitude, grid));
+        for (Object qualifier : qualifiers) {
+            key.append(':').append(qualifier);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Builds a cache key from request parameters without coordinates.
+     *
+     * @param product    Data product
+     * @param qualifiers Request parameters that change the response
+     * @return Cache key
+     */
+    public String nameKey(DataProduct product, Object... qualifiers) {
+        StringBuilder key = new StringBuilder(product.tag());
+        for (Object qualifier : qualifiers) {
+            key.append(':').append(qualifier == null ? "" : qualifier.toString().toLowerCase(Locale.ROOT));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Removes all expired entries, keeping them as last known good values,
+     * and drops last known good values past the stale retention period.
+     *
+     * @return Number of entries removed
+     */
+    public int purgeExpired() {
+        long now = clock.millis();
+        int removed = 0;
+        synchronized (entries) {
+            Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Entry> mapping = it.next();
+                Entry entry = mapping.getValue();
+                if (entry.expiresAtMillis() <= now) {
+                    it.remove();
+                    expirations.get(entry.product()).increment();
+                    retainStale(mapping.getKey(), entry);
+                    removed++;
+                }
+            }
+
+            Iterator<Entry> staleIt = staleEntries.values().iterator();
+            while (staleIt.hasNext()) {
+                Entry stale = staleIt.next();
+                if (now - stale.storedAtMillis() > staleRetentionMillis) {
+                    staleIt.remove();
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Periodic purge of expired entries.
+     */
+    void purge() {
+        try {
+            int removed = purgeExpired();
+            if (removed > 0) {
+                log.debug("Purged {} expired cache entries", removed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Cache purge failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (purger != null) {
+            purger.dispose();
+        }
+    }
+
+    /**
+     * Returns the number of cached entries.
+     *
+     * @return Entry count
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Keeps an expired entry as the last known good value. Caller holds the lock.
+     */
+    private void retainStale(String key, Entry entry) {
+        if (staleRetentionMillis <= 0) {
+            return;
+        }
+        staleEntries.put(key, entry);
+    }
+
+    /**
+     * Snaps a coordinate to a grid cell index; zero grid disables snapping.
+     */
+    private static String snap(double coordinate, double gridDegrees) {
+        if (gridDegrees <= 0) {
+            return Double.toString(coordinate);
+        }
+        return Long.toString(Math.round(coordinate / gridDegrees));
+    }
+
+    /**
+     * Next epoch-aligned boundary of the update interval after now.
+     */
+    private static long nextBoundary(long nowMillis, long intervalMillis) {
+        if (intervalMillis <= 0) {
+            return nowMillis;
+        }
+        return (nowMillis / intervalMillis + 1) * intervalMillis;
+    }
+}
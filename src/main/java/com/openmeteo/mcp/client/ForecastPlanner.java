@@ -0,0 +1,188 @@
+package com.openmeteo.mcp.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Plans /forecast queries by merging overlapping variable sets.
+ * <p>
+ * Callers declare the {@link ForecastVariable}s they need for a location.
+ * Requests for the same plan key (location, forecast days, timezone) that
+ * arrive within the merge window are folded into one pending plan, and the
+ * union of their variables is fetched with a single upstream call. Requests
+ * arriving after dispatch join the in-flight call when it already covers
+ * their variables; otherwise they start a new plan.
+ * </p>
+ * <p>
+ * A completed response stays under its plan key for the retention period,
+ * so a later call whose variables it covers (e.g. a daily snow report after
+ * an hourly weather forecast for the same trip) is projected from it
+ * without another fetch. A later call needing variables the response lacks
+ * fetches again. The merge window is 0 by default, so no fetch is delayed;
+ * a positive window also merges calls that are not covered but arrive
+ * within it.
+ * </p>
+ * <p>
+ * Every caller receives its own dependent future on the shared
+ * {@link ForecastResponse}, so cancelling one caller never cancels the fetch.
+ * </p>
+ */
+@Component
+public class ForecastPlanner {
+
+    private static final Logger log = LoggerFactory.getLogger(ForecastPlanner.class);
+
+    private static final class Plan {
+        private final EnumSet<ForecastVariable> variables;
+        private final CompletableFuture<ForecastResponse> result = new CompletableFuture<>();
+        private boolean dispatched;
+        private boolean completed;
+
+        private Plan(Set<ForecastVariable> variables) {
+            this.variables = EnumSet.copyOf(variables);
+        }
+    }
+
+    private final Duration mergeWindow;
+    private final Duration retention;
+    private final Map<String, Plan> plans = new HashMap<>();
+    private final Counter upstreamCalls;
+    private final Counter mergedCalls;
+    private final Counter joinedCalls;
+    private final Counter retainedCalls;
+
+    public ForecastPlanner(
+            MeterRegistry meterRegistry,
+            @Value("${openmeteo.planner.merge-window-ms:0}") int mergeWindowMs,
+            @Value("${openmeteo.planner.retain-ms:5000}") int retainMs) {
+        this.mergeWindow = Duration.ofMillis(Math.max(0, mergeWindowMs));
+        this.retention = Duration.ofMillis(Math.max(0, retainMs));
+        this.upstreamCalls = Counter.builder("openmeteo.planner.requests")
+                .description("Planned requests that triggered an upstream call")
+                .tag("result", "upstream")
+                .register(meterRegistry);
+        this.mergedCalls = Counter.builder("openmeteo.planner.requests")
+                .description("Planned requests merged into a pending plan")
+                .tag("result", "merged")
+                .register(meterRegistry);
+        this.joinedCalls = Counter.builder("openmeteo.planner.requests")
+                .description("Planned requests served by an in-flight superset")
+                .tag("result", "joined")
+                .register(meterRegistry);
+        this.retainedCalls = Counter.builder("openmeteo.planner.requests")
+                .description("Planned requests served by a recently completed superset")
+                .tag("result", "retained")
+                .register(meterRegistry);
+
+        log.info("ForecastPlanner initialized (mergeWindow={}, retention={})", mergeWindow, retention);
+    }
+
+    /**
+     * Fetches a forecast response covering at least the requested variables.
+     *
+     * @param planKey   Key identifying location, forecast days and timezone
+     * @param variables Variables the caller needs (must not be empty)
+     * @param upstream  Issues the upstream call for the final (merged) variable set
+     * @return CompletableFuture owned by this caller
+     */
+    public CompletableFuture<ForecastResponse> fetch(
+            String planKey,
+            Set<ForecastVariable> variables,
+            Function<Set<ForecastVariable>, Mono<ForecastResponse>> upstream) {
+        Plan plan;
+        synchronized (plans) {
+            Plan existing = plans.get(planKey);
+            if (existing != null && !existing.dispatched) {
+                existing.variables.addAll(variables);
+                mergedCalls.increment();
+                log.debug("Merged variables into pending plan: {}", planKey);
+                return existing.result.copy();
+            }
+            if (existing != null && existing.variables.containsAll(variables)) {
+                if (existing.completed) {
+                    retainedCalls.increment();
+                    log.debug("Served from retained plan covering requested variables: {}", planKey);
+                } else {
+                    joinedCalls.increment();
+                    log.debug("Joined in-flight plan covering requested variables: {}", planKey);
+                }
+                return existing.result.copy();
+            }
+            plan = new Plan(variables);
+            plans.put(planKey, plan);
+        }
+
+        if (mergeWindow.isZero()) {
+            dispatch(planKey, plan, upstream);
+        } else {
+            Mono.delay(mergeWindow).subscribe(tick -> dispatch(planKey, plan, upstream));
+        }
+        return plan.result.copy();
+    }
+
+    /**
+     * Returns the number of pending, in-flight or retained plans.
+     *
+     * @return Plan count
+     */
+    public int activePlans() {
+        synchronized (plans) {
+            return plans.size();
+        }
+    }
+
+    private void dispatch(String planKey, Plan plan, Function<Set<ForecastVariable>, Mono<ForecastResponse>> upstream) {
+        Set<ForecastVariable> variables;
+        synchronized (plans) {
+            plan.dispatched = true;
+            variables = EnumSet.copyOf(plan.variables);
+        }
+
+        upstreamCalls.increment();
+        log.debug("Dispatching plan {} with {} variables", planKey, variables.size());
+        try {
+            upstream.apply(variables)
+                    .toFuture()
+                    .whenComplete((response, ex) -> {
+                        boolean retain = ex == null && !retention.isZero();
+                        synchronized (plans) {
+                            if (retain) {
+                                plan.completed = true;
+                            } else {
+                                plans.remove(planKey, plan);
+                            }
+                        }
+                        if (retain) {
+                            Mono.delay(retention).subscribe(tick -> {
+                                synchronized (plans) {
+                                    plans.remove(planKey, plan);
+                                }
+                            });
+                        }
+                        if (ex != null) {
+                            plan.result.completeExceptionally(ex);
+                        } else {
+                            plan.result.complete(response);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            synchronized (plans) {
+                plans.remove(planKey, plan);
+            }
+            plan.result.completeExceptionally(e);
+        }
+    }
+}
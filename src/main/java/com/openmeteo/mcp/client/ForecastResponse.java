@@ -0,0 +1,267 @@
+package com.openmeteo.mcp.client;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.openmeteo.mcp.client.ForecastVariable.Resolution;
+import com.openmeteo.mcp.model.dto.CurrentWeather;
+import com.openmeteo.mcp.model.dto.DailySnow;
+import com.openmeteo.mcp.model.dto.DailyWeather;
+import com.openmeteo.mcp.model.dto.HourlySnow;
+import com.openmeteo.mcp.model.dto.HourlyWeather;
+import com.openmeteo.mcp.model.dto.SnowConditions;
+import com.openmeteo.mcp.model.dto.WeatherForecast;
+import com.openmeteo.mcp.model.column.DoubleColumn;
+import com.openmeteo.mcp.model.column.IntColumn;
+import com.openmeteo.mcp.model.column.TimeAxis;
+import tools.jackson.databind.annotation.JsonDeserialize;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.openmeteo.mcp.client.ForecastVariable.*;
+
+/**
+ * Parsed /forecast response covering the union of all planned variables.
+ * <p>
+ * One response is parsed per planned upstream call; {@link WeatherForecast}
+ * and {@link SnowConditions} are projected from it and share the column
+ * lists rather than copying them. Each projection only exposes the
+ * variables its caller requested.
+ * </p>
+ *
+ * @param latitude             Latitude of the location in decimal degrees
+ * @param longitude            Longitude of the location in decimal degrees
+ * @param elevation            Elevation of the location in meters
+ * @param timezone             Timezone identifier
+ * @param timezoneAbbreviation Timezone abbreviation
+ * @param utcOffsetSeconds     UTC offset in seconds
+ * @param currentWeather       Current weather conditions
+ * @param hourly               Hourly columns
+ * @param daily                Daily columns
+ * @param generationtimeMs     API generation time in milliseconds
+ */
+public record ForecastResponse(
+        @JsonProperty("latitude") double latitude,
+        @JsonProperty("longitude") double longitude,
+        @JsonProperty("elevation") Double elevation,
+        @JsonProperty("timezone") String timezone,
+        @JsonProperty("timezone_abbreviation") String timezoneAbbreviation,
+        @JsonProperty("utc_offset_seconds") Integer utcOffsetSeconds,
+        @JsonProperty("current_weather") CurrentWeather currentWeather,
+        @JsonProperty("hourly") Hourly hourly,
+        @JsonProperty("daily") Daily daily,
+        @JsonProperty("generationtime_ms") Double generationtimeMs
+) {
+
+    /**
+     * Union of all hourly columns known to {@link ForecastVariable}.
+     */
+    public record Hourly(
+            @JsonProperty("time")
+            @JsonDeserialize(using = TimeAxis.Deserializer.class)
+            List<String> time,
+            @JsonProperty("temperature_2m")
+            @JsonDeserialize(using = DoubleColumn.Deserializer.class)
+            List<Double> temperature2m,
+            @JsonProperty("apparent_temperature")
+            @JsonDeserialize(using = DoubleColumn.Deserializer.class)
+            List<Double> apparentTemperature,
+            @JsonProperty("precipitation")
+            @JsonDeserialize(using = DoubleColumn.Deserializer.class)
+            List<Double> precipitation,
+            @JsonProperty("rain")
+            @JsonDeserialize(using = DoubleColumn.Deserializer.class)
+            List<Double> rain,
+            @JsonProperty("snowfall")
+            @JsonDeserialize(using = DoubleColumn.Deserializer.class)
+            List<Double> snowfall,
+            @JsonProperty("snow_depth")
+            @JsonDeserialize(using = DoubleColumn.Deserializer.class)
+            List<Double> snowDepth,
+            @JsonProperty("weathercode")
+            @JsonDeserialize(using = IntColumn.Deserializer.class)
+            List<Integer> weathercode,
+            @JsonProperty("cloudcover")
+            @JsonDeserialize(using = IntColumn.Deserializer.class)
+            List<Integer> cloudCover,
+            @JsonProperty("visibility")
+            @JsonDeserialize(using = DoubleColumn.Deserializer.class)
+            List<Double> visibility,
+            @JsonProperty("windspeed_10m")
+            @JsonDeserialize(using = DoubleColumn.Deserializer.class)
+            List<Double> windspeed10m,
+            @JsonProperty("winddirection_10m")
+            @JsonDeserialize(using = IntColumn.Deserializer.class)
+            List<Integer> winddirection10m,
+            @JsonProperty("windgusts_10m")
+            @JsonDeserialize(using = DoubleColumn.Deserializer.class)
+            List<Double> windgusts10m,
+            @JsonProperty("surface_pressure")
+            @JsonDeserialize(using = DoubleColumn.Deserializer.class)
+            List<Double> surfacePressure,
+            @JsonProperty("relativehumidity_2m")
+            @JsonDeserialize(using = IntColumn.Deserializer.class)
+            List<Integer> relativehumidity2m,
+            @JsonProperty("dewpoint_2m")
+            @JsonDeserialize(using = DoubleColumn.Deserializer.class)
+            List<Double> dewpoint2m,
+            @JsonProperty("precipitation_probability")
+            @JsonDeserialize(using = IntColumn.Deserializer.class)
+            List<Integer> precipitationProbability,
+            @JsonProperty("uv_index")
+            @JsonDeserialize(using = DoubleColumn.Deserializer.class)
+            List<Double> uvIndex,
+            @JsonProperty("freezinglevel_height")
+            @JsonDeserialize(using = DoubleColumn.Deserializer.class)
+            List<Double> freezingLevelHeight
+    ) {
+    }
+
+    /**
+     * Union of all daily columns known to {@link ForecastVariable}.
+     */
+    public record Daily(
+            @JsonProperty("time")
+            @JsonDeserialize(using = TimeAxis.Deserializer.class)
+            List<String> time,
+            @JsonProperty("temperature_2m_max")
+            @JsonDeserialize(using = DoubleColumn.Deserializer.class)
+            List<Double> temperature2mMax,
+            @JsonProperty("temperature_2m_min")
+            @JsonDeserialize(using = DoubleColumn.Deserializer.class)
+            List<Double> temperature2mMin,
+            @JsonProperty("apparent_temperature_max")
+            @JsonDeserialize(using = DoubleColumn.Deserializer.class)
+            List<Double> apparentTemperatureMax,
+            @JsonProperty("apparent_temperature_min")
+            @JsonDeserialize(using = DoubleColumn.Deserializer.class)
+            List<Double> apparentTemperatureMin,
+            @JsonProperty("precipitation_sum")
+            @JsonDeserialize(using = DoubleColumn.Deserializer.class)
+            List<Double> precipitationSum,
+            @JsonProperty("rain_sum")
+            @JsonDeserialize(using = DoubleColumn.Deserializer.class)
+            List<Double> rainSum,
+            @JsonProperty("snowfall_sum")
+            @JsonDeserialize(using = DoubleColumn.Deserializer.class)
+            List<Double> snowfallSum,
+            @JsonProperty("weathercode")
+            @JsonDeserialize(using = IntColumn.Deserializer.class)
+            List<Integer> weathercode,
+            @JsonProperty("sunrise") List<String> sunrise,
+            @JsonProperty("sunset") List<String> sunset,
+            @JsonProperty("windspeed_10m_max")
+            @JsonDeserialize(using = DoubleColumn.Deserializer.class)
+            List<Double> windspeed10mMax,
+            @JsonProperty("windgusts_10m_max")
+            @JsonDeserialize(using = DoubleColumn.Deserializer.class)
+            List<Double> windgusts10mMax,
+            @JsonProperty("winddirection_10m_dominant")
+            @JsonDeserialize(using = IntColumn.Deserializer.class)
+            List<Integer> winddirection10mDominant,
+            @JsonProperty("precipitation_probability_max")
+            @JsonDeserialize(using = IntColumn.Deserializer.class)
+            List<Integer> precipitationProbabilityMax,
+            @JsonProperty("uv_index_max")
+            @JsonDeserialize(using = DoubleColumn.Deserializer.class)
+            List<Double> uvIndexMax
+    ) {
+    }
+
+    /**
+     * Projects a weather forecast containing only the requested variables.
+     *
+     * @param requested Variables the caller asked for
+     * @return WeatherForecast view of this response
+     */
+    public WeatherForecast toWeatherForecast(Set<ForecastVariable> requested) {
+        HourlyWeather hourlyWeather = null;
+        if (hourly != null && any(requested, Resolution.HOURLY)) {
+            hourlyWeather = new HourlyWeather(
+                    hourly.time(),
+                    pick(requested, HOURLY_TEMPERATURE_2M, hourly.temperature2m()),
+                    pick(requested, HOURLY_APPARENT_TEMPERATURE, hourly.apparentTemperature()),
+                    pick(requested, HOURLY_PRECIPITATION, hourly.precipitation()),
+                    pick(requested, HOURLY_RAIN, hourly.rain()),
+                    pick(requested, HOURLY_SNOWFALL, hourly.snowfall()),
+                    pick(requested, HOURLY_SNOW_DEPTH, hourly.snowDepth()),
+                    pick(requested, HOURLY_WEATHERCODE, hourly.weathercode()),
+                    pick(requested, HOURLY_CLOUDCOVER, hourly.cloudCover()),
+                    pick(requested, HOURLY_VISIBILITY, hourly.visibility()),
+                    pick(requested, HOURLY_WINDSPEED_10M, hourly.windspeed10m()),
+                    pick(requested, HOURLY_WINDDIRECTION_10M, hourly.winddirection10m()),
+                    pick(requested, HOURLY_WINDGUSTS_10M, hourly.windgusts10m()),
+                    pick(requested, HOURLY_SURFACE_PRESSURE, hourly.surfacePressure()),
+                    pick(requested, HOURLY_RELATIVEHUMIDITY_2M, hourly.relativehumidity2m()),
+                    pick(requested, HOURLY_DEWPOINT_2M, hourly.dewpoint2m()),
+                    pick(requested, HOURLY_PRECIPITATION_PROBABILITY, hourly.precipitationProbability()),
+                    pick(requested, HOURLY_UV_INDEX, hourly.uvIndex()));
+        }
+
+        DailyWeather dailyWeather = null;
+        if (daily != null && any(requested, Resolution.DAILY)) {
+            dailyWeather = new DailyWeather(
+                    daily.time(),
+                    pick(requested, DAILY_TEMPERATURE_2M_MAX, daily.temperature2mMax()),
+                    pick(requested, DAILY_TEMPERATURE_2M_MIN, daily.temperature2mMin()),
+                    pick(requested, DAILY_APPARENT_TEMPERATURE_MAX, daily.apparentTemperatureMax()),
+                    pick(requested, DAILY_APPARENT_TEMPERATURE_MIN, daily.apparentTemperatureMin()),
+                    pick(requested, DAILY_PRECIPITATION_SUM, daily.precipitationSum()),
+                    pick(requested, DAILY_RAIN_SUM, daily.rainSum()),
+                    pick(requested, DAILY_SNOWFALL_SUM, daily.snowfallSum()),
+                    pick(requested, DAILY_WEATHERCODE, daily.weathercode()),
+                    pick(requested, DAILY_SUNRISE, daily.sunrise()),
+                    pick(requested, DAILY_SUNSET, daily.sunset()),
+                    pick(requested, DAILY_WINDSPEED_10M_MAX, daily.windspeed10mMax()),
+                    pick(requested, DAILY_WINDGUSTS_10M_MAX, daily.windgusts10mMax()),
+                    pick(requested, DAILY_WINDDIRECTION_10M_DOMINANT, daily.winddirection10mDominant()),
+                    pick(requested, DAILY_PRECIPITATION_PROBABILITY_MAX, daily.precipitationProbabilityMax()),
+                    pick(requested, DAILY_UV_INDEX_MAX, daily.uvIndexMax()));
+        }
+
+        return new WeatherForecast(latitude, longitude, elevation, timezone, timezoneAbbreviation,
+                utcOffsetSeconds, currentWeather, hourlyWeather, dailyWeather, generationtimeMs);
+    }
+
+    /**
+     * Projects snow conditions containing only the requested variables.
+     *
+     * @param requested Variables the caller asked for
+     * @return SnowConditions view of this response
+     */
+    public SnowConditions toSnowConditions(Set<ForecastVariable> requested) {
+        HourlySnow hourlySnow = null;
+        if (hourly != null && any(requested, Resolution.HOURLY)) {
+            hourlySnow = new HourlySnow(
+                    hourly.time(),
+                    pick(requested, HOURLY_TEMPERATURE_2M, hourly.temperature2m()),
+                    pick(requested, HOURLY_SNOWFALL, hourly.snowfall()),
+                    pick(requested, HOURLY_SNOW_DEPTH, hourly.snowDepth()),
+                    pick(requested, HOURLY_WEATHERCODE, hourly.weathercode()),
+                    pick(requested, HOURLY_CLOUDCOVER, hourly.cloudCover()),
+                    pick(requested, HOURLY_WINDSPEED_10M, hourly.windspeed10m()),
+                    pick(requested, HOURLY_WINDDIRECTION_10M, hourly.winddirection10m()),
+                    pick(requested, HOURLY_WINDGUSTS_10M, hourly.windgusts10m()),
+                    pick(requested, HOURLY_FREEZINGLEVEL_HEIGHT, hourly.freezingLevelHeight()));
+        }
+
+        DailySnow dailySnow = null;
+        if (daily != null && any(requested, Resolution.DAILY)) {
+            dailySnow = new DailySnow(
+                    daily.time(),
+                    pick(requested, DAILY_TEMPERATURE_2M_MAX, daily.temperature2mMax()),
+                    pick(requested, DAILY_TEMPERATURE_2M_MIN, daily.temperature2mMin()),
+                    pick(requested, DAILY_SNOWFALL_SUM, daily.snowfallSum()),
+                    pick(requested, DAILY_WEATHERCODE, daily.weathercode()),
+                    pick(requested, DAILY_WINDSPEED_10M_MAX, daily.windspeed10mMax()),
+                    pick(requested, DAILY_WINDGUSTS_10M_MAX, daily.windgusts10mMax()),
+                    pick(requested, DAILY_WINDDIRECTION_10M_DOMINANT, daily.winddirection10mDominant()));
+        }
+
+        return new SnowConditions(latitude, longitude, elevation, timezone, timezoneAbbreviation,
+                utcOffsetSeconds, currentWeather, hourlySnow, dailySnow, generationtimeMs);
+    }
+
+    private static <T> List<T> pick(Set<ForecastVariable> requested, ForecastVariable variable, List<T> column) {
+        return requested.contains(variable) ? column : null;
+    }
+}
@@ -0,0 +1,167 @@
+package com.openmeteo.mcp.client;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Variables that can be requested from the Open-Meteo /forecast endpoint.
+ * <p>
+ * Callers declare the variables they need as a set; {@link ForecastPlanner}
+ * merges overlapping sets for the same location into one upstream query.
+ * </p>
+ */
+public enum ForecastVariable {
+
+    // Hourly variables
+    HOURLY_TEMPERATURE_2M("temperature_2m", Resolution.HOURLY),
+    HOURLY_APPARENT_TEMPERATURE("apparent_temperature", Resolution.HOURLY),
+    HOURLY_PRECIPITATION("precipitation", Resolution.HOURLY),
+    HOURLY_RAIN("rain", Resolution.HOURLY),
+    HOURLY_SNOWFALL("snowfall", Resolution.HOURLY),
+    HOURLY_SNOW_DEPTH("snow_depth", Resolution.HOURLY),
+    HOURLY_WEATHERCODE("weathercode", Resolution.HOURLY),
+    HOURLY_CLOUDCOVER("cloudcover", Resolution.HOURLY),
+    HOURLY_VISIBILITY("visibility", Resolution.HOURLY),
+    HOURLY_WINDSPEED_10M("windspeed_10m", Resolution.HOURLY),
+    HOURLY_WINDDIRECTION_10M("winddirection_10m", Resolution.HOURLY),
+    HOURLY_WINDGUSTS_10M("windgusts_10m", Resolution.HOURLY),
+    HOURLY_SURFACE_PRESSURE("surface_pressure", Resolution.HOURLY),
+    HOURLY_RELATIVEHUMIDITY_2M("relativehumidity_2m", Resolution.HOURLY),
+    HOURLY_DEWPOINT_2M("dewpoint_2m", Resolution.HOURLY),
+    HOURLY_PRECIPITATION_PROBABILITY("precipitation_probability", Resolution.HOURLY),
+    HOURLY_UV_INDEX("uv_index", Resolution.HOURLY),
+    HOURLY_FREEZINGLEVEL_HEIGHT("freezinglevel_height", Resolution.HOURLY),
+
+    // Daily variables
+    DAILY_TEMPERATURE_2M_MAX("temperature_2m_max", Resolution.DAILY),
+    DAILY_TEMPERATURE_2M_MIN("temperature_2m_min", Resolution.DAILY),
+    DAILY_APPARENT_TEMPERATURE_MAX("apparent_temperature_max", Resolution.DAILY),
+    DAILY_APPARENT_TEMPERATURE_MIN("apparent_temperature_min", Resolution.DAILY),
+    DAILY_PRECIPITATION_SUM("precipitation_sum", Resolution.DAILY),
+    DAILY_RAIN_SUM("rain_sum", Resolution.DAILY),
+    DAILY_SNOWFALL_SUM("snowfall_sum", Resolution.DAILY),
+    DAILY_WEATHERCODE("weathercode", Resolution.DAILY),
+    DAILY_SUNRISE("sunrise", Resolution.DAILY),
+    DAILY_SUNSET("sunset", Resolution.DAILY),
+    DAILY_WINDSPEED_10M_MAX("windspeed_10m_max", Resolution.DAILY),
+    DAILY_WINDGUSTS_10M_MAX("windgusts_10m_max", Resolution.DAILY),
+    DAILY_WINDDIRECTION_10M_DOMINANT("winddirection_10m_dominant", Resolution.DAILY),
+    DAILY_PRECIPITATION_PROBABILITY_MAX("precipitation_probability_max", Resolution.DAILY),
+    DAILY_UV_INDEX_MAX("uv_index_max", Resolution.DAILY);
+
+    /**
+     * Time resolution of a forecast variable.
+     */
+    public enum Resolution {
+        HOURLY,
+        DAILY
+    }
+
+    private static final Set<ForecastVariable> WEATHER_DAILY = EnumSet.of(
+            DAILY_TEMPERATURE_2M_MAX, DAILY_TEMPERATURE_2M_MIN,
+            DAILY_APPARENT_TEMPERATURE_MAX, DAILY_APPARENT_TEMPERATURE_MIN,
+            DAILY_PRECIPITATION_SUM, DAILY_RAIN_SUM, DAILY_SNOWFALL_SUM,
+            DAILY_WEATHERCODE, DAILY_SUNRISE, DAILY_SUNSET,
+            DAILY_WINDSPEED_10M_MAX, DAILY_WINDGUSTS_10M_MAX, DAILY_WINDDIRECTION_10M_DOMINANT,
+            DAILY_PRECIPITATION_PROBABILITY_MAX, DAILY_UV_INDEX_MAX);
+
+    private static final Set<ForecastVariable> WEATHER_HOURLY = EnumSet.of(
+            HOURLY_TEMPERATURE_2M, HOURLY_APPARENT_TEMPERATURE, HOURLY_PRECIPITATION, HOURLY_RAIN,
+            HOURLY_SNOWFALL, HOURLY_SNOW_DEPTH,
+            HOURLY_WEATHERCODE, HOURLY_CLOUDCOVER, HOURLY_VISIBILITY,
+            HOURLY_WINDSPEED_10M, HOURLY_WINDDIRECTION_10M, HOURLY_WINDGUSTS_10M,
+            HOURLY_SURFACE_PRESSURE, HOURLY_RELATIVEHUMIDITY_2M, HOURLY_DEWPOINT_2M,
+            HOURLY_PRECIPITATION_PROBABILITY, HOURLY_UV_INDEX);
+
+    private static final Set<ForecastVariable> SNOW_DAILY = EnumSet.of(
+            DAILY_TEMPERATURE_2M_MAX, DAILY_TEMPERATURE_2M_MIN,
+            DAILY_SNOWFALL_SUM, DAILY_WEATHERCODE,
+            DAILY_WINDSPEED_10M_MAX, DAILY_WINDGUSTS_10M_MAX, DAILY_WINDDIRECTION_10M_DOMINANT);
+
+    private static final Set<ForecastVariable> SNOW_HOURLY = EnumSet.of(
+            HOURLY_TEMPERATURE_2M, HOURLY_SNOWFALL, HOURLY_SNOW_DEPTH,
+            HOURLY_WEATHERCODE, HOURLY_CLOUDCOVER,
+            HOURLY_WINDSPEED_10M, HOURLY_WINDDIRECTION_10M, HOURLY_WINDGUSTS_10M,
+            HOURLY_FREEZINGLEVEL_HEIGHT);
+
+    private final String apiName;
+    private final Resolution resolution;
+
+    ForecastVariable(String apiName, Resolution resolution) {
+        this.apiName = apiName;
+        this.resolution = resolution;
+    }
+
+    /**
+     * Returns the variable name used in the Open-Meteo query string and response.
+     *
+     * @return API variable name
+     */
+    public String apiName() {
+        return apiName;
+    }
+
+    /**
+     * Returns the time resolution of this variable.
+     *
+     * @return HOURLY or DAILY
+     */
+    public Resolution resolution() {
+        return resolution;
+    }
+
+    /**
+     * Variables needed for a {@link com.openmeteo.mcp.model.dto.WeatherForecast}.
+     *
+     * @param includeHourly Whether hourly variables are needed
+     * @return Mutable set of variables
+     */
+    public static EnumSet<ForecastVariable> weather(boolean includeHourly) {
+        EnumSet<ForecastVariable> variables = EnumSet.copyOf(WEATHER_DAILY);
+        if (includeHourly) {
+            variables.addAll(WEATHER_HOURLY);
+        }
+        return variables;
+    }
+
+    /**
+     * Variables needed for {@link com.openmeteo.mcp.model.dto.SnowConditions}.
+     *
+     * @param includeHourly Whether hourly variables are needed
+     * @return Mutable set of variables
+     */
+    public static EnumSet<ForecastVariable> snow(boolean includeHourly) {
+        EnumSet<ForecastVariable> variables = EnumSet.copyOf(SNOW_DAILY);
+        if (includeHourly) {
+            variables.addAll(SNOW_HOURLY);
+        }
+        return variables;
+    }
+
+    /**
+     * Returns true if any variable in the set has the given resolution.
+     *
+     * @param variables  Variable set
+     * @param resolution Resolution to look for
+     * @return true if at least one variable matches
+     */
+    public static boolean any(Set<ForecastVariable> variables, Resolution resolution) {
+        return variables.stream().anyMatch(v -> v.resolution == resolution);
+    }
+
+    /**
+     * Joins the API names of all variables with the given resolution, in declaration order.
+     *
+     * @param variables  Variable set
+     * @param resolution Resolution to include
+     * @return Comma-separated API names (empty if none)
+     */
+    public static String join(Set<ForecastVariable> variables, Resolution resolution) {
+        return Arrays.stream(values())
+                .filter(v -> v.resolution == resolution && variables.contains(v))
+                .map(ForecastVariable::apiName)
+                .collect(Collectors.joining(","));
+    }
+}
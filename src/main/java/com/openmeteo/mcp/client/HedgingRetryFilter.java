@@ -0,0 +1,292 @@
+package com.openmeteo.mcp.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.PrematureCloseException;
+import reactor.util.retry.Retry;
+
+import java.net.SocketException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hedged requests and jittered retries for idempotent upstream GETs.
+ * <p>
+ * Hedging: once enough latencies have been observed, a GET that has not
+ * answered within the configured percentile of recent response times gets
+ * a second, identical request; whichever responds first wins and the other
+ * is cancelled (its body released).
+ * </p>
+ * <p>
+ * Retries: 5xx responses and connection resets are retried with exponential
+ * backoff and jitter. Timeouts are not retried; slowness is handled by the
+ * hedge instead.
+ * </p>
+ * <p>
+ * Both draw from one budget per host: every original request deposits
+ * {@code budgetRatio} tokens and every hedge or retry costs one, so extra
+ * load stays below that fraction of regular traffic. Other methods pass
+ * through untouched.
+ * </p>
+ */
+public class HedgingRetryFilter implements ExchangeFilterFunction {
+
+    private static final Logger log = LoggerFactory.getLogger(HedgingRetryFilter.class);
+
+    private static final int LATENCY_WINDOW = 256;
+    private static final int RECOMPUTE_EVERY = 16;
+
+    /**
+     * Hedging and retry settings.
+     *
+     * @param hedgeEnabled     Whether slow requests are hedged
+     * @param hedgePercentile  Latency percentile after which a hedge is sent (0-1)
+     * @param minHedgeDelay    Lower bound for the hedge delay
+     * @param minSamples       Observed latencies required before hedging starts
+     * @param maxRetries       Maximum retries per request
+     * @param initialBackoff   First retry backoff
+     * @param maxBackoff       Upper bound for the retry backoff
+     * @param jitter           Backoff jitter factor (0-1)
+     * @param budgetRatio      Extra requests allowed per original request
+     * @param budgetCap        Maximum tokens saved up for bursts
+     */
+    public record Settings(
+            boolean hedgeEnabled,
+            double hedgePercentile,
+            Duration minHedgeDelay,
+            int minSamples,
+            int maxRetries,
+            Duration initialBackoff,
+            Duration maxBackoff,
+            double jitter,
+            double budgetRatio,
+            int budgetCap) {
+    }
+
+    private final String host;
+    private final Settings settings;
+    private final Budget budget;
+
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private int samples;
+    private volatile long hedgeDelayNanos = -1;
+
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+    private final Counter statusRetries;
+    private final Counter connectionRetries;
+    private final Counter budgetExhausted;
+
+    /**
+     * Creates a filter for one upstream host.
+     *
+     * @param host          Host name used in metric tags
+     * @param settings      Hedging and retry settings
+     * @param meterRegistry Registry for hedge/retry metrics
+     */
+    public HedgingRetryFilter(String host, Settings settings, MeterRegistry meterRegistry) {
+        this.host = host;
+        this.settings = settings;
+        this.budget = new Budget(settings.budgetRatio(), settings.budgetCap());
+
+        this.hedgesSent = Counter.builder("openmeteo.http.hedges")
+                .description("Hedge requests sent after the learned latency threshold")
+                .tag("host", host)
+                .tag("result", "sent")
+                .register(meterRegistry);
+        this.hedgesWon = Counter.builder("openmeteo.http.hedges")
+                .description("Hedge requests that answered before the original")
+                .tag("host", host)
+                .tag("result", "won")
+                .register(meterRegistry);
+        this.statusRetries = Counter.builder("openmeteo.http.retries")
+                .description("Retries of idempotent upstream requests")
+                .tag("host", host)
+                .tag("reason", "status")
+                .register(meterRegistry);
+        this.connectionRetries = Counter.builder("openmeteo.http.retries")
+                .description("Retries of idempotent upstream requests")
+                .tag("host", host)
+                .tag("reason", "connection")
+                .register(meterRegistry);
+        this.budgetExhausted = Counter.builder("openmeteo.http.retry.budget.exhausted")
+                .description("Hedges or retries skipped because the budget was empty")
+                .tag("host", host)
+                .register(meterRegistry);
+        Gauge.builder("openmeteo.http.hedge.delay", this, f -> f.hedgeDelayNanos / 1_000_000.0)
+                .description("Current hedge delay in milliseconds (-1 until enough samples)")
+                .tag("host", host)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!HttpMethod.GET.equals(request.method())) {
+            return next.exchange(request);
+        }
+
+        return Mono.defer(() -> {
+            budget.deposit();
+            AtomicInteger attempts = new AtomicInteger();
+
+            return Mono.defer(() -> {
+                        int attempt = attempts.incrementAndGet();
+                        return hedged(request, next).flatMap(response -> {
+                            if (response.statusCode().is5xxServerError()
+                                    && attempt <= settings.maxRetries()
+                                    && withdraw()) {
+                                statusRetries.increment();
+                                log.debug("Retrying {} {} after status {} (attempt {})",
+                                        host, request.url().getPath(), response.statusCode(), attempt);
+                                return response.releaseBody()
+                                        .then(Mono.error(new RetryableStatusException(response.statusCode())));
+                            }
+                            return Mono.just(response);
+                        });
+                    })
+                    .retryWhen(Retry.backoff(settings.maxRetries(), settings.initialBackoff())
+                            .maxBackoff(settings.maxBackoff())
+                            .jitter(settings.jitter())
+                            .filter(error -> {
+                                if (error instanceof RetryableStatusException) {
+                                    return true;
+                                }
+                                if (isConnectionReset(error) && attempts.get() <= settings.maxRetries() && withdraw()) {
+                                    connectionRetries.increment();
+                                    log.debug("Retrying {} {} after connection error: {}",
+                                            host, request.url().getPath(), error.toString());
+                                    return true;
+                                }
+                                return false;
+                            })
+                            .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+        });
+    }
+
+    /**
+     * Sends the request, plus a hedge if it is still unanswered after the hedge delay.
+     */
+    private Mono<ClientResponse> hedged(ClientRequest request, ExchangeFunction next) {
+        Mono<ClientResponse> primary = timed(request, next);
+        long delayNanos = hedgeDelayNanos;
+        if (!settings.hedgeEnabled() || delayNanos < 0) {
+            return primary;
+        }
+
+        // The hedge never errors or completes empty, so the primary's outcome decides unless the hedge wins
+        Mono<ClientResponse> hedge = Mono.delay(Duration.ofNanos(delayNanos))
+                .flatMap(tick -> {
+                    if (!withdraw()) {
+                        return Mono.<ClientResponse>never();
+                    }
+                    hedgesSent.increment();
+                    return timed(request, next)
+                            .doOnNext(response -> hedgesWon.increment())
+                            .onErrorResume(error -> Mono.never());
+                });
+
+        return Mono.firstWithSignal(primary, hedge)
+                .doOnDiscard(ClientResponse.class, loser -> loser.releaseBody().subscribe());
+    }
+
+    private Mono<ClientResponse> timed(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return next.exchange(request)
+                    .doOnNext(response -> {
+                        if (!response.statusCode().is5xxServerError()) {
+                            recordLatency(System.nanoTime() - start);
+                        }
+                    });
+        });
+    }
+
+    private boolean withdraw() {
+        if (budget.tryWithdraw()) {
+            return true;
+        }
+        budgetExhausted.increment();
+        return false;
+    }
+
+    private synchronized void recordLatency(long nanos) {
+        latencies[samples % LATENCY_WINDOW] = nanos;
+        samples++;
+        if (samples >= settings.minSamples() && (samples % RECOMPUTE_EVERY == 0 || hedgeDelayNanos < 0)) {
+            long[] window = Arrays.copyOf(latencies, Math.min(samples, LATENCY_WINDOW));
+            Arrays.sort(window);
+            int index = (int) Math.ceil(settings.hedgePercentile() * window.length) - 1;
+            long percentile = window[Math.clamp(index, 0, window.length - 1)];
+            hedgeDelayNanos = Math.max(settings.minHedgeDelay().toNanos(), percentile);
+        }
+    }
+
+    /**
+     * Returns the current hedge delay.
+     *
+     * @return Hedge delay, or null until enough latencies have been observed
+     */
+    public Duration hedgeDelay() {
+        long nanos = hedgeDelayNanos;
+        return nanos < 0 ? null : Duration.ofNanos(nanos);
+    }
+
+    /**
+     * Only a dropped connection is replayed; other I/O errors, such as a body that
+     * fails to decode, would fail the same way again.
+     */
+    static boolean isConnectionReset(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SocketException || cause instanceof PrematureCloseException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Token budget shared by hedges and retries.
+     */
+    private static final class Budget {
+        private final double ratio;
+        private final double cap;
+        private double balance;
+
+        private Budget(double ratio, int cap) {
+            this.ratio = ratio;
+            this.cap = Math.max(1, cap);
+        }
+
+        private synchronized void deposit() {
+            balance = Math.min(cap, balance + ratio);
+        }
+
+        private synchronized boolean tryWithdraw() {
+            if (balance < 1.0) {
+                return false;
+            }
+            balance -= 1.0;
+            return true;
+        }
+    }
+
+    /**
+     * Signals a retryable 5xx response whose body has been released.
+     */
+    private static final class RetryableStatusException extends RuntimeException {
+        private RetryableStatusException(HttpStatusCode status) {
+            super("Retryable upstream status " + status, null, false, false);
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package com.openmeteo.mcp.client;
 
+import com.openmeteo.mcp.client.ForecastCache.DataProduct;
+import com.openmeteo.mcp.client.ForecastVariable.Resolution;
+import com.openmeteo.mcp.client.UpstreamLimiter.Priority;
 import com.openmeteo.mcp.exception.OpenMeteoException;
 import com.openmeteo.mcp.model.dto.*;
+import com.openmeteo.mcp.model.request.Coordinates;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -13,8 +19,14 @@ import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -23,16 +35,61 @@ import java.util.stream.Collectors;
  * Provides async methods for fetching weather, snow conditions,
  * air quality, and geocoding data using CompletableFuture.
  * </p>
+ * <p>
+ * Responses are served from {@link ForecastCache} when a fresh entry exists
+ * for the same grid cell; identical concurrent misses are coalesced into a
+ * single upstream call via {@link RequestCoalescer}.
+ * </p>
+ * <p>
+ * Weather and snow forecasts are planned through {@link ForecastPlanner}:
+ * overlapping /forecast queries for the same location are merged into one
+ * call, and both DTOs are projected from the same parsed response.
+ * </p>
+ * <p>
+ * Batch variants fetch many locations with comma-separated coordinate lists
+ * and split the response back into per-location DTOs.
+ * </p>
+ * <p>
+ * Every upstream exchange runs through {@link UpstreamLimiter}: single
+ * location calls in the interactive lane, batch calls in the batch lane.
+ * </p>
+ * <p>
+ * When a host's circuit is open ({@link CircuitOpenException}), the last
+ * known good cached response is served instead of an error. The
+ * {@code serve*} variants return each response together with its
+ * staleness ({@link Served}).
+ * </p>
  */
 @Component
 public class OpenMeteoClient {
 
         private static final Logger log = LoggerFactory.getLogger(OpenMeteoClient.class);
 
+        /**
+         * Maximum number of coordinates sent in one multi-location request.
+         */
+        public static final int MAX_BATCH_LOCATIONS = 50;
+
+        private static final String STALE_REASON = "Open-Meteo is unavailable; serving last known good data";
+
+        /**
+         * A response together with its staleness, decided when it was served.
+         *
+         * @param value     Response
+         * @param staleness Staleness marker if the response is a last known good fallback
+         * @param <T>       Response type
+         */
+        public record Served<T>(T value, Optional<Staleness> staleness) {}
+
         private final WebClient weatherWebClient;
         private final WebClient airQualityWebClient;
         private final WebClient geocodingWebClient;
         private final WebClient marineWebClient;
+        private final RequestCoalescer coalescer;
+        private final ForecastCache cache;
+        private final ForecastPlanner planner;
+        private final UpstreamLimiter limiter;
+        private final Counter staleFallbacks;
 
         /**
          * Constructor with dependency injection of WebClient beans.
@@ -41,16 +98,33 @@ public class OpenMeteoClient {
          * @param airQualityWebClient WebClient for air quality API
          * @param geocodingWebClient  WebClient for geocoding API
          * @param marineWebClient     WebClient for marine API
+         * @param coalescer           Single-flight coalescer for identical concurrent requests
+         * @param cache               Grid-snapped response cache
+         * @param planner             Variable-set planner for /forecast queries
+         * @param limiter             Adaptive upstream concurrency limiter
+         * @param meterRegistry       Registry for stale fallback metrics
          */
         public OpenMeteoClient(
                         @Qualifier("weatherWebClient") WebClient weatherWebClient,
                         @Qualifier("airQualityWebClient") WebClient airQualityWebClient,
                         @Qualifier("geocodingWebClient") WebClient geocodingWebClient,
-                        @Qualifier("marineWebClient") WebClient marineWebClient) {
+                        @Qualifier("marineWebClient") WebClient marineWebClient,
+                        RequestCoalescer coalescer,
+                        ForecastCache cache,
+                        ForecastPlanner planner,
+                        UpstreamLimiter limiter,
+                        MeterRegistry meterRegistry) {
                 this.weatherWebClient = weatherWebClient;
                 this.airQualityWebClient = airQualityWebClient;
                 this.geocodingWebClient = geocodingWebClient;
                 this.marineWebClient = marineWebClient;
+                this.coalescer = coalescer;
+                this.cache = cache;
+                this.planner = planner;
+                this.limiter = limiter;
+                this.staleFallbacks = Counter.builder("openmeteo.client.stale.fallbacks")
+                                .description("Responses served from the last known good cache entry while a circuit was open")
+                                .register(meterRegistry);
         }
 
         /**
@@ -69,49 +143,62 @@ public class OpenMeteoClient {
                         int forecastDays,
                         boolean includeHourly,
                         String timezone) {
+                return getWeather(latitude, longitude, forecastDays, includeHourly, timezone, Priority.INTERACTIVE);
+        }
+
+        /**
+         * Fetches weather forecast for the specified location in the given lane of the upstream limiter.
+         *
+         * @param latitude      Latitude in decimal degrees
+         * @param longitude     Longitude in decimal degrees
+         * @param forecastDays  Number of forecast days (1-16)
+         * @param includeHourly Whether to include hourly forecast data
+         * @param timezone      Timezone identifier
+         * @param priority      Limiter lane for the upstream call, if one is needed
+         * @return CompletableFuture with WeatherForecast
+         */
+        public CompletableFuture<WeatherForecast> getWeather(
+                        double latitude,
+                        double longitude,
+                        int forecastDays,
+                        boolean includeHourly,
+                        String timezone,
+                        Priority priority) {
+                return serveWeather(latitude, longitude, forecastDays, includeHourly, timezone, priority)
+                                .thenApply(Served::value);
+        }
+
+        /**
+         * Fetches weather forecast like {@link #getWeather}, together with its staleness.
+         *
+         * @param latitude      Latitude in decimal degrees
+         * @param longitude     Longitude in decimal degrees
+         * @param forecastDays  Number of forecast days (1-16)
+         * @param includeHourly Whether to include hourly forecast data
+         * @param timezone      Timezone identifier
+         * @param priority      Limiter lane for the upstream call, if one is needed
+         * @return CompletableFuture with the served WeatherForecast
+         */
+        public CompletableFuture<Served<WeatherForecast>> serveWeather(
+                        double latitude,
+                        double longitude,
+                        int forecastDays,
+                        boolean includeHourly,
+                        String timezone,
+                        Priority priority) {
                 // Clamp forecast days to 1-16
                 int clampedDays = Math.max(1, Math.min(forecastDays, 16));
 
-                // Build query parameters
-                MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
-                params.add("latitude", String.valueOf(latitude));
-                params.add("longitude", String.valueOf(longitude));
-                params.add("forecast_days", String.valueOf(clampedDays));
-                params.add("timezone", timezone);
-                params.add("current_weather", "true");
-
-                // Add daily parameters (always included)
-                params.add("daily", String.join(",", List.of(
-                                "temperature_2m_max", "temperature_2m_min",
-                                "apparent_temperature_max", "apparent_temperature_min",
-                                "precipitation_sum", "rain_sum", "snowfall_sum",
-                                "weathercode", "sunrise", "sunset",
-                                "windspeed_10m_max", "windgusts_10m_max", "winddirection_10m_dominant",
-                                "precipitation_probability_max", "uv_index_max")));
-
-                // Add hourly parameters (conditional)
-                if (includeHourly) {
-                        params.add("hourly", String.join(",", List.of(
-                                        "temperature_2m", "apparent_temperature", "precipitation", "rain", "snowfall",
-                                        "snow_depth",
-                                        "weathercode", "cloudcover", "visibility",
-                                        "windspeed_10m", "winddirection_10m", "windgusts_10m",
-                                        "surface_pressure", "relativehumidity_2m", "dewpoint_2m",
-                                        "precipitation_probability", "uv_index")));
-                }
+                Set<ForecastVariable> variables = ForecastVariable.weather(includeHourly);
 
                 log.debug("Fetching weather for lat={}, lon={}, days={}, includeHourly={}",
                                 latitude, longitude, clampedDays, includeHourly);
 
-                return weatherWebClient.get()
-                                .uri(uriBuilder -> uriBuilder
-                                                .path("/forecast")
-                                                .queryParams(params)
-                                                .build())
-                                .retrieve()
-                                .onStatus(HttpStatusCode::isError, this::handleErrorResponse)
-                                .bodyToMono(WeatherForecast.class)
-                                .toFuture();
+                String cacheKey = cache.key(DataProduct.FORECAST, latitude, longitude,
+                                "weather", clampedDays, includeHourly, timezone);
+                return cached(DataProduct.FORECAST, cacheKey,
+                                () -> planForecast(latitude, longitude, clampedDays, timezone, variables, priority)
+                                                .thenApply(response -> response.toWeatherForecast(variables)));
         }
 
         /**
@@ -130,43 +217,39 @@ public class OpenMeteoClient {
                         int forecastDays,
                         boolean includeHourly,
                         String timezone) {
+                return serveSnowConditions(latitude, longitude, forecastDays, includeHourly, timezone)
+                                .thenApply(Served::value);
+        }
+
+        /**
+         * Fetches snow conditions like {@link #getSnowConditions}, together with their staleness.
+         *
+         * @param latitude      Latitude in decimal degrees
+         * @param longitude     Longitude in decimal degrees
+         * @param forecastDays  Number of forecast days (1-16)
+         * @param includeHourly Whether to include hourly snow data
+         * @param timezone      Timezone identifier
+         * @return CompletableFuture with the served SnowConditions
+         */
+        public CompletableFuture<Served<SnowConditions>> serveSnowConditions(
+                        double latitude,
+                        double longitude,
+                        int forecastDays,
+                        boolean includeHourly,
+                        String timezone) {
                 // Clamp forecast days to 1-16
                 int clampedDays = Math.max(1, Math.min(forecastDays, 16));
 
-                // Build query parameters
-                MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
-                params.add("latitude", String.valueOf(latitude));
-                params.add("longitude", String.valueOf(longitude));
-                params.add("forecast_days", String.valueOf(clampedDays));
-                params.add("timezone", timezone);
-                params.add("current_weather", "true");
-
-                // Add daily parameters
-                params.add("daily", String.join(",", List.of(
-                                "temperature_2m_max", "temperature_2m_min",
-                                "snowfall_sum", "weathercode",
-                                "windspeed_10m_max", "windgusts_10m_max", "winddirection_10m_dominant")));
-
-                // Add hourly parameters (conditional)
-                if (includeHourly) {
-                        params.add("hourly", String.join(",", List.of(
-                                        "temperature_2m", "snowfall", "snow_depth",
-                                        "weathercode", "cloudcover",
-                                        "windspeed_10m", "winddirection_10m", "windgusts_10m",
-                                        "freezinglevel_height")));
-                }
+                Set<ForecastVariable> variables = ForecastVariable.snow(includeHourly);
 
                 log.debug("Fetching snow conditions for lat={}, lon={}, days={}", latitude, longitude, clampedDays);
 
-                return weatherWebClient.get()
-                                .uri(uriBuilder -> uriBuilder
-                                                .path("/forecast")
-                                                .queryParams(params)
-                                                .build())
-                                .retrieve()
-                                .onStatus(HttpStatusCode::isError, this::handleErrorResponse)
-                                .bodyToMono(SnowConditions.class)
-                                .toFuture();
+                String cacheKey = cache.key(DataProduct.FORECAST, latitude, longitude,
+                                "snow", clampedDays, includeHourly, timezone);
+                return cached(DataProduct.FORECAST, cacheKey,
+                                () -> planForecast(latitude, longitude, clampedDays, timezone, variables,
+                                                Priority.INTERACTIVE)
+                                                .thenApply(response -> response.toSnowConditions(variables)));
         }
 
         /**
@@ -185,6 +268,26 @@ public class OpenMeteoClient {
                         int forecastDays,
                         boolean includePollen,
                         String timezone) {
+                return serveAirQuality(latitude, longitude, forecastDays, includePollen, timezone)
+                                .thenApply(Served::value);
+        }
+
+        /**
+         * Fetches air quality forecast like {@link #getAirQuality}, together with its staleness.
+         *
+         * @param latitude      Latitude in decimal degrees
+         * @param longitude     Longitude in decimal degrees
+         * @param forecastDays  Number of forecast days (1-5)
+         * @param includePollen Whether to include pollen data (Europe only)
+         * @param timezone      Timezone identifier
+         * @return CompletableFuture with the served AirQualityForecast
+         */
+        public CompletableFuture<Served<AirQualityForecast>> serveAirQuality(
+                        double latitude,
+                        double longitude,
+                        int forecastDays,
+                        boolean includePollen,
+                        String timezone) {
                 // Clamp forecast days to 1-5 for air quality
                 int clampedDays = Math.max(1, Math.min(forecastDays, 5));
 
@@ -192,7 +295,254 @@ public class OpenMeteoClient {
                 MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
                 params.add("latitude", String.valueOf(latitude));
                 params.add("longitude", String.valueOf(longitude));
-                params.add("forecast_days", String.valueOf(clampedDays));
+                params.addAll(airQualityQuery(clampedDays, includePollen, timezone));
+
+                log.debug("Fetching air quality for lat={}, lon={}, days={}, includePollen={}",
+                                latitude, longitude, clampedDays, includePollen);
+
+                String cacheKey = cache.key(DataProduct.AIR_QUALITY, latitude, longitude,
+                                clampedDays, includePollen, timezone);
+                return cached(DataProduct.AIR_QUALITY, cacheKey,
+                                () -> coalescer.execute(RequestCoalescer.canonicalKey("air-quality:/air-quality", params),
+                                        () -> limiter.execute(Priority.INTERACTIVE, () -> airQualityWebClient.get()
+                                                        .uri(uriBuilder -> uriBuilder
+                                                                        .path("/air-quality")
+                                                                        .queryParams(params)
+                                                                        .build())
+                                                        .retrieve()
+                                                        .onStatus(HttpStatusCode::isError, this::handleErrorResponse)
+                                                        .bodyToMono(AirQualityForecast.class))));
+        }
+
+        /**
+         * Fetches weather forecasts for multiple locations in as few upstream calls as possible.
+         * <p>
+         * Locations with a fresh cache entry are served locally; the remaining
+         * ones are sent as comma-separated coordinate lists, in chunks of at
+         * most {@link #MAX_BATCH_LOCATIONS}. Each response element is cached
+         * under the same key as {@link #getWeather}, so later single-location
+         * calls hit the cache.
+         * </p>
+         *
+         * @param locations     Locations to fetch, in result order
+         * @param forecastDays  Number of forecast days (1-16)
+         * @param includeHourly Whether to include hourly forecast data
+         * @param timezone      Timezone identifier (applied to all locations)
+         * @return CompletableFuture with one WeatherForecast per location, in input order
+         */
+        public CompletableFuture<List<WeatherForecast>> getWeatherBatch(
+                        List<Coordinates> locations,
+                        int forecastDays,
+                        boolean includeHourly,
+                        String timezone) {
+                return serveWeatherBatch(locations, forecastDays, includeHourly, timezone)
+                                .thenApply(OpenMeteoClient::values);
+        }
+
+        /**
+         * Fetches weather forecasts like {@link #getWeatherBatch}, each together with its staleness.
+         *
+         * @param locations     Locations to fetch, in result order
+         * @param forecastDays  Number of forecast days (1-16)
+         * @param includeHourly Whether to include hourly forecast data
+         * @param timezone      Timezone identifier (applied to all locations)
+         * @return CompletableFuture with one served WeatherForecast per location, in input order
+         */
+        public CompletableFuture<List<Served<WeatherForecast>>> serveWeatherBatch(
+                        List<Coordinates> locations,
+                        int forecastDays,
+                        boolean includeHourly,
+                        String timezone) {
+                int clampedDays = Math.max(1, Math.min(forecastDays, 16));
+
+                log.debug("Fetching weather batch for {} locations, days={}, includeHourly={}",
+                                locations.size(), clampedDays, includeHourly);
+
+                return fetchBatch(
+                                DataProduct.FORECAST,
+                                locations,
+                                loc -> cache.key(DataProduct.FORECAST, loc.latitude(), loc.longitude(),
+                                                "weather", clampedDays, includeHourly, timezone),
+                                forecastQuery(clampedDays, timezone, ForecastVariable.weather(includeHourly)),
+                                "weather:/forecast",
+                                weatherWebClient,
+                                "/forecast",
+                                WeatherForecast.class);
+        }
+
+        /**
+         * Fetches air quality forecasts for multiple locations in as few upstream calls as possible.
+         * <p>
+         * Same batching and caching behavior as {@link #getWeatherBatch}.
+         * </p>
+         *
+         * @param locations     Locations to fetch, in result order
+         * @param forecastDays  Number of forecast days (1-5)
+         * @param includePollen Whether to include pollen data (Europe only)
+         * @param timezone      Timezone identifier (applied to all locations)
+         * @return CompletableFuture with one AirQualityForecast per location, in input order
+         */
+        public CompletableFuture<List<AirQualityForecast>> getAirQualityBatch(
+                        List<Coordinates> locations,
+                        int forecastDays,
+                        boolean includePollen,
+                        String timezone) {
+                return serveAirQualityBatch(locations, forecastDays, includePollen, timezone)
+                                .thenApply(OpenMeteoClient::values);
+        }
+
+        /**
+         * Fetches air quality forecasts like {@link #getAirQualityBatch}, each together with its staleness.
+         *
+         * @param locations     Locations to fetch, in result order
+         * @param forecastDays  Number of forecast days (1-5)
+         * @param includePollen Whether to include pollen data (Europe only)
+         * @param timezone      Timezone identifier (applied to all locations)
+         * @return CompletableFuture with one served AirQualityForecast per location, in input order
+         */
+        public CompletableFuture<List<Served<AirQualityForecast>>> serveAirQualityBatch(
+                        List<Coordinates> locations,
+                        int forecastDays,
+                        boolean includePollen,
+                        String timezone) {
+                int clampedDays = Math.max(1, Math.min(forecastDays, 5));
+
+                log.debug("Fetching air quality batch for {} locations, days={}, includePollen={}",
+                                locations.size(), clampedDays, includePollen);
+
+                return fetchBatch(
+                                DataProduct.AIR_QUALITY,
+                                locations,
+                                loc -> cache.key(DataProduct.AIR_QUALITY, loc.latitude(), loc.longitude(),
+                                                clampedDays, includePollen, timezone),
+                                airQualityQuery(clampedDays, includePollen, timezone),
+                                "air-quality:/air-quality",
+                                airQualityWebClient,
+                                "/air-quality",
+                                AirQualityForecast.class);
+        }
+
+        /**
+         * Searches for locations by name using the geocoding API.
+         *
+         * @param name     Location name to search for
+         * @param count    Maximum number of results (1-100)
+         * @param language Language code for results
+         * @param country  Optional country code filter (ISO 3166-1 alpha-2)
+         * @return CompletableFuture with GeocodingResponse
+         */
+        public CompletableFuture<GeocodingResponse> searchLocation(
+                        String name,
+                        int count,
+                        String language,
+                        String country) {
+                // Clamp count to 1-100
+                int clampedCount = Math.max(1, Math.min(count, 100));
+
+                MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+                params.add("name", name);
+                params.add("count", String.valueOf(clampedCount));
+                params.add("language", language);
+
+                // Only add country parameter if provided
+                if (country != null && !country.isEmpty()) {
+                        params.add("country", country);
+                }
+
+                log.debug("Searching location: name={}, count={}, language={}, country={}",
+                                name, clampedCount, language, country);
+
+                String cacheKey = cache.nameKey(DataProduct.GEOCODING, name, clampedCount, language, country);
+                return cached(DataProduct.GEOCODING, cacheKey,
+                                () -> coalescer.execute(RequestCoalescer.canonicalKey("geocoding:/search", params),
+                                        () -> limiter.execute(Priority.INTERACTIVE, () -> geocodingWebClient.get()
+                                                        .uri(uriBuilder -> uriBuilder
+                                                                        .path("/search")
+                                                                        .queryParams(params)
+                                                                        .build())
+                                                        .retrieve()
+                                                        .onStatus(HttpStatusCode::isError, this::handleErrorResponse)
+                                                        .bodyToMono(GeocodingResponse.class))
+                                                        .map(response -> filterByCountry(response, country))))
+                                .thenApply(Served::value);
+        }
+
+        /**
+         * Fetches the union of planned /forecast variables for a location.
+         * <p>
+         * Overlapping requests for the same grid cell, forecast days and
+         * timezone are merged by {@link ForecastPlanner} into one upstream call.
+         * </p>
+         *
+         * @param latitude     Latitude in decimal degrees
+         * @param longitude    Longitude in decimal degrees
+         * @param forecastDays Clamped number of forecast days
+         * @param timezone     Timezone identifier
+         * @param variables    Variables the caller needs
+         * @param priority     Limiter lane for the upstream call
+         * @return CompletableFuture with the shared parsed response
+         */
+        private CompletableFuture<ForecastResponse> planForecast(
+                        double latitude,
+                        double longitude,
+                        int forecastDays,
+                        String timezone,
+                        Set<ForecastVariable> variables,
+                        Priority priority) {
+                String planKey = cache.key(DataProduct.FORECAST, latitude, longitude,
+                                "plan", forecastDays, timezone);
+                return planner.fetch(planKey, variables, planned -> {
+                        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+                        params.add("latitude", String.valueOf(latitude));
+                        params.add("longitude", String.valueOf(longitude));
+                        params.addAll(forecastQuery(forecastDays, timezone, planned));
+
+                        return limiter.execute(priority, () -> weatherWebClient.get()
+                                        .uri(uriBuilder -> uriBuilder
+                                                        .path("/forecast")
+                                                        .queryParams(params)
+                                                        .build())
+                                        .retrieve()
+                                        .onStatus(HttpStatusCode::isError, this::handleErrorResponse)
+                                        .bodyToMono(ForecastResponse.class));
+                });
+        }
+
+        /**
+         * Builds the location-independent /forecast query parameters for a variable set.
+         *
+         * @param forecastDays Clamped number of forecast days
+         * @param timezone     Timezone identifier
+         * @param variables    Variables to request
+         * @return Query parameters without latitude/longitude
+         */
+        private MultiValueMap<String, String> forecastQuery(int forecastDays, String timezone,
+                        Set<ForecastVariable> variables) {
+                MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+                params.add("forecast_days", String.valueOf(forecastDays));
+                params.add("timezone", timezone);
+                params.add("current_weather", "true");
+
+                if (ForecastVariable.any(variables, Resolution.DAILY)) {
+                        params.add("daily", ForecastVariable.join(variables, Resolution.DAILY));
+                }
+                if (ForecastVariable.any(variables, Resolution.HOURLY)) {
+                        params.add("hourly", ForecastVariable.join(variables, Resolution.HOURLY));
+                }
+                return params;
+        }
+
+        /**
+         * Builds the location-independent query parameters for air quality forecasts.
+         *
+         * @param forecastDays  Clamped number of forecast days
+         * @param includePollen Whether to include pollen data
+         * @param timezone      Timezone identifier
+         * @return Query parameters without latitude/longitude
+         */
+        private MultiValueMap<String, String> airQualityQuery(int forecastDays, boolean includePollen, String timezone) {
+                MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+                params.add("forecast_days", String.valueOf(forecastDays));
                 params.add("timezone", timezone);
 
                 // Build current parameters
@@ -204,7 +554,7 @@ public class OpenMeteoClient {
                 params.add("current", String.join(",", currentParams));
 
                 // Build hourly parameters
-                List<String> hourlyParamsList = new java.util.ArrayList<>(List.of(
+                List<String> hourlyParamsList = new ArrayList<>(List.of(
                                 "european_aqi", "us_aqi",
                                 "pm10", "pm2_5",
                                 "carbon_monoxide", "nitrogen_dioxide", "sulphur_dioxide", "ozone",
@@ -218,61 +568,174 @@ public class OpenMeteoClient {
                 }
 
                 params.add("hourly", String.join(",", hourlyParamsList));
+                return params;
+        }
 
-                log.debug("Fetching air quality for lat={}, lon={}, days={}, includePollen={}",
-                                latitude, longitude, clampedDays, includePollen);
+        /**
+         * Fetches one DTO per location using multi-coordinate upstream calls.
+         * <p>
+         * Cached locations are resolved first. Misses are split into chunks of
+         * {@link #MAX_BATCH_LOCATIONS}; each chunk is one coalesced request in
+         * the batch lane whose response array is mapped back to the locations
+         * by position.
+         * </p>
+         *
+         * @param product     Data product for caching
+         * @param locations   Locations in result order
+         * @param cacheKey    Per-location cache key, identical to the single-location call
+         * @param query       Location-independent query parameters
+         * @param endpointKey Endpoint identifier for coalescing
+         * @param webClient   WebClient for the upstream API
+         * @param path        Request path
+         * @param type        Response element type
+         * @param <T>         Response element type
+         * @return CompletableFuture with one served result per location, in input order
+         */
+        @SuppressWarnings("unchecked")
+        private <T> CompletableFuture<List<Served<T>>> fetchBatch(
+                        DataProduct product,
+                        List<Coordinates> locations,
+                        Function<Coordinates, String> cacheKey,
+                        MultiValueMap<String, String> query,
+                        String endpointKey,
+                        WebClient webClient,
+                        String path,
+                        Class<T> type) {
+                Object[] results = new Object[locations.size()];
+                String[] keys = new String[locations.size()];
+                List<Integer> misses = new ArrayList<>();
+
+                for (int i = 0; i < locations.size(); i++) {
+                        keys[i] = cacheKey.apply(locations.get(i));
+                        Object cached = cache.lookup(product, keys[i]);
+                        if (cached != null) {
+                                results[i] = new Served<>(cached, Optional.empty());
+                        } else {
+                                misses.add(i);
+                        }
+                }
+
+                List<CompletableFuture<Void>> chunks = new ArrayList<>();
+                for (int from = 0; from < misses.size(); from += MAX_BATCH_LOCATIONS) {
+                        List<Integer> chunk = misses.subList(from, Math.min(from + MAX_BATCH_LOCATIONS, misses.size()));
+
+                        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+                        params.add("latitude", chunk.stream()
+                                        .map(i -> String.valueOf(locations.get(i).latitude()))
+                                        .collect(Collectors.joining(",")));
+                        params.add("longitude", chunk.stream()
+                                        .map(i -> String.valueOf(locations.get(i).longitude()))
+                                        .collect(Collectors.joining(",")));
+                        params.addAll(query);
+
+                        // A single location returns an object, several return an array; bodyToFlux handles both
+                        chunks.add(coalescer.execute(RequestCoalescer.canonicalKey(endpointKey, params),
+                                        () -> limiter.execute(Priority.BATCH, () -> webClient.get()
+                                                        .uri(uriBuilder -> uriBuilder
+                                                                        .path(path)
+                                                                        .queryParams(params)
+                                                                        .build())
+                                                        .retrieve()
+                                                        .onStatus(HttpStatusCode::isError, this::handleErrorResponse)
+                                                        .bodyToFlux(type)
+                                                        .collectList()))
+                                        .thenAccept(items -> {
+                                                if (items.size() != chunk.size()) {
+                                                        throw new OpenMeteoException(
+                                                                        "Batch response size mismatch: expected " + chunk.size()
+                                                                                        + ", got " + items.size(),
+                                                                        502);
+                                                }
+                                                for (int j = 0; j < chunk.size(); j++) {
+                                                        int index = chunk.get(j);
+                                                        results[index] = new Served<>(items.get(j), Optional.empty());
+                                                        cache.put(product, keys[index], items.get(j));
+                                                }
+                                        })
+                                        .exceptionallyCompose(ex -> staleChunk(product, keys, chunk, results, ex)));
+                }
+
+                log.debug("Batch {}: {} locations, {} cached, {} upstream calls",
+                                endpointKey, locations.size(), locations.size() - misses.size(), chunks.size());
 
-                return airQualityWebClient.get()
-                                .uri(uriBuilder -> uriBuilder
-                                                .path("/air-quality")
-                                                .queryParams(params)
-                                                .build())
-                                .retrieve()
-                                .onStatus(HttpStatusCode::isError, this::handleErrorResponse)
-                                .bodyToMono(AirQualityForecast.class)
-                                .toFuture();
+                return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]))
+                                .thenApply(v -> (List<Served<T>>) (List<?>) List.of(results));
         }
 
         /**
-         * Searches for locations by name using the geocoding API.
+         * Returns the cached value or loads it, falling back to the last known
+         * good value while the upstream circuit is open.
          *
-         * @param name     Location name to search for
-         * @param count    Maximum number of results (1-100)
-         * @param language Language code for results
-         * @param country  Optional country code filter (ISO 3166-1 alpha-2)
-         * @return CompletableFuture with GeocodingResponse
+         * @param product Data product for caching
+         * @param key     Cache key
+         * @param loader  Upstream loader
+         * @param <T>     Value type
+         * @return CompletableFuture with the current or last known good value and its staleness
          */
-        public CompletableFuture<GeocodingResponse> searchLocation(
-                        String name,
-                        int count,
-                        String language,
-                        String country) {
-                // Clamp count to 1-100
-                int clampedCount = Math.max(1, Math.min(count, 100));
+        @SuppressWarnings("unchecked")
+        private <T> CompletableFuture<Served<T>> cached(DataProduct product, String key,
+                        Supplier<CompletableFuture<T>> loader) {
+                return cache.getOrLoad(product, key, loader)
+                                .thenApply(value -> new Served<>(value, Optional.empty()))
+                                .exceptionallyCompose(ex -> {
+                                        if (isCircuitOpen(ex)) {
+                                                ForecastCache.Lookup stale = cache.lookupStale(product, key, STALE_REASON);
+                                                if (stale != null) {
+                                                        staleFallbacks.increment();
+                                                        log.warn("Serving stale {} for {}: {}", product.tag(), key, unwrap(ex).getMessage());
+                                                        return CompletableFuture.completedFuture(
+                                                                        new Served<>((T) stale.value(), stale.staleness()));
+                                                }
+                                        }
+                                        return CompletableFuture.failedFuture(ex);
+                                });
+        }
 
-                log.debug("Searching location: name={}, count={}, language={}, country={}",
-                                name, clampedCount, language, country);
+        private static <T> List<T> values(List<Served<T>> served) {
+                return served.stream().map(Served::value).toList();
+        }
 
-                return geocodingWebClient.get()
-                                .uri(uriBuilder -> {
-                                        var builder = uriBuilder
-                                                        .path("/search")
-                                                        .queryParam("name", name)
-                                                        .queryParam("count", clampedCount)
-                                                        .queryParam("language", language);
-
-                                        // Only add country parameter if provided
-                                        if (country != null && !country.isEmpty()) {
-                                                builder.queryParam("country", country);
-                                        }
+        /**
+         * Fills a failed batch chunk with last known good values while the circuit is open.
+         *
+         * @param product Data product for caching
+         * @param keys    Cache keys of all batch locations
+         * @param chunk   Indexes of the locations in the failed chunk
+         * @param results Batch results, filled in place
+         * @param ex      Chunk failure
+         * @return Completed future if every chunk location had a stale value, otherwise the original failure
+         */
+        private CompletableFuture<Void> staleChunk(DataProduct product, String[] keys, List<Integer> chunk,
+                        Object[] results, Throwable ex) {
+                if (!isCircuitOpen(ex)) {
+                        return CompletableFuture.failedFuture(ex);
+                }
+                ForecastCache.Lookup[] stale = new ForecastCache.Lookup[chunk.size()];
+                for (int j = 0; j < chunk.size(); j++) {
+                        stale[j] = cache.lookupStale(product, keys[chunk.get(j)], STALE_REASON);
+                        if (stale[j] == null) {
+                                return CompletableFuture.failedFuture(ex);
+                        }
+                }
+                for (int j = 0; j < chunk.size(); j++) {
+                        results[chunk.get(j)] = new Served<>(stale[j].value(), stale[j].staleness());
+                }
+                staleFallbacks.increment(chunk.size());
+                log.warn("Serving stale {} for {} batch locations: {}",
+                                product.tag(), chunk.size(), unwrap(ex).getMessage());
+                return CompletableFuture.completedFuture(null);
+        }
 
-                                        return builder.build();
-                                })
-                                .retrieve()
-                                .onStatus(HttpStatusCode::isError, this::handleErrorResponse)
-                                .bodyToMono(GeocodingResponse.class)
-                                .map(response -> filterByCountry(response, country))
-                                .toFuture();
+        private static boolean isCircuitOpen(Throwable ex) {
+                return unwrap(ex) instanceof CircuitOpenException;
+        }
+
+        private static Throwable unwrap(Throwable ex) {
+                Throwable cause = ex;
+                while (cause instanceof CompletionException && cause.getCause() != null) {
+                        cause = cause.getCause();
+                }
+                return cause;
         }
 
         /**
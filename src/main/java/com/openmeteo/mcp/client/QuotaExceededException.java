@@ -0,0 +1,30 @@
+package com.openmeteo.mcp.client;
+
+import com.openmeteo.mcp.exception.OpenMeteoException;
+
+/**
+ * Thrown without contacting upstream when the shared Open-Meteo call quota is used up.
+ */
+public class QuotaExceededException extends OpenMeteoException {
+
+    private final long retryAfterMillis;
+
+    /**
+     * Constructs a new QuotaExceededException.
+     *
+     * @param retryAfterMillis time until the next call token is expected
+     */
+    public QuotaExceededException(long retryAfterMillis) {
+        super("Open-Meteo call quota exhausted, retry in " + retryAfterMillis + " ms", 429);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    /**
+     * Returns the time until the next call token is expected.
+     *
+     * @return milliseconds until the quota refills
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
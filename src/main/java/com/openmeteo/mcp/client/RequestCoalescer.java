@@ -0,0 +1,118 @@
+package com.openmeteo.mcp.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Single-flight coalescing of identical upstream requests.
+ * <p>
+ * Concurrent calls with the same canonical query (endpoint plus sorted
+ * parameters) share one in-flight upstream fetch. The first caller triggers
+ * the request; later callers attach to it until it completes.
+ * </p>
+ * <p>
+ * Every caller receives its own dependent future, so cancelling one caller
+ * never cancels the shared fetch or the other callers.
+ * </p>
+ */
+@Component
+public class RequestCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestCoalescer.class);
+
+    private final Map<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final Counter upstreamCalls;
+    private final Counter coalescedCalls;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.upstreamCalls = Counter.builder("openmeteo.coalescer.calls")
+                .description("Calls that triggered an upstream request")
+                .tag("result", "upstream")
+                .register(meterRegistry);
+        this.coalescedCalls = Counter.builder("openmeteo.coalescer.calls")
+                .description("Calls that joined an identical in-flight request")
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("openmeteo.coalescer.inflight", inFlight, Map::size)
+                .description("Distinct upstream requests currently in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executes the upstream call, or joins an identical call already in flight.
+     *
+     * @param key      Canonical query key (see {@link #canonicalKey})
+     * @param upstream Supplier of the upstream request, invoked only by the first caller
+     * @param <T>      Response type
+     * @return CompletableFuture owned by this caller
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> execute(String key, Supplier<Mono<T>> upstream) {
+        CompletableFuture<T> shared = new CompletableFuture<>();
+        CompletableFuture<?> existing = inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            coalescedCalls.increment();
+            log.debug("Coalesced request onto in-flight fetch: {}", key);
+            return ((CompletableFuture<T>) existing).copy();
+        }
+
+        upstreamCalls.increment();
+        try {
+            upstream.get()
+                    .toFuture()
+                    .whenComplete((value, ex) -> {
+                        inFlight.remove(key, shared);
+                        if (ex != null) {
+                            shared.completeExceptionally(ex);
+                        } else {
+                            shared.complete(value);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, shared);
+            shared.completeExceptionally(e);
+        }
+        return shared.copy();
+    }
+
+    /**
+     * Builds a canonical key from an endpoint and its query parameters.
+     * <p>
+     * Parameters are sorted by name so that logically identical queries map
+     * to the same key regardless of insertion order.
+     * </p>
+     *
+     * @param endpoint Endpoint identifier (e.g., "weather:/forecast")
+     * @param params   Query parameters
+     * @return Canonical key
+     */
+    public static String canonicalKey(String endpoint, MultiValueMap<String, String> params) {
+        String query = new TreeMap<>(params).entrySet().stream()
+                .map(e -> e.getKey() + "=" + String.join(",", e.getValue() != null ? e.getValue() : List.of()))
+                .collect(Collectors.joining("&"));
+        return endpoint + "?" + query;
+    }
+
+    /**
+     * Returns the number of distinct upstream requests currently in flight.
+     *
+     * @return In-flight request count
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,374 @@
+package com.openmeteo.mcp.client;
+
+import com.openmeteo.mcp.exception.OpenMeteoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Adaptive concurrency limit for upstream Open-Meteo requests.
+ * <p>
+ * The limit follows AIMD: every successful call while the limit is in use
+ * raises it by {@code 1/limit} (about one per round trip), and a call that
+ * signals overload (HTTP 429/503 or a timeout) multiplies it by the backoff
+ * ratio. Only one decrease is applied per generation of in-flight calls, so
+ * a burst of 429s from the same window backs off once.
+ * </p>
+ * <p>
+ * Calls are admitted by priority lane. A lane may only use its share of the
+ * limit, which keeps headroom for interactive tool calls while batch and
+ * prefetch traffic is running. Waiting calls are granted strictly in lane
+ * order; each lane has a bounded queue and a maximum wait, beyond which calls
+ * fail fast with a 503 {@link OpenMeteoException}.
+ * </p>
+ * <p>
+ * Open-Meteo quotas apply per client rather than per API host, so a single
+ * limit covers all hosts.
+ * </p>
+ */
+@Component
+public class UpstreamLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamLimiter.class);
+
+    /**
+     * Priority lanes, served in declaration order.
+     */
+    public enum Priority {
+        /** MCP tool calls a user is waiting on */
+        INTERACTIVE(1.0),
+        /** Multi-location and long-range fetches */
+        BATCH(0.8),
+        /** Background polling and cache warm-up */
+        PREFETCH(0.5);
+
+        private final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+
+        /**
+         * Returns the fraction of the limit this lane may occupy.
+         *
+         * @return Share of the concurrency limit
+         */
+        public double share() {
+            return share;
+        }
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private enum Outcome {
+        SUCCESS,
+        DROPPED,
+        IGNORED
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final int queueCapacity;
+    private final Duration maxQueueWait;
+
+    private final Map<Priority, Deque<Waiter>> queues = new EnumMap<>(Priority.class);
+    private final Map<Priority, Timer> queueWait = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> rejectedQueueFull = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> rejectedTimeout = new EnumMap<>(Priority.class);
+    private final Counter drops;
+
+    private double limit;
+    private int inFlight;
+    private long generation;
+
+    public UpstreamLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${openmeteo.limiter.initial-limit:20}") int initialLimit,
+            @Value("${openmeteo.limiter.min-limit:2}") int minLimit,
+            @Value("${openmeteo.limiter.max-limit:200}") int maxLimit,
+            @Value("${openmeteo.limiter.backoff-ratio:0.7}") double backoffRatio,
+            @Value("${openmeteo.limiter.queue-capacity:100}") int queueCapacity,
+            @Value("${openmeteo.limiter.max-queue-wait-ms:2000}") int maxQueueWaitMs) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.backoffRatio = backoffRatio;
+        this.queueCapacity = queueCapacity;
+        this.maxQueueWait = Duration.ofMillis(maxQueueWaitMs);
+        this.limit = Math.clamp(initialLimit, this.minLimit, this.maxLimit);
+
+        for (Priority priority : Priority.values()) {
+            Deque<Waiter> queue = new ArrayDeque<>();
+            queues.put(priority, queue);
+            queueWait.put(priority, Timer.builder("openmeteo.limiter.queue.wait")
+                    .description("Time spent waiting for an upstream concurrency permit")
+                    .tag("lane", priority.tag())
+                    .register(meterRegistry));
+            rejectedQueueFull.put(priority, Counter.builder("openmeteo.limiter.rejected")
+                    .description("Calls rejected by the upstream concurrency limiter")
+                    .tag("lane", priority.tag())
+                    .tag("reason", "queue-full")
+                    .register(meterRegistry));
+            rejectedTimeout.put(priority, Counter.builder("openmeteo.limiter.rejected")
+                    .description("Calls rejected by the upstream concurrency limiter")
+                    .tag("lane", priority.tag())
+                    .tag("reason", "timeout")
+                    .register(meterRegistry));
+            Gauge.builder("openmeteo.limiter.queued", this, l -> l.queued(priority))
+                    .description("Calls waiting for an upstream concurrency permit")
+                    .tag("lane", priority.tag())
+                    .register(meterRegistry);
+        }
+        this.drops = Counter.builder("openmeteo.limiter.drops")
+                .description("Upstream calls that signalled overload (429, 503, timeout)")
+                .register(meterRegistry);
+        Gauge.builder("openmeteo.limiter.limit", this, UpstreamLimiter::limit)
+                .description("Current adaptive upstream concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("openmeteo.limiter.inflight", this, UpstreamLimiter::inFlight)
+                .description("Upstream calls currently holding a permit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs an upstream call once a permit is available in the given lane.
+     * <p>
+     * The request supplier is invoked only after the permit is granted, and
+     * the permit is released when the call completes, fails or is cancelled.
+     * </p>
+     *
+     * @param priority Priority lane
+     * @param request  Supplier of the upstream request
+     * @param <T>      Response type
+     * @return Mono of the upstream response, or a 503 OpenMeteoException if the lane is saturated
+     */
+    public <T> Mono<T> execute(Priority priority, Supplier<Mono<T>> request) {
+        return acquire(priority).flatMap(permit -> {
+            Mono<T> call;
+            try {
+                call = request.get();
+            } catch (RuntimeException e) {
+                permit.release(Outcome.IGNORED);
+                return Mono.error(e);
+            }
+            return call
+                    .doOnSuccess(value -> permit.release(Outcome.SUCCESS))
+                    .doOnError(error -> permit.release(classify(error)))
+                    .doOnCancel(() -> permit.release(Outcome.IGNORED));
+        });
+    }
+
+    /**
+     * Returns the current concurrency limit.
+     *
+     * @return Limit, possibly fractional
+     */
+    public synchronized double limit() {
+        return limit;
+    }
+
+    /**
+     * Returns the number of calls currently holding a permit.
+     *
+     * @return In-flight call count
+     */
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Returns the number of calls waiting in a lane.
+     *
+     * @param priority Priority lane
+     * @return Queued call count
+     */
+    public synchronized int queued(Priority priority) {
+        return queues.get(priority).size();
+    }
+
+    private Mono<Permit> acquire(Priority priority) {
+        return Mono.<Permit>create(sink -> {
+                    Waiter waiter = new Waiter(priority, sink, System.nanoTime());
+                    sink.onCancel(() -> cancel(waiter));
+
+                    boolean rejected = false;
+                    synchronized (this) {
+                        if (!hasWaiters(priority) && hasCapacity(priority)) {
+                            waiter.permit = grant();
+                        } else if (queues.get(priority).size() >= queueCapacity) {
+                            rejected = true;
+                        } else {
+                            queues.get(priority).addLast(waiter);
+                        }
+                    }
+
+                    if (waiter.permit != null) {
+                        waiter.succeed();
+                    } else if (rejected) {
+                        rejectedQueueFull.get(priority).increment();
+                        sink.error(new OpenMeteoException(
+                                "Upstream concurrency limit reached: " + priority.tag() + " queue is full", 503));
+                    }
+                })
+                .timeout(maxQueueWait, Mono.defer(() -> {
+                    rejectedTimeout.get(priority).increment();
+                    return Mono.error(new OpenMeteoException(
+                            "Upstream concurrency limit reached: no permit within " + maxQueueWait.toMillis()
+                                    + " ms for " + priority.tag() + " lane", 503));
+                }));
+    }
+
+    private void cancel(Waiter waiter) {
+        Permit granted;
+        synchronized (this) {
+            if (queues.get(waiter.priority).remove(waiter)) {
+                return;
+            }
+            granted = waiter.permit;
+        }
+        // Granted concurrently with the cancellation: hand the permit back
+        if (granted != null) {
+            granted.release(Outcome.IGNORED);
+        }
+    }
+
+    private void onComplete(Permit permit, Outcome outcome) {
+        List<Waiter> granted;
+        synchronized (this) {
+            int used = inFlight;
+            inFlight--;
+            switch (outcome) {
+                case SUCCESS -> {
+                    // Only grow while the limit is actually being used
+                    if (used >= limit / 2) {
+                        limit = Math.min(maxLimit, limit + 1.0 / limit);
+                    }
+                }
+                case DROPPED -> {
+                    drops.increment();
+                    if (permit.generation == generation) {
+                        limit = Math.max(minLimit, limit * backoffRatio);
+                        generation++;
+                        log.debug("Upstream overload signalled, concurrency limit reduced to {}", limit);
+                    }
+                }
+                case IGNORED -> {
+                }
+            }
+            granted = drain();
+        }
+        granted.forEach(Waiter::succeed);
+    }
+
+    /**
+     * Grants permits to queued waiters in lane order. Caller holds the lock.
+     */
+    private List<Waiter> drain() {
+        List<Waiter> granted = new ArrayList<>();
+        for (Priority priority : Priority.values()) {
+            Deque<Waiter> queue = queues.get(priority);
+            while (!queue.isEmpty() && hasCapacity(priority)) {
+                Waiter waiter = queue.pollFirst();
+                waiter.permit = grant();
+                granted.add(waiter);
+            }
+        }
+        return granted;
+    }
+
+    private Permit grant() {
+        inFlight++;
+        return new Permit(generation);
+    }
+
+    private boolean hasCapacity(Priority priority) {
+        return inFlight < Math.max(1, (int) (limit * priority.share));
+    }
+
+    private boolean hasWaiters(Priority priority) {
+        for (Priority lane : Priority.values()) {
+            if (!queues.get(lane).isEmpty()) {
+                return true;
+            }
+            if (lane == priority) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private static Outcome classify(Throwable error) {
+        Throwable cause = Exceptions.unwrap(error);
+        if (cause instanceof CircuitOpenException || cause instanceof QuotaExceededException) {
+            // Rejected locally, says nothing about current upstream capacity
+            return Outcome.IGNORED;
+        }
+        if (cause instanceof TimeoutException) {
+            return Outcome.DROPPED;
+        }
+        int status = 0;
+        if (cause instanceof OpenMeteoException e) {
+            status = e.getStatusCode();
+        } else if (cause instanceof WebClientResponseException e) {
+            status = e.getStatusCode().value();
+        }
+        return status == 429 || status == 503 ? Outcome.DROPPED : Outcome.IGNORED;
+    }
+
+    private final class Waiter {
+        private final Priority priority;
+        private final MonoSink<Permit> sink;
+        private final long enqueuedNanos;
+        private Permit permit;
+
+        private Waiter(Priority priority, MonoSink<Permit> sink, long enqueuedNanos) {
+            this.priority = priority;
+            this.sink = sink;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+
+        private void succeed() {
+            queueWait.get(priority).record(System.nanoTime() - enqueuedNanos, TimeUnit.NANOSECONDS);
+            sink.success(permit);
+        }
+    }
+
+    private final class Permit {
+        private final long generation;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long generation) {
+            this.generation = generation;
+        }
+
+        private void release(Outcome outcome) {
+            if (released.compareAndSet(false, true)) {
+                onComplete(this, outcome);
+            }
+        }
+    }
+}
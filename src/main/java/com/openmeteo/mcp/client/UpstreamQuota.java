@@ -0,0 +1,501 @@
+package com.openmeteo.mcp.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cluster-wide quota for outbound Open-Meteo calls.
+ * <p>
+ * Open-Meteo limits calls per minute and per day for the egress IP, which
+ * all replicas share. The quota is kept as one token bucket per window in
+ * Redis and refilled continuously; a Lua script refills every bucket and
+ * takes tokens from all of them atomically.
+ * </p>
+ * <p>
+ * To keep Redis off the hot path, each node leases a batch of tokens at a
+ * time and hands them out locally, fetching the next batch in the
+ * background once the lease runs low. Unused leased tokens expire after
+ * {@code leaseMs}, so a node cannot save up tokens from an earlier window,
+ * and are returned to the shared buckets (up to their capacity), as are the
+ * tokens still leased at shutdown.
+ * When no token is available, calls wait up to {@code maxWaitMs} for the
+ * bucket to refill and then fail with {@link QuotaExceededException}.
+ * </p>
+ * <p>
+ * Redis is used with {@code openmeteo.quota.redis: true}, independently of
+ * the chat memory type (see {@link com.openmeteo.mcp.config.QuotaRedisConfig}).
+ * Without it, or while Redis is unreachable, the node falls back to local
+ * buckets holding its share of the quota ({@code limit / replicas}) and
+ * retries Redis after {@code redisRetrySeconds}.
+ * </p>
+ * <p>
+ * Applied as the innermost filter of every Open-Meteo client, so hedges and
+ * retries are counted like any other call.
+ * </p>
+ */
+@Component
+public class UpstreamQuota implements ExchangeFilterFunction {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamQuota.class);
+
+    /**
+     * KEYS: one bucket per window. ARGV[1]: tokens requested, then capacity
+     * and window length (ms) per bucket. Returns {granted, wait ms}.
+     */
+    private static final String TAKE_SCRIPT = """
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local granted = tonumber(ARGV[1])
+            local wait = 0
+            local tokens = {}
+            for i = 1, #KEYS do
+              local capacity = tonumber(ARGV[2 * i])
+              local window = tonumber(ARGV[2 * i + 1])
+              local rate = capacity / window
+              local bucket = redis.call('HMGET', KEYS[i], 'tokens', 'ts')
+              local available = tonumber(bucket[1]) or capacity
+              local updated = tonumber(bucket[2]) or now
+              available = math.min(capacity, available + math.max(0, now - updated) * rate)
+              tokens[i] = available
+              granted = math.min(granted, math.floor(available))
+              if available < 1 then
+                wait = math.max(wait, math.ceil((1 - available) / rate))
+              end
+            end
+            granted = math.max(0, granted)
+            for i = 1, #KEYS do
+              redis.call('HSET', KEYS[i], 'tokens', tostring(tokens[i] - granted), 'ts', now)
+              redis.call('PEXPIRE', KEYS[i], 2 * tonumber(ARGV[2 * i + 1]))
+            end
+            return {granted, wait}
+            """;
+
+    /**
+     * KEYS: one bucket per window. ARGV[1]: tokens returned, then capacity
+     * and window length (ms) per bucket. Buckets that have expired stay
+     * absent, as they read as full.
+     */
+    private static final String REFUND_SCRIPT = """
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local refund = tonumber(ARGV[1])
+            for i = 1, #KEYS do
+              local capacity = tonumber(ARGV[2 * i])
+              local window = tonumber(ARGV[2 * i + 1])
+              local bucket = redis.call('HMGET', KEYS[i], 'tokens', 'ts')
+              if bucket[1] then
+                local available = tonumber(bucket[1]) + math.max(0, now - tonumber(bucket[2])) * capacity / window
+                redis.call('HSET', KEYS[i], 'tokens', tostring(math.min(capacity, available + refund)), 'ts', now)
+              end
+            end
+            return 1
+            """;
+
+    /**
+     * Quota window.
+     *
+     * @param name     Window name, used in the Redis key
+     * @param capacity Calls allowed per window across all replicas
+     * @param length   Window length
+     */
+    record Window(String name, long capacity, Duration length) {
+    }
+
+    /**
+     * Tokens taken from the shared buckets.
+     *
+     * @param granted    Tokens granted (possibly fewer than requested)
+     * @param waitMillis Time until the next token when none was granted
+     */
+    record Grant(long granted, long waitMillis) {
+    }
+
+    /**
+     * Shared token store.
+     */
+    interface Backend {
+        Grant take(int requested);
+
+        /**
+         * Returns unused tokens to every bucket, capped at its capacity.
+         */
+        default void refund(long tokens) {
+        }
+    }
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long leaseMillis;
+    private final Duration maxWait;
+    private final long redisRetryMillis;
+    private final Backend backend;
+    private final Clock clock;
+    private final LocalBucket[] localBuckets;
+
+    private long leased;
+    private long leaseExpiresAtMillis;
+    private long redisDownUntilMillis;
+    private boolean redisDown;
+    private Mono<Long> pendingRefill;
+
+    private final Counter fetchesGranted;
+    private final Counter fetchesEmpty;
+    private final Counter fetchErrors;
+    private final Counter expired;
+    private final Counter rejected;
+
+    public UpstreamQuota(
+            @Qualifier("quotaRedisTemplate") ObjectProvider<RedisTemplate<String, String>> redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${openmeteo.quota.enabled:true}") boolean enabled,
+            @Value("${openmeteo.quota.per-minute:600}") int perMinute,
+            @Value("${openmeteo.quota.per-day:10000}") int perDay,
+            @Value("${openmeteo.quota.replicas:1}") int replicas,
+            @Value("${openmeteo.quota.batch-size:10}") int batchSize,
+            @Value("${openmeteo.quota.lease-ms:5000}") int leaseMs,
+            @Value("${openmeteo.quota.max-wait-ms:2000}") int maxWaitMs,
+            @Value("${openmeteo.quota.redis-retry-seconds:30}") int redisRetrySeconds,
+            @Value("${openmeteo.quota.key-prefix:openmeteo:quota}") String keyPrefix) {
+        this(meterRegistry, enabled, windows(perMinute, perDay),
+                replicas, batchSize, Duration.ofMillis(leaseMs), Duration.ofMillis(maxWaitMs),
+                Duration.ofSeconds(redisRetrySeconds),
+                redisBackend(redisTemplate.getIfAvailable(), keyPrefix, windows(perMinute, perDay)),
+                Clock.systemUTC());
+    }
+
+    UpstreamQuota(
+            MeterRegistry meterRegistry,
+            boolean enabled,
+            List<Window> windows,
+            int replicas,
+            int batchSize,
+            Duration lease,
+            Duration maxWait,
+            Duration redisRetry,
+            Backend backend,
+            Clock clock) {
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.leaseMillis = lease.toMillis();
+        this.maxWait = maxWait;
+        this.redisRetryMillis = redisRetry.toMillis();
+        this.backend = backend;
+        this.clock = clock;
+
+        long now = clock.millis();
+        this.localBuckets = windows.stream()
+                .map(window -> new LocalBucket(Math.max(1, window.capacity() / Math.max(1, replicas)),
+                        window.length(), now))
+                .toArray(LocalBucket[]::new);
+
+        this.fetchesGranted = Counter.builder("openmeteo.quota.fetches")
+                .description("Token batches requested from the shared Redis quota")
+                .tag("result", "granted")
+                .register(meterRegistry);
+        this.fetchesEmpty = Counter.builder("openmeteo.quota.fetches")
+                .description("Token batches requested from the shared Redis quota")
+                .tag("result", "empty")
+                .register(meterRegistry);
+        this.fetchErrors = Counter.builder("openmeteo.quota.fetches")
+                .description("Token batches requested from the shared Redis quota")
+                .tag("result", "error")
+                .register(meterRegistry);
+        this.expired = Counter.builder("openmeteo.quota.expired")
+                .description("Leased tokens returned unused to the shared quota when their lease ran out")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("openmeteo.quota.rejected")
+                .description("Upstream calls rejected because the quota was exhausted")
+                .register(meterRegistry);
+        Gauge.builder("openmeteo.quota.leased", this, UpstreamQuota::leased)
+                .description("Tokens leased from the shared quota and not yet used")
+                .register(meterRegistry);
+        Gauge.builder("openmeteo.quota.fallback", this, q -> q.distributed() ? 0 : 1)
+                .description("1 while per-node limits apply because Redis is unavailable")
+                .register(meterRegistry);
+
+        if (enabled && backend == null) {
+            log.warn("Open-Meteo quota is enforced per node (1/{} of the limit each), "
+                    + "set openmeteo.quota.redis=true to share it across replicas", Math.max(1, replicas));
+        }
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return acquire().then(Mono.defer(() -> next.exchange(request)));
+    }
+
+    /**
+     * Takes one call token, waiting up to the configured maximum for the quota to refill.
+     *
+     * @return Mono completing once a token is held, or failing with QuotaExceededException
+     */
+    public Mono<Void> acquire() {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> acquire(System.nanoTime() + maxWait.toNanos()));
+    }
+
+    /**
+     * Returns the number of leased tokens not yet used.
+     *
+     * @return Leased token count
+     */
+    public synchronized long leased() {
+        return leased;
+    }
+
+    private Mono<Void> acquire(long deadlineNanos) {
+        return Mono.defer(() -> {
+            if (takeLeased()) {
+                if (lowOnLease()) {
+                    refill().subscribe();
+                }
+                return Mono.empty();
+            }
+            if (!distributed()) {
+                return acquireLocal(deadlineNanos);
+            }
+            return refill().flatMap(waitMillis -> {
+                if (waitMillis < 0) {
+                    // Redis unavailable
+                    return acquireLocal(deadlineNanos);
+                }
+                if (takeLeased()) {
+                    return Mono.empty();
+                }
+                // Tokens arrived but concurrent callers took them all, or the buckets are empty
+                return retryOrReject(Math.max(1, waitMillis), deadlineNanos);
+            });
+        });
+    }
+
+    private Mono<Void> acquireLocal(long deadlineNanos) {
+        long waitMillis = takeLocal();
+        return waitMillis == 0 ? Mono.empty() : retryOrReject(waitMillis, deadlineNanos);
+    }
+
+    private Mono<Void> retryOrReject(long waitMillis, long deadlineNanos) {
+        if (System.nanoTime() + Duration.ofMillis(waitMillis).toNanos() > deadlineNanos) {
+            rejected.increment();
+            return Mono.error(new QuotaExceededException(waitMillis));
+        }
+        return Mono.delay(Duration.ofMillis(waitMillis)).then(acquire(deadlineNanos));
+    }
+
+    /**
+     * Returns the shared refill in progress, starting one if none is running.
+     * Emits 0 if tokens were leased, the wait in ms if the buckets were empty,
+     * or -1 if Redis could not be reached.
+     */
+    private synchronized Mono<Long> refill() {
+        if (pendingRefill == null) {
+            AtomicReference<Mono<Long>> self = new AtomicReference<>();
+            self.set(Mono.fromCallable(() -> backend.take(batchSize))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .map(this::onGrant)
+                    .onErrorResume(error -> Mono.just(onBackendFailure(error)))
+                    .doFinally(signal -> clearRefill(self.get()))
+                    .cache());
+            pendingRefill = self.get();
+        }
+        return pendingRefill;
+    }
+
+    private synchronized void clearRefill(Mono<Long> refill) {
+        if (pendingRefill == refill) {
+            pendingRefill = null;
+        }
+    }
+
+    private synchronized long onGrant(Grant grant) {
+        if (redisDown) {
+            log.info("Redis quota reachable again, leaving per-node limits");
+            redisDown = false;
+        }
+        redisDownUntilMillis = 0;
+        if (grant.granted() <= 0) {
+            fetchesEmpty.increment();
+            return grant.waitMillis();
+        }
+        fetchesGranted.increment();
+        expireLease(clock.millis());
+        leased += grant.granted();
+        leaseExpiresAtMillis = clock.millis() + leaseMillis;
+        return 0;
+    }
+
+    private synchronized long onBackendFailure(Throwable error) {
+        fetchErrors.increment();
+        if (!redisDown) {
+            log.warn("Redis quota unavailable, enforcing per-node limits for {} ms: {}",
+                    redisRetryMillis, error.toString());
+            redisDown = true;
+        }
+        redisDownUntilMillis = clock.millis() + redisRetryMillis;
+        return -1;
+    }
+
+    private synchronized boolean takeLeased() {
+        expireLease(clock.millis());
+        if (leased == 0) {
+            return false;
+        }
+        leased--;
+        return true;
+    }
+
+    private synchronized boolean lowOnLease() {
+        return pendingRefill == null && leased <= batchSize / 4 && distributed();
+    }
+
+    private void expireLease(long now) {
+        if (leased > 0 && now >= leaseExpiresAtMillis) {
+            long unused = leased;
+            expired.increment(unused);
+            leased = 0;
+            Schedulers.boundedElastic().schedule(() -> refund(unused));
+        }
+    }
+
+    /**
+     * Returns the tokens still leased to the shared quota on shutdown.
+     */
+    @PreDestroy
+    public void release() {
+        long unused;
+        synchronized (this) {
+            unused = leased;
+            leased = 0;
+        }
+        if (unused > 0) {
+            refund(unused);
+        }
+    }
+
+    private void refund(long tokens) {
+        try {
+            backend.refund(tokens);
+        } catch (RuntimeException e) {
+            // The tokens come back with the regular refill instead
+            log.debug("Failed to return {} leased tokens to the Redis quota: {}", tokens, e.toString());
+        }
+    }
+
+    private synchronized boolean distributed() {
+        return backend != null && clock.millis() >= redisDownUntilMillis;
+    }
+
+    /**
+     * Takes one token from every local bucket.
+     *
+     * @return 0 if taken, otherwise the wait in ms until all buckets hold a token
+     */
+    private synchronized long takeLocal() {
+        long now = clock.millis();
+        long waitMillis = 0;
+        for (LocalBucket bucket : localBuckets) {
+            bucket.refill(now);
+            waitMillis = Math.max(waitMillis, bucket.waitMillis());
+        }
+        if (waitMillis == 0) {
+            for (LocalBucket bucket : localBuckets) {
+                bucket.tokens -= 1;
+            }
+        }
+        return waitMillis;
+    }
+
+    private static List<Window> windows(int perMinute, int perDay) {
+        return List.of(new Window("minute", perMinute, Duration.ofMinutes(1)),
+                new Window("day", perDay, Duration.ofDays(1)));
+    }
+
+    private static Backend redisBackend(RedisTemplate<String, String> redis, String keyPrefix, List<Window> windows) {
+        if (redis == null) {
+            return null;
+        }
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        RedisScript<List> script = new DefaultRedisScript<>(TAKE_SCRIPT, List.class);
+        RedisScript<Long> refundScript = new DefaultRedisScript<>(REFUND_SCRIPT, Long.class);
+        List<String> keys = new ArrayList<>();
+        List<String> windowArgs = new ArrayList<>();
+        for (Window window : windows) {
+            keys.add(keyPrefix + ":" + window.name());
+            windowArgs.add(String.valueOf(window.capacity()));
+            windowArgs.add(String.valueOf(window.length().toMillis()));
+        }
+
+        return new Backend() {
+            @Override
+            public Grant take(int requested) {
+                List<?> result = redis.execute(script, keys, args(requested));
+                if (result == null || result.size() < 2) {
+                    throw new IllegalStateException("Unexpected quota script result: " + result);
+                }
+                return new Grant(((Number) result.get(0)).longValue(), ((Number) result.get(1)).longValue());
+            }
+
+            @Override
+            public void refund(long tokens) {
+                redis.execute(refundScript, keys, args(tokens));
+            }
+
+            private Object[] args(long tokens) {
+                List<Object> args = new ArrayList<>();
+                args.add(String.valueOf(tokens));
+                args.addAll(windowArgs);
+                return args.toArray();
+            }
+        };
+    }
+
+    /**
+     * Per-node token bucket used while Redis is unavailable.
+     */
+    private static final class LocalBucket {
+        private final double capacity;
+        private final double tokensPerMilli;
+        private double tokens;
+        private long updatedAtMillis;
+
+        private LocalBucket(long capacity, Duration window, long now) {
+            this.capacity = capacity;
+            this.tokensPerMilli = capacity / (double) window.toMillis();
+            this.tokens = capacity;
+            this.updatedAtMillis = now;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + Math.max(0, now - updatedAtMillis) * tokensPerMilli);
+            updatedAtMillis = now;
+        }
+
+        private long waitMillis() {
+            return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerMilli);
+        }
+    }
+}
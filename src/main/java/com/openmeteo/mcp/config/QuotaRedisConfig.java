@@ -0,0 +1,40 @@
+package com.openmeteo.mcp.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+/**
+ * Redis configuration for the cluster-wide Open-Meteo call quota
+ * ({@link com.openmeteo.mcp.client.UpstreamQuota}).
+ * <p>
+ * Enabled with {@code openmeteo.quota.redis: true}, independently of the
+ * chat memory type, on the connection configured under
+ * {@code spring.data.redis}. Without it the quota is enforced per node.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "openmeteo.quota.redis", havingValue = "true")
+public class QuotaRedisConfig {
+
+    /**
+     * Configure RedisTemplate for the quota buckets, with String keys and values.
+     */
+    @Bean
+    public RedisTemplate<String, String> quotaRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, String> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+
+        StringRedisSerializer serializer = new StringRedisSerializer();
+        template.setKeySerializer(serializer);
+        template.setValueSerializer(serializer);
+        template.setHashKeySerializer(serializer);
+        template.setHashValueSerializer(serializer);
+
+        template.afterPropertiesSet();
+        return template;
+    }
+}
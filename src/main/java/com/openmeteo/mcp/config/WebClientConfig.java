@@ -1,19 +1,30 @@
 package com.openmeteo.mcp.config;
 
+import com.openmeteo.mcp.client.CircuitBreakerFilter;
+import com.openmeteo.mcp.client.HedgingRetryFilter;
+import com.openmeteo.mcp.client.UpstreamQuota;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
 
 import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -22,12 +33,34 @@ import java.util.concurrent.TimeUnit;
  * Configures separate WebClient beans for each Open-Meteo API endpoint
  * with gzip compression, timeouts, and proper headers.
  * </p>
+ * <p>
+ * Each upstream host gets its own named reactor-netty connection pool
+ * (weather, air-quality, geocoding, marine, archive) with bounded pending
+ * acquisition and idle/lifetime eviction, so one slow host cannot starve
+ * the others. All pools run on a dedicated client event-loop group and
+ * export active/idle/pending gauges through Micrometer
+ * ({@code reactor.netty.connection.provider.*}, tagged by pool name).
+ * </p>
+ * <p>
+ * Every Open-Meteo client also gets a per-host {@link HedgingRetryFilter},
+ * which hedges slow GETs and retries 5xx responses and connection resets
+ * within a shared extra-load budget. In front of it sits a per-host
+ * {@link CircuitBreakerFilter}, so calls to a degraded host fail fast
+ * instead of waiting for the timeout.
+ * </p>
+ * <p>
+ * Open-Meteo hosts share the cluster-wide {@link UpstreamQuota} as their
+ * innermost filter, so every call that reaches the network, including
+ * hedges and retries, takes a quota token.
+ * </p>
  */
 @Configuration
 public class WebClientConfig {
 
     private static final Logger log = LoggerFactory.getLogger(WebClientConfig.class);
 
+    private static final String DEFAULT_POOL = "default";
+
     @Value("${openmeteo.api.weather-url}")
     private String weatherUrl;
 
@@ -46,43 +79,140 @@ public class WebClientConfig {
     @Value("${openmeteo.api.gzip-enabled:true}")
     private boolean gzipEnabled;
 
+    @Value("${openmeteo.http.http2-enabled:true}")
+    private boolean http2Enabled;
+
+    @Value("${openmeteo.http.event-loop-threads:0}")
+    private int eventLoopThreads;
+
+    @Value("${openmeteo.http.pool.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${openmeteo.http.pool.pending-acquire-max-count:500}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${openmeteo.http.pool.pending-acquire-timeout-seconds:10}")
+    private int pendingAcquireTimeoutSeconds;
+
+    @Value("${openmeteo.http.pool.max-idle-time-seconds:30}")
+    private int maxIdleTimeSeconds;
+
+    @Value("${openmeteo.http.pool.max-life-time-seconds:300}")
+    private int maxLifeTimeSeconds;
+
+    @Value("${openmeteo.http.pool.evict-in-background-seconds:30}")
+    private int evictInBackgroundSeconds;
+
+    @Value("${openmeteo.http.pool.metrics-enabled:true}")
+    private boolean poolMetricsEnabled;
+
+    @Value("${openmeteo.http.hedge.enabled:true}")
+    private boolean hedgeEnabled;
+
+    @Value("${openmeteo.http.hedge.percentile:0.95}")
+    private double hedgePercentile;
+
+    @Value("${openmeteo.http.hedge.min-delay-ms:50}")
+    private int hedgeMinDelayMs;
+
+    @Value("${openmeteo.http.hedge.min-samples:50}")
+    private int hedgeMinSamples;
+
+    @Value("${openmeteo.http.retry.max-retries:2}")
+    private int maxRetries;
+
+    @Value("${openmeteo.http.retry.initial-backoff-ms:100}")
+    private int initialBackoffMs;
+
+    @Value("${openmeteo.http.retry.max-backoff-ms:2000}")
+    private int maxBackoffMs;
+
+    @Value("${openmeteo.http.retry.jitter:0.5}")
+    private double retryJitter;
+
+    @Value("${openmeteo.http.retry.budget-ratio:0.1}")
+    private double retryBudgetRatio;
+
+    @Value("${openmeteo.http.retry.budget-cap:10}")
+    private int retryBudgetCap;
+
+    @Value("${openmeteo.http.circuit.failure-rate-threshold:0.5}")
+    private double circuitFailureRateThreshold;
+
+    @Value("${openmeteo.http.circuit.slow-call-rate-threshold:0.5}")
+    private double circuitSlowCallRateThreshold;
+
+    @Value("${openmeteo.http.circuit.slow-call-threshold-ms:5000}")
+    private int circuitSlowCallThresholdMs;
+
+    @Value("${openmeteo.http.circuit.window-size:20}")
+    private int circuitWindowSize;
+
+    @Value("${openmeteo.http.circuit.minimum-calls:10}")
+    private int circuitMinimumCalls;
+
+    @Value("${openmeteo.http.circuit.open-duration-seconds:30}")
+    private int circuitOpenDurationSeconds;
+
+    @Value("${openmeteo.http.circuit.half-open-probes:3}")
+    private int circuitHalfOpenProbes;
+
+    private final MeterRegistry meterRegistry;
+    private final UpstreamQuota upstreamQuota;
+    private final Map<String, ConnectionProvider> connectionProviders = new ConcurrentHashMap<>();
+    private final Map<String, HedgingRetryFilter> hedgingRetryFilters = new ConcurrentHashMap<>();
+    private final Map<String, CircuitBreakerFilter> circuitBreakers = new ConcurrentHashMap<>();
+    private volatile LoopResources loopResources;
+
+    public WebClientConfig(MeterRegistry meterRegistry, UpstreamQuota upstreamQuota) {
+        this.meterRegistry = meterRegistry;
+        this.upstreamQuota = upstreamQuota;
+    }
+
     /**
      * Creates a base WebClient.Builder with common configuration.
+     * <p>
+     * Uses the shared "default" pool and none of the Open-Meteo filters;
+     * Open-Meteo hosts use their own pools and filters.
+     * </p>
      *
      * @return configured WebClient.Builder
      */
     @Bean
+    @Primary
     public WebClient.Builder webClientBuilder() {
-        HttpClient httpClient = HttpClient.create()
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, timeoutSeconds * 1000)
-                .responseTimeout(Duration.ofSeconds(timeoutSeconds))
-                .doOnConnected(conn -> conn
-                        .addHandlerLast(new ReadTimeoutHandler(timeoutSeconds, TimeUnit.SECONDS))
-                        .addHandlerLast(new WriteTimeoutHandler(timeoutSeconds, TimeUnit.SECONDS)));
+        return hostWebClientBuilder(DEFAULT_POOL);
+    }
 
-        // Enable gzip compression if configured
-        if (gzipEnabled) {
-            httpClient = httpClient.compress(true);
-            log.debug("Gzip compression enabled for HTTP client");
-        }
+    /**
+     * WebClient.Builder bound to the marine API connection pool.
+     *
+     * @return configured WebClient.Builder
+     */
+    @Bean(name = "marineWebClientBuilder")
+    public WebClient.Builder marineWebClientBuilder() {
+        return hostWebClientBuilder("marine");
+    }
 
-        return WebClient.builder()
-                .clientConnector(new ReactorClientHttpConnector(httpClient))
-                .defaultHeader(HttpHeaders.USER_AGENT, "open-meteo-mcp-java/1.0.0-alpha")
-                .defaultHeader(HttpHeaders.ACCEPT, "application/json")
-                .defaultHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+    /**
+     * WebClient.Builder bound to the historical archive API connection pool.
+     *
+     * @return configured WebClient.Builder
+     */
+    @Bean(name = "archiveWebClientBuilder")
+    public WebClient.Builder archiveWebClientBuilder() {
+        return hostWebClientBuilder("archive");
     }
 
     /**
      * WebClient for weather forecast API.
      *
-     * @param builder WebClient.Builder
      * @return configured WebClient for weather API
      */
     @Bean(name = "weatherWebClient")
-    public WebClient weatherWebClient(WebClient.Builder builder) {
+    public WebClient weatherWebClient() {
         log.info("Configuring weatherWebClient for URL: {}", weatherUrl);
-        return builder
+        return hostWebClientBuilder("weather")
                 .baseUrl(weatherUrl)
                 .build();
     }
@@ -90,13 +220,12 @@ public class WebClientConfig {
     /**
      * WebClient for air quality API.
      *
-     * @param builder WebClient.Builder
      * @return configured WebClient for air quality API
      */
     @Bean(name = "airQualityWebClient")
-    public WebClient airQualityWebClient(WebClient.Builder builder) {
+    public WebClient airQualityWebClient() {
         log.info("Configuring airQualityWebClient for URL: {}", airQualityUrl);
-        return builder
+        return hostWebClientBuilder("air-quality")
                 .baseUrl(airQualityUrl)
                 .build();
     }
@@ -104,13 +233,12 @@ public class WebClientConfig {
     /**
      * WebClient for geocoding API.
      *
-     * @param builder WebClient.Builder
      * @return configured WebClient for geocoding API
      */
     @Bean(name = "geocodingWebClient")
-    public WebClient geocodingWebClient(WebClient.Builder builder) {
+    public WebClient geocodingWebClient() {
         log.info("Configuring geocodingWebClient for URL: {}", geocodingUrl);
-        return builder
+        return hostWebClientBuilder("geocoding")
                 .baseUrl(geocodingUrl)
                 .build();
     }
@@ -118,14 +246,149 @@ public class WebClientConfig {
     /**
      * WebClient for marine API (future use).
      *
-     * @param builder WebClient.Builder
      * @return configured WebClient for marine API
      */
     @Bean(name = "marineWebClient")
-    public WebClient marineWebClient(WebClient.Builder builder) {
+    public WebClient marineWebClient() {
         log.info("Configuring marineWebClient for URL: {}", marineUrl);
-        return builder
+        return hostWebClientBuilder("marine")
                 .baseUrl(marineUrl)
                 .build();
     }
+
+    /**
+     * Creates a WebClient.Builder whose connector uses the named host pool.
+     *
+     * @param host pool name (one per upstream host)
+     * @return configured WebClient.Builder
+     */
+    private WebClient.Builder hostWebClientBuilder(String host) {
+        HttpClient httpClient = HttpClient.create(connectionProvider(host))
+                .runOn(loopResources())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, timeoutSeconds * 1000)
+                .responseTimeout(Duration.ofSeconds(timeoutSeconds))
+                .doOnConnected(conn -> conn
+                        .addHandlerLast(new ReadTimeoutHandler(timeoutSeconds, TimeUnit.SECONDS))
+                        .addHandlerLast(new WriteTimeoutHandler(timeoutSeconds, TimeUnit.SECONDS)));
+
+        // Negotiate HTTP/2 via ALPN on TLS hosts, falling back to HTTP/1.1
+        if (http2Enabled) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+
+        // Enable gzip compression if configured
+        if (gzipEnabled) {
+            httpClient = httpClient.compress(true);
+            log.debug("Gzip compression enabled for HTTP client {}", host);
+        }
+
+        WebClient.Builder builder = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeader(HttpHeaders.USER_AGENT, "open-meteo-mcp-java/1.0.0-alpha")
+                .defaultHeader(HttpHeaders.ACCEPT, "application/json")
+                .defaultHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+        // The default builder may serve non-Open-Meteo clients, which must not be hedged,
+        // retried, tripped by an Open-Meteo breaker or consume the quota
+        if (!DEFAULT_POOL.equals(host)) {
+            // The breaker wraps the hedging/retry filter, so it judges each call after retries
+            builder = builder
+                    .filter(circuitBreaker(host))
+                    .filter(hedgingRetryFilter(host))
+                    .filter(upstreamQuota);
+        }
+        return builder;
+    }
+
+    /**
+     * Returns the connection pool for a host, creating it on first use.
+     *
+     * @param host pool name
+     * @return named ConnectionProvider
+     */
+    private ConnectionProvider connectionProvider(String host) {
+        return connectionProviders.computeIfAbsent(host, name -> {
+            log.info("Creating connection pool openmeteo-{} (maxConnections={}, pendingAcquireMaxCount={})",
+                    name, maxConnections, pendingAcquireMaxCount);
+            return ConnectionProvider.builder("openmeteo-" + name)
+                    .maxConnections(maxConnections)
+                    .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                    .pendingAcquireTimeout(Duration.ofSeconds(pendingAcquireTimeoutSeconds))
+                    .maxIdleTime(Duration.ofSeconds(maxIdleTimeSeconds))
+                    .maxLifeTime(Duration.ofSeconds(maxLifeTimeSeconds))
+                    .evictInBackground(Duration.ofSeconds(evictInBackgroundSeconds))
+                    .metrics(poolMetricsEnabled)
+                    .build();
+        });
+    }
+
+    /**
+     * Returns the circuit breaker for a host, creating it on first use.
+     *
+     * @param host pool name
+     * @return CircuitBreakerFilter for the host
+     */
+    private CircuitBreakerFilter circuitBreaker(String host) {
+        return circuitBreakers.computeIfAbsent(host, name -> new CircuitBreakerFilter(name,
+                new CircuitBreakerFilter.Settings(
+                        circuitFailureRateThreshold,
+                        circuitSlowCallRateThreshold,
+                        Duration.ofMillis(circuitSlowCallThresholdMs),
+                        circuitWindowSize,
+                        circuitMinimumCalls,
+                        Duration.ofSeconds(circuitOpenDurationSeconds),
+                        circuitHalfOpenProbes),
+                meterRegistry));
+    }
+
+    /**
+     * Returns the hedging/retry filter for a host, creating it on first use.
+     * <p>
+     * Shared by all clients of the same host so they draw from one budget
+     * and one latency history.
+     * </p>
+     *
+     * @param host pool name
+     * @return HedgingRetryFilter for the host
+     */
+    private HedgingRetryFilter hedgingRetryFilter(String host) {
+        return hedgingRetryFilters.computeIfAbsent(host, name -> new HedgingRetryFilter(name,
+                new HedgingRetryFilter.Settings(
+                        hedgeEnabled,
+                        hedgePercentile,
+                        Duration.ofMillis(hedgeMinDelayMs),
+                        hedgeMinSamples,
+                        maxRetries,
+                        Duration.ofMillis(initialBackoffMs),
+                        Duration.ofMillis(maxBackoffMs),
+                        retryJitter,
+                        retryBudgetRatio,
+                        retryBudgetCap),
+                meterRegistry));
+    }
+
+    /**
+     * Returns the dedicated client event-loop group, creating it on first use.
+     *
+     * @return LoopResources for all Open-Meteo clients
+     */
+    private synchronized LoopResources loopResources() {
+        if (loopResources == null) {
+            int threads = eventLoopThreads > 0 ? eventLoopThreads : LoopResources.DEFAULT_IO_WORKER_COUNT;
+            loopResources = LoopResources.create("openmeteo-http", threads, true);
+            log.info("Created client event-loop group openmeteo-http with {} threads", threads);
+        }
+        return loopResources;
+    }
+
+    /**
+     * Releases connection pools and the client event-loop group on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        connectionProviders.values().forEach(ConnectionProvider::dispose);
+        if (loopResources != null) {
+            loopResources.dispose();
+        }
+    }
 }
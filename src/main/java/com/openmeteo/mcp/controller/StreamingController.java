@@ -4,6 +4,8 @@ import com.openmeteo.mcp.model.chat.ChatStreamRequest;
 import com.openmeteo.mcp.model.stream.StreamChunk;
 import com.openmeteo.mcp.model.stream.StreamMessage;
 import com.openmeteo.mcp.model.stream.StreamMetadata;
+import com.openmeteo.mcp.service.StreamPacer;
+import com.openmeteo.mcp.service.StreamReplayBuffer;
 import com.openmeteo.mcp.service.StreamingChatService;
 import com.openmeteo.mcp.service.StreamingWeatherService;
 import org.slf4j.Logger;
@@ -16,9 +18,12 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 
+import java.security.Principal;
 import java.time.Duration;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Streaming Controller for MCP Streamable HTTP Protocol.
@@ -30,10 +35,18 @@ import java.util.UUID;
  * - /stream/test - Test SSE endpoint with heartbeat
  * - /stream/data - Generic data streaming endpoint
  * - /stream/weather/* - Weather data streaming (Phase 4)
+ * - /stream/weather/watch - Live weather updates shared per grid cell
  * - /stream/chat/* - Chat response streaming (Phase 5)
  * 
  * Security: All endpoints protected by Spring Security
  * Authentication: JWT tokens or API keys required
+ * 
+ * Pacing: streams have no fixed delays; {@link StreamPacer} sends as fast
+ * as the client reads and applies the configured coalescing and rate cap.
+ * 
+ * Resuming: weather and chat events carry sequential ids per stream; a
+ * client reconnecting with the Last-Event-ID header continues after that
+ * event from the {@link StreamReplayBuffer}.
  */
 @RestController
 @RequestMapping("/stream")
@@ -43,13 +56,19 @@ public class StreamingController {
 
     private final StreamingWeatherService streamingWeatherService;
     private final StreamingChatService streamingChatService;
+    private final StreamPacer streamPacer;
+    private final StreamReplayBuffer streamReplayBuffer;
 
     public StreamingController(
         StreamingWeatherService streamingWeatherService,
-        StreamingChatService streamingChatService
+        StreamingChatService streamingChatService,
+        StreamPacer streamPacer,
+        StreamReplayBuffer streamReplayBuffer
     ) {
         this.streamingWeatherService = streamingWeatherService;
         this.streamingChatService = streamingChatService;
+        this.streamPacer = streamPacer;
+        this.streamReplayBuffer = streamReplayBuffer;
     }
 
     /**
@@ -66,7 +85,7 @@ public class StreamingController {
         String streamId = UUID.randomUUID().toString();
         log.info("Starting test stream: {}", streamId);
 
-        return Flux.interval(Duration.ofSeconds(1))
+        return streamPacer.pace("test", Flux.interval(Duration.ofSeconds(1))
                 .take(10)
                 .map(i -> {
                     StreamMetadata metadata = StreamMetadata.withProgress(streamId, i.intValue(), 10);
@@ -83,7 +102,7 @@ public class StreamingController {
                                 .event("complete")
                                 .data(StreamMessage.complete(StreamMetadata.of(streamId)))
                                 .build()
-                ))
+                )))
                 .doOnComplete(() -> log.info("Test stream completed: {}", streamId))
                 .doOnError(error -> log.error("Test stream error: {}", streamId, error))
                 .doOnCancel(() -> log.info("Test stream cancelled: {}", streamId));
@@ -93,27 +112,24 @@ public class StreamingController {
      * Generic data streaming endpoint.
      * 
      * Demonstrates streaming of sequential data chunks with progress tracking.
-     * Used as foundation for weather and chat streaming.
+     * Used as foundation for weather and chat streaming. Chunks are sent as
+     * fast as the client reads them.
      * 
      * @param count Number of chunks to stream (default: 5, max: 100)
-     * @param delay Delay between chunks in ms (default: 100, max: 5000)
      * @return Flux of ServerSentEvent with data chunks
      */
     @GetMapping(value = "/data", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @PreAuthorize("hasAnyAuthority('MCP_CLIENT', 'ADMIN')")
     public Flux<ServerSentEvent<StreamMessage>> streamData(
-            @RequestParam(defaultValue = "5") int count,
-            @RequestParam(defaultValue = "100") long delay) {
+            @RequestParam(defaultValue = "5") int count) {
         
         // Validate parameters
         int chunkCount = Math.min(Math.max(count, 1), 100);
-        long chunkDelay = Math.min(Math.max(delay, 10), 5000);
         
         String streamId = UUID.randomUUID().toString();
-        log.info("Starting data stream: {} (chunks={}, delay={}ms)", streamId, chunkCount, chunkDelay);
+        log.info("Starting data stream: {} (chunks={})", streamId, chunkCount);
 
-        return Flux.range(0, chunkCount)
-                .delayElements(Duration.ofMillis(chunkDelay))
+        return streamPacer.pace("data", Flux.range(0, chunkCount)
                 .map(i -> {
                     StreamChunk chunk = i == chunkCount - 1 
                             ? StreamChunk.last(i, "Chunk " + i)
@@ -134,7 +150,7 @@ public class StreamingController {
                                 .event("complete")
                                 .data(StreamMessage.complete(StreamMetadata.of(streamId)))
                                 .build()
-                ))
+                )))
                 .doOnComplete(() -> log.info("Data stream completed: {}", streamId))
                 .doOnError(error -> log.error("Data stream error: {}", streamId, error))
                 .doOnCancel(() -> log.info("Data stream cancelled: {}", streamId));
@@ -166,6 +182,8 @@ public class StreamingController {
      * @param latitude Latitude in decimal degrees
      * @param longitude Longitude in decimal degrees
      * @param timezone Timezone (default: auto)
+     * @param lastEventId Last event received before a reconnect, resumes the stream after it
+     * @param principal Authenticated client, a stream is only resumed by the client that started it
      * @return Flux of ServerSentEvent with current weather
      */
     @GetMapping(value = "/weather/current", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
@@ -173,16 +191,14 @@ public class StreamingController {
     public Flux<ServerSentEvent<StreamMessage>> streamCurrentWeather(
             @RequestParam double latitude,
             @RequestParam double longitude,
-            @RequestParam(defaultValue = "auto") String timezone) {
+            @RequestParam(defaultValue = "auto") String timezone,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            Principal principal) {
         
         log.info("Streaming current weather: lat={}, lon={}", latitude, longitude);
 
-        return streamingWeatherService.streamCurrentWeather(latitude, longitude, timezone)
-                .map(msg -> ServerSentEvent.<StreamMessage>builder()
-                        .id(UUID.randomUUID().toString())
-                        .event(msg.type())
-                        .data(msg)
-                        .build())
+        return resumable("weather-current", principal, List.of(latitude, longitude, timezone), lastEventId,
+                () -> streamingWeatherService.streamCurrentWeather(latitude, longitude, timezone))
                 .doOnComplete(() -> log.info("Current weather stream completed"))
                 .doOnError(error -> log.error("Current weather stream error", error));
     }
@@ -197,6 +213,8 @@ public class StreamingController {
      * @param forecastDays Number of forecast days (1-16, default: 7)
      * @param includeHourly Include hourly data (default: false)
      * @param timezone Timezone (default: auto)
+     * @param lastEventId Last event received before a reconnect, resumes the stream after it
+     * @param principal Authenticated client, a stream is only resumed by the client that started it
      * @return Flux of ServerSentEvent with forecast chunks
      */
     @GetMapping(value = "/weather/forecast", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
@@ -206,17 +224,16 @@ public class StreamingController {
             @RequestParam double longitude,
             @RequestParam(defaultValue = "7") int forecastDays,
             @RequestParam(defaultValue = "false") boolean includeHourly,
-            @RequestParam(defaultValue = "auto") String timezone) {
+            @RequestParam(defaultValue = "auto") String timezone,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            Principal principal) {
         
         log.info("Streaming forecast: lat={}, lon={}, days={}, hourly={}", 
                 latitude, longitude, forecastDays, includeHourly);
 
-        return streamingWeatherService.streamForecast(latitude, longitude, forecastDays, includeHourly, timezone)
-                .map(msg -> ServerSentEvent.<StreamMessage>builder()
-                        .id(UUID.randomUUID().toString())
-                        .event(msg.type())
-                        .data(msg)
-                        .build())
+        return resumable("weather-forecast", principal,
+                List.of(latitude, longitude, forecastDays, includeHourly, timezone), lastEventId,
+                () -> streamingWeatherService.streamForecast(latitude, longitude, forecastDays, includeHourly, timezone))
                 .doOnComplete(() -> log.info("Forecast stream completed"))
                 .doOnError(error -> log.error("Forecast stream error", error));
     }
@@ -232,6 +249,8 @@ public class StreamingController {
      * @param startDate Start date (yyyy-MM-dd)
      * @param endDate End date (yyyy-MM-dd)
      * @param timezone Timezone (default: auto)
+     * @param lastEventId Last event received before a reconnect, resumes the stream after it
+     * @param principal Authenticated client, a stream is only resumed by the client that started it
      * @return Flux of ServerSentEvent with historical data chunks
      */
     @GetMapping(value = "/weather/historical", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
@@ -241,17 +260,16 @@ public class StreamingController {
             @RequestParam double longitude,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
-            @RequestParam(defaultValue = "auto") String timezone) {
+            @RequestParam(defaultValue = "auto") String timezone,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            Principal principal) {
         
         log.info("Streaming historical weather: lat={}, lon={}, start={}, end={}", 
                 latitude, longitude, startDate, endDate);
 
-        return streamingWeatherService.streamHistoricalWeather(latitude, longitude, startDate, endDate, timezone)
-                .map(msg -> ServerSentEvent.<StreamMessage>builder()
-                        .id(UUID.randomUUID().toString())
-                        .event(msg.type())
-                        .data(msg)
-                        .build())
+        return resumable("weather-historical", principal,
+                List.of(latitude, longitude, startDate, endDate, timezone), lastEventId,
+                () -> streamingWeatherService.streamHistoricalWeather(latitude, longitude, startDate, endDate, timezone))
                 .doOnComplete(() -> log.info("Historical weather stream completed"))
                 .doOnError(error -> log.error("Historical weather stream error", error));
     }
@@ -265,6 +283,8 @@ public class StreamingController {
      * @param longitude Longitude in decimal degrees
      * @param forecastDays Number of forecast days (default: 7)
      * @param timezone Timezone (default: auto)
+     * @param lastEventId Last event received before a reconnect, resumes the stream after it
+     * @param principal Authenticated client, a stream is only resumed by the client that started it
      * @return Flux of ServerSentEvent with progress updates
      */
     @GetMapping(value = "/weather/progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
@@ -273,21 +293,55 @@ public class StreamingController {
             @RequestParam double latitude,
             @RequestParam double longitude,
             @RequestParam(defaultValue = "7") int forecastDays,
-            @RequestParam(defaultValue = "auto") String timezone) {
+            @RequestParam(defaultValue = "auto") String timezone,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            Principal principal) {
         
         log.info("Streaming weather with progress: lat={}, lon={}, days={}", 
                 latitude, longitude, forecastDays);
 
-        return streamingWeatherService.streamWithProgress(latitude, longitude, forecastDays, timezone)
-                .map(msg -> ServerSentEvent.<StreamMessage>builder()
-                        .id(UUID.randomUUID().toString())
-                        .event(msg.type())
-                        .data(msg)
-                        .build())
+        return resumable("weather-progress", principal,
+                List.of(latitude, longitude, forecastDays, timezone), lastEventId,
+                () -> streamingWeatherService.streamWithProgress(latitude, longitude, forecastDays, timezone))
                 .doOnComplete(() -> log.info("Progress stream completed"))
                 .doOnError(error -> log.error("Progress stream error", error));
     }
 
+    /**
+     * Watch live weather conditions.
+     * 
+     * Sends the current weather of the location at every poll of its grid
+     * cell until the client disconnects. All watchers of a cell share one
+     * upstream poll per interval.
+     * 
+     * @param latitude Latitude in decimal degrees
+     * @param longitude Longitude in decimal degrees
+     * @param timezone Timezone (default: auto)
+     * @param principal Authenticated client, used for connection tracking
+     * @return Flux of ServerSentEvent with one event per update
+     */
+    @GetMapping(value = "/weather/watch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyAuthority('MCP_CLIENT', 'ADMIN')")
+    public Flux<ServerSentEvent<StreamMessage>> watchWeather(
+            @RequestParam double latitude,
+            @RequestParam double longitude,
+            @RequestParam(defaultValue = "auto") String timezone,
+            Principal principal) {
+        
+        String clientId = principal != null ? principal.getName() : "anonymous";
+        log.info("Watching weather: lat={}, lon={}, client={}", latitude, longitude, clientId);
+
+        return streamPacer.pace("weather-watch",
+                streamingWeatherService.watchWeather(latitude, longitude, timezone, clientId)
+                        .index((sequence, msg) -> ServerSentEvent.<StreamMessage>builder()
+                                .id(String.valueOf(sequence))
+                                .event(msg.type())
+                                .data(msg)
+                                .build()))
+                .doOnCancel(() -> log.info("Weather watch closed by client: {}", clientId))
+                .doOnError(error -> log.error("Weather watch error", error));
+    }
+
     // ==================== CHAT STREAMING ENDPOINTS (PHASE 5) ====================
 
     /**
@@ -297,19 +351,21 @@ public class StreamingController {
      * for natural conversation flow.
      * 
      * @param request Chat stream request with session and message
+     * @param lastEventId Last event received before a reconnect, resumes the stream after it
+     * @param principal Authenticated client, a stream is only resumed by the client that started it
      * @return Flux of ServerSentEvent with token chunks
      */
     @PostMapping(value = "/chat", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @PreAuthorize("hasAnyAuthority('MCP_CLIENT', 'ADMIN')")
     @ConditionalOnProperty(name = "openmeteo.chat.enabled", havingValue = "true")
-    public Flux<ServerSentEvent<StreamMessage>> streamChat(@RequestBody ChatStreamRequest request) {
+    public Flux<ServerSentEvent<StreamMessage>> streamChat(
+            @RequestBody ChatStreamRequest request,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            Principal principal) {
         log.info("Starting chat stream for session: {}", request.sessionId());
         
-        return streamingChatService.streamChat(request.sessionId(), request.message())
-                .map(message -> ServerSentEvent.<StreamMessage>builder()
-                        .event(message.type().toLowerCase())
-                        .data(message)
-                        .build())
+        return resumable("chat", principal, request, lastEventId,
+                () -> streamingChatService.streamChat(request.sessionId(), request.message()))
                 .doOnComplete(() -> log.info("Chat stream completed for session: {}", request.sessionId()))
                 .doOnError(error -> log.error("Chat stream error for session: {}", request.sessionId(), error))
                 .doOnCancel(() -> log.info("Chat stream cancelled for session: {}", request.sessionId()));
@@ -322,19 +378,21 @@ public class StreamingController {
      * Shows preparation steps before delivering actual tokens.
      * 
      * @param request Chat stream request with session and message
+     * @param lastEventId Last event received before a reconnect, resumes the stream after it
+     * @param principal Authenticated client, a stream is only resumed by the client that started it
      * @return Flux of ServerSentEvent with progress and token chunks
      */
     @PostMapping(value = "/chat/progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @PreAuthorize("hasAnyAuthority('MCP_CLIENT', 'ADMIN')")
     @ConditionalOnProperty(name = "openmeteo.chat.enabled", havingValue = "true")
-    public Flux<ServerSentEvent<StreamMessage>> streamChatWithProgress(@RequestBody ChatStreamRequest request) {
+    public Flux<ServerSentEvent<StreamMessage>> streamChatWithProgress(
+            @RequestBody ChatStreamRequest request,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            Principal principal) {
         log.info("Starting chat stream with progress for session: {}", request.sessionId());
         
-        return streamingChatService.streamChatWithProgress(request.sessionId(), request.message())
-                .map(message -> ServerSentEvent.<StreamMessage>builder()
-                        .event(message.type().toLowerCase())
-                        .data(message)
-                        .build())
+        return resumable("chat-progress", principal, request, lastEventId,
+                () -> streamingChatService.streamChatWithProgress(request.sessionId(), request.message()))
                 .doOnComplete(() -> log.info("Progress chat stream completed for session: {}", request.sessionId()))
                 .doOnError(error -> log.error("Progress chat stream error for session: {}", request.sessionId(), error))
                 .doOnCancel(() -> log.info("Progress chat stream cancelled for session: {}", request.sessionId()));
@@ -347,35 +405,52 @@ public class StreamingController {
      * Automatically fetches and includes relevant weather information in context.
      * 
      * @param request Chat stream request with session, message, and optional location
+     * @param lastEventId Last event received before a reconnect, resumes the stream after it
+     * @param principal Authenticated client, a stream is only resumed by the client that started it
      * @return Flux of ServerSentEvent with context-enriched token chunks
      */
     @PostMapping(value = "/chat/context", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @PreAuthorize("hasAnyAuthority('MCP_CLIENT', 'ADMIN')")
     @ConditionalOnProperty(name = "openmeteo.chat.enabled", havingValue = "true")
-    public Flux<ServerSentEvent<StreamMessage>> streamChatWithContext(@RequestBody ChatStreamRequest request) {
+    public Flux<ServerSentEvent<StreamMessage>> streamChatWithContext(
+            @RequestBody ChatStreamRequest request,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            Principal principal) {
         log.info("Starting context-enriched chat stream for session: {} with weather: {}", 
             request.sessionId(), request.shouldIncludeWeather());
         
         if (request.shouldIncludeWeather()) {
-            return streamingChatService.streamWithContext(
+            return resumable("chat-context", principal, request, lastEventId, () -> streamingChatService.streamWithContext(
                     request.sessionId(), 
                     request.message(),
                     request.latitude(),
                     request.longitude()
-                )
-                .map(message -> ServerSentEvent.<StreamMessage>builder()
-                        .event(message.type().toLowerCase())
-                        .data(message)
-                        .build())
+                ))
                 .doOnComplete(() -> log.info("Context chat stream completed for session: {}", request.sessionId()))
                 .doOnError(error -> log.error("Context chat stream error for session: {}", request.sessionId(), error))
                 .doOnCancel(() -> log.info("Context chat stream cancelled for session: {}", request.sessionId()));
         } else {
             // Fallback to simple chat if no weather context
-            return streamChat(request);
+            return streamChat(request, lastEventId, principal);
         }
     }
 
+    /**
+     * Resumes the stream of {@code lastEventId} or starts a new one, then paces it.
+     * A stream is only resumed on the same endpoint, by the same client and with the same parameters.
+     */
+    private Flux<ServerSentEvent<StreamMessage>> resumable(
+            String endpoint,
+            Principal principal,
+            Object params,
+            String lastEventId,
+            Supplier<Flux<StreamMessage>> source) {
+        String clientId = principal != null ? principal.getName() : "anonymous";
+        String scope = endpoint + "|" + clientId + "|" + params;
+        return streamPacer.pace(endpoint, streamReplayBuffer.stream(scope, lastEventId,
+                () -> streamPacer.coalesce(endpoint, source.get())));
+    }
+
     /**
      * Streaming status record.
      */
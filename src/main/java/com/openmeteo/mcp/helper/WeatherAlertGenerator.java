@@ -1,5 +1,7 @@
 package com.openmeteo.mcp.helper;
 
+import com.openmeteo.mcp.model.column.DoubleColumn;
+
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -9,6 +11,7 @@ import java.util.Map;
  * Helper class for generating weather alerts based on thresholds.
  * <p>
  * Analyzes weather data and generates actionable alerts for severe conditions.
+ * Hourly series backed by a {@link DoubleColumn} are scanned without boxing.
  * </p>
  */
 public class WeatherAlertGenerator {
@@ -39,8 +42,9 @@ public class WeatherAlertGenerator {
         if (hourly != null && hourly.containsKey("temperature")) {
             List<?> temps = (List<?>) hourly.get("temperature");
             int consecutiveHotHours = 0;
-            for (Object temp : temps) {
-                if (temp instanceof Number && ((Number) temp).doubleValue() > 30.0) {
+            for (int i = 0; i < temps.size(); i++) {
+                // NaN (missing) is not hot, like a missing boxed value
+                if (valueAt(temps, i) > 30.0) {
                     consecutiveHotHours++;
                     if (consecutiveHotHours >= 3) {
                         alerts.add(createAlert(
@@ -159,6 +163,16 @@ public class WeatherAlertGenerator {
         return defaultValue;
     }
 
+    /**
+     * Read a series value as a primitive, NaN if missing or not a number.
+     */
+    private static double valueAt(List<?> series, int index) {
+        if (series instanceof DoubleColumn column) {
+            return column.getDouble(index);
+        }
+        return series.get(index) instanceof Number number ? number.doubleValue() : Double.NaN;
+    }
+
     /**
      * Safely extract int value from map.
      */
@@ -0,0 +1,181 @@
+package com.openmeteo.mcp.model.column;
+
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ValueDeserializer;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Read-only {@code List<Double>} backed by a primitive {@code double[]}.
+ * <p>
+ * Missing values (JSON {@code null}) are stored as {@code NaN} and read back
+ * as {@code null}, so the list behaves like the boxed list Jackson would
+ * otherwise build and serializes to identical JSON. Hot paths can read
+ * primitives without boxing through {@link #getDouble(int)} or
+ * {@link #valueAt(List, int)}.
+ * </p>
+ * <p>
+ * {@link #subList(int, int)} returns a column over the same array, so
+ * slices are neither copied nor boxed.
+ * </p>
+ */
+public final class DoubleColumn extends AbstractList<Double> implements RandomAccess, Serializable {
+
+    private final double[] values;
+    private final int offset;
+    private final int size;
+
+    /**
+     * Creates a column over the given values; {@code NaN} marks a missing value.
+     *
+     * @param values Column values (not copied)
+     */
+    public DoubleColumn(double[] values) {
+        this(values, 0, values.length);
+    }
+
+    private DoubleColumn(double[] values, int offset, int size) {
+        this.values = values;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    @Override
+    public Double get(int index) {
+        double value = getDouble(index);
+        return Double.isNaN(value) ? null : value;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a view of a row range that shares this column's array.
+     *
+     * @param fromIndex First row (inclusive)
+     * @param toIndex   Last row (exclusive)
+     * @return Column view
+     */
+    @Override
+    public DoubleColumn subList(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, size);
+        return new DoubleColumn(values, offset + fromIndex, toIndex - fromIndex);
+    }
+
+    /**
+     * Returns the primitive value at the index, {@code NaN} if missing.
+     *
+     * @param index Row index
+     * @return Value or NaN
+     */
+    public double getDouble(int index) {
+        return values[offset + Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Reads a primitive value from any {@code List<Double>}, without boxing
+     * when the list is a {@link DoubleColumn}.
+     *
+     * @param list  Column list
+     * @param index Row index
+     * @return Value, or NaN if missing
+     */
+    public static double valueAt(List<Double> list, int index) {
+        if (list instanceof DoubleColumn column) {
+            return column.getDouble(index);
+        }
+        Double value = list.get(index);
+        return value != null ? value : Double.NaN;
+    }
+
+    /**
+     * Appends values to a growing primitive buffer, for decoders that see one value at a time.
+     */
+    public static final class Builder {
+        private double[] buffer = new double[64];
+        private int size;
+
+        /**
+         * Appends a value; {@code NaN} marks a missing value.
+         *
+         * @param value Value
+         * @return this builder
+         */
+        public Builder add(double value) {
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, size * 2);
+            }
+            buffer[size++] = value;
+            return this;
+        }
+
+        /**
+         * Appends a missing value.
+         *
+         * @return this builder
+         */
+        public Builder addMissing() {
+            return add(Double.NaN);
+        }
+
+        /**
+         * Appends all values of a column, without boxing when it is a {@link DoubleColumn}.
+         *
+         * @param values Column values
+         * @return this builder
+         */
+        public Builder addAll(List<Double> values) {
+            for (int i = 0; i < values.size(); i++) {
+                add(valueAt(values, i));
+            }
+            return this;
+        }
+
+        /**
+         * Returns the number of values appended so far.
+         *
+         * @return Size
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Builds the column; the builder must not be used afterwards.
+         *
+         * @return Column over the appended values
+         */
+        public DoubleColumn build() {
+            return new DoubleColumn(size == buffer.length ? buffer : Arrays.copyOf(buffer, size));
+        }
+    }
+
+    /**
+     * Streams a JSON number array directly into a {@link DoubleColumn}.
+     */
+    public static final class Deserializer extends ValueDeserializer<List<Double>> {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<Double> deserialize(JsonParser p, DeserializationContext ctxt) {
+            if (p.currentToken() != JsonToken.START_ARRAY) {
+                return (List<Double>) ctxt.handleUnexpectedToken(List.class, p);
+            }
+            Builder builder = new Builder();
+            JsonToken token;
+            while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+                builder.add(token == JsonToken.VALUE_NULL ? Double.NaN : p.getDoubleValue());
+            }
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.openmeteo.mcp.model.column;
+
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ValueDeserializer;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Read-only {@code List<Integer>} backed by a primitive {@code int[]}.
+ * <p>
+ * Missing values (JSON {@code null}) are stored as {@link #MISSING} and read
+ * back as {@code null}, so the list serializes to identical JSON.
+ * {@link #subList(int, int)} returns a column over the same array.
+ * </p>
+ */
+public final class IntColumn extends AbstractList<Integer> implements RandomAccess, Serializable {
+
+    /**
+     * Sentinel stored for missing values.
+     */
+    public static final int MISSING = Integer.MIN_VALUE;
+
+    private final int[] values;
+    private final int offset;
+    private final int size;
+
+    /**
+     * Creates a column over the given values; {@link #MISSING} marks a missing value.
+     *
+     * @param values Column values (not copied)
+     */
+    public IntColumn(int[] values) {
+        this(values, 0, values.length);
+    }
+
+    private IntColumn(int[] values, int offset, int size) {
+        this.values = values;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    @Override
+    public Integer get(int index) {
+        int value = getInt(index);
+        return value == MISSING ? null : value;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a view of a row range that shares this column's array.
+     *
+     * @param fromIndex First row (inclusive)
+     * @param toIndex   Last row (exclusive)
+     * @return Column view
+     */
+    @Override
+    public IntColumn subList(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, size);
+        return new IntColumn(values, offset + fromIndex, toIndex - fromIndex);
+    }
+
+    /**
+     * Returns the primitive value at the index, {@link #MISSING} if missing.
+     *
+     * @param index Row index
+     * @return Value or MISSING
+     */
+    public int getInt(int index) {
+        return values[offset + Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Reads a primitive value from any {@code List<Integer>}, without boxing
+     * when the list is an {@link IntColumn}.
+     *
+     * @param list  Column list
+     * @param index Row index
+     * @return Value, or {@link #MISSING} if missing
+     */
+    public static int valueAt(List<Integer> list, int index) {
+        if (list instanceof IntColumn column) {
+            return column.getInt(index);
+        }
+        Integer value = list.get(index);
+        return value != null ? value : MISSING;
+    }
+
+    /**
+     * Appends values to a growing primitive buffer, for decoders that see one value at a time.
+     */
+    public static final class Builder {
+        private int[] buffer = new int[64];
+        private int size;
+
+        /**
+         * Appends a value; {@link #MISSING} marks a missing value.
+         *
+         * @param value Value
+         * @return this builder
+         */
+        public Builder add(int value) {
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, size * 2);
+            }
+            buffer[size++] = value;
+            return this;
+        }
+
+        /**
+         * Appends a missing value.
+         *
+         * @return this builder
+         */
+        public Builder addMissing() {
+            return add(MISSING);
+        }
+
+        /**
+         * Appends all values of a column, without boxing when it is an {@link IntColumn}.
+         *
+         * @param values Column values
+         * @return this builder
+         */
+        public Builder addAll(List<Integer> values) {
+            for (int i = 0; i < values.size(); i++) {
+                add(valueAt(values, i));
+            }
+            return this;
+        }
+
+        /**
+         * Returns the number of values appended so far.
+         *
+         * @return Size
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Builds the column; the builder must not be used afterwards.
+         *
+         * @return Column over the appended values
+         */
+        public IntColumn build() {
+            return new IntColumn(size == buffer.length ? buffer : Arrays.copyOf(buffer, size));
+        }
+    }
+
+    /**
+     * Streams a JSON number array directly into an {@link IntColumn}.
+     */
+    public static final class Deserializer extends ValueDeserializer<List<Integer>> {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<Integer> deserialize(JsonParser p, DeserializationContext ctxt) {
+            if (p.currentToken() != JsonToken.START_ARRAY) {
+                return (List<Integer>) ctxt.handleUnexpectedToken(List.class, p);
+            }
+            Builder builder = new Builder();
+            JsonToken token;
+            while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+                builder.add(token == JsonToken.VALUE_NULL ? MISSING : p.getIntValue());
+            }
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.openmeteo.mcp.model.column;
+
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ValueDeserializer;
+
+import java.io.Serializable;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Read-only {@code List<String>} time axis stored as local epoch seconds.
+ * <p>
+ * Open-Meteo returns time columns as local ISO strings ({@code 2024-01-30}
+ * or {@code 2024-01-30T14:00}). A regular series is stored as start plus
+ * step; an irregular one (e.g. across a DST change) keeps one {@code long}
+ * per entry. Strings are only formatted on access, in the same format they
+ * were parsed from, so JSON output is unchanged.
+ * </p>
+ * <p>
+ * Values in any other format are not converted: the deserializer then
+ * returns a plain list of the original strings.
+ * </p>
+ */
+public final class TimeAxis extends AbstractList<String> implements RandomAccess, Serializable {
+
+    /**
+     * Supported string formats.
+     */
+    public enum Format {
+        /** {@code yyyy-MM-dd} */
+        DATE(10),
+        /** {@code yyyy-MM-ddTHH:mm} */
+        DATE_TIME(16);
+
+        private final int length;
+
+        Format(int length) {
+            this.length = length;
+        }
+
+        static Format forLength(int length) {
+            return length == DATE.length ? DATE : length == DATE_TIME.length ? DATE_TIME : null;
+        }
+    }
+
+    private static final long INVALID = Long.MIN_VALUE;
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm");
+
+    private final Format format;
+    private final int size;
+    private final long startEpochSecond;
+    private final long stepSeconds;
+    private final long[] epochSeconds;
+    private final int offset;
+
+    private TimeAxis(Format format, int size, long startEpochSecond, long stepSeconds, long[] epochSeconds,
+                     int offset) {
+        this.format = format;
+        this.size = size;
+        this.startEpochSecond = startEpochSecond;
+        this.stepSeconds = stepSeconds;
+        this.epochSeconds = epochSeconds;
+        this.offset = offset;
+    }
+
+    /**
+     * Creates a regular time axis.
+     *
+     * @param format           String format used for output
+     * @param startEpochSecond Local epoch second of the first entry
+     * @param stepSeconds      Seconds between entries
+     * @param size             Number of entries
+     * @return Regular time axis
+     */
+    public static TimeAxis regular(Format format, long startEpochSecond, long stepSeconds, int size) {
+        return new TimeAxis(format, size, startEpochSecond, stepSeconds, null, 0);
+    }
+
+    /**
+     * Creates a time axis from local epoch seconds, detecting a regular step.
+     *
+     * @param format       String format used for output
+     * @param epochSeconds Local epoch second of each entry (not copied)
+     * @return Time axis
+     */
+    public static TimeAxis of(Format format, long[] epochSeconds) {
+        int n = epochSeconds.length;
+        if (n == 0) {
+            return regular(format, 0L, 0L, 0);
+        }
+        long step = n > 1 ? epochSeconds[1] - epochSeconds[0] : 0L;
+        for (int i = 2; i < n; i++) {
+            if (epochSeconds[i] - epochSeconds[i - 1] != step) {
+                return new TimeAxis(format, n, epochSeconds[0], 0L, epochSeconds, 0);
+            }
+        }
+        return regular(format, epochSeconds[0], step, n);
+    }
+
+    @Override
+    public String get(int index) {
+        return format(epochSecondAt(index), format);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a view of a row range; an irregular axis shares its array.
+     *
+     * @param fromIndex First row (inclusive)
+     * @param toIndex   Last row (exclusive)
+     * @return Time axis view
+     */
+    @Override
+    public TimeAxis subList(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, size);
+        if (epochSeconds == null) {
+            return regular(format, startEpochSecond + fromIndex * stepSeconds, stepSeconds, toIndex - fromIndex);
+        }
+        return new TimeAxis(format, toIndex - fromIndex, 0L, 0L, epochSeconds, offset + fromIndex);
+    }
+
+    /**
+     * Returns the local epoch second of an entry.
+     *
+     * @param index Row index
+     * @return Local epoch second
+     */
+    public long epochSecondAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return epochSeconds != null ? epochSeconds[offset + index] : startEpochSecond + index * stepSeconds;
+    }
+
+    /**
+     * Returns true if entries are evenly spaced.
+     *
+     * @return true for a start-plus-step axis
+     */
+    public boolean isRegular() {
+        return epochSeconds == null;
+    }
+
+    /**
+     * Returns the spacing of a regular axis.
+     *
+     * @return Step in seconds (0 for irregular or single-entry axes)
+     */
+    public long stepSeconds() {
+        return stepSeconds;
+    }
+
+    /**
+     * Returns the output format.
+     *
+     * @return Format
+     */
+    public Format format() {
+        return format;
+    }
+
+    private static String format(long epochSecond, Format format) {
+        if (format == Format.DATE) {
+            return LocalDate.ofEpochDay(Math.floorDiv(epochSecond, SECONDS_PER_DAY)).toString();
+        }
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC).format(DATE_TIME_FORMAT);
+    }
+
+    /**
+     * Parses a local ISO string in the given format without allocating.
+     *
+     * @return Local epoch second, or {@link #INVALID}
+     */
+    private static long parse(char[] buffer, int offset, Format format) {
+        int year = digits(buffer, offset, 4);
+        int month = digits(buffer, offset + 5, 2);
+        int day = digits(buffer, offset + 8, 2);
+        if (year < 0 || month < 0 || day < 0
+                || buffer[offset + 4] != '-' || buffer[offset + 7] != '-') {
+            return INVALID;
+        }
+
+        long seconds = 0L;
+        if (format == Format.DATE_TIME) {
+            int hour = digits(buffer, offset + 11, 2);
+            int minute = digits(buffer, offset + 14, 2);
+            if (buffer[offset + 10] != 'T' || buffer[offset + 13] != ':'
+                    || hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+                return INVALID;
+            }
+            seconds = hour * 3_600L + minute * 60L;
+        }
+
+        try {
+            return LocalDate.of(year, month, day).toEpochDay() * SECONDS_PER_DAY + seconds;
+        } catch (DateTimeException e) {
+            return INVALID;
+        }
+    }
+
+    private static int digits(char[] buffer, int offset, int count) {
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            int digit = buffer[offset + i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Collects time strings one at a time, switching to a plain list of the
+     * original strings as soon as a value is not in a supported format.
+     */
+    public static final class Builder {
+        private long[] buffer = new long[64];
+        private int size;
+        private Format format;
+        private List<String> fallback;
+
+        /**
+         * Appends a time string given as a character range, parsing it without allocating.
+         *
+         * @param chars  Character buffer
+         * @param offset Start of the value
+         * @param length Length of the value
+         * @return this builder
+         */
+        public Builder add(char[] chars, int offset, int length) {
+            if (fallback == null) {
+                Format valueFormat = Format.forLength(length);
+                if (valueFormat != null && (format == null || format == valueFormat)) {
+                    long epochSecond = parse(chars, offset, valueFormat);
+                    if (epochSecond != INVALID) {
+                        format = valueFormat;
+                        if (size == buffer.length) {
+                            buffer = Arrays.copyOf(buffer, size * 2);
+                        }
+                        buffer[size++] = epochSecond;
+                        return this;
+                    }
+                }
+            }
+            return addUnparsed(new String(chars, offset, length));
+        }
+
+        /**
+         * Appends all entries of a time column, copying epoch seconds directly from a {@link TimeAxis}.
+         *
+         * @param values Time column
+         * @return this builder
+         */
+        public Builder addAll(List<String> values) {
+            if (values instanceof TimeAxis axis && fallback == null && (format == null || format == axis.format)) {
+                if (axis.size > 0) {
+                    format = axis.format;
+                }
+                for (int i = 0; i < axis.size; i++) {
+                    if (size == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, size * 2);
+                    }
+                    buffer[size++] = axis.epochSecondAt(i);
+                }
+                return this;
+            }
+            for (String value : values) {
+                if (value == null) {
+                    addUnparsed(null);
+                } else {
+                    add(value.toCharArray(), 0, value.length());
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Appends a value that is not a supported time string (including {@code null}).
+         *
+         * @param value Original value
+         * @return this builder
+         */
+        public Builder addUnparsed(String value) {
+            if (fallback == null) {
+                // Unsupported value: keep everything as the original strings
+                fallback = new ArrayList<>(Math.max(16, size * 2));
+                for (int i = 0; i < size; i++) {
+                    fallback.add(TimeAxis.format(buffer[i], format));
+                }
+            }
+            fallback.add(value);
+            return this;
+        }
+
+        /**
+         * Builds the axis; the builder must not be used afterwards.
+         *
+         * @return TimeAxis, or a plain list if any value was unsupported
+         */
+        public List<String> build() {
+            if (fallback != null) {
+                return fallback;
+            }
+            if (size == 0) {
+                return new ArrayList<>();
+            }
+            return TimeAxis.of(format, Arrays.copyOf(buffer, size));
+        }
+    }
+
+    /**
+     * Streams a JSON string array into a {@link TimeAxis}, or into a plain
+     * list of strings when the values are not in a supported format.
+     */
+    public static final class Deserializer extends ValueDeserializer<List<String>> {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<String> deserialize(JsonParser p, DeserializationContext ctxt) {
+            if (p.currentToken() != JsonToken.START_ARRAY) {
+                return (List<String>) ctxt.handleUnexpectedToken(List.class, p);
+            }
+
+            Builder builder = new Builder();
+            JsonToken token;
+            while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == JsonToken.VALUE_STRING) {
+                    builder.add(p.getStringCharacters(), p.getStringOffset(), p.getStringLength());
+                } else {
+                    builder.addUnparsed(token == JsonToken.VALUE_NULL ? null : p.getString());
+                }
+            }
+            return builder.build();
+        }
+    }
+}
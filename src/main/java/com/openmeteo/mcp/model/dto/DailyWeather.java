@@ -2,6 +2,10 @@ package com.openmeteo.mcp.model.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.openmeteo.mcp.model.column.DoubleColumn;
+import com.openmeteo.mcp.model.column.IntColumn;
+import com.openmeteo.mcp.model.column.TimeAxis;
+import tools.jackson.databind.annotation.JsonDeserialize;
 
 import java.io.Serializable;
 import java.util.List;
@@ -33,30 +37,39 @@ import java.util.List;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public record DailyWeather(
         @JsonProperty("time")
+        @JsonDeserialize(using = TimeAxis.Deserializer.class)
         List<String> time,
 
         @JsonProperty("temperature_2m_max")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> temperature2mMax,
 
         @JsonProperty("temperature_2m_min")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> temperature2mMin,
 
         @JsonProperty("apparent_temperature_max")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> apparentTemperatureMax,
 
         @JsonProperty("apparent_temperature_min")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> apparentTemperatureMin,
 
         @JsonProperty("precipitation_sum")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> precipitationSum,
 
         @JsonProperty("rain_sum")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> rainSum,
 
         @JsonProperty("snowfall_sum")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> snowfallSum,
 
         @JsonProperty("weathercode")
+        @JsonDeserialize(using = IntColumn.Deserializer.class)
         List<Integer> weathercode,
 
         @JsonProperty("sunrise")
@@ -66,18 +79,23 @@ public record DailyWeather(
         List<String> sunset,
 
         @JsonProperty("windspeed_10m_max")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> windspeed10mMax,
 
         @JsonProperty("windgusts_10m_max")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> windgusts10mMax,
 
         @JsonProperty("winddirection_10m_dominant")
+        @JsonDeserialize(using = IntColumn.Deserializer.class)
         List<Integer> winddirection10mDominant,
 
         @JsonProperty("precipitation_probability_max")
+        @JsonDeserialize(using = IntColumn.Deserializer.class)
         List<Integer> precipitationProbabilityMax,
 
         @JsonProperty("uv_index_max")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> uvIndexMax
 ) implements Serializable {
 }
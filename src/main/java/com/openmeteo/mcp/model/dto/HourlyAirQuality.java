@@ -2,6 +2,10 @@ package com.openmeteo.mcp.model.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.openmeteo.mcp.model.column.DoubleColumn;
+import com.openmeteo.mcp.model.column.IntColumn;
+import com.openmeteo.mcp.model.column.TimeAxis;
+import tools.jackson.databind.annotation.JsonDeserialize;
 
 import java.io.Serializable;
 import java.util.List;
@@ -34,51 +38,67 @@ import java.util.List;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public record HourlyAirQuality(
         @JsonProperty("time")
+        @JsonDeserialize(using = TimeAxis.Deserializer.class)
         List<String> time,
 
         @JsonProperty("european_aqi")
+        @JsonDeserialize(using = IntColumn.Deserializer.class)
         List<Integer> europeanAqi,
 
         @JsonProperty("us_aqi")
+        @JsonDeserialize(using = IntColumn.Deserializer.class)
         List<Integer> usAqi,
 
         @JsonProperty("pm10")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> pm10,
 
         @JsonProperty("pm2_5")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> pm25,
 
         @JsonProperty("carbon_monoxide")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> carbonMonoxide,
 
         @JsonProperty("nitrogen_dioxide")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> nitrogenDioxide,
 
         @JsonProperty("sulphur_dioxide")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> sulphurDioxide,
 
         @JsonProperty("ozone")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> ozone,
 
         @JsonProperty("uv_index")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> uvIndex,
 
         @JsonProperty("alder_pollen")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> alderPollen,
 
         @JsonProperty("birch_pollen")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> birchPollen,
 
         @JsonProperty("grass_pollen")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> grassPollen,
 
         @JsonProperty("mugwort_pollen")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> mugwortPollen,
 
         @JsonProperty("olive_pollen")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> olivePollen,
 
         @JsonProperty("ragweed_pollen")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> ragweedPollen
 ) implements Serializable {
 }
@@ -2,6 +2,10 @@ package com.openmeteo.mcp.model.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.openmeteo.mcp.model.column.DoubleColumn;
+import com.openmeteo.mcp.model.column.IntColumn;
+import com.openmeteo.mcp.model.column.TimeAxis;
+import tools.jackson.databind.annotation.JsonDeserialize;
 
 import java.io.Serializable;
 import java.util.List;
@@ -27,33 +31,43 @@ import java.util.List;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public record HourlySnow(
         @JsonProperty("time")
+        @JsonDeserialize(using = TimeAxis.Deserializer.class)
         List<String> time,
 
         @JsonProperty("temperature_2m")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> temperature2m,
 
         @JsonProperty("snowfall")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> snowfall,
 
         @JsonProperty("snow_depth")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> snowDepth,
 
         @JsonProperty("weathercode")
+        @JsonDeserialize(using = IntColumn.Deserializer.class)
         List<Integer> weathercode,
 
         @JsonProperty("cloudcover")
+        @JsonDeserialize(using = IntColumn.Deserializer.class)
         List<Integer> cloudCover,
 
         @JsonProperty("windspeed_10m")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> windspeed10m,
 
         @JsonProperty("winddirection_10m")
+        @JsonDeserialize(using = IntColumn.Deserializer.class)
         List<Integer> winddirection10m,
 
         @JsonProperty("windgusts_10m")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> windgusts10m,
 
         @JsonProperty("freezinglevel_height")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> freezingLevelHeight
 ) implements Serializable {
 }
@@ -2,6 +2,10 @@ package com.openmeteo.mcp.model.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.openmeteo.mcp.model.column.DoubleColumn;
+import com.openmeteo.mcp.model.column.IntColumn;
+import com.openmeteo.mcp.model.column.TimeAxis;
+import tools.jackson.databind.annotation.JsonDeserialize;
 
 import java.io.Serializable;
 import java.util.List;
@@ -35,57 +39,75 @@ import java.util.List;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public record HourlyWeather(
         @JsonProperty("time")
+        @JsonDeserialize(using = TimeAxis.Deserializer.class)
         List<String> time,
 
         @JsonProperty("temperature_2m")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> temperature2m,
 
         @JsonProperty("apparent_temperature")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> apparentTemperature,
 
         @JsonProperty("precipitation")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> precipitation,
 
         @JsonProperty("rain")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> rain,
 
         @JsonProperty("snowfall")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> snowfall,
 
         @JsonProperty("snow_depth")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> snowDepth,
 
         @JsonProperty("weathercode")
+        @JsonDeserialize(using = IntColumn.Deserializer.class)
         List<Integer> weathercode,
 
         @JsonProperty("cloudcover")
+        @JsonDeserialize(using = IntColumn.Deserializer.class)
         List<Integer> cloudCover,
 
         @JsonProperty("visibility")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> visibility,
 
         @JsonProperty("windspeed_10m")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> windspeed10m,
 
         @JsonProperty("winddirection_10m")
+        @JsonDeserialize(using = IntColumn.Deserializer.class)
         List<Integer> winddirection10m,
 
         @JsonProperty("windgusts_10m")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> windgusts10m,
 
         @JsonProperty("surface_pressure")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> surfacePressure,
 
         @JsonProperty("relativehumidity_2m")
+        @JsonDeserialize(using = IntColumn.Deserializer.class)
         List<Integer> relativehumidity2m,
 
         @JsonProperty("dewpoint_2m")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> dewpoint2m,
 
         @JsonProperty("precipitation_probability")
+        @JsonDeserialize(using = IntColumn.Deserializer.class)
         List<Integer> precipitationProbability,
 
         @JsonProperty("uv_index")
+        @JsonDeserialize(using = DoubleColumn.Deserializer.class)
         List<Double> uvIndex
 ) implements Serializable {
 }
@@ -0,0 +1,32 @@
+package com.openmeteo.mcp.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.Serializable;
+
+/**
+ * Marks data served from the last known good response instead of upstream.
+ * <p>
+ * Attached to tool results when an Open-Meteo host is unavailable and an
+ * expired cache entry was served as a fallback.
+ * </p>
+ *
+ * @param stale      Always true; explicit flag for clients
+ * @param fetchedAt  When the data was fetched from upstream (ISO-8601 UTC)
+ * @param ageSeconds Age of the data in seconds
+ * @param reason     Why stale data was served
+ */
+public record Staleness(
+        @JsonProperty("stale")
+        boolean stale,
+
+        @JsonProperty("fetched_at")
+        String fetchedAt,
+
+        @JsonProperty("age_seconds")
+        long ageSeconds,
+
+        @JsonProperty("reason")
+        String reason
+) implements Serializable {
+}
@@ -0,0 +1,30 @@
+package com.openmeteo.mcp.model.request;
+
+import java.io.Serializable;
+
+/**
+ * Geographic coordinates of a single location.
+ * <p>
+ * Used by multi-location (batch) requests to the Open-Meteo API.
+ * </p>
+ *
+ * @param latitude  Latitude in decimal degrees (-90 to 90)
+ * @param longitude Longitude in decimal degrees (-180 to 180)
+ */
+public record Coordinates(
+        double latitude,
+        double longitude
+) implements Serializable {
+
+    /**
+     * Compact constructor with validation.
+     */
+    public Coordinates {
+        if (latitude < -90 || latitude > 90) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90");
+        }
+        if (longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Longitude must be between -180 and 180");
+        }
+    }
+}
@@ -55,7 +55,7 @@ public record StreamMessage(
      */
     public static StreamMessage progress(int current, int total, String message) {
         var progressData = new ProgressData(current, total, message);
-        var metadata = new StreamMetadata(null, null, null, current, total);
+        var metadata = new StreamMetadata(null, null, null, current, total, null);
         return new StreamMessage("progress", progressData, metadata, Instant.now());
     }
 
@@ -15,6 +15,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
  * @param encoding Character encoding
  * @param progress Current progress (0-100)
  * @param totalChunks Total expected chunks (if known)
+ * @param chunkIndex Zero-based index of the chunk in a chunked stream
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public record StreamMetadata(
@@ -22,27 +23,36 @@ public record StreamMetadata(
         String contentType,
         String encoding,
         Integer progress,
-        Integer totalChunks
+        Integer totalChunks,
+        Integer chunkIndex
 ) {
     /**
      * Create basic metadata with stream ID.
      */
     public static StreamMetadata of(String streamId) {
-        return new StreamMetadata(streamId, null, null, null, null);
+        return new StreamMetadata(streamId, null, null, null, null, null);
     }
 
     /**
      * Create metadata with content type.
      */
     public static StreamMetadata of(String streamId, String contentType) {
-        return new StreamMetadata(streamId, contentType, "UTF-8", null, null);
+        return new StreamMetadata(streamId, contentType, "UTF-8", null, null, null);
     }
 
     /**
      * Create metadata with progress tracking.
      */
     public static StreamMetadata withProgress(String streamId, int progress, int totalChunks) {
-        return new StreamMetadata(streamId, null, null, progress, totalChunks);
+        return new StreamMetadata(streamId, null, null, progress, totalChunks, null);
+    }
+
+    /**
+     * Create metadata for one chunk of a chunked stream, with progress in percent.
+     */
+    public static StreamMetadata chunk(String streamId, int chunkIndex, int totalChunks) {
+        int progress = totalChunks > 0 ? (chunkIndex + 1) * 100 / totalChunks : 100;
+        return new StreamMetadata(streamId, "application/json", "UTF-8", progress, totalChunks, chunkIndex);
     }
 
     /**
@@ -50,6 +60,6 @@ public record StreamMetadata(
      */
     public static StreamMetadata full(String streamId, String contentType, String encoding, 
                                      Integer progress, Integer totalChunks) {
-        return new StreamMetadata(streamId, contentType, encoding, progress, totalChunks);
+        return new StreamMetadata(streamId, contentType, encoding, progress, totalChunks, null);
     }
 }
@@ -1,7 +1,9 @@
 package com.openmeteo.mcp.service;
 
 import com.openmeteo.mcp.client.OpenMeteoClient;
+import com.openmeteo.mcp.client.OpenMeteoClient.Served;
 import com.openmeteo.mcp.model.dto.AirQualityForecast;
+import com.openmeteo.mcp.model.request.Coordinates;
 import com.openmeteo.mcp.service.util.ValidationUtil;
 import com.openmeteo.mcp.service.util.WeatherFormatter;
 import org.slf4j.Logger;
@@ -9,6 +11,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
@@ -78,37 +81,102 @@ public class AirQualityService {
             boolean includePollen,
             String timezone
     ) {
-        return getAirQuality(latitude, longitude, forecastDays,
+        ValidationUtil.validateLatitude(latitude);
+        ValidationUtil.validateLongitude(longitude);
+        int clampedDays = ValidationUtil.clampForecastDays(forecastDays, 1, 5);
+
+        log.info("Getting air quality: lat={}, lon={}, days={}, pollen={}",
+                latitude, longitude, clampedDays, includePollen);
+
+        return client.serveAirQuality(latitude, longitude, clampedDays,
                         includePollen, timezone)
-                .thenApply(forecast -> {
-                    Map<String, Object> result = new HashMap<>();
-                    result.put("forecast", forecast);
+                .thenApply(this::interpret);
+    }
+
+    /**
+     * Gets air quality forecasts for multiple locations using batched upstream calls.
+     *
+     * @param locations     Locations to fetch
+     * @param forecastDays  Number of forecast days (1-5)
+     * @param includePollen Whether to include pollen data (Europe only)
+     * @param timezone      Timezone identifier
+     * @return CompletableFuture with one AirQualityForecast per location, in input order
+     */
+    public CompletableFuture<List<AirQualityForecast>> getAirQualityBatch(
+            List<Coordinates> locations,
+            int forecastDays,
+            boolean includePollen,
+            String timezone
+    ) {
+        // Clamp forecast days to API limits (1-5 for air quality)
+        int clampedDays = ValidationUtil.clampForecastDays(forecastDays, 1, 5);
+
+        log.info("Getting air quality batch: locations={}, days={}, pollen={}",
+                locations.size(), clampedDays, includePollen);
+
+        return client.getAirQualityBatch(locations, clampedDays, includePollen, timezone);
+    }
+
+    /**
+     * Gets air quality with interpretation for multiple locations using batched upstream calls.
+     *
+     * @param locations     Locations to fetch
+     * @param forecastDays  Number of forecast days (1-5)
+     * @param includePollen Whether to include pollen data (Europe only)
+     * @param timezone      Timezone identifier
+     * @return CompletableFuture with enriched air quality data per location, in input order
+     */
+    public CompletableFuture<List<Map<String, Object>>> getAirQualityBatchWithInterpretation(
+            List<Coordinates> locations,
+            int forecastDays,
+            boolean includePollen,
+            String timezone
+    ) {
+        int clampedDays = ValidationUtil.clampForecastDays(forecastDays, 1, 5);
+
+        log.info("Getting air quality batch: locations={}, days={}, pollen={}",
+                locations.size(), clampedDays, includePollen);
+
+        return client.serveAirQualityBatch(locations, clampedDays, includePollen, timezone)
+                .thenApply(forecasts -> forecasts.stream()
+                        .map(this::interpret)
+                        .toList());
+    }
+
+    /**
+     * Wraps a forecast with AQI and UV interpretation of its current data.
+     * Adds a staleness marker if the forecast is a last known good fallback.
+     */
+    private Map<String, Object> interpret(Served<AirQualityForecast> served) {
+        AirQualityForecast forecast = served.value();
+        Map<String, Object> result = new HashMap<>();
+        result.put("forecast", forecast);
+        served.staleness().ifPresent(staleness -> result.put("staleness", staleness));
 
-                    // Add interpretation if current data available
-                    if (forecast.current() != null) {
-                        var current = forecast.current();
+        // Add interpretation if current data available
+        if (forecast.current() != null) {
+            var current = forecast.current();
 
-                        Map<String, Object> interpreted = new HashMap<>();
+            Map<String, Object> interpreted = new HashMap<>();
 
-                        if (current.europeanAqi() != null) {
-                            interpreted.put("european_aqi_level",
-                                    WeatherFormatter.interpretAqi(current.europeanAqi(), true));
-                        }
+            if (current.europeanAqi() != null) {
+                interpreted.put("european_aqi_level",
+                        WeatherFormatter.interpretAqi(current.europeanAqi(), true));
+            }
 
-                        if (current.usAqi() != null) {
-                            interpreted.put("us_aqi_level",
-                                    WeatherFormatter.interpretAqi(current.usAqi(), false));
-                        }
+            if (current.usAqi() != null) {
+                interpreted.put("us_aqi_level",
+                        WeatherFormatter.interpretAqi(current.usAqi(), false));
+            }
 
-                        if (current.uvIndex() != null) {
-                            interpreted.put("uv_index_level",
-                                    WeatherFormatter.interpretUvIndex(current.uvIndex()));
-                        }
+            if (current.uvIndex() != null) {
+                interpreted.put("uv_index_level",
+                        WeatherFormatter.interpretUvIndex(current.uvIndex()));
+            }
 
-                        result.put("interpretation", interpreted);
-                    }
+            result.put("interpretation", interpreted);
+        }
 
-                    return result;
-                });
+        return result;
     }
 }
@@ -0,0 +1,894 @@
+package com.openmeteo.mcp.service;
+
+import com.openmeteo.mcp.model.column.DoubleColumn;
+import com.openmeteo.mcp.model.column.IntColumn;
+import com.openmeteo.mcp.model.column.TimeAxis;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Local on-disk store for finalized archive (reanalysis) data.
+ * <p>
+ * Archive days older than the finalization delay never change upstream, so
+ * once fetched they are kept on disk and served locally. Data is keyed by
+ * dataset (the requested variable list), timezone (daily aggregation
+ * depends on it) and grid cell, with one directory per cell:
+ * {@code <root>/<dataset>/<timezone>/<lat>_<lon>/<year>-<seq>.seg}.
+ * </p>
+ * <p>
+ * A segment holds one cell-year as fixed 366-row columns plus a bitmap of
+ * the days it covers. Each column is byte-shuffled and deflated separately,
+ * and segments are read through memory-mapped files. A CRC32 trailer
+ * detects torn or corrupted files, which are deleted and treated as absent.
+ * </p>
+ * <p>
+ * Segments are immutable and written crash-safe: to a temporary file that
+ * is forced to disk and then atomically renamed. Each write adds a segment;
+ * once a cell-year has more than {@code compaction-segments} of them they
+ * are compacted into one (newer segments win for overlapping days). The
+ * store is capped in bytes and evicts the least recently used cells.
+ * </p>
+ */
+@Component
+public class ArchiveStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveStore.class);
+    private static final int MAGIC = 0x4F4D4153; // "OMAS"
+    private static final short VERSION = 1;
+    private static final int DAYS = 366;
+    private static final int BITMAP_BYTES = (DAYS + 7) / 8;
+    private static final byte DOUBLE = 'D';
+    private static final byte INT = 'I';
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    /**
+     * Locally available days of a request.
+     *
+     * @param start First day (inclusive)
+     * @param end   Last day (inclusive)
+     * @param daily Daily columns for the run, in the archive response layout
+     */
+    public record Run(LocalDate start, LocalDate end, Map<String, Object> daily) {
+    }
+
+    private record Segment(int year, int seq, Path path, long size) {
+    }
+
+    private final boolean enabled;
+    private final Path root;
+    private final double gridDegrees;
+    private final int finalizationDelayDays;
+    private final long maxBytes;
+    private final int compactionSegments;
+    private final Clock clock;
+    private final Map<Path, Cell> cells = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final Counter localDays;
+    private final Counter storedDays;
+    private final Counter compactions;
+    private final Counter evictions;
+    private final Counter corruptSegments;
+
+    public ArchiveStore(
+            MeterRegistry meterRegistry,
+            @Value("${openmeteo.archive-store.enabled:false}") boolean enabled,
+            @Value("${openmeteo.archive-store.path:${java.io.tmpdir}/open-meteo-archive}") String path,
+            @Value("${openmeteo.archive-store.grid-degrees:0.1}") double gridDegrees,
+            @Value("${openmeteo.archive-store.finalization-delay-days:90}") int finalizationDelayDays,
+            @Value("${openmeteo.archive-store.max-size-mb:1024}") long maxSizeMb,
+            @Value("${openmeteo.archive-store.compaction-segments:4}") int compactionSegments) {
+        this(meterRegistry, enabled, Path.of(path), gridDegrees, finalizationDelayDays,
+                maxSizeMb * 1024 * 1024, compactionSegments, Clock.systemUTC());
+    }
+
+    ArchiveStore(
+            MeterRegistry meterRegistry,
+            boolean enabled,
+            Path root,
+            double gridDegrees,
+            int finalizationDelayDays,
+            long maxBytes,
+            int compactionSegments,
+            Clock clock) {
+        this.root = root;
+        this.gridDegrees = gridDegrees;
+        this.finalizationDelayDays = Math.max(0, finalizationDelayDays);
+        this.maxBytes = maxBytes;
+        this.compactionSegments = Math.max(1, compactionSegments);
+        this.clock = clock;
+
+        this.localDays = Counter.builder("openmeteo.archive.store.days")
+                .description("Archive days served from the local store")
+                .tag("result", "local")
+                .register(meterRegistry);
+        this.storedDays = Counter.builder("openmeteo.archive.store.days")
+                .description("Archive days written to the local store")
+                .tag("result", "stored")
+                .register(meterRegistry);
+        this.compactions = Counter.builder("openmeteo.archive.store.compactions")
+                .description("Cell-years compacted into a single segment")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("openmeteo.archive.store.evictions")
+                .description("Cells evicted to stay within the size cap")
+                .register(meterRegistry);
+        this.corruptSegments = Counter.builder("openmeteo.archive.store.corrupt")
+                .description("Segments discarded because they failed validation")
+                .register(meterRegistry);
+        Gauge.builder("openmeteo.archive.store.bytes", totalBytes, AtomicLong::get)
+                .description("Bytes on disk in the local archive store")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        this.enabled = enabled && open();
+    }
+
+    /**
+     * Returns true if the store is in use.
+     *
+     * @return true when enabled and the store directory is usable
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the last day that is final upstream and can be stored.
+     *
+     * @return Last finalized day
+     */
+    public LocalDate finalizedThrough() {
+        return LocalDate.ofInstant(clock.instant(), ZoneOffset.UTC).minusDays(finalizationDelayDays);
+    }
+
+    /**
+     * Returns the identifier of the grid cell a coordinate is stored under.
+     * <p>
+     * Coordinates with the same identifier share stored data; callers that
+     * keep derived data per cell can use it as their key.
+     * </p>
+     *
+     * @param latitude  Latitude in decimal degrees
+     * @param longitude Longitude in decimal degrees
+     * @param timezone  Timezone of the daily aggregation
+     * @return Cell identifier ({@code <timezone>/<lat>_<lon>} in grid units)
+     */
+    public String cellId(double latitude, double longitude, String timezone) {
+        return URLEncoder.encode(timezone, StandardCharsets.UTF_8) + "/"
+                + Math.round(latitude / gridDegrees) + "_" + Math.round(longitude / gridDegrees);
+    }
+
+    /**
+     * Returns the locally available runs of consecutive days in a range.
+     *
+     * @param dataset   Dataset name (e.g. the requested variable list)
+     * @param latitude  Latitude in decimal degrees
+     * @param longitude Longitude in decimal degrees
+     * @param timezone  Timezone of the daily aggregation
+     * @param start     First day (inclusive)
+     * @param end       Last day (inclusive)
+     * @return Runs in date order; empty if nothing is stored
+     */
+    public List<Run> lookup(String dataset, double latitude, double longitude, String timezone,
+                            LocalDate start, LocalDate end) {
+        if (!enabled || start.isAfter(end)) {
+            return List.of();
+        }
+        Cell cell = cells.get(cellDirectory(dataset, latitude, longitude, timezone));
+        if (cell == null) {
+            return List.of();
+        }
+
+        Map<Integer, YearBlock> blocks = new TreeMap<>();
+        synchronized (cell) {
+            if (cell.evicted) {
+                return List.of();
+            }
+            for (int year = start.getYear(); year <= end.getYear(); year++) {
+                YearBlock block = load(cell, year);
+                if (block != null) {
+                    blocks.put(year, block);
+                }
+            }
+            if (!blocks.isEmpty()) {
+                cell.lastAccessMillis = clock.millis();
+            }
+        }
+        if (blocks.isEmpty()) {
+            return List.of();
+        }
+
+        List<Run> runs = new ArrayList<>();
+        LocalDate runStart = null;
+        for (LocalDate day = start; !day.isAfter(end.plusDays(1)); day = day.plusDays(1)) {
+            boolean present = !day.isAfter(end) && blocks.containsKey(day.getYear())
+                    && blocks.get(day.getYear()).days.get(day.getDayOfYear() - 1);
+            if (present && runStart == null) {
+                runStart = day;
+            } else if (!present && runStart != null) {
+                runs.add(new Run(runStart, day.minusDays(1), columns(blocks, runStart, day.minusDays(1))));
+                localDays.increment(day.toEpochDay() - runStart.toEpochDay());
+                runStart = null;
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * Stores the finalized days of an archive response; later days are ignored.
+     *
+     * @param dataset   Dataset name (e.g. the requested variable list)
+     * @param latitude  Latitude in decimal degrees
+     * @param longitude Longitude in decimal degrees
+     * @param timezone  Timezone of the daily aggregation
+     * @param daily     Daily columns of the response, including {@code time}
+     */
+    public void store(String dataset, double latitude, double longitude, String timezone,
+                      Map<String, Object> daily) {
+        if (!enabled || !(daily.get("time") instanceof List<?> time)) {
+            return;
+        }
+        LocalDate finalized = finalizedThrough();
+        Map<Integer, YearBlock> blocks = new TreeMap<>();
+        for (int row = 0; row < time.size(); row++) {
+            LocalDate day;
+            try {
+                day = LocalDate.parse(String.valueOf(time.get(row)));
+            } catch (DateTimeParseException e) {
+                // Not a daily series; nothing sensible to store
+                return;
+            }
+            if (day.isAfter(finalized)) {
+                continue;
+            }
+            YearBlock block = blocks.computeIfAbsent(day.getYear(), YearBlock::new);
+            int index = day.getDayOfYear() - 1;
+            block.days.set(index);
+            for (Map.Entry<String, Object> entry : daily.entrySet()) {
+                if (!"time".equals(entry.getKey()) && entry.getValue() instanceof List<?> values) {
+                    block.column(entry.getKey(), values instanceof IntColumn).set(index, values, row);
+                }
+            }
+        }
+        if (blocks.isEmpty()) {
+            return;
+        }
+
+        Path directory = cellDirectory(dataset, latitude, longitude, timezone);
+        try {
+            while (true) {
+                Cell cell = cells.computeIfAbsent(directory, Cell::new);
+                synchronized (cell) {
+                    if (cell.evicted) {
+                        continue;
+                    }
+                    Files.createDirectories(directory);
+                    for (YearBlock block : blocks.values()) {
+                        write(cell, block);
+                    }
+                    cell.lastAccessMillis = clock.millis();
+                }
+                break;
+            }
+        } catch (IOException e) {
+            log.warn("Failed to store archive data in {}: {}", directory, e.toString());
+        }
+        enforceSizeCap(directory);
+    }
+
+    /**
+     * Compacts every cell-year that has more than one segment.
+     */
+    public void compact() {
+        for (Cell cell : List.copyOf(cells.values())) {
+            synchronized (cell) {
+                if (cell.evicted) {
+                    continue;
+                }
+                for (Integer year : List.copyOf(cell.segments.keySet())) {
+                    if (cell.segments.get(year).size() > 1) {
+                        try {
+                            compact(cell, year);
+                        } catch (IOException e) {
+                            log.warn("Failed to compact {} {}: {}", cell.directory, year, e.toString());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the bytes currently on disk.
+     *
+     * @return Total segment size
+     */
+    long sizeBytes() {
+        return totalBytes.get();
+    }
+
+    /**
+     * Returns the number of segments of a cell-year, for tests.
+     */
+    int segmentCount(String dataset, double latitude, double longitude, String timezone, int year) {
+        Cell cell = cells.get(cellDirectory(dataset, latitude, longitude, timezone));
+        if (cell == null) {
+            return 0;
+        }
+        synchronized (cell) {
+            return cell.segments.getOrDefault(year, List.of()).size();
+        }
+    }
+
+    // ========== Directory index ==========
+
+    /**
+     * Creates the root and indexes existing segments, removing leftovers of interrupted writes.
+     */
+    private boolean open() {
+        try {
+            Files.createDirectories(root);
+            try (Stream<Path> files = Files.walk(root, 4)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(TEMP_SUFFIX)) {
+                        Files.deleteIfExists(file);
+                    } else if (name.endsWith(SEGMENT_SUFFIX) && Files.isRegularFile(file)) {
+                        Segment segment = segment(file, Files.size(file));
+                        if (segment != null) {
+                            Cell cell = cells.computeIfAbsent(file.getParent(), Cell::new);
+                            cell.add(segment);
+                            cell.lastAccessMillis = Math.max(cell.lastAccessMillis,
+                                    Files.getLastModifiedTime(file).toMillis());
+                            totalBytes.addAndGet(segment.size());
+                        }
+                    }
+                }
+            }
+            log.info("Archive store at {}: {} cells, {} bytes", root, cells.size(), totalBytes.get());
+            return true;
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Archive store disabled, cannot use {}: {}", root, e.toString());
+            return false;
+        }
+    }
+
+    private Path cellDirectory(String dataset, double latitude, double longitude, String timezone) {
+        CRC32 datasetHash = new CRC32();
+        datasetHash.update(dataset.getBytes(StandardCharsets.UTF_8));
+        return root.resolve(Long.toHexString(datasetHash.getValue()))
+                .resolve(cellId(latitude, longitude, timezone));
+    }
+
+    private static Segment segment(Path file, long size) {
+        String name = file.getFileName().toString();
+        String[] parts = name.substring(0, name.length() - SEGMENT_SUFFIX.length()).split("-");
+        try {
+            return parts.length == 2 ? new Segment(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), file, size) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void enforceSizeCap(Path justWritten) {
+        if (totalBytes.get() <= maxBytes) {
+            return;
+        }
+        List<Cell> coldestFirst = cells.values().stream()
+                .sorted(Comparator.comparingLong((Cell cell) -> cell.lastAccessMillis))
+                .toList();
+        for (Cell cell : coldestFirst) {
+            if (totalBytes.get() <= maxBytes) {
+                return;
+            }
+            if (cell.directory.equals(justWritten) && coldestFirst.size() > 1) {
+                continue;
+            }
+            synchronized (cell) {
+                if (cell.evicted) {
+                    continue;
+                }
+                // Unmapped only after its files are gone: until then a concurrent store()
+                // resolves this cell and waits on it, instead of creating a new cell whose
+                // segments restart at the same paths
+                cell.evicted = true;
+                for (List<Segment> segments : cell.segments.values()) {
+                    for (Segment segment : segments) {
+                        delete(segment);
+                    }
+                }
+                cell.segments.clear();
+                try {
+                    Files.deleteIfExists(cell.directory);
+                } catch (IOException e) {
+                    log.debug("Could not remove evicted cell directory {}: {}", cell.directory, e.toString());
+                }
+                cells.remove(cell.directory, cell);
+            }
+            evictions.increment();
+            log.debug("Evicted archive cell {}", cell.directory);
+        }
+    }
+
+    // ========== Segments ==========
+
+    /**
+     * Writes a block as a new segment unless all of its days are already stored.
+     */
+    private void write(Cell cell, YearBlock block) throws IOException {
+        YearBlock existing = load(cell, block.year);
+        BitSet newDays = (BitSet) block.days.clone();
+        if (existing != null) {
+            newDays.andNot(existing.days);
+        }
+        if (newDays.isEmpty()) {
+            return;
+        }
+        writeSegment(cell, block);
+        storedDays.increment(newDays.cardinality());
+
+        if (cell.segments.get(block.year).size() > compactionSegments) {
+            compact(cell, block.year);
+        }
+    }
+
+    /**
+     * Replaces all segments of a cell-year by one merged segment.
+     * <p>
+     * The merged segment is durable before the old ones are deleted, so a
+     * crash in between only leaves redundant segments for the next compaction.
+     * </p>
+     */
+    private void compact(Cell cell, int year) throws IOException {
+        List<Segment> old = List.copyOf(cell.segments.get(year));
+        YearBlock merged = load(cell, year);
+        if (merged == null) {
+            return;
+        }
+        writeSegment(cell, merged);
+        for (Segment segment : old) {
+            cell.segments.get(year).remove(segment);
+            delete(segment);
+        }
+        compactions.increment();
+    }
+
+    private void writeSegment(Cell cell, YearBlock block) throws IOException {
+        int seq = cell.segments.getOrDefault(block.year, List.of()).stream()
+                .mapToInt(Segment::seq)
+                .max()
+                .orElse(0) + 1;
+        Path target = cell.directory.resolve(block.year + "-" + seq + SEGMENT_SUFFIX);
+        Path temp = cell.directory.resolve(target.getFileName() + TEMP_SUFFIX);
+        byte[] bytes = encode(block);
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        Segment segment = new Segment(block.year, seq, target, bytes.length);
+        cell.add(segment);
+        totalBytes.addAndGet(segment.size());
+    }
+
+    private void delete(Segment segment) {
+        try {
+            Files.deleteIfExists(segment.path());
+        } catch (IOException e) {
+            log.warn("Failed to delete archive segment {}: {}", segment.path(), e.toString());
+        }
+        totalBytes.addAndGet(-segment.size());
+    }
+
+    /**
+     * Loads and overlays all segments of a cell-year, oldest first.
+     *
+     * @return Merged block, or null if nothing is stored
+     */
+    private YearBlock load(Cell cell, int year) {
+        List<Segment> segments = cell.segments.get(year);
+        if (segments == null || segments.isEmpty()) {
+            return null;
+        }
+        YearBlock merged = null;
+        for (Segment segment : List.copyOf(segments)) {
+            YearBlock block = read(segment);
+            if (block == null) {
+                segments.remove(segment);
+                delete(segment);
+                corruptSegments.increment();
+                continue;
+            }
+            if (merged == null) {
+                merged = block;
+            } else {
+                merged.overlay(block);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Reads a segment through a memory mapping.
+     *
+     * @return Block, or null if the segment is missing or invalid
+     */
+    private YearBlock read(Segment segment) {
+        try (FileChannel channel = FileChannel.open(segment.path(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 4 || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32 crc = new CRC32();
+            crc.update(mapped.slice(0, (int) size - 4));
+            if ((int) crc.getValue() != mapped.getInt((int) size - 4)) {
+                log.warn("Archive segment {} failed checksum validation", segment.path());
+                return null;
+            }
+            return decode(mapped);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException | DataFormatException e) {
+            log.warn("Failed to read archive segment {}: {}", segment.path(), e.toString());
+            return null;
+        }
+    }
+
+    // ========== Encoding ==========
+
+    /**
+     * Layout: magic, version, year, day bitmap, column directory
+     * (name, type, compressed length), compressed columns, CRC32 trailer.
+     */
+    private static byte[] encode(YearBlock block) {
+        List<byte[]> names = new ArrayList<>();
+        List<byte[]> payloads = new ArrayList<>();
+        int size = 4 + 2 + 2 + BITMAP_BYTES + 2;
+        for (Map.Entry<String, ColumnData> entry : block.columns.entrySet()) {
+            byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            byte[] payload = deflate(entry.getValue().shuffled());
+            names.add(name);
+            payloads.add(payload);
+            size += 2 + name.length + 1 + 4 + payload.length;
+        }
+        size += 4;
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) block.year);
+        buffer.put(Arrays.copyOf(block.days.toByteArray(), BITMAP_BYTES));
+        buffer.putShort((short) block.columns.size());
+        int i = 0;
+        for (ColumnData column : block.columns.values()) {
+            buffer.putShort((short) names.get(i).length).put(names.get(i));
+            buffer.put(column.integer ? INT : DOUBLE).putInt(payloads.get(i).length);
+            i++;
+        }
+        payloads.forEach(buffer::put);
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, size - 4);
+        buffer.putInt((int) crc.getValue());
+        return buffer.array();
+    }
+
+    private static YearBlock decode(ByteBuffer buffer) throws DataFormatException {
+        if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+            throw new DataFormatException("Not an archive segment");
+        }
+        YearBlock block = new YearBlock(buffer.getShort());
+        byte[] bitmap = new byte[BITMAP_BYTES];
+        buffer.get(bitmap);
+        block.days.or(BitSet.valueOf(bitmap));
+
+        int columnCount = buffer.getShort();
+        String[] names = new String[columnCount];
+        boolean[] integer = new boolean[columnCount];
+        int[] lengths = new int[columnCount];
+        for (int c = 0; c < columnCount; c++) {
+            byte[] name = new byte[buffer.getShort()];
+            buffer.get(name);
+            names[c] = new String(name, StandardCharsets.UTF_8);
+            integer[c] = buffer.get() == INT;
+            lengths[c] = buffer.getInt();
+        }
+        Inflater inflater = new Inflater();
+        try {
+            for (int c = 0; c < columnCount; c++) {
+                ColumnData column = block.column(names[c], integer[c]);
+                byte[] shuffled = new byte[DAYS * column.width()];
+                inflater.reset();
+                inflater.setInput(buffer.slice(buffer.position(), lengths[c]));
+                if (inflater.inflate(shuffled) != shuffled.length) {
+                    throw new DataFormatException("Truncated column " + names[c]);
+                }
+                column.unshuffle(shuffled);
+                buffer.position(buffer.position() + lengths[c]);
+            }
+        } finally {
+            inflater.end();
+        }
+        return block;
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            byte[] out = new byte[data.length + 64];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == out.length) {
+                    out = Arrays.copyOf(out, out.length * 2);
+                }
+                length += deflater.deflate(out, length, out.length - length);
+            }
+            return Arrays.copyOf(out, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Builds the daily columns of a run of present days.
+     */
+    private static Map<String, Object> columns(Map<Integer, YearBlock> blocks, LocalDate start, LocalDate end) {
+        int rows = (int) (end.toEpochDay() - start.toEpochDay() + 1);
+        Map<String, Boolean> types = new LinkedHashMap<>();
+        for (YearBlock block : blocks.values()) {
+            block.columns.forEach((name, column) -> types.merge(name, column.integer, Boolean::logicalOr));
+        }
+
+        Map<String, Object> daily = new LinkedHashMap<>();
+        daily.put("time", TimeAxis.regular(TimeAxis.Format.DATE, start.toEpochDay() * SECONDS_PER_DAY,
+                SECONDS_PER_DAY, rows));
+        types.forEach((name, integer) -> {
+            if (integer) {
+                IntColumn.Builder builder = new IntColumn.Builder();
+                for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+                    ColumnData column = blocks.get(day.getYear()).columns.get(name);
+                    builder.add(column != null ? column.intAt(day.getDayOfYear() - 1) : IntColumn.MISSING);
+                }
+                daily.put(name, builder.build());
+            } else {
+                DoubleColumn.Builder builder = new DoubleColumn.Builder();
+                for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+                    ColumnData column = blocks.get(day.getYear()).columns.get(name);
+                    builder.add(column != null ? column.doubleAt(day.getDayOfYear() - 1) : Double.NaN);
+                }
+                daily.put(name, builder.build());
+            }
+        });
+        return daily;
+    }
+
+    /**
+     * Index entry for one cell directory; guarded by its own monitor.
+     */
+    private static final class Cell {
+        private final Path directory;
+        private final Map<Integer, List<Segment>> segments = new TreeMap<>();
+        private volatile long lastAccessMillis;
+        private boolean evicted;
+
+        private Cell(Path directory) {
+            this.directory = directory;
+        }
+
+        private void add(Segment segment) {
+            List<Segment> year = segments.computeIfAbsent(segment.year(), y -> new ArrayList<>());
+            year.add(segment);
+            year.sort(Comparator.comparingInt(Segment::seq));
+        }
+    }
+
+    /**
+     * One cell-year: a day bitmap plus fixed 366-row columns.
+     */
+    private static final class YearBlock {
+        private final int year;
+        private final BitSet days = new BitSet(DAYS);
+        private final Map<String, ColumnData> columns = new LinkedHashMap<>();
+
+        private YearBlock(int year) {
+            this.year = year;
+        }
+
+        private ColumnData column(String name, boolean integer) {
+            return columns.computeIfAbsent(name, n -> new ColumnData(integer));
+        }
+
+        /**
+         * Copies every day present in a newer block over this one.
+         */
+        private void overlay(YearBlock newer) {
+            for (int day = newer.days.nextSetBit(0); day >= 0; day = newer.days.nextSetBit(day + 1)) {
+                days.set(day);
+                for (ColumnData column : columns.values()) {
+                    column.clear(day);
+                }
+                for (Map.Entry<String, ColumnData> entry : newer.columns.entrySet()) {
+                    column(entry.getKey(), entry.getValue().integer).copy(day, entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Column values for all 366 days of a year; NaN or {@link IntColumn#MISSING} where missing.
+     */
+    private static final class ColumnData {
+        private boolean integer;
+        private double[] doubles;
+        private int[] ints;
+
+        private ColumnData(boolean integer) {
+            this.integer = integer;
+            if (integer) {
+                ints = new int[DAYS];
+                Arrays.fill(ints, IntColumn.MISSING);
+            } else {
+                doubles = new double[DAYS];
+                Arrays.fill(doubles, Double.NaN);
+            }
+        }
+
+        private int width() {
+            return integer ? Integer.BYTES : Double.BYTES;
+        }
+
+        private double doubleAt(int day) {
+            if (!integer) {
+                return doubles[day];
+            }
+            return ints[day] == IntColumn.MISSING ? Double.NaN : ints[day];
+        }
+
+        private int intAt(int day) {
+            if (integer) {
+                return ints[day];
+            }
+            return Double.isNaN(doubles[day]) ? IntColumn.MISSING : (int) doubles[day];
+        }
+
+        private void set(int day, List<?> values, int row) {
+            if (values instanceof IntColumn column) {
+                setInt(day, column.getInt(row));
+            } else if (values instanceof DoubleColumn column) {
+                setDouble(day, column.getDouble(row));
+            } else if (values.get(row) instanceof Number number) {
+                setDouble(day, number.doubleValue());
+            } else {
+                clear(day);
+            }
+        }
+
+        private void setInt(int day, int value) {
+            if (integer) {
+                ints[day] = value;
+            } else {
+                doubles[day] = value == IntColumn.MISSING ? Double.NaN : value;
+            }
+        }
+
+        private void setDouble(int day, double value) {
+            if (!integer) {
+                doubles[day] = value;
+            } else {
+                ints[day] = Double.isNaN(value) ? IntColumn.MISSING : (int) value;
+            }
+        }
+
+        private void clear(int day) {
+            if (integer) {
+                ints[day] = IntColumn.MISSING;
+            } else {
+                doubles[day] = Double.NaN;
+            }
+        }
+
+        private void copy(int day, ColumnData source) {
+            if (source.integer && !integer && isEmpty()) {
+                // An all-missing column was typed as doubles; take the real type
+                integer = true;
+                doubles = null;
+                ints = new int[DAYS];
+                Arrays.fill(ints, IntColumn.MISSING);
+            }
+            if (source.integer) {
+                setInt(day, source.ints[day]);
+            } else {
+                setDouble(day, source.doubles[day]);
+            }
+        }
+
+        private boolean isEmpty() {
+            if (integer) {
+                return Arrays.stream(ints).allMatch(value -> value == IntColumn.MISSING);
+            }
+            return Arrays.stream(doubles).allMatch(Double::isNaN);
+        }
+
+        /**
+         * Byte-shuffles the values (all first bytes, then all second bytes, ...)
+         * so that the slowly varying sign, exponent and high mantissa bytes
+         * form long runs for the deflater.
+         */
+        private byte[] shuffled() {
+            int width = width();
+            byte[] out = new byte[DAYS * width];
+            for (int i = 0; i < DAYS; i++) {
+                long bits = integer ? ints[i] : Double.doubleToRawLongBits(doubles[i]);
+                for (int b = 0; b < width; b++) {
+                    out[b * DAYS + i] = (byte) (bits >>> (8 * (width - 1 - b)));
+                }
+            }
+            return out;
+        }
+
+        private void unshuffle(byte[] shuffled) {
+            int width = width();
+            for (int i = 0; i < DAYS; i++) {
+                long bits = 0;
+                for (int b = 0; b < width; b++) {
+                    bits = (bits << 8) | (shuffled[b * DAYS + i] & 0xFF);
+                }
+                if (integer) {
+                    ints[i] = (int) bits;
+                } else {
+                    doubles[i] = Double.longBitsToDouble(bits);
+                }
+            }
+        }
+    }
+}
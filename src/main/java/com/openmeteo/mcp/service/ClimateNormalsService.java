@@ -0,0 +1,458 @@
+package com.openmeteo.mcp.service;
+
+import com.openmeteo.mcp.client.UpstreamLimiter.Priority;
+import com.openmeteo.mcp.exception.OpenMeteoException;
+import com.openmeteo.mcp.model.column.DoubleColumn;
+import com.openmeteo.mcp.model.column.TimeAxis;
+import com.openmeteo.mcp.model.dto.DailyWeather;
+import com.openmeteo.mcp.model.dto.WeatherForecast;
+import com.openmeteo.mcp.service.util.ValidationUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Service for climatological normals and forecast anomalies.
+ * <p>
+ * Normals are computed once per grid cell from the reference period of the
+ * archive (WMO 1991-2020 by default). The daily archive columns are
+ * aggregated in a single pass into per-calendar-day samples; each calendar
+ * day then pools the samples of the days within {@code smoothing-days} of
+ * it for the mean and percentiles.
+ * </p>
+ * <p>
+ * Computed normals are persisted as a dataset of the {@link ArchiveStore}
+ * (366 rows laid out on the leap year 2000) and kept in a bounded
+ * in-memory cache, so later calls neither download the reference period
+ * nor aggregate it again.
+ * </p>
+ */
+@Service
+public class ClimateNormalsService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClimateNormalsService.class);
+
+    /**
+     * Variables with normals; all are also daily forecast variables.
+     */
+    static final List<String> VARIABLES = List.of("temperature_2m_max", "temperature_2m_min", "precipitation_sum");
+
+    private static final int DAYS = 366;
+    private static final int LAYOUT_YEAR = 2000;
+    private static final double[] PERCENTILES = {10, 25, 50, 75, 90};
+    private static final String[] STATISTICS = {"mean", "p10", "p25", "p50", "p75", "p90"};
+
+    /**
+     * Normals of one grid cell: per variable and statistic, one value per calendar day.
+     *
+     * @param referencePeriod Reference period, e.g. {@code 1991-2020}
+     * @param columns         Columns named {@code <variable>_<statistic>}, 366 rows each
+     */
+    public record Normals(String referencePeriod, Map<String, DoubleColumn> columns) {
+
+        /**
+         * Returns a statistic for a calendar day.
+         *
+         * @param variable  Variable name
+         * @param statistic Statistic ({@code mean}, {@code p10} ... {@code p90})
+         * @param date      Any date; only month and day are used
+         * @return Value, or NaN if unknown
+         */
+        public double value(String variable, String statistic, LocalDate date) {
+            DoubleColumn column = columns.get(variable + "_" + statistic);
+            return column != null ? column.getDouble(slot(date)) : Double.NaN;
+        }
+    }
+
+    private final HistoricalWeatherService historicalWeatherService;
+    private final WeatherService weatherService;
+    private final ArchiveStore archiveStore;
+    private final int referenceStartYear;
+    private final int referenceEndYear;
+    private final int smoothingDays;
+    private final int maxCachedCells;
+    private final String dataset;
+    private final LinkedHashMap<String, CompletableFuture<Normals>> cache;
+    private final Counter memoryHits;
+    private final Counter storeHits;
+    private final Counter computed;
+
+    public ClimateNormalsService(
+            HistoricalWeatherService historicalWeatherService,
+            WeatherService weatherService,
+            ArchiveStore archiveStore,
+            MeterRegistry meterRegistry,
+            @Value("${openmeteo.normals.reference-start-year:1991}") int referenceStartYear,
+            @Value("${openmeteo.normals.reference-end-year:2020}") int referenceEndYear,
+            @Value("${openmeteo.normals.smoothing-days:7}") int smoothingDays,
+            @Value("${openmeteo.normals.max-cached-cells:500}") int maxCachedCells) {
+        this.historicalWeatherService = historicalWeatherService;
+        this.weatherService = weatherService;
+        this.archiveStore = archiveStore;
+        this.referenceStartYear = referenceStartYear;
+        this.referenceEndYear = referenceEndYear;
+        this.smoothingDays = Math.max(0, smoothingDays);
+        this.maxCachedCells = Math.max(1, maxCachedCells);
+        this.dataset = "normals:" + referenceStartYear + "-" + referenceEndYear + ":" + this.smoothingDays
+                + ":" + String.join(",", VARIABLES);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<Normals>> eldest) {
+                return size() > ClimateNormalsService.this.maxCachedCells;
+            }
+        };
+
+        this.memoryHits = Counter.builder("openmeteo.normals.requests")
+                .description("Climate normals lookups")
+                .tag("result", "memory")
+                .register(meterRegistry);
+        this.storeHits = Counter.builder("openmeteo.normals.requests")
+                .description("Climate normals lookups")
+                .tag("result", "store")
+                .register(meterRegistry);
+        this.computed = Counter.builder("openmeteo.normals.requests")
+                .description("Climate normals lookups")
+                .tag("result", "computed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Gets the climate normals for the forecast days and the anomaly of the forecast against them.
+     *
+     * @param latitude     Latitude in decimal degrees
+     * @param longitude    Longitude in decimal degrees
+     * @param forecastDays Number of forecast days (1-16)
+     * @param timezone     Timezone for the daily aggregation
+     * @return CompletableFuture with normals, anomalies and a summary
+     */
+    public CompletableFuture<Map<String, Object>> getClimateNormals(
+            double latitude,
+            double longitude,
+            int forecastDays,
+            String timezone) {
+        ValidationUtil.validateLatitude(latitude);
+        ValidationUtil.validateLongitude(longitude);
+        int clampedDays = ValidationUtil.clampForecastDays(forecastDays, 1, 16);
+
+        log.info("Getting climate normals: lat={}, lon={}, days={}, tz={}", latitude, longitude, clampedDays, timezone);
+
+        return getNormals(latitude, longitude, timezone)
+                .thenCombine(weatherService.getWeather(latitude, longitude, clampedDays, false, timezone),
+                        (normals, forecast) -> anomalies(latitude, longitude, timezone, normals, forecast))
+                .exceptionally(ex -> {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    log.error("Error computing climate normals", cause);
+                    return Map.of(
+                            "error", "Failed to compute climate normals",
+                            "message", String.valueOf(cause.getMessage())
+                    );
+                });
+    }
+
+    /**
+     * Gets the normals of the grid cell containing a coordinate.
+     *
+     * @param latitude  Latitude in decimal degrees
+     * @param longitude Longitude in decimal degrees
+     * @param timezone  Timezone for the daily aggregation
+     * @return CompletableFuture with the normals
+     */
+    public CompletableFuture<Normals> getNormals(double latitude, double longitude, String timezone) {
+        String cell = archiveStore.cellId(latitude, longitude, timezone);
+        CompletableFuture<Normals> normals;
+        synchronized (cache) {
+            normals = cache.get(cell);
+            if (normals != null) {
+                memoryHits.increment();
+                return normals;
+            }
+            normals = new CompletableFuture<>();
+            cache.put(cell, normals);
+        }
+
+        CompletableFuture<Normals> pending = normals;
+        Mono.fromCallable(() -> readPersisted(latitude, longitude, timezone))
+                .subscribeOn(Schedulers.boundedElastic())
+                .toFuture()
+                .thenCompose(persisted -> {
+                    if (persisted != null) {
+                        storeHits.increment();
+                        return CompletableFuture.completedFuture(persisted);
+                    }
+                    return compute(latitude, longitude, timezone);
+                })
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        // Do not cache failures; the next call tries again
+                        synchronized (cache) {
+                            cache.remove(cell, pending);
+                        }
+                        pending.completeExceptionally(error);
+                    } else {
+                        pending.complete(result);
+                    }
+                });
+        return pending;
+    }
+
+    /**
+     * Downloads the reference period and aggregates it into normals.
+     */
+    private CompletableFuture<Normals> compute(double latitude, double longitude, String timezone) {
+        log.info("Computing climate normals {}-{} for lat={}, lon={}",
+                referenceStartYear, referenceEndYear, latitude, longitude);
+
+        return historicalWeatherService.getHistoricalWeather(latitude, longitude,
+                        referenceStartYear + "-01-01", referenceEndYear + "-12-31", timezone, Priority.BATCH)
+                .thenApply(result -> {
+                    if (result.containsKey("error")) {
+                        throw new OpenMeteoException("Reference period unavailable: " + result.get("message"), 502);
+                    }
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> daily = (Map<String, Object>) result.getOrDefault("daily", Map.of());
+                    Normals normals = aggregate(daily);
+                    computed.increment();
+                    persist(latitude, longitude, timezone, normals);
+                    return normals;
+                });
+    }
+
+    /**
+     * Aggregates daily archive columns into normals in one pass over the rows.
+     */
+    Normals aggregate(Map<String, Object> daily) {
+        List<?> time = daily.get("time") instanceof List<?> list ? list : List.of();
+        int rows = time.size();
+        int[] slots = new int[rows];
+        for (int row = 0; row < rows; row++) {
+            slots[row] = time instanceof TimeAxis axis
+                    ? slot(LocalDate.ofEpochDay(Math.floorDiv(axis.epochSecondAt(row), 86_400L)))
+                    : slot(LocalDate.parse(String.valueOf(time.get(row))));
+        }
+
+        Map<String, DoubleColumn> columns = new LinkedHashMap<>();
+        for (String variable : VARIABLES) {
+            @SuppressWarnings("unchecked")
+            List<Double> values = daily.get(variable) instanceof List<?> list ? (List<Double>) list : List.of();
+            SlotSamples samples = new SlotSamples();
+            for (int row = 0; row < Math.min(rows, values.size()); row++) {
+                double value = DoubleColumn.valueAt(values, row);
+                if (!Double.isNaN(value)) {
+                    samples.add(slots[row], value);
+                }
+            }
+            columns.putAll(samples.statistics(variable, smoothingDays));
+        }
+        return new Normals(referenceStartYear + "-" + referenceEndYear, columns);
+    }
+
+    private Normals readPersisted(double latitude, double longitude, String timezone) {
+        List<ArchiveStore.Run> runs = archiveStore.lookup(dataset, latitude, longitude, timezone,
+                LocalDate.of(LAYOUT_YEAR, 1, 1), LocalDate.of(LAYOUT_YEAR, 12, 31));
+        if (runs.size() != 1 || runs.getFirst().end().getDayOfYear() != DAYS || runs.getFirst().start().getDayOfYear() != 1) {
+            return null;
+        }
+        Map<String, DoubleColumn> columns = new LinkedHashMap<>();
+        for (String variable : VARIABLES) {
+            for (String statistic : STATISTICS) {
+                String name = variable + "_" + statistic;
+                if (!(runs.getFirst().daily().get(name) instanceof DoubleColumn column)) {
+                    return null;
+                }
+                columns.put(name, column);
+            }
+        }
+        return new Normals(referenceStartYear + "-" + referenceEndYear, columns);
+    }
+
+    private void persist(double latitude, double longitude, String timezone, Normals normals) {
+        if (!archiveStore.isEnabled()) {
+            return;
+        }
+        Map<String, Object> daily = new LinkedHashMap<>();
+        daily.put("time", TimeAxis.regular(TimeAxis.Format.DATE,
+                LocalDate.of(LAYOUT_YEAR, 1, 1).toEpochDay() * 86_400L, 86_400L, DAYS));
+        daily.putAll(normals.columns());
+        Mono.fromRunnable(() -> archiveStore.store(dataset, latitude, longitude, timezone, daily))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null, e -> log.warn("Failed to persist climate normals: {}", e.toString()));
+    }
+
+    /**
+     * Compares each forecast day with the normals of its calendar day.
+     */
+    private Map<String, Object> anomalies(double latitude, double longitude, String timezone,
+                                          Normals normals, WeatherForecast forecast) {
+        DailyWeather daily = forecast.daily();
+        List<String> dates = daily != null && daily.time() != null ? daily.time() : List.of();
+        Map<String, List<Double>> forecastValues = new HashMap<>();
+        if (daily != null) {
+            forecastValues.put("temperature_2m_max", daily.temperature2mMax());
+            forecastValues.put("temperature_2m_min", daily.temperature2mMin());
+            forecastValues.put("precipitation_sum", daily.precipitationSum());
+        }
+
+        List<Map<String, Object>> days = new ArrayList<>();
+        int warmDays = 0;
+        int coldDays = 0;
+        double anomalySum = 0.0;
+        int anomalyCount = 0;
+        for (int i = 0; i < dates.size(); i++) {
+            LocalDate date = LocalDate.parse(dates.get(i));
+            Map<String, Object> day = new LinkedHashMap<>();
+            day.put("date", dates.get(i));
+            for (String variable : VARIABLES) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                for (String statistic : STATISTICS) {
+                    entry.put("normal_" + statistic, round(normals.value(variable, statistic, date)));
+                }
+                List<Double> values = forecastValues.get(variable);
+                double value = values != null && i < values.size() ? DoubleColumn.valueAt(values, i) : Double.NaN;
+                if (!Double.isNaN(value)) {
+                    double anomaly = value - normals.value(variable, "mean", date);
+                    String category = category(normals, variable, date, value);
+                    entry.put("forecast", value);
+                    entry.put("anomaly", round(anomaly));
+                    entry.put("category", category);
+                    if ("temperature_2m_max".equals(variable)) {
+                        anomalySum += anomaly;
+                        anomalyCount++;
+                        if (category.endsWith("above normal")) {
+                            warmDays++;
+                        } else if (category.endsWith("below normal")) {
+                            coldDays++;
+                        }
+                    }
+                }
+                day.put(variable, entry);
+            }
+            days.add(day);
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("days_above_p75", warmDays);
+        summary.put("days_below_p25", coldDays);
+        summary.put("mean_max_temperature_anomaly", anomalyCount > 0 ? round(anomalySum / anomalyCount) : null);
+        summary.put("assessment", warmDays * 2 > dates.size() ? "warmer than usual"
+                : coldDays * 2 > dates.size() ? "colder than usual"
+                : "near normal");
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("latitude", latitude);
+        result.put("longitude", longitude);
+        result.put("timezone", forecast.timezone() != null ? forecast.timezone() : timezone);
+        result.put("reference_period", normals.referencePeriod());
+        result.put("smoothing_days", smoothingDays);
+        result.put("days", days);
+        result.put("summary", summary);
+        return result;
+    }
+
+    private static String category(Normals normals, String variable, LocalDate date, double value) {
+        if (value < normals.value(variable, "p10", date)) {
+            return "much below normal";
+        }
+        if (value < normals.value(variable, "p25", date)) {
+            return "below normal";
+        }
+        if (value <= normals.value(variable, "p75", date)) {
+            return "near normal";
+        }
+        if (value <= normals.value(variable, "p90", date)) {
+            return "above normal";
+        }
+        return "much above normal";
+    }
+
+    /**
+     * Calendar-day slot on a leap-year layout, so February 29 has its own slot.
+     */
+    static int slot(LocalDate date) {
+        return LocalDate.of(LAYOUT_YEAR, date.getMonth(), date.getDayOfMonth()).getDayOfYear() - 1;
+    }
+
+    private static Double round(double value) {
+        return Double.isNaN(value) ? null : Math.round(value * 100.0) / 100.0;
+    }
+
+    /**
+     * Samples of one variable per calendar-day slot.
+     */
+    private static final class SlotSamples {
+        private final double[][] samples = new double[DAYS][];
+        private final int[] counts = new int[DAYS];
+
+        void add(int slot, double value) {
+            if (samples[slot] == null) {
+                samples[slot] = new double[32];
+            } else if (counts[slot] == samples[slot].length) {
+                samples[slot] = Arrays.copyOf(samples[slot], counts[slot] * 2);
+            }
+            samples[slot][counts[slot]++] = value;
+        }
+
+        /**
+         * Pools the slots within the smoothing window of each day and computes its statistics.
+         */
+        Map<String, DoubleColumn> statistics(String variable, int smoothingDays) {
+            double[][] columns = new double[STATISTICS.length][DAYS];
+            double[] pooled = new double[64];
+            for (int day = 0; day < DAYS; day++) {
+                int n = 0;
+                double sum = 0.0;
+                for (int offset = -smoothingDays; offset <= smoothingDays; offset++) {
+                    int slot = Math.floorMod(day + offset, DAYS);
+                    if (n + counts[slot] > pooled.length) {
+                        pooled = Arrays.copyOf(pooled, Math.max(pooled.length * 2, n + counts[slot]));
+                    }
+                    for (int i = 0; i < counts[slot]; i++) {
+                        sum += samples[slot][i];
+                        pooled[n++] = samples[slot][i];
+                    }
+                }
+                if (n == 0) {
+                    for (double[] column : columns) {
+                        column[day] = Double.NaN;
+                    }
+                    continue;
+                }
+                Arrays.sort(pooled, 0, n);
+                columns[0][day] = sum / n;
+                for (int p = 0; p < PERCENTILES.length; p++) {
+                    columns[p + 1][day] = percentile(pooled, n, PERCENTILES[p]);
+                }
+            }
+
+            Map<String, DoubleColumn> result = new LinkedHashMap<>();
+            for (int s = 0; s < STATISTICS.length; s++) {
+                result.put(variable + "_" + STATISTICS[s], new DoubleColumn(columns[s]));
+            }
+            return result;
+        }
+
+        /**
+         * Linear interpolation between closest ranks of sorted values.
+         */
+        private static double percentile(double[] sorted, int n, double percentile) {
+            double rank = (n - 1) * percentile / 100.0;
+            int lower = (int) Math.floor(rank);
+            int upper = Math.min(lower + 1, n - 1);
+            return sorted[lower] + (rank - lower) * (sorted[upper] - sorted[lower]);
+        }
+    }
+}
@@ -1,21 +1,73 @@
 package com.openmeteo.mcp.service;
 
+import com.openmeteo.mcp.client.ArchiveResponseDecoder;
+import com.openmeteo.mcp.client.UpstreamLimiter;
+import com.openmeteo.mcp.client.UpstreamLimiter.Priority;
+import com.openmeteo.mcp.model.column.DoubleColumn;
+import com.openmeteo.mcp.model.column.IntColumn;
+import com.openmeteo.mcp.model.column.TimeAxis;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service for retrieving historical weather data from Open-Meteo Archive API.
  * <p>
  * Provides access to historical weather data from 1940 to present day.
+ * Requests run through {@link UpstreamLimiter}; tool calls use the
+ * interactive lane, streaming callers can pass a lower priority.
+ * </p>
+ * <p>
+ * Responses are decoded incrementally by {@link ArchiveResponseDecoder}
+ * into primitive columns, with statistics accumulated in the same pass, so
+ * long date ranges are neither limited by the codec buffer nor held as
+ * boxed lists.
+ * </p>
+ * <p>
+ * Ranges longer than {@code split-threshold-days} are split into calendar
+ * year or meteorological season windows. Windows are fetched in parallel
+ * (at most {@code window-concurrency} at a time, in the batch lane so they
+ * do not crowd out interactive calls), a failed window is retried on its
+ * own, and the windows are merged in date order. Statistics are
+ * accumulated from the merged columns in that same order, so they are
+ * identical to those of a single request.
+ * </p>
+ * <p>
+ * Finalized days are kept in the local {@link ArchiveStore}: days it
+ * already holds are served from disk, only the missing ranges are fetched,
+ * and fetched finalized days are written back in the background.
+ * </p>
+ * <p>
+ * {@link #streamHistoricalWeather} always splits the range into
+ * {@code stream-window-unit} windows and emits each window with the running
+ * statistics as soon as it and all earlier windows have arrived, while the
+ * following windows are already being fetched.
  * </p>
  */
 @Service
@@ -24,11 +76,117 @@ public class HistoricalWeatherService {
     private static final Logger log = LoggerFactory.getLogger(HistoricalWeatherService.class);
     private static final String ARCHIVE_API_URL = "https://archive-api.open-meteo.com/v1/archive";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final String DAILY_VARIABLES = String.join(",",
+            "temperature_2m_max",
+            "temperature_2m_min",
+            "temperature_2m_mean",
+            "precipitation_sum",
+            "rain_sum",
+            "snowfall_sum",
+            "weathercode",
+            "windspeed_10m_max",
+            "windgusts_10m_max"
+    );
+    private static final ArchiveResponseDecoder.ValueListener IGNORE_VALUES = (column, value) -> {
+    };
+
+    /**
+     * Window size used to split long date ranges.
+     */
+    public enum WindowUnit {
+        /** Calendar years */
+        YEAR,
+        /** Meteorological seasons (Mar-May, Jun-Aug, Sep-Nov, Dec-Feb) */
+        SEASON;
+
+        /**
+         * Returns the first day of the window after the one containing the date.
+         *
+         * @param date Date inside a window
+         * @return Start of the next window
+         */
+        LocalDate nextStart(LocalDate date) {
+            if (this == YEAR) {
+                return LocalDate.of(date.getYear() + 1, 1, 1);
+            }
+            int nextSeasonMonth = (date.getMonthValue() / 3 + 1) * 3;
+            return LocalDate.of(date.getYear(), 1, 1).plusMonths(nextSeasonMonth - 1L);
+        }
+    }
+
+    /**
+     * Receives progress while the windows of a split request complete.
+     */
+    @FunctionalInterface
+    public interface WindowListener {
+
+        /**
+         * Called once per completed window, in completion order.
+         *
+         * @param completed Windows completed so far
+         * @param total     Total number of windows
+         * @param window    The window that completed
+         */
+        void onWindow(int completed, int total, Window window);
+    }
+
+    /**
+     * Date window of a split request.
+     *
+     * @param start First day (inclusive)
+     * @param end   Last day (inclusive)
+     */
+    public record Window(LocalDate start, LocalDate end) {
+    }
+
+    /**
+     * One window of a streamed request.
+     *
+     * @param window     Days of the window
+     * @param index      Zero-based index of the window
+     * @param total      Number of windows
+     * @param daily      Daily columns of this window only
+     * @param statistics Statistics of all days up to the end of this window
+     */
+    public record WindowData(Window window, int index, int total, Map<String, Object> daily,
+                             Map<String, Object> statistics) {
+    }
+
+    /**
+     * Part of a request: a locally stored run or a window to fetch.
+     */
+    private record Part(Window window, Map<String, Object> local) {
+    }
 
     private final WebClient webClient;
+    private final UpstreamLimiter limiter;
+    private final ArchiveStore archiveStore;
+    private final int splitThresholdDays;
+    private final WindowUnit windowUnit;
+    private final WindowUnit streamWindowUnit;
+    private final int windowConcurrency;
+    private final int windowRetries;
+    private final Duration windowRetryBackoff;
 
-    public HistoricalWeatherService(WebClient.Builder webClientBuilder) {
+    public HistoricalWeatherService(
+            @Qualifier("archiveWebClientBuilder") WebClient.Builder webClientBuilder,
+            UpstreamLimiter limiter,
+            ArchiveStore archiveStore,
+            @Value("${openmeteo.historical.split-threshold-days:366}") int splitThresholdDays,
+            @Value("${openmeteo.historical.window-unit:year}") String windowUnit,
+            @Value("${openmeteo.historical.stream-window-unit:season}") String streamWindowUnit,
+            @Value("${openmeteo.historical.window-concurrency:4}") int windowConcurrency,
+            @Value("${openmeteo.historical.window-retries:2}") int windowRetries,
+            @Value("${openmeteo.historical.window-retry-backoff-ms:500}") int windowRetryBackoffMs) {
         this.webClient = webClientBuilder.baseUrl(ARCHIVE_API_URL).build();
+        this.limiter = limiter;
+        this.archiveStore = archiveStore;
+        this.splitThresholdDays = Math.max(1, splitThresholdDays);
+        this.windowUnit = WindowUnit.valueOf(windowUnit.trim().toUpperCase(Locale.ROOT));
+        this.streamWindowUnit = WindowUnit.valueOf(streamWindowUnit.trim().toUpperCase(Locale.ROOT));
+        this.windowConcurrency = Math.max(1, windowConcurrency);
+        this.windowRetries = Math.max(0, windowRetries);
+        this.windowRetryBackoff = Duration.ofMillis(windowRetryBackoffMs);
     }
 
     /**
@@ -47,6 +205,50 @@ public class HistoricalWeatherService {
             String startDate,
             String endDate,
             String timezone) {
+        return getHistoricalWeather(latitude, longitude, startDate, endDate, timezone, Priority.INTERACTIVE);
+    }
+
+    /**
+     * Get historical weather data in the given upstream priority lane.
+     *
+     * @param latitude   Latitude in decimal degrees
+     * @param longitude  Longitude in decimal degrees
+     * @param startDate  Start date (YYYY-MM-DD)
+     * @param endDate    End date (YYYY-MM-DD)
+     * @param timezone   Timezone for timestamps
+     * @param priority   Upstream limiter lane
+     * @return CompletableFuture with historical weather data
+     */
+    public CompletableFuture<Map<String, Object>> getHistoricalWeather(
+            double latitude,
+            double longitude,
+            String startDate,
+            String endDate,
+            String timezone,
+            Priority priority) {
+        return getHistoricalWeather(latitude, longitude, startDate, endDate, timezone, priority, null);
+    }
+
+    /**
+     * Get historical weather data, reporting progress per window for long ranges.
+     *
+     * @param latitude   Latitude in decimal degrees
+     * @param longitude  Longitude in decimal degrees
+     * @param startDate  Start date (YYYY-MM-DD)
+     * @param endDate    End date (YYYY-MM-DD)
+     * @param timezone   Timezone for timestamps
+     * @param priority   Upstream limiter lane
+     * @param listener   Progress listener for fetched windows, or null; not called when one request covers the range
+     * @return CompletableFuture with historical weather data
+     */
+    public CompletableFuture<Map<String, Object>> getHistoricalWeather(
+            double latitude,
+            double longitude,
+            String startDate,
+            String endDate,
+            String timezone,
+            Priority priority,
+            WindowListener listener) {
 
         log.info("Fetching historical weather: lat={}, lon={}, start={}, end={}, tz={}",
                 latitude, longitude, startDate, endDate, timezone);
@@ -54,44 +256,337 @@ public class HistoricalWeatherService {
         // Validate dates
         validateDateRange(startDate, endDate);
 
-        return webClient.get()
+        DailyStatistics statistics = new DailyStatistics();
+        LocalDate start = LocalDate.parse(startDate, DATE_FORMATTER);
+        LocalDate end = LocalDate.parse(endDate, DATE_FORMATTER);
+
+        return localRuns(latitude, longitude, timezone, start, end)
+                .flatMap(runs -> {
+                    List<Part> parts = parts(start, end, runs);
+                    if (parts.size() == 1 && parts.getFirst().local() == null) {
+                        return fetch(latitude, longitude, startDate, endDate, timezone, priority, statistics)
+                                .doOnNext(response -> archive(latitude, longitude, timezone, response));
+                    }
+                    return fetchParts(latitude, longitude, parts, timezone, priority, statistics, listener);
+                })
+                .toFuture()
+                .thenApply(data -> processHistoricalData(data, statistics, latitude, longitude, startDate, endDate, timezone))
+                .exceptionally(ex -> {
+                    log.error("Error fetching historical weather", ex);
+                    return Map.of(
+                            "error", "Failed to fetch historical weather data",
+                            "message", ex.getMessage()
+                    );
+                });
+    }
+
+    /**
+     * Streams historical weather window by window, in date order.
+     * <p>
+     * Each window carries only its own rows, so the stream sends the data
+     * once, and the first window is emitted as soon as it arrives however
+     * long the range is.
+     * </p>
+     *
+     * @param latitude   Latitude in decimal degrees
+     * @param longitude  Longitude in decimal degrees
+     * @param startDate  Start date (YYYY-MM-DD)
+     * @param endDate    End date (YYYY-MM-DD)
+     * @param timezone   Timezone for timestamps
+     * @param priority   Upstream limiter lane
+     * @return Flux of windows with running statistics
+     */
+    public Flux<WindowData> streamHistoricalWeather(
+            double latitude,
+            double longitude,
+            String startDate,
+            String endDate,
+            String timezone,
+            Priority priority) {
+        return Flux.defer(() -> {
+            log.info("Streaming historical weather: lat={}, lon={}, start={}, end={}, tz={}",
+                    latitude, longitude, startDate, endDate, timezone);
+
+            validateDateRange(startDate, endDate);
+            LocalDate start = LocalDate.parse(startDate, DATE_FORMATTER);
+            LocalDate end = LocalDate.parse(endDate, DATE_FORMATTER);
+
+            return localRuns(latitude, longitude, timezone, start, end)
+                    .flatMapMany(runs -> {
+                        List<Part> parts = streamParts(start, end, runs);
+                        int windows = (int) parts.stream().filter(part -> part.local() == null).count();
+                        AtomicInteger completed = new AtomicInteger();
+                        AtomicInteger index = new AtomicInteger();
+                        DailyStatistics statistics = new DailyStatistics();
+
+                        return Flux.fromIterable(parts)
+                                .flatMapSequential(part -> part.local() != null
+                                                ? Mono.just(part)
+                                                : fetchWindow(latitude, longitude, part.window(), timezone, priority,
+                                                        completed, windows, null)
+                                                        .map(response -> new Part(part.window(), daily(response))),
+                                        windowConcurrency)
+                                // Emitted in date order, so the running statistics see days in order
+                                .map(part -> {
+                                    replay(part.local(), statistics);
+                                    return new WindowData(part.window(), index.getAndIncrement(), parts.size(),
+                                            part.local(), statistics.toMap());
+                                });
+                    });
+        });
+    }
+
+    /**
+     * Looks up locally stored runs off the event loop; a failed lookup fetches everything upstream.
+     */
+    private Mono<List<ArchiveStore.Run>> localRuns(double latitude, double longitude, String timezone,
+                                                   LocalDate start, LocalDate end) {
+        if (!archiveStore.isEnabled()) {
+            return Mono.just(List.of());
+        }
+        return Mono.fromCallable(() -> archiveStore.lookup(DAILY_VARIABLES, latitude, longitude, timezone, start, end))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    log.warn("Archive store lookup failed, fetching upstream: {}", e.toString());
+                    return Mono.just(List.of());
+                });
+    }
+
+    /**
+     * Splits a date range into windows, or returns it whole if it is below the split threshold.
+     *
+     * @param start First day (inclusive)
+     * @param end   Last day (inclusive)
+     * @return Windows in date order
+     */
+    List<Window> windows(LocalDate start, LocalDate end) {
+        if (ChronoUnit.DAYS.between(start, end) + 1 <= splitThresholdDays) {
+            return List.of(new Window(start, end));
+        }
+        return split(start, end, windowUnit);
+    }
+
+    /**
+     * Splits a date range at the window unit's boundaries.
+     */
+    private static List<Window> split(LocalDate start, LocalDate end, WindowUnit unit) {
+        List<Window> windows = new ArrayList<>();
+        for (LocalDate from = start; !from.isAfter(end); ) {
+            LocalDate to = unit.nextStart(from).minusDays(1);
+            if (to.isAfter(end)) {
+                to = end;
+            }
+            windows.add(new Window(from, to));
+            from = to.plusDays(1);
+        }
+        return windows;
+    }
+
+    /**
+     * Fetches one archive request and decodes it, reporting values to the listener.
+     */
+    private Mono<Map<String, Object>> fetch(
+            double latitude,
+            double longitude,
+            String startDate,
+            String endDate,
+            String timezone,
+            Priority priority,
+            ArchiveResponseDecoder.ValueListener values) {
+        return limiter.execute(priority, () -> ArchiveResponseDecoder.decode(webClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .queryParam("latitude", latitude)
                         .queryParam("longitude", longitude)
                         .queryParam("start_date", startDate)
                         .queryParam("end_date", endDate)
-                        .queryParam("daily", String.join(",",
-                                "temperature_2m_max",
-                                "temperature_2m_min",
-                                "temperature_2m_mean",
-                                "precipitation_sum",
-                                "rain_sum",
-                                "snowfall_sum",
-                                "weathercode",
-                                "windspeed_10m_max",
-                                "windgusts_10m_max"
-                        ))
+                        .queryParam("daily", DAILY_VARIABLES)
                         .queryParam("timezone", timezone)
                         .build())
                 .retrieve()
-                .bodyToMono(Map.class)
-                .toFuture()
-                .thenApply(response -> processHistoricalData((Map<String, Object>) response, latitude, longitude, startDate, endDate, timezone))
-                .exceptionally(ex -> {
-                    log.error("Error fetching historical weather", ex);
-                    return Map.of(
-                            "error", "Failed to fetch historical weather data",
-                            "message", ex.getMessage()
-                    );
+                .bodyToFlux(DataBuffer.class), values));
+    }
+
+    /**
+     * Splits a range into locally stored runs and windows for the days in between.
+     *
+     * @return Parts in date order
+     */
+    private List<Part> parts(LocalDate start, LocalDate end, List<ArchiveStore.Run> runs) {
+        List<Part> parts = new ArrayList<>();
+        LocalDate next = start;
+        for (ArchiveStore.Run run : runs) {
+            if (run.start().isAfter(next)) {
+                windows(next, run.start().minusDays(1)).forEach(window -> parts.add(new Part(window, null)));
+            }
+            parts.add(new Part(new Window(run.start(), run.end()), run.daily()));
+            next = run.end().plusDays(1);
+        }
+        if (!next.isAfter(end)) {
+            windows(next, end).forEach(window -> parts.add(new Part(window, null)));
+        }
+        return parts;
+    }
+
+    /**
+     * Splits a range for streaming: every local run and every gap is cut at stream window boundaries.
+     */
+    private List<Part> streamParts(LocalDate start, LocalDate end, List<ArchiveStore.Run> runs) {
+        List<Part> parts = new ArrayList<>();
+        for (Part part : parts(start, end, runs)) {
+            for (Window window : split(part.window().start(), part.window().end(), streamWindowUnit)) {
+                if (part.local() == null) {
+                    parts.add(new Part(window, null));
+                } else {
+                    int from = (int) ChronoUnit.DAYS.between(part.window().start(), window.start());
+                    int to = (int) ChronoUnit.DAYS.between(part.window().start(), window.end()) + 1;
+                    parts.add(new Part(window, slice(part.local(), from, to)));
+                }
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * Returns views of a row range of every daily column.
+     */
+    private static Map<String, Object> slice(Map<String, Object> daily, int from, int to) {
+        Map<String, Object> slice = new LinkedHashMap<>();
+        daily.forEach((name, value) -> slice.put(name, value instanceof List<?> column
+                ? column.subList(Math.min(from, column.size()), Math.min(to, column.size()))
+                : value));
+        return slice;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> daily(Map<String, Object> response) {
+        return response.get("daily") instanceof Map<?, ?> daily ? (Map<String, Object>) daily : Map.of();
+    }
+
+    /**
+     * Reports the present values of daily columns to a listener, column by column in row order.
+     */
+    private static void replay(Map<String, Object> daily, ArchiveResponseDecoder.ValueListener values) {
+        daily.forEach((name, column) -> {
+            if (column instanceof DoubleColumn doubles) {
+                for (int i = 0; i < doubles.size(); i++) {
+                    double value = doubles.getDouble(i);
+                    if (!Double.isNaN(value)) {
+                        values.onValue(name, value);
+                    }
+                }
+            } else if (column instanceof IntColumn ints) {
+                for (int i = 0; i < ints.size(); i++) {
+                    int value = ints.getInt(i);
+                    if (value != IntColumn.MISSING) {
+                        values.onValue(name, value);
+                    }
+                }
+            } else if (column instanceof List<?> list && !(column instanceof TimeAxis)) {
+                for (Object value : list) {
+                    if (value instanceof Number number) {
+                        values.onValue(name, number.doubleValue());
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Fetches the missing windows in parallel and merges them with the local runs in date order.
+     */
+    private Mono<Map<String, Object>> fetchParts(
+            double latitude,
+            double longitude,
+            List<Part> parts,
+            String timezone,
+            Priority priority,
+            DailyStatistics statistics,
+            WindowListener listener) {
+        int windows = (int) parts.stream().filter(part -> part.local() == null).count();
+        // A long range is bulk work; keep its windows out of the interactive lane
+        Priority windowPriority = priority == Priority.INTERACTIVE && windows > 1 ? Priority.BATCH : priority;
+        AtomicInteger completed = new AtomicInteger();
+        DailyMerger merger = new DailyMerger();
+
+        log.debug("Historical request in {} parts, {} fetched as {} windows",
+                parts.size(), windows, windowUnit);
+
+        return Flux.fromIterable(parts)
+                .flatMapSequential(part -> part.local() != null
+                                ? Mono.just(Map.<String, Object>of("daily", part.local()))
+                                : fetchWindow(latitude, longitude, part.window(), timezone, windowPriority,
+                                        completed, windows, listener),
+                        windowConcurrency)
+                // flatMapSequential emits in date order, so columns and statistics see days in order
+                .doOnNext(response -> merger.add(response, statistics))
+                .then(Mono.fromCallable(merger::build));
+    }
+
+    /**
+     * Fetches one window, retrying it on its own, and stores its finalized days.
+     */
+    private Mono<Map<String, Object>> fetchWindow(
+            double latitude,
+            double longitude,
+            Window window,
+            String timezone,
+            Priority priority,
+            AtomicInteger completed,
+            int windows,
+            WindowListener listener) {
+        return fetch(latitude, longitude, window.start().toString(),
+                window.end().toString(), timezone, priority, IGNORE_VALUES)
+                .retryWhen(Retry.backoff(windowRetries, windowRetryBackoff)
+                        .filter(HistoricalWeatherService::isRetryable)
+                        .doBeforeRetry(signal -> log.warn("Retrying historical window {}..{}: {}",
+                                window.start(), window.end(), signal.failure().toString()))
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .doOnNext(response -> {
+                    archive(latitude, longitude, timezone, response);
+                    int done = completed.incrementAndGet();
+                    log.debug("Historical window {}..{} done ({}/{})",
+                            window.start(), window.end(), done, windows);
+                    if (listener != null) {
+                        listener.onWindow(done, windows, window);
+                    }
                 });
     }
 
+    /**
+     * Writes the finalized days of a fetched response to the archive store in the background.
+     */
+    @SuppressWarnings("unchecked")
+    private void archive(double latitude, double longitude, String timezone, Map<String, Object> response) {
+        if (!archiveStore.isEnabled() || !(response.get("daily") instanceof Map<?, ?> daily)) {
+            return;
+        }
+        Mono.fromRunnable(() -> archiveStore.store(DAILY_VARIABLES, latitude, longitude, timezone,
+                        (Map<String, Object>) daily))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null, e -> log.warn("Failed to store archive data: {}", e.toString()));
+    }
+
+    /**
+     * Only transient upstream failures are retried. Local rejections (open circuit,
+     * exhausted quota, saturated limiter) are returned at once, so a retry neither
+     * works against them nor uses up the retry budget.
+     */
+    static boolean isRetryable(Throwable error) {
+        if (error instanceof WebClientResponseException e) {
+            return e.getStatusCode().is5xxServerError() || e.getStatusCode().value() == 429;
+        }
+        return error instanceof WebClientRequestException
+                || error instanceof TimeoutException
+                || error instanceof IOException;
+    }
+
     /**
      * Process and enrich historical weather data.
      */
     @SuppressWarnings("unchecked")
     private Map<String, Object> processHistoricalData(
             Map<String, Object> response,
+            DailyStatistics statistics,
             double latitude,
             double longitude,
             String startDate,
@@ -100,9 +595,6 @@ public class HistoricalWeatherService {
 
         Map<String, Object> daily = (Map<String, Object>) response.getOrDefault("daily", Map.of());
 
-        // Calculate statistics
-        Map<String, Object> statistics = calculateStatistics(daily);
-
         // Build enriched response
         Map<String, Object> result = new HashMap<>();
         result.put("latitude", latitude);
@@ -111,56 +603,11 @@ public class HistoricalWeatherService {
         result.put("start_date", startDate);
         result.put("end_date", endDate);
         result.put("daily", daily);
-        result.put("statistics", statistics);
+        result.put("statistics", statistics.toMap());
 
         return result;
     }
 
-    /**
-     * Calculate statistical summaries from daily data.
-     */
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> calculateStatistics(Map<String, Object> daily) {
-        Map<String, Object> stats = new HashMap<>();
-
-        // Temperature statistics
-        List<Number> maxTemps = (List<Number>) daily.get("temperature_2m_max");
-        List<Number> minTemps = (List<Number>) daily.get("temperature_2m_min");
-        List<Number> meanTemps = (List<Number>) daily.get("temperature_2m_mean");
-
-        if (maxTemps != null && !maxTemps.isEmpty()) {
-            stats.put("temperature", Map.of(
-                    "max", maxTemps.stream().mapToDouble(Number::doubleValue).max().orElse(0.0),
-                    "min", minTemps != null ? minTemps.stream().mapToDouble(Number::doubleValue).min().orElse(0.0) : 0.0,
-                    "mean", meanTemps != null ? meanTemps.stream().mapToDouble(Number::doubleValue).average().orElse(0.0) : 0.0
-            ));
-        }
-
-        // Precipitation statistics
-        List<Number> precipitation = (List<Number>) daily.get("precipitation_sum");
-        if (precipitation != null && !precipitation.isEmpty()) {
-            double totalPrecip = precipitation.stream().mapToDouble(Number::doubleValue).sum();
-            long rainyDays = precipitation.stream().filter(p -> p.doubleValue() > 0.1).count();
-
-            stats.put("precipitation", Map.of(
-                    "total_mm", totalPrecip,
-                    "rainy_days", rainyDays,
-                    "average_mm", precipitation.stream().mapToDouble(Number::doubleValue).average().orElse(0.0)
-            ));
-        }
-
-        // Wind statistics
-        List<Number> windSpeed = (List<Number>) daily.get("windspeed_10m_max");
-        if (windSpeed != null && !windSpeed.isEmpty()) {
-            stats.put("wind", Map.of(
-                    "max_speed_kmh", windSpeed.stream().mapToDouble(Number::doubleValue).max().orElse(0.0),
-                    "average_speed_kmh", windSpeed.stream().mapToDouble(Number::doubleValue).average().orElse(0.0)
-            ));
-        }
-
-        return stats;
-    }
-
     /**
      * Validate date range.
      */
@@ -183,13 +630,234 @@ public class HistoricalWeatherService {
                 throw new IllegalArgumentException("Start date must be before or equal to end date");
             }
 
-            // Limit to 1 year range to prevent excessive data
-            if (start.plusYears(1).isBefore(end)) {
-                log.warn("Date range exceeds 1 year, may return large dataset");
-            }
-
         } catch (Exception e) {
             throw new IllegalArgumentException("Invalid date format. Use YYYY-MM-DD format", e);
         }
     }
+
+    /**
+     * Statistical summaries of daily data, accumulated while the response is decoded.
+     */
+    static final class DailyStatistics implements ArchiveResponseDecoder.ValueListener {
+        private static final double RAINY_DAY_MM = 0.1;
+
+        private final DoubleSummaryStatistics maxTemperature = new DoubleSummaryStatistics();
+        private final DoubleSummaryStatistics minTemperature = new DoubleSummaryStatistics();
+        private final DoubleSummaryStatistics meanTemperature = new DoubleSummaryStatistics();
+        private final DoubleSummaryStatistics precipitation = new DoubleSummaryStatistics();
+        private final DoubleSummaryStatistics windSpeed = new DoubleSummaryStatistics();
+        private long rainyDays;
+
+        @Override
+        public void onValue(String column, double value) {
+            switch (column) {
+                case "temperature_2m_max" -> maxTemperature.accept(value);
+                case "temperature_2m_min" -> minTemperature.accept(value);
+                case "temperature_2m_mean" -> meanTemperature.accept(value);
+                case "precipitation_sum" -> {
+                    precipitation.accept(value);
+                    if (value > RAINY_DAY_MM) {
+                        rainyDays++;
+                    }
+                }
+                case "windspeed_10m_max" -> windSpeed.accept(value);
+                default -> {
+                }
+            }
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> stats = new HashMap<>();
+
+            if (maxTemperature.getCount() > 0) {
+                stats.put("temperature", Map.of(
+                        "max", maxTemperature.getMax(),
+                        "min", minTemperature.getCount() > 0 ? minTemperature.getMin() : 0.0,
+                        "mean", meanTemperature.getAverage()
+                ));
+            }
+
+            if (precipitation.getCount() > 0) {
+                stats.put("precipitation", Map.of(
+                        "total_mm", precipitation.getSum(),
+                        "rainy_days", rainyDays,
+                        "average_mm", precipitation.getAverage()
+                ));
+            }
+
+            if (windSpeed.getCount() > 0) {
+                stats.put("wind", Map.of(
+                        "max_speed_kmh", windSpeed.getMax(),
+                        "average_speed_kmh", windSpeed.getAverage()
+                ));
+            }
+
+            return stats;
+        }
+    }
+
+    /**
+     * Concatenates the daily columns of consecutive windows.
+     */
+    private static final class DailyMerger {
+        private final Map<String, ColumnAppender> columns = new LinkedHashMap<>();
+        private int rows;
+
+        @SuppressWarnings("unchecked")
+        void add(Map<String, Object> response, ArchiveResponseDecoder.ValueListener values) {
+            Object dailyValue = response.get("daily");
+            if (!(dailyValue instanceof Map<?, ?>)) {
+                return;
+            }
+            Map<String, Object> daily = (Map<String, Object>) dailyValue;
+            int windowRows = daily.values().stream()
+                    .filter(List.class::isInstance)
+                    .mapToInt(column -> ((List<?>) column).size())
+                    .max()
+                    .orElse(0);
+
+            for (Map.Entry<String, Object> entry : daily.entrySet()) {
+                if (entry.getValue() instanceof List<?> column) {
+                    columns.computeIfAbsent(entry.getKey(), name -> ColumnAppender.forColumn(column, rows))
+                            .append(entry.getKey(), column, windowRows, values);
+                }
+            }
+            // Columns missing from this window keep their rows aligned
+            for (Map.Entry<String, ColumnAppender> entry : columns.entrySet()) {
+                entry.getValue().padTo(rows + windowRows);
+            }
+            rows += windowRows;
+        }
+
+        Map<String, Object> build() {
+            Map<String, Object> daily = new LinkedHashMap<>();
+            columns.forEach((name, column) -> daily.put(name, column.build()));
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("daily", daily);
+            return response;
+        }
+    }
+
+    /**
+     * Appends one column across windows into a primitive builder.
+     * <p>
+     * The decoder types an all-null column as doubles, so the builder is
+     * retyped when a later window shows what the column really holds.
+     * </p>
+     */
+    private static final class ColumnAppender {
+        private TimeAxis.Builder times;
+        private IntColumn.Builder ints;
+        private DoubleColumn.Builder doubles;
+        private List<Object> objects;
+        private int size;
+        private boolean typed;
+
+        static ColumnAppender forColumn(List<?> column, int leadingRows) {
+            ColumnAppender appender = new ColumnAppender();
+            appender.retype(column);
+            appender.padTo(leadingRows);
+            return appender;
+        }
+
+        private void retype(List<?> column) {
+            times = null;
+            ints = null;
+            doubles = null;
+            objects = null;
+            if (column instanceof TimeAxis) {
+                times = new TimeAxis.Builder();
+            } else if (column instanceof IntColumn) {
+                ints = new IntColumn.Builder();
+            } else if (column instanceof DoubleColumn) {
+                doubles = new DoubleColumn.Builder();
+            } else {
+                objects = new ArrayList<>();
+            }
+            typed = column.stream().anyMatch(value -> value != null);
+        }
+
+        void append(String name, List<?> column, int windowRows, ArchiveResponseDecoder.ValueListener values) {
+            boolean hasValues = column.stream().anyMatch(value -> value != null);
+            if (!typed && hasValues) {
+                int leadingRows = size;
+                size = 0;
+                retype(column);
+                padTo(leadingRows);
+            }
+            typed |= hasValues;
+
+            if (times != null && column instanceof TimeAxis axis) {
+                times.addAll(axis);
+            } else if (ints != null && column instanceof IntColumn intColumn) {
+                ints.addAll(intColumn);
+                for (int i = 0; i < intColumn.size(); i++) {
+                    int value = intColumn.getInt(i);
+                    if (value != IntColumn.MISSING) {
+                        values.onValue(name, value);
+                    }
+                }
+            } else if (doubles != null && column instanceof DoubleColumn doubleColumn) {
+                doubles.addAll(doubleColumn);
+                for (int i = 0; i < doubleColumn.size(); i++) {
+                    double value = doubleColumn.getDouble(i);
+                    if (!Double.isNaN(value)) {
+                        values.onValue(name, value);
+                    }
+                }
+            } else {
+                for (Object value : column) {
+                    appendObject(name, value, values);
+                }
+            }
+            size += column.size();
+            padTo(size + Math.max(0, windowRows - column.size()));
+        }
+
+        private void appendObject(String name, Object value, ArchiveResponseDecoder.ValueListener values) {
+            if (times != null) {
+                times.addUnparsed(value != null ? value.toString() : null);
+                return;
+            }
+            if (objects != null) {
+                objects.add(value);
+                return;
+            }
+            if (value instanceof Number number) {
+                values.onValue(name, number.doubleValue());
+            }
+            if (ints != null) {
+                ints.add(value instanceof Number number ? number.intValue() : IntColumn.MISSING);
+            } else {
+                doubles.add(value instanceof Number number ? number.doubleValue() : Double.NaN);
+            }
+        }
+
+        void padTo(int rows) {
+            for (; size < rows; size++) {
+                if (times != null) {
+                    times.addUnparsed(null);
+                } else if (ints != null) {
+                    ints.addMissing();
+                } else if (doubles != null) {
+                    doubles.addMissing();
+                } else {
+                    objects.add(null);
+                }
+            }
+        }
+
+        Object build() {
+            if (times != null) {
+                return times.build();
+            }
+            if (ints != null) {
+                return ints.build();
+            }
+            if (doubles != null) {
+                return doubles.build();
+            }
+            return objects;
+        }
+    }
 }
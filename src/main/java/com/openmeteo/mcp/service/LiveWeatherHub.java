@@ -0,0 +1,172 @@
+package com.openmeteo.mcp.service;
+
+import com.openmeteo.mcp.client.ForecastCache;
+import com.openmeteo.mcp.client.ForecastCache.DataProduct;
+import com.openmeteo.mcp.client.UpstreamLimiter.Priority;
+import com.openmeteo.mcp.model.dto.WeatherForecast;
+import com.openmeteo.mcp.service.util.ValidationUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Hub for live weather subscriptions.
+ * <p>
+ * Subscribers are grouped by forecast grid cell (the same snapping as the
+ * {@link ForecastCache}) and timezone. Each cell is polled once per
+ * {@code interval} in the prefetch lane of the upstream limiter, and every
+ * update is fanned out to all subscribers of the cell; a subscriber joining
+ * a running cell gets the latest update at once. Cells are reference
+ * counted: polling starts with the first subscriber and is cancelled when
+ * the last one leaves.
+ * </p>
+ * <p>
+ * Every subscription is registered with the {@link StreamConnectionManager},
+ * which rejects it at capacity and whose maximum connection duration ends it.
+ * </p>
+ */
+@Service
+public class LiveWeatherHub {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveWeatherHub.class);
+    private static final String STREAM_TYPE = "weather-watch";
+
+    private final WeatherService weatherService;
+    private final ForecastCache forecastCache;
+    private final StreamConnectionManager connectionManager;
+    private final Duration interval;
+    private final Map<String, Cell> cells = new HashMap<>();
+
+    private final Counter successfulPolls;
+    private final Counter failedPolls;
+
+    public LiveWeatherHub(
+            WeatherService weatherService,
+            ForecastCache forecastCache,
+            StreamConnectionManager connectionManager,
+            MeterRegistry meterRegistry,
+            @Value("${streaming.watch.interval-seconds:300}") long intervalSeconds) {
+        this(weatherService, forecastCache, connectionManager, meterRegistry,
+                Duration.ofSeconds(Math.max(1, intervalSeconds)));
+    }
+
+    LiveWeatherHub(
+            WeatherService weatherService,
+            ForecastCache forecastCache,
+            StreamConnectionManager connectionManager,
+            MeterRegistry meterRegistry,
+            Duration interval) {
+        this.weatherService = weatherService;
+        this.forecastCache = forecastCache;
+        this.connectionManager = connectionManager;
+        this.interval = interval;
+
+        this.successfulPolls = Counter.builder("openmeteo.watch.polls")
+                .description("Upstream polls of watched grid cells")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.failedPolls = Counter.builder("openmeteo.watch.polls")
+                .description("Upstream polls of watched grid cells")
+                .tag("result", "error")
+                .register(meterRegistry);
+        Gauge.builder("openmeteo.watch.cells", this, LiveWeatherHub::activeCells)
+                .description("Grid cells with at least one subscriber")
+                .register(meterRegistry);
+        Gauge.builder("openmeteo.watch.subscribers", this, LiveWeatherHub::activeSubscribers)
+                .description("Live weather subscribers")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Subscribes to the live weather of the grid cell containing a location.
+     *
+     * @param latitude  Latitude in decimal degrees
+     * @param longitude Longitude in decimal degrees
+     * @param timezone  Timezone identifier
+     * @param clientId  Client identifier for connection tracking
+     * @return Flux of forecasts, one per poll of the cell; errors if the connection limit is reached
+     */
+    public Flux<WeatherForecast> subscribe(double latitude, double longitude, String timezone, String clientId) {
+        ValidationUtil.validateLatitude(latitude);
+        ValidationUtil.validateLongitude(longitude);
+
+        return Flux.defer(() -> {
+            String streamId = UUID.randomUUID().toString();
+            if (!connectionManager.registerConnection(streamId, clientId, STREAM_TYPE)) {
+                return Flux.error(new IllegalStateException("Too many streaming connections, try again later"));
+            }
+            String key = forecastCache.key(DataProduct.FORECAST, latitude, longitude, "watch", timezone);
+            Cell cell;
+            synchronized (cells) {
+                cell = cells.computeIfAbsent(key, k -> new Cell(k, latitude, longitude, timezone));
+                cell.subscribers++;
+            }
+            log.debug("Subscriber {} joined cell {} ({} subscribers)", streamId, key, cell.subscribers);
+
+            return cell.updates
+                    .take(Duration.ofMillis(connectionManager.getStatistics().maxDurationMs()))
+                    .doFinally(signal -> {
+                        release(cell);
+                        connectionManager.unregisterConnection(streamId);
+                    });
+        });
+    }
+
+    private void release(Cell cell) {
+        synchronized (cells) {
+            if (--cell.subscribers == 0) {
+                cells.remove(cell.key, cell);
+                log.debug("Last subscriber left cell {}, polling stopped", cell.key);
+            }
+        }
+    }
+
+    private int activeCells() {
+        synchronized (cells) {
+            return cells.size();
+        }
+    }
+
+    private int activeSubscribers() {
+        synchronized (cells) {
+            return cells.values().stream().mapToInt(cell -> cell.subscribers).sum();
+        }
+    }
+
+    /**
+     * Shared polling of one grid cell; guarded by {@code cells}.
+     */
+    private final class Cell {
+        private final String key;
+        private final Flux<WeatherForecast> updates;
+        private int subscribers;
+
+        private Cell(String key, double latitude, double longitude, String timezone) {
+            this.key = key;
+            // replay(1) hands the latest update to late joiners; refCount cancels polling with the last subscriber
+            this.updates = Flux.interval(Duration.ZERO, interval)
+                    .onBackpressureDrop()
+                    .concatMap(tick -> Mono.fromFuture(() -> weatherService.getWeather(
+                                    latitude, longitude, 1, false, timezone, Priority.PREFETCH))
+                            .doOnNext(forecast -> successfulPolls.increment())
+                            .onErrorResume(error -> {
+                                failedPolls.increment();
+                                log.warn("Polling cell {} failed: {}", key, error.toString());
+                                return Mono.empty();
+                            }))
+                    .replay(1)
+                    .refCount();
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.openmeteo.mcp.service;
 
+import com.openmeteo.mcp.client.UpstreamLimiter;
+import com.openmeteo.mcp.client.UpstreamLimiter.Priority;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 
@@ -14,6 +17,7 @@ import java.util.concurrent.CompletableFuture;
  * Service for retrieving marine/wave conditions from Open-Meteo Marine API.
  * <p>
  * Provides wave height, direction, period, and swell data for coastal areas and large lakes.
+ * Requests run through {@link UpstreamLimiter} in the interactive lane.
  * </p>
  */
 @Service
@@ -23,9 +27,13 @@ public class MarineConditionsService {
     private static final String MARINE_API_URL = "https://marine-api.open-meteo.com/v1/marine";
 
     private final WebClient webClient;
+    private final UpstreamLimiter limiter;
 
-    public MarineConditionsService(WebClient.Builder webClientBuilder) {
+    public MarineConditionsService(
+            @Qualifier("marineWebClientBuilder") WebClient.Builder webClientBuilder,
+            UpstreamLimiter limiter) {
         this.webClient = webClientBuilder.baseUrl(MARINE_API_URL).build();
+        this.limiter = limiter;
     }
 
     /**
@@ -53,7 +61,7 @@ public class MarineConditionsService {
 
         final int finalForecastDays = forecastDays;
 
-        return webClient.get()
+        return limiter.execute(Priority.INTERACTIVE, () -> webClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .queryParam("latitude", latitude)
                         .queryParam("longitude", longitude)
@@ -72,7 +80,7 @@ public class MarineConditionsService {
                         .queryParam("timezone", timezone)
                         .build())
                 .retrieve()
-                .bodyToMono(Map.class)
+                .bodyToMono(Map.class))
                 .toFuture()
                 .thenApply(response -> processMarineData((Map<String, Object>) response, latitude, longitude, timezone))
                 .exceptionally(ex -> {
@@ -78,11 +78,20 @@ public class SnowConditionsService {
             boolean includeHourly,
             String timezone
     ) {
-        return getSnowConditions(latitude, longitude, forecastDays,
+        ValidationUtil.validateLatitude(latitude);
+        ValidationUtil.validateLongitude(longitude);
+        int clampedDays = ValidationUtil.clampForecastDays(forecastDays, 1, 16);
+
+        log.info("Getting snow conditions: lat={}, lon={}, days={}",
+                latitude, longitude, clampedDays);
+
+        return client.serveSnowConditions(latitude, longitude, clampedDays,
                         includeHourly, timezone)
-                .thenApply(conditions -> {
+                .thenApply(served -> {
+                    var conditions = served.value();
                     Map<String, Object> result = new HashMap<>();
                     result.put("conditions", conditions);
+                    served.staleness().ifPresent(staleness -> result.put("staleness", staleness));
 
                     // Add ski assessment if data available
                     if (conditions.hourly() != null && conditions.daily() != null) {
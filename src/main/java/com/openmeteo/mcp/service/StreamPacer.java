@@ -0,0 +1,199 @@
+package com.openmeteo.mcp.service;
+
+import com.openmeteo.mcp.model.stream.StreamChunk;
+import com.openmeteo.mcp.model.stream.StreamMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pacing policy for SSE streams.
+ * <p>
+ * Streams are not slowed down by fixed delays: messages are pulled as fast
+ * as the SSE writer requests them, so a fast client gets the data at once
+ * and a slow client applies back-pressure up to the source. On top of that:
+ * </p>
+ * <ul>
+ *   <li>small text chunks arriving within {@code coalesce-window-ms} are
+ *       merged into one message (off by default)</li>
+ *   <li>each connection can be capped at {@code max-messages-per-second},
+ *       with a burst of one second's worth of messages (off by default)</li>
+ * </ul>
+ * <p>
+ * Metrics per endpoint: {@code openmeteo.stream.messages} (messages sent),
+ * {@code openmeteo.stream.coalesced} (messages merged away) and
+ * {@code openmeteo.stream.connection.duration} tagged with how the
+ * connection ended.
+ * </p>
+ */
+@Service
+public class StreamPacer {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamPacer.class);
+
+    private final MeterRegistry meterRegistry;
+    private final Duration coalesceWindow;
+    private final int coalesceMaxMessages;
+    private final int maxMessagesPerSecond;
+    private final int prefetch;
+
+    public StreamPacer(
+            MeterRegistry meterRegistry,
+            @Value("${streaming.pacing.coalesce-window-ms:0}") long coalesceWindowMs,
+            @Value("${streaming.pacing.coalesce-max-messages:32}") int coalesceMaxMessages,
+            @Value("${streaming.pacing.max-messages-per-second:0}") int maxMessagesPerSecond,
+            @Value("${streaming.pacing.prefetch:32}") int prefetch) {
+        this.meterRegistry = meterRegistry;
+        this.coalesceWindow = Duration.ofMillis(Math.max(0, coalesceWindowMs));
+        this.coalesceMaxMessages = Math.max(1, coalesceMaxMessages);
+        this.maxMessagesPerSecond = Math.max(0, maxMessagesPerSecond);
+        this.prefetch = Math.max(1, prefetch);
+        log.info("StreamPacer initialized (coalesce={}ms, maxRate={}/s, prefetch={})",
+                coalesceWindowMs, maxMessagesPerSecond, prefetch);
+    }
+
+    /**
+     * Merges consecutive text chunks arriving within the coalesce window;
+     * returns the source unchanged when no window is configured.
+     *
+     * @param endpoint Endpoint name used as metric tag
+     * @param source   Messages to send
+     * @return Coalesced messages
+     */
+    public Flux<StreamMessage> coalesce(String endpoint, Flux<StreamMessage> source) {
+        if (coalesceWindow.isZero()) {
+            return source;
+        }
+        Counter coalesced = Counter.builder("openmeteo.stream.coalesced")
+                .description("Stream messages merged into a preceding message")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        return source
+                .bufferTimeout(coalesceMaxMessages, coalesceWindow, true)
+                .concatMapIterable(batch -> {
+                    List<StreamMessage> merged = merge(batch);
+                    coalesced.increment(batch.size() - merged.size());
+                    return merged;
+                });
+    }
+
+    /**
+     * Paces a stream: demand-driven delivery, the optional rate cap and metrics.
+     *
+     * @param endpoint Endpoint name used as metric tag
+     * @param source   Elements to send
+     * @return Paced elements
+     */
+    public <T> Flux<T> pace(String endpoint, Flux<T> source) {
+        Counter messages = Counter.builder("openmeteo.stream.messages")
+                .description("Stream messages sent")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+
+        return Flux.defer(() -> {
+            Timer.Sample connection = Timer.start(meterRegistry);
+            return cap(source.limitRate(prefetch))
+                    .doOnNext(element -> messages.increment())
+                    .doFinally(signal -> connection.stop(Timer.builder("openmeteo.stream.connection.duration")
+                            .description("Duration of stream connections")
+                            .tag("endpoint", endpoint)
+                            .tag("outcome", outcome(signal))
+                            .register(meterRegistry)));
+        });
+    }
+
+    /**
+     * Holds back elements that exceed the per-connection rate; a no-op when no cap is configured.
+     */
+    private <T> Flux<T> cap(Flux<T> source) {
+        if (maxMessagesPerSecond == 0) {
+            return source;
+        }
+        return Flux.defer(() -> {
+            RateCap rateCap = new RateCap(maxMessagesPerSecond);
+            return source.delayUntil(element -> {
+                long waitNanos = rateCap.acquire(Schedulers.parallel().now(TimeUnit.NANOSECONDS));
+                return waitNanos > 0 ? Mono.delay(Duration.ofNanos(waitNanos)) : Mono.empty();
+            });
+        });
+    }
+
+    /**
+     * Merges runs of text chunks without metadata; any other message, or the last chunk, ends a run.
+     */
+    static List<StreamMessage> merge(List<StreamMessage> batch) {
+        List<StreamMessage> merged = new ArrayList<>(batch.size());
+        StreamMessage run = null;
+        for (StreamMessage message : batch) {
+            if (run != null && isText(run) && !((StreamChunk) run.data()).isLastChunk() && isText(message)) {
+                StreamChunk first = (StreamChunk) run.data();
+                StreamChunk next = (StreamChunk) message.data();
+                run = new StreamMessage(run.type(),
+                        new StreamChunk(first.chunkId(), (String) first.content() + next.content(),
+                                next.isLastChunk(), first.timestamp()),
+                        null, run.timestamp());
+                continue;
+            }
+            if (run != null) {
+                merged.add(run);
+            }
+            run = message;
+        }
+        if (run != null) {
+            merged.add(run);
+        }
+        return merged;
+    }
+
+    private static boolean isText(StreamMessage message) {
+        return "data".equals(message.type())
+                && message.metadata() == null
+                && message.data() instanceof StreamChunk chunk
+                && chunk.content() instanceof String;
+    }
+
+    private static String outcome(SignalType signal) {
+        return switch (signal) {
+            case ON_COMPLETE -> "complete";
+            case ON_ERROR -> "error";
+            default -> "cancel";
+        };
+    }
+
+    /**
+     * Rate cap of one connection: allows a burst of one second's worth of
+     * messages, then one message per interval.
+     */
+    static final class RateCap {
+        private final long intervalNanos;
+        private final long burstNanos;
+        private long nextNanos = Long.MIN_VALUE;
+
+        RateCap(int messagesPerSecond) {
+            this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / messagesPerSecond;
+            this.burstNanos = intervalNanos * (messagesPerSecond - 1);
+        }
+
+        /**
+         * Takes the next slot and returns how long the message has to wait for it.
+         */
+        synchronized long acquire(long nowNanos) {
+            long scheduled = Math.max(nextNanos, nowNanos);
+            nextNanos = scheduled + intervalNanos;
+            return Math.max(0, scheduled - burstNanos - nowNanos);
+        }
+    }
+}
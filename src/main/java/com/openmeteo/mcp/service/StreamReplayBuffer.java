@@ -0,0 +1,700 @@
+package com.openmeteo.mcp.service;
+
+import com.openmeteo.mcp.model.stream.StreamMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Replay buffer for resumable SSE streams.
+ * <p>
+ * Every event of a stream gets a monotonic id ({@code <streamId>:<sequence>})
+ * and is kept in a bounded per-stream buffer. The stream is produced
+ * independently of the connection, so it keeps running when the client
+ * drops. A client reconnecting with {@code Last-Event-ID} receives the
+ * buffered events after that id and then the live tail, without the
+ * upstream being queried again.
+ * </p>
+ * <p>
+ * Events are pulled: the source is asked for more only as the slowest
+ * reader drains, and readers receive events only against their own demand,
+ * so a slow client holds back its stream instead of queueing it.
+ * </p>
+ * <p>
+ * Buffers expire {@code ttl-seconds} after their last reader detached,
+ * which also cancels a source that is still running, and, when the
+ * estimated size of all buffers exceeds {@code memory-budget-mb}, are
+ * evicted least recently used first, completed streams before running
+ * ones. With {@code redis: true} completed streams are also written to
+ * Redis, so they can be resumed on another replica.
+ * </p>
+ */
+@Service
+public class StreamReplayBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamReplayBuffer.class);
+    private static final int FALLBACK_EVENT_BYTES = 1024;
+    private static final long SWEEP_INTERVAL_MILLIS = 1000;
+    /**
+     * Events the source may run ahead of the slowest attached reader.
+     */
+    private static final int READ_AHEAD = 32;
+
+    /**
+     * Shared copy of completed streams, keyed by stream id and scope.
+     */
+    interface Backend {
+        void write(String streamId, String scope, List<String> events, Duration ttl);
+
+        List<String> read(String streamId, String scope);
+    }
+
+    /**
+     * Event as stored in the shared backend.
+     */
+    record StoredEvent(long sequence, String event, StreamMessage message) {
+    }
+
+    private record Event(long sequence, String event, StreamMessage message, int bytes) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Backend backend;
+    private final Clock clock;
+    private final boolean enabled;
+    private final int maxEventsPerStream;
+    private final Duration ttl;
+    private final long memoryBudgetBytes;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong bufferedBytes = new AtomicLong();
+    private long lastSweepMillis;
+
+    private final Counter memoryResumes;
+    private final Counter backendResumes;
+    private final Counter missedResumes;
+    private final Counter expiredEvictions;
+    private final Counter budgetEvictions;
+
+    public StreamReplayBuffer(
+            @Qualifier("redisTemplate") ObjectProvider<RedisTemplate<String, String>> redisTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${streaming.replay.enabled:true}") boolean enabled,
+            @Value("${streaming.replay.max-events-per-stream:1000}") int maxEventsPerStream,
+            @Value("${streaming.replay.ttl-seconds:300}") long ttlSeconds,
+            @Value("${streaming.replay.memory-budget-mb:64}") long memoryBudgetMb,
+            @Value("${streaming.replay.redis:false}") boolean redis,
+            @Value("${streaming.replay.key-prefix:openmeteo:replay}") String keyPrefix) {
+        this(objectMapper, meterRegistry, enabled, maxEventsPerStream, Duration.ofSeconds(ttlSeconds),
+                memoryBudgetMb * 1024 * 1024,
+                redis ? redisBackend(redisTemplate.getIfAvailable(), keyPrefix) : null,
+                Clock.systemUTC());
+    }
+
+    StreamReplayBuffer(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            boolean enabled,
+            int maxEventsPerStream,
+            Duration ttl,
+            long memoryBudgetBytes,
+            Backend backend,
+            Clock clock) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxEventsPerStream = Math.max(1, maxEventsPerStream);
+        this.ttl = ttl;
+        this.memoryBudgetBytes = Math.max(0, memoryBudgetBytes);
+        this.backend = backend;
+        this.clock = clock;
+        this.lastSweepMillis = clock.millis();
+
+        this.memoryResumes = Counter.builder("openmeteo.stream.replay.resumes")
+                .description("Reconnects with Last-Event-ID")
+                .tag("result", "memory")
+                .register(meterRegistry);
+        this.backendResumes = Counter.builder("openmeteo.stream.replay.resumes")
+                .description("Reconnects with Last-Event-ID")
+                .tag("result", "redis")
+                .register(meterRegistry);
+        this.missedResumes = Counter.builder("openmeteo.stream.replay.resumes")
+                .description("Reconnects with Last-Event-ID")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.expiredEvictions = Counter.builder("openmeteo.stream.replay.evictions")
+                .description("Replay buffers dropped")
+                .tag("reason", "expired")
+                .register(meterRegistry);
+        this.budgetEvictions = Counter.builder("openmeteo.stream.replay.evictions")
+                .description("Replay buffers dropped")
+                .tag("reason", "budget")
+                .register(meterRegistry);
+        Gauge.builder("openmeteo.stream.replay.bytes", bufferedBytes, AtomicLong::get)
+                .description("Estimated size of all replay buffers")
+                .register(meterRegistry);
+
+        log.info("StreamReplayBuffer initialized (enabled={}, maxEvents={}, ttl={}, budget={} bytes, redis={})",
+                enabled, this.maxEventsPerStream, ttl, this.memoryBudgetBytes, backend != null);
+    }
+
+    /**
+     * Resumes the stream of {@code lastEventId}, or starts a new stream from
+     * {@code source} if there is no id or the stream can no longer be resumed.
+     * <p>
+     * A stream is only resumed with the scope it was started with, so an id
+     * cannot be replayed on another endpoint, by another client or with other
+     * request parameters; a mismatch starts a new stream.
+     * </p>
+     *
+     * @param scope       Endpoint, client and request parameters of the stream
+     * @param lastEventId Value of the {@code Last-Event-ID} header, may be null
+     * @param source      Creates the messages of a new stream; not called on resume
+     * @return Flux of ServerSentEvent with per-stream sequential ids
+     */
+    public Flux<ServerSentEvent<StreamMessage>> stream(
+            String scope,
+            String lastEventId,
+            Supplier<Flux<StreamMessage>> source) {
+        if (!enabled) {
+            return Flux.defer(() -> {
+                String streamId = UUID.randomUUID().toString();
+                return source.get()
+                        .index((sequence, message) -> new Event(sequence, message.type(), message, 0))
+                        .map(event -> toServerSentEvent(streamId, event));
+            });
+        }
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return start(scope, source);
+        }
+        int separator = lastEventId.lastIndexOf(':');
+        long after;
+        try {
+            after = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring malformed Last-Event-ID: {}", lastEventId);
+            return start(scope, source);
+        }
+        String streamId = lastEventId.substring(0, Math.max(0, separator));
+
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(streamId);
+        }
+        if (entry != null && !entry.scope.equals(scope)) {
+            log.warn("Last-Event-ID {} does not belong to this request, starting a new stream", lastEventId);
+            return missed(streamId, scope, source);
+        }
+        if (entry != null && entry.covers(after)) {
+            memoryResumes.increment();
+            log.info("Resuming stream {} after event {}", streamId, after);
+            return entry.events(after).map(event -> toServerSentEvent(streamId, event));
+        }
+        if (backend == null) {
+            return missed(streamId, scope, source);
+        }
+        return Mono.fromCallable(() -> backend.read(streamId, scope))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    log.warn("Failed to read replay buffer {} from Redis: {}", streamId, e.toString());
+                    return Mono.just(List.of());
+                })
+                .flatMapMany(stored -> {
+                    List<Event> events = decode(stored);
+                    if (events.isEmpty() || events.getFirst().sequence() > after + 1) {
+                        return missed(streamId, scope, source);
+                    }
+                    backendResumes.increment();
+                    log.info("Resuming stream {} after event {} from Redis", streamId, after);
+                    return Flux.fromIterable(events)
+                            .filter(event -> event.sequence() > after)
+                            .map(event -> toServerSentEvent(streamId, event));
+                });
+    }
+
+    private Flux<ServerSentEvent<StreamMessage>> missed(
+            String streamId,
+            String scope,
+            Supplier<Flux<StreamMessage>> source) {
+        missedResumes.increment();
+        log.info("Stream {} can no longer be resumed, starting a new stream", streamId);
+        return start(scope, source);
+    }
+
+    /**
+     * Starts producing a new stream on the first subscription.
+     */
+    private Flux<ServerSentEvent<StreamMessage>> start(String scope, Supplier<Flux<StreamMessage>> source) {
+        return Flux.defer(() -> {
+            Entry entry = new Entry(UUID.randomUUID().toString(), scope);
+            synchronized (entries) {
+                entries.put(entry.streamId, entry);
+            }
+            // The producer starts once the first reader is attached and outlives its connection
+            return Flux.<Event>create(sink -> {
+                        entry.attach(sink, -1);
+                        entry.produce(source.get());
+                    }, FluxSink.OverflowStrategy.ERROR)
+                    .map(event -> toServerSentEvent(entry.streamId, event));
+        });
+    }
+
+    private static ServerSentEvent<StreamMessage> toServerSentEvent(String streamId, Event event) {
+        return ServerSentEvent.<StreamMessage>builder()
+                .id(streamId + ":" + event.sequence())
+                .event(event.event())
+                .data(event.message())
+                .build();
+    }
+
+    /**
+     * Estimated in-memory size of a message: its JSON size.
+     */
+    private int estimateBytes(StreamMessage message) {
+        try {
+            return objectMapper.writeValueAsBytes(message).length;
+        } catch (JacksonException e) {
+            return FALLBACK_EVENT_BYTES;
+        }
+    }
+
+    private List<Event> decode(List<String> stored) {
+        List<Event> events = new ArrayList<>(stored.size());
+        for (String json : stored) {
+            try {
+                StoredEvent event = objectMapper.readValue(json, StoredEvent.class);
+                events.add(new Event(event.sequence(), event.event(), event.message(), json.length()));
+            } catch (JacksonException e) {
+                log.warn("Skipping unreadable replay event: {}", e.getOriginalMessage());
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Drops expired buffers, then evicts buffers until the memory budget is met.
+     */
+    private void enforceBudget() {
+        long now = clock.millis();
+        if (now - lastSweepMillis < SWEEP_INTERVAL_MILLIS && bufferedBytes.get() <= memoryBudgetBytes) {
+            return;
+        }
+        synchronized (entries) {
+            if (now - lastSweepMillis >= SWEEP_INTERVAL_MILLIS) {
+                lastSweepMillis = now;
+                Iterator<Entry> iterator = entries.values().iterator();
+                while (iterator.hasNext()) {
+                    Entry entry = iterator.next();
+                    if (entry.expired(now)) {
+                        iterator.remove();
+                        entry.evict();
+                        expiredEvictions.increment();
+                    }
+                }
+            }
+            // Completed streams first, then running ones, least recently used first
+            for (boolean done : new boolean[]{true, false}) {
+                Iterator<Entry> iterator = entries.values().iterator();
+                while (bufferedBytes.get() > memoryBudgetBytes && iterator.hasNext()) {
+                    Entry entry = iterator.next();
+                    if (entry.isDone() == done) {
+                        iterator.remove();
+                        entry.evict();
+                        budgetEvictions.increment();
+                        log.debug("Evicted replay buffer {} over memory budget", entry.streamId);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Evicts an entry that is still registered and has expired.
+     */
+    private void expire(Entry entry) {
+        synchronized (entries) {
+            if (entries.get(entry.streamId) != entry || !entry.expired(clock.millis())) {
+                return;
+            }
+            entries.remove(entry.streamId);
+        }
+        entry.evict();
+        expiredEvictions.increment();
+        log.debug("Evicted abandoned replay buffer {}", entry.streamId);
+    }
+
+    private void persist(String streamId, String scope, List<Event> events) {
+        if (backend == null || events.isEmpty()) {
+            return;
+        }
+        Schedulers.boundedElastic().schedule(() -> {
+            try {
+                List<String> stored = new ArrayList<>(events.size());
+                for (Event event : events) {
+                    stored.add(objectMapper.writeValueAsString(
+                            new StoredEvent(event.sequence(), event.event(), event.message())));
+                }
+                backend.write(streamId, scope, stored, ttl);
+            } catch (RuntimeException e) {
+                log.warn("Failed to write replay buffer {} to Redis: {}", streamId, e.toString());
+            }
+        });
+    }
+
+    private static Backend redisBackend(RedisTemplate<String, String> redis, String keyPrefix) {
+        if (redis == null) {
+            log.info("No Redis template available, replay buffers are kept in memory only");
+            return null;
+        }
+        return new Backend() {
+            @Override
+            public void write(String streamId, String scope, List<String> events, Duration ttl) {
+                String key = key(streamId, scope);
+                redis.delete(key);
+                redis.opsForList().rightPushAll(key, events);
+                redis.expire(key, ttl);
+            }
+
+            @Override
+            public List<String> read(String streamId, String scope) {
+                List<String> events = redis.opsForList().range(key(streamId, scope), 0, -1);
+                return events != null ? events : List.of();
+            }
+
+            // The scope may hold request parameters, so only a digest of it goes into the key
+            private String key(String streamId, String scope) {
+                return keyPrefix + ":" + streamId + ":"
+                        + UUID.nameUUIDFromBytes(scope.getBytes(StandardCharsets.UTF_8));
+            }
+        };
+    }
+
+    /**
+     * A reader of a stream: the next sequence it receives and its sink.
+     */
+    private static final class Reader {
+        private final FluxSink<Event> sink;
+        private long cursor;
+        private boolean draining;
+        private boolean terminated;
+
+        private Reader(FluxSink<Event> sink) {
+            this.sink = sink;
+        }
+    }
+
+    /**
+     * Buffer, producer and readers of one stream.
+     * <p>
+     * Readers pull: events are only emitted against their demand, and the
+     * source is only asked for more while it is less than {@link #READ_AHEAD}
+     * events ahead of the slowest reader. Without readers the stream keeps
+     * running until the events after the last delivered one fill the buffer.
+     * </p>
+     */
+    private final class Entry {
+        private final String streamId;
+        private final String scope;
+        private final List<Reader> readers = new ArrayList<>();
+        private Event[] ring = new Event[Math.min(16, maxEventsPerStream)];
+        private int size;
+        private long nextSequence;
+        private long detachedCursor;
+        private long bytes;
+        private long lastActiveMillis = clock.millis();
+        private BaseSubscriber<StreamMessage> producer;
+        private boolean subscribed;
+        private long outstanding;
+        private boolean done;
+        private Throwable failure;
+        private boolean evicted;
+
+        private Entry(String streamId, String scope) {
+            this.streamId = streamId;
+            this.scope = scope;
+        }
+
+        /**
+         * Buffered events after {@code after}, then the live tail.
+         */
+        Flux<Event> events(long after) {
+            return Flux.create(sink -> attach(sink, after), FluxSink.OverflowStrategy.ERROR);
+        }
+
+        void attach(FluxSink<Event> sink, long after) {
+            Reader reader = new Reader(sink);
+            synchronized (this) {
+                reader.cursor = Math.max(after + 1, first());
+                readers.add(reader);
+            }
+            sink.onRequest(n -> {
+                drain(reader);
+                pull();
+            });
+            sink.onDispose(() -> detach(reader));
+            drain(reader);
+            pull();
+        }
+
+        /**
+         * Subscribes to the source without requesting anything; demand follows the readers.
+         */
+        void produce(Flux<StreamMessage> source) {
+            BaseSubscriber<StreamMessage> subscriber = new BaseSubscriber<>() {
+                @Override
+                protected void hookOnSubscribe(Subscription subscription) {
+                    synchronized (Entry.this) {
+                        subscribed = true;
+                    }
+                    pull();
+                }
+
+                @Override
+                protected void hookOnNext(StreamMessage message) {
+                    append(message);
+                }
+
+                @Override
+                protected void hookOnError(Throwable error) {
+                    fail(error);
+                }
+
+                @Override
+                protected void hookOnComplete() {
+                    complete();
+                }
+            };
+            synchronized (this) {
+                producer = subscriber;
+            }
+            source.subscribe(subscriber);
+        }
+
+        private void append(StreamMessage message) {
+            int size = estimateBytes(message);
+            synchronized (this) {
+                outstanding = Math.max(0, outstanding - 1);
+                lastActiveMillis = clock.millis();
+                store(new Event(nextSequence, message.type(), message, size));
+                nextSequence++;
+                List.copyOf(readers).forEach(this::drain);
+            }
+            enforceBudget();
+            pull();
+        }
+
+        private void fail(Throwable error) {
+            synchronized (this) {
+                failure = error;
+                lastActiveMillis = clock.millis();
+                List.copyOf(readers).forEach(this::drain);
+            }
+        }
+
+        private void complete() {
+            List<Event> completed;
+            synchronized (this) {
+                done = true;
+                lastActiveMillis = clock.millis();
+                List.copyOf(readers).forEach(this::drain);
+                completed = evicted ? List.of() : buffered();
+            }
+            persist(streamId, scope, completed);
+        }
+
+        /**
+         * Asks the source for as many events as the readers leave room for.
+         */
+        private void pull() {
+            long n;
+            synchronized (this) {
+                if (!subscribed || evicted || isDone()) {
+                    return;
+                }
+                long window = readers.isEmpty() ? maxEventsPerStream : Math.min(READ_AHEAD, maxEventsPerStream);
+                n = window - (nextSequence - lowWater()) - outstanding;
+                if (n <= 0) {
+                    return;
+                }
+                outstanding += n;
+            }
+            producer.request(n);
+        }
+
+        /**
+         * Emits buffered events to a reader as far as its demand goes, then
+         * terminates it once it has caught up with a finished stream.
+         */
+        private synchronized void drain(Reader reader) {
+            if (reader.draining || reader.terminated) {
+                return;
+            }
+            reader.draining = true;
+            try {
+                while (reader.cursor < nextSequence && reader.sink.requestedFromDownstream() > 0
+                        && !reader.sink.isCancelled()) {
+                    if (reader.cursor < first()) {
+                        reader.cursor = first();
+                        continue;
+                    }
+                    reader.sink.next(ring[index(reader.cursor++)]);
+                }
+                if (reader.cursor >= nextSequence && isDone()) {
+                    reader.terminated = true;
+                    readers.remove(reader);
+                    if (failure != null) {
+                        reader.sink.error(failure);
+                    } else {
+                        reader.sink.complete();
+                    }
+                }
+            } finally {
+                reader.draining = false;
+            }
+        }
+
+        private void detach(Reader reader) {
+            boolean abandoned;
+            synchronized (this) {
+                if (!readers.remove(reader)) {
+                    return;
+                }
+                abandoned = readers.isEmpty();
+                if (abandoned) {
+                    detachedCursor = reader.cursor;
+                    lastActiveMillis = clock.millis();
+                }
+            }
+            if (abandoned) {
+                // Nobody may come back or produce another event to trigger a sweep
+                Schedulers.parallel().schedule(() -> expire(this), ttl.toMillis() + 1, TimeUnit.MILLISECONDS);
+            }
+            pull();
+        }
+
+        /**
+         * Sequence of the slowest reader, or where the last one left off.
+         */
+        private long lowWater() {
+            long low = readers.isEmpty() ? detachedCursor : Long.MAX_VALUE;
+            for (Reader reader : readers) {
+                low = Math.min(low, reader.cursor);
+            }
+            return low;
+        }
+
+        private void store(Event event) {
+            if (size == ring.length && ring.length < maxEventsPerStream) {
+                grow();
+            }
+            if (size == ring.length) {
+                resize(-ring[index(first())].bytes());
+                size--;
+            }
+            ring[index(event.sequence())] = event;
+            size++;
+            resize(event.bytes());
+        }
+
+        private void grow() {
+            Event[] grown = new Event[(int) Math.min(ring.length * 2L, maxEventsPerStream)];
+            for (long sequence = first(); sequence < nextSequence; sequence++) {
+                grown[(int) (sequence % grown.length)] = ring[index(sequence)];
+            }
+            ring = grown;
+        }
+
+        private List<Event> buffered() {
+            List<Event> events = new ArrayList<>(size);
+            for (long sequence = first(); sequence < nextSequence; sequence++) {
+                events.add(ring[index(sequence)]);
+            }
+            return events;
+        }
+
+        private long first() {
+            return nextSequence - size;
+        }
+
+        private int index(long sequence) {
+            return (int) (sequence % ring.length);
+        }
+
+        synchronized boolean covers(long after) {
+            return !evicted && after >= first() - 1 && after < nextSequence;
+        }
+
+        synchronized boolean isDone() {
+            return done || failure != null;
+        }
+
+        /**
+         * Whether no reader has been attached for longer than the TTL.
+         */
+        synchronized boolean expired(long now) {
+            return readers.isEmpty() && now - lastActiveMillis > ttl.toMillis();
+        }
+
+        /**
+         * Drops the stream from the memory budget, cancels the source if it is
+         * still running and ends attached readers with an error, so their
+         * clients reconnect and start a new stream.
+         */
+        void evict() {
+            BaseSubscriber<StreamMessage> running;
+            List<Reader> attached;
+            synchronized (this) {
+                if (evicted) {
+                    return;
+                }
+                bufferedBytes.addAndGet(-bytes);
+                bytes = 0;
+                evicted = true;
+                running = isDone() ? null : producer;
+                attached = List.copyOf(readers);
+                readers.clear();
+                attached.forEach(reader -> reader.terminated = true);
+            }
+            if (running != null) {
+                running.dispose();
+            }
+            attached.forEach(reader -> reader.sink.error(
+                    new IllegalStateException("Replay buffer " + streamId + " was evicted")));
+        }
+
+        private void resize(long delta) {
+            if (!evicted) {
+                bytes += delta;
+                bufferedBytes.addAndGet(delta);
+            }
+        }
+    }
+}
@@ -14,7 +14,6 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 
-import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -27,7 +26,7 @@ import java.util.Map;
  * - Progress indicators for long responses
  * - Integration with existing ChatHandler and ConversationMemory
  * - Weather context enrichment for streaming responses
- * - <100ms latency between tokens for natural conversation
+ * - Tokens are forwarded as they arrive; pacing is left to {@link StreamPacer}
  * 
  * @since 2.1.0
  */
@@ -42,7 +41,6 @@ public class StreamingChatService {
     private final ChatHandler chatHandler;
     
     // Configuration from application.yml
-    private final long tokenDelayMs;
     private final int maxTokensPerChunk;
     private final boolean enableProgress;
     
@@ -56,7 +54,6 @@ public class StreamingChatService {
         this.chatHandler = chatHandler;
         
         // Load from configuration (with defaults)
-        this.tokenDelayMs = 50; // 50ms delay between chunks
         this.maxTokensPerChunk = 10; // 10 tokens per chunk
         this.enableProgress = true;
     }
@@ -79,7 +76,6 @@ public class StreamingChatService {
 
             // 2. Stream response from ChatModel with error handling
             streamChatResponse(sessionId, message)
-                .delayElements(Duration.ofMillis(tokenDelayMs))
                 .onErrorResume(err -> {
                     log.error("Error in chat stream response", err);
                     return Flux.just(StreamMessage.error(err.getMessage(), "CHAT_STREAM_ERROR"));
@@ -123,7 +119,6 @@ public class StreamingChatService {
 
             // 5. Stream actual response with error handling
             streamChatResponse(sessionId, message)
-                .delayElements(Duration.ofMillis(tokenDelayMs))
                 .onErrorResume(err -> {
                     log.error("Error in progress chat stream response", err);
                     return Flux.just(StreamMessage.error(err.getMessage(), "CHAT_STREAM_ERROR"));
@@ -171,7 +166,6 @@ public class StreamingChatService {
 
             // 3. Stream response with error handling
             streamChatResponse(sessionId, message)
-                .delayElements(Duration.ofMillis(tokenDelayMs))
                 .onErrorResume(err -> {
                     log.error("Error in context chat stream response", err);
                     return Flux.just(StreamMessage.error(err.getMessage(), "CHAT_STREAM_ERROR"));
@@ -1,6 +1,10 @@
 package com.openmeteo.mcp.service;
 
 import com.openmeteo.mcp.client.OpenMeteoClient;
+import com.openmeteo.mcp.client.UpstreamLimiter.Priority;
+import com.openmeteo.mcp.model.column.TimeAxis;
+import com.openmeteo.mcp.model.dto.DailyWeather;
+import com.openmeteo.mcp.model.dto.HourlyWeather;
 import com.openmeteo.mcp.model.dto.WeatherForecast;
 import com.openmeteo.mcp.model.stream.StreamChunk;
 import com.openmeteo.mcp.model.stream.StreamMessage;
@@ -12,8 +16,8 @@ import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.time.Duration;
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -30,6 +34,7 @@ import java.util.concurrent.atomic.AtomicInteger;
  * - Progress tracking for long operations
  * - Historical data streaming with date ranges
  * - Current conditions and forecast streaming
+ * - Live current conditions shared per grid cell
  * 
  * Streaming approach:
  * - Small responses (< 100 data points): Single chunk
@@ -46,14 +51,17 @@ public class StreamingWeatherService {
     private final OpenMeteoClient client;
     private final WeatherService weatherService;
     private final HistoricalWeatherService historicalWeatherService;
+    private final LiveWeatherHub liveWeatherHub;
 
     public StreamingWeatherService(
             OpenMeteoClient client,
             WeatherService weatherService,
-            HistoricalWeatherService historicalWeatherService) {
+            HistoricalWeatherService historicalWeatherService,
+            LiveWeatherHub liveWeatherHub) {
         this.client = client;
         this.weatherService = weatherService;
         this.historicalWeatherService = historicalWeatherService;
+        this.liveWeatherHub = liveWeatherHub;
     }
 
     /**
@@ -88,12 +96,41 @@ public class StreamingWeatherService {
                 });
     }
 
+    /**
+     * Stream live current weather until the client disconnects.
+     * 
+     * Updates come from the {@link LiveWeatherHub}, which polls each grid
+     * cell once per interval for all of its subscribers.
+     * 
+     * @param latitude Latitude coordinate
+     * @param longitude Longitude coordinate
+     * @param timezone Timezone for time values
+     * @param clientId Client identifier for connection tracking
+     * @return Flux of StreamMessage with one data message per update
+     */
+    public Flux<StreamMessage> watchWeather(double latitude, double longitude, String timezone, String clientId) {
+        String streamId = UUID.randomUUID().toString();
+        log.info("Starting live weather stream: {} (lat={}, lon={})", streamId, latitude, longitude);
+        StreamMetadata metadata = StreamMetadata.of(streamId, "application/json");
+
+        return liveWeatherHub.subscribe(latitude, longitude, timezone, clientId)
+                .map(forecast -> StreamMessage.data(createCurrentWeatherData(forecast), metadata))
+                .concatWith(Mono.fromSupplier(() -> StreamMessage.complete(metadata)))
+                .onErrorResume(error -> {
+                    log.error("Error in live weather stream: {}", streamId, error);
+                    return Flux.just(
+                            StreamMessage.error(error.getMessage(), "WEATHER_WATCH_ERROR"),
+                            StreamMessage.complete()
+                    );
+                });
+    }
+
     /**
      * Stream weather forecast with chunking for large datasets.
      * 
-     * Streams forecast data in chunks based on data size:
-     * - Daily data: One chunk per day
-     * - Hourly data: Chunks of 24 hours
+     * Large forecasts are streamed as one chunk per day, holding that day's
+     * daily values and its hourly values. Chunks are views over the parsed
+     * columns, built when the subscriber requests them.
      * 
      * @param latitude Latitude coordinate
      * @param longitude Longitude coordinate
@@ -130,7 +167,7 @@ public class StreamingWeatherService {
                         );
                     } else {
                         // Large dataset - chunk by day
-                        return streamForecastInChunks(forecast, clampedDays, streamId);
+                        return streamForecastInChunks(forecast, streamId);
                     }
                 })
                 .onErrorResume(error -> {
@@ -145,8 +182,9 @@ public class StreamingWeatherService {
     /**
      * Stream historical weather data for a date range.
      * 
-     * Streams historical data in chunks by date or parameter to handle
-     * large datasets efficiently.
+     * The range is fetched window by window from the archive; each chunk
+     * carries one window's daily rows and the statistics up to that window,
+     * and is sent as soon as the window arrives.
      * 
      * @param latitude Latitude coordinate
      * @param longitude Longitude coordinate
@@ -168,24 +206,12 @@ public class StreamingWeatherService {
         log.info("Starting historical weather stream: {} (lat={}, lon={}, days={})", 
                 streamId, latitude, longitude, dayCount);
 
-        return Mono.fromFuture(historicalWeatherService.getHistoricalWeather(
-                        latitude, longitude, startDate.toString(), endDate.toString(), timezone))
-                .flatMapMany(historicalData -> {
-                    StreamMetadata metadata = StreamMetadata.of(streamId, "application/json");
-                    
-                    // For large date ranges, chunk by month or week
-                    if (dayCount > 365) {
-                        return streamHistoricalInMonthChunks(historicalData, dayCount, streamId);
-                    } else if (dayCount > 90) {
-                        return streamHistoricalInWeekChunks(historicalData, dayCount, streamId);
-                    } else {
-                        // Small range - single chunk
-                        return Flux.just(
-                                StreamMessage.data(historicalData, metadata),
-                                StreamMessage.complete(metadata)
-                        );
-                    }
-                })
+        return historicalWeatherService.streamHistoricalWeather(
+                        latitude, longitude, startDate.toString(), endDate.toString(), timezone, Priority.BATCH)
+                .map(window -> StreamMessage.data(
+                        historicalChunk(window, latitude, longitude, timezone),
+                        StreamMetadata.chunk(streamId, window.index(), window.total())))
+                .concatWith(Mono.fromSupplier(() -> StreamMessage.complete(StreamMetadata.of(streamId))))
                 .onErrorResume(error -> {
                     log.error("Error in historical weather stream: {}", streamId, error);
                     return Flux.just(
@@ -223,12 +249,10 @@ public class StreamingWeatherService {
 
         return Flux.concat(
                 // Step 1: Validation
-                Flux.just(StreamMessage.progress(progress.incrementAndGet(), totalSteps, "Validating coordinates"))
-                        .delayElements(Duration.ofMillis(50)),
+                Flux.just(StreamMessage.progress(progress.incrementAndGet(), totalSteps, "Validating coordinates")),
                 
                 // Step 2: Fetching data
-                Flux.just(StreamMessage.progress(progress.incrementAndGet(), totalSteps, "Fetching weather data"))
-                        .delayElements(Duration.ofMillis(50)),
+                Flux.just(StreamMessage.progress(progress.incrementAndGet(), totalSteps, "Fetching weather data")),
                 
                 // Step 3: Fetch and process
                 Mono.fromFuture(weatherService.getWeather(latitude, longitude, clampedDays, true, timezone))
@@ -269,59 +293,141 @@ public class StreamingWeatherService {
     }
 
     private int estimateDataPoints(WeatherForecast forecast, boolean includeHourly) {
-        int dailyPoints = forecast.daily() != null ? forecast.daily().time().size() : 0;
-        int hourlyPoints = includeHourly && forecast.hourly() != null ? 
-                forecast.hourly().time().size() : 0;
+        int dailyPoints = forecast.daily() != null && forecast.daily().time() != null
+                ? forecast.daily().time().size() : 0;
+        int hourlyPoints = includeHourly && forecast.hourly() != null && forecast.hourly().time() != null
+                ? forecast.hourly().time().size() : 0;
         return dailyPoints + hourlyPoints;
     }
 
-    private Flux<StreamMessage> streamForecastInChunks(WeatherForecast forecast, int days, String streamId) {
-        // Chunk forecast by day
-        List<StreamMessage> chunks = List.of(); // Simplified - would chunk actual data
-        int totalChunks = days;
-        
-        return Flux.range(0, days)
-                .delayElements(Duration.ofMillis(50))
-                .map(dayIndex -> {
-                    StreamMetadata metadata = StreamMetadata.withProgress(streamId, dayIndex + 1, totalChunks);
-                    Map<String, Object> dayData = Map.of(
-                            "day", dayIndex,
-                            "data", "Day " + dayIndex + " forecast data"
-                    );
-                    return StreamMessage.data(dayData, metadata);
-                })
-                .concatWith(Flux.just(StreamMessage.complete(StreamMetadata.of(streamId))));
+    /**
+     * Streams one chunk per forecast day; each chunk is only sliced when it is requested.
+     */
+    private Flux<StreamMessage> streamForecastInChunks(WeatherForecast forecast, String streamId) {
+        List<String> dates = forecast.daily() != null && forecast.daily().time() != null
+                ? forecast.daily().time() : List.of();
+        int totalChunks = dates.size();
+        int[][] hourlyRows = hourlyRowsPerDay(forecast.hourly(), dates);
+
+        return Flux.range(0, totalChunks)
+                .map(day -> StreamMessage.data(
+                        forecastDay(forecast, day, hourlyRows[0][day], hourlyRows[1][day]),
+                        StreamMetadata.chunk(streamId, day, totalChunks)))
+                .concatWith(Mono.fromSupplier(() -> StreamMessage.complete(StreamMetadata.of(streamId))));
     }
 
-    private Flux<StreamMessage> streamHistoricalInMonthChunks(
-            Map<String, Object> historicalData, long dayCount, String streamId) {
-        int monthChunks = (int) Math.ceil(dayCount / 30.0);
-        
-        return Flux.range(0, monthChunks)
-                .delayElements(Duration.ofMillis(100))
-                .map(chunkIndex -> {
-                    StreamMetadata metadata = StreamMetadata.withProgress(streamId, chunkIndex + 1, monthChunks);
-                    return StreamMessage.data(
-                            Map.of("chunk", chunkIndex, "type", "month", "data", historicalData),
-                            metadata
-                    );
-                })
-                .concatWith(Flux.just(StreamMessage.complete(StreamMetadata.of(streamId))));
+    /**
+     * Finds the hourly row range of each day in one pass over the sorted hourly times.
+     *
+     * @return First rows (inclusive) and last rows (exclusive), indexed by day
+     */
+    private static int[][] hourlyRowsPerDay(HourlyWeather hourly, List<String> dates) {
+        int[] from = new int[dates.size()];
+        int[] to = new int[dates.size()];
+        List<String> times = hourly != null && hourly.time() != null ? hourly.time() : List.of();
+        int row = 0;
+        for (int day = 0; day < dates.size(); day++) {
+            long epochDay = epochDay(dates, day);
+            while (row < times.size() && epochDay(times, row) < epochDay) {
+                row++;
+            }
+            from[day] = row;
+            while (row < times.size() && epochDay(times, row) == epochDay) {
+                row++;
+            }
+            to[day] = row;
+        }
+        return new int[][]{from, to};
     }
 
-    private Flux<StreamMessage> streamHistoricalInWeekChunks(
-            Map<String, Object> historicalData, long dayCount, String streamId) {
-        int weekChunks = (int) Math.ceil(dayCount / 7.0);
-        
-        return Flux.range(0, weekChunks)
-                .delayElements(Duration.ofMillis(50))
-                .map(chunkIndex -> {
-                    StreamMetadata metadata = StreamMetadata.withProgress(streamId, chunkIndex + 1, weekChunks);
-                    return StreamMessage.data(
-                            Map.of("chunk", chunkIndex, "type", "week", "data", historicalData),
-                            metadata
-                    );
-                })
-                .concatWith(Flux.just(StreamMessage.complete(StreamMetadata.of(streamId))));
+    private static long epochDay(List<String> times, int row) {
+        if (times instanceof TimeAxis axis) {
+            return Math.floorDiv(axis.epochSecondAt(row), 86_400L);
+        }
+        return LocalDate.parse(times.get(row).substring(0, 10)).toEpochDay();
+    }
+
+    /**
+     * Builds the forecast of one day from views over the parsed columns.
+     */
+    private static WeatherForecast forecastDay(WeatherForecast forecast, int day, int hourFrom, int hourTo) {
+        DailyWeather daily = forecast.daily();
+        HourlyWeather hourly = forecast.hourly();
+        DailyWeather dailySlice = new DailyWeather(
+                slice(daily.time(), day, day + 1),
+                slice(daily.temperature2mMax(), day, day + 1),
+                slice(daily.temperature2mMin(), day, day + 1),
+                slice(daily.apparentTemperatureMax(), day, day + 1),
+                slice(daily.apparentTemperatureMin(), day, day + 1),
+                slice(daily.precipitationSum(), day, day + 1),
+                slice(daily.rainSum(), day, day + 1),
+                slice(daily.snowfallSum(), day, day + 1),
+                slice(daily.weathercode(), day, day + 1),
+                slice(daily.sunrise(), day, day + 1),
+                slice(daily.sunset(), day, day + 1),
+                slice(daily.windspeed10mMax(), day, day + 1),
+                slice(daily.windgusts10mMax(), day, day + 1),
+                slice(daily.winddirection10mDominant(), day, day + 1),
+                slice(daily.precipitationProbabilityMax(), day, day + 1),
+                slice(daily.uvIndexMax(), day, day + 1));
+        HourlyWeather hourlySlice = hourly == null ? null : new HourlyWeather(
+                slice(hourly.time(), hourFrom, hourTo),
+                slice(hourly.temperature2m(), hourFrom, hourTo),
+                slice(hourly.apparentTemperature(), hourFrom, hourTo),
+                slice(hourly.precipitation(), hourFrom, hourTo),
+                slice(hourly.rain(), hourFrom, hourTo),
+                slice(hourly.snowfall(), hourFrom, hourTo),
+                slice(hourly.snowDepth(), hourFrom, hourTo),
+                slice(hourly.weathercode(), hourFrom, hourTo),
+                slice(hourly.cloudCover(), hourFrom, hourTo),
+                slice(hourly.visibility(), hourFrom, hourTo),
+                slice(hourly.windspeed10m(), hourFrom, hourTo),
+                slice(hourly.winddirection10m(), hourFrom, hourTo),
+                slice(hourly.windgusts10m(), hourFrom, hourTo),
+                slice(hourly.surfacePressure(), hourFrom, hourTo),
+                slice(hourly.relativehumidity2m(), hourFrom, hourTo),
+                slice(hourly.dewpoint2m(), hourFrom, hourTo),
+                slice(hourly.precipitationProbability(), hourFrom, hourTo),
+                slice(hourly.uvIndex(), hourFrom, hourTo));
+
+        return new WeatherForecast(
+                forecast.latitude(),
+                forecast.longitude(),
+                forecast.elevation(),
+                forecast.timezone(),
+                forecast.timezoneAbbreviation(),
+                forecast.utcOffsetSeconds(),
+                day == 0 ? forecast.currentWeather() : null,
+                hourlySlice,
+                dailySlice,
+                null);
+    }
+
+    /**
+     * Returns a view of a row range; column lists share their primitive arrays.
+     */
+    private static <T> List<T> slice(List<T> values, int from, int to) {
+        if (values == null) {
+            return null;
+        }
+        return values.subList(Math.min(from, values.size()), Math.min(to, values.size()));
+    }
+
+    /**
+     * Builds the payload of one historical window; the location is only sent with the first.
+     */
+    private static Map<String, Object> historicalChunk(
+            HistoricalWeatherService.WindowData window, double latitude, double longitude, String timezone) {
+        Map<String, Object> chunk = new LinkedHashMap<>();
+        if (window.index() == 0) {
+            chunk.put("latitude", latitude);
+            chunk.put("longitude", longitude);
+            chunk.put("timezone", timezone);
+        }
+        chunk.put("start_date", window.window().start().toString());
+        chunk.put("end_date", window.window().end().toString());
+        chunk.put("daily", window.daily());
+        chunk.put("statistics", window.statistics());
+        return chunk;
     }
 }
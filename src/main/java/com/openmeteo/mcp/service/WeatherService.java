@@ -1,7 +1,10 @@
 package com.openmeteo.mcp.service;
 
 import com.openmeteo.mcp.client.OpenMeteoClient;
+import com.openmeteo.mcp.client.OpenMeteoClient.Served;
+import com.openmeteo.mcp.client.UpstreamLimiter.Priority;
 import com.openmeteo.mcp.model.dto.WeatherForecast;
+import com.openmeteo.mcp.model.request.Coordinates;
 import com.openmeteo.mcp.service.util.ValidationUtil;
 import com.openmeteo.mcp.service.util.WeatherFormatter;
 import com.openmeteo.mcp.service.util.WeatherInterpreter;
@@ -10,6 +13,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
@@ -61,6 +65,35 @@ public class WeatherService {
         return client.getWeather(latitude, longitude, clampedDays, includeHourly, timezone);
     }
 
+    /**
+     * Gets weather forecast in the given lane of the upstream limiter.
+     *
+     * @param latitude      Latitude in decimal degrees
+     * @param longitude     Longitude in decimal degrees
+     * @param forecastDays  Number of forecast days (1-16)
+     * @param includeHourly Whether to include hourly forecast data
+     * @param timezone      Timezone identifier
+     * @param priority      Limiter lane, e.g. PREFETCH for background polling
+     * @return CompletableFuture with WeatherForecast
+     */
+    public CompletableFuture<WeatherForecast> getWeather(
+            double latitude,
+            double longitude,
+            int forecastDays,
+            boolean includeHourly,
+            String timezone,
+            Priority priority
+    ) {
+        ValidationUtil.validateLatitude(latitude);
+        ValidationUtil.validateLongitude(longitude);
+        int clampedDays = ValidationUtil.clampForecastDays(forecastDays, 1, 16);
+
+        log.debug("Getting weather: lat={}, lon={}, days={}, includeHourly={}, priority={}",
+                latitude, longitude, clampedDays, includeHourly, priority);
+
+        return client.getWeather(latitude, longitude, clampedDays, includeHourly, timezone, priority);
+    }
+
     /**
      * Gets weather with interpretation of current conditions.
      *
@@ -78,34 +111,99 @@ public class WeatherService {
             boolean includeHourly,
             String timezone
     ) {
-        return getWeather(latitude, longitude, forecastDays, includeHourly, timezone)
-                .thenApply(forecast -> {
-                    Map<String, Object> result = new HashMap<>();
-                    result.put("forecast", forecast);
-
-                    // Add interpretation if current weather available
-                    if (forecast.currentWeather() != null) {
-                        var current = forecast.currentWeather();
-                        var interpretation = WeatherInterpreter.interpretWeatherCode(
-                                current.weathercode()
-                        );
-
-                        Map<String, Object> interpreted = new HashMap<>();
-                        interpreted.put("description", interpretation.description());
-                        interpreted.put("category", interpretation.category());
-                        interpreted.put("severity", interpretation.severity());
-                        interpreted.put("travel_impact",
-                                WeatherInterpreter.getTravelImpact(current.weathercode()));
-                        interpreted.put("formatted_temperature",
-                                WeatherFormatter.formatTemperature(current.temperature()));
-                        interpreted.put("formatted_wind",
-                                WeatherFormatter.formatWind(current.windspeed(),
-                                        current.winddirection()));
-
-                        result.put("interpretation", interpreted);
-                    }
-
-                    return result;
-                });
+        ValidationUtil.validateLatitude(latitude);
+        ValidationUtil.validateLongitude(longitude);
+        int clampedDays = ValidationUtil.clampForecastDays(forecastDays, 1, 16);
+
+        log.info("Getting weather: lat={}, lon={}, days={}, includeHourly={}",
+                latitude, longitude, clampedDays, includeHourly);
+
+        return client.serveWeather(latitude, longitude, clampedDays, includeHourly, timezone, Priority.INTERACTIVE)
+                .thenApply(this::interpret);
+    }
+
+    /**
+     * Gets weather forecasts for multiple locations using batched upstream calls.
+     *
+     * @param locations     Locations to fetch
+     * @param forecastDays  Number of forecast days (1-16)
+     * @param includeHourly Whether to include hourly forecast data
+     * @param timezone      Timezone identifier
+     * @return CompletableFuture with one WeatherForecast per location, in input order
+     */
+    public CompletableFuture<List<WeatherForecast>> getWeatherBatch(
+            List<Coordinates> locations,
+            int forecastDays,
+            boolean includeHourly,
+            String timezone
+    ) {
+        // Clamp forecast days to API limits (1-16)
+        int clampedDays = ValidationUtil.clampForecastDays(forecastDays, 1, 16);
+
+        log.info("Getting weather batch: locations={}, days={}, includeHourly={}",
+                locations.size(), clampedDays, includeHourly);
+
+        return client.getWeatherBatch(locations, clampedDays, includeHourly, timezone);
+    }
+
+    /**
+     * Gets weather with interpretation for multiple locations using batched upstream calls.
+     *
+     * @param locations     Locations to fetch
+     * @param forecastDays  Number of forecast days (1-16)
+     * @param includeHourly Whether to include hourly forecast data
+     * @param timezone      Timezone identifier
+     * @return CompletableFuture with enriched weather data per location, in input order
+     */
+    public CompletableFuture<List<Map<String, Object>>> getWeatherBatchWithInterpretation(
+            List<Coordinates> locations,
+            int forecastDays,
+            boolean includeHourly,
+            String timezone
+    ) {
+        int clampedDays = ValidationUtil.clampForecastDays(forecastDays, 1, 16);
+
+        log.info("Getting weather batch: locations={}, days={}, includeHourly={}",
+                locations.size(), clampedDays, includeHourly);
+
+        return client.serveWeatherBatch(locations, clampedDays, includeHourly, timezone)
+                .thenApply(forecasts -> forecasts.stream()
+                        .map(this::interpret)
+                        .toList());
+    }
+
+    /**
+     * Wraps a forecast with an interpretation of its current conditions.
+     * Adds a staleness marker if the forecast is a last known good fallback.
+     */
+    private Map<String, Object> interpret(Served<WeatherForecast> served) {
+        WeatherForecast forecast = served.value();
+        Map<String, Object> result = new HashMap<>();
+        result.put("forecast", forecast);
+        served.staleness().ifPresent(staleness -> result.put("staleness", staleness));
+
+        // Add interpretation if current weather available
+        if (forecast.currentWeather() != null) {
+            var current = forecast.currentWeather();
+            var interpretation = WeatherInterpreter.interpretWeatherCode(
+                    current.weathercode()
+            );
+
+            Map<String, Object> interpreted = new HashMap<>();
+            interpreted.put("description", interpretation.description());
+            interpreted.put("category", interpretation.category());
+            interpreted.put("severity", interpretation.severity());
+            interpreted.put("travel_impact",
+                    WeatherInterpreter.getTravelImpact(current.weathercode()));
+            interpreted.put("formatted_temperature",
+                    WeatherFormatter.formatTemperature(current.temperature()));
+            interpreted.put("formatted_wind",
+                    WeatherFormatter.formatWind(current.windspeed(),
+                            current.winddirection()));
+
+            result.put("interpretation", interpreted);
+        }
+
+        return result;
     }
 }
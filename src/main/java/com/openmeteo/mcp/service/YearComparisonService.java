@@ -0,0 +1,303 @@
+package com.openmeteo.mcp.service;
+
+import com.openmeteo.mcp.client.UpstreamLimiter.Priority;
+import com.openmeteo.mcp.model.column.DoubleColumn;
+import com.openmeteo.mcp.service.util.ValidationUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Service comparing the same calendar window across several years.
+ * <p>
+ * Each year's window (e.g. Dec 20 - Jan 5) is a separate request to
+ * {@link HistoricalWeatherService}, so days held by the {@link ArchiveStore}
+ * are served locally and only the missing days are fetched. The windows
+ * are disjoint and run in parallel, at most {@code concurrency} at a time,
+ * in the batch lane of the upstream limiter. Only per-year aggregates are
+ * returned, not the daily data.
+ * </p>
+ */
+@Service
+public class YearComparisonService {
+
+    private static final Logger log = LoggerFactory.getLogger(YearComparisonService.class);
+    private static final double RAINY_DAY_MM = 0.1;
+
+    /**
+     * Calendar window of one year.
+     *
+     * @param label Year label, e.g. {@code 2023} or {@code 2023/24} for windows spanning New Year
+     * @param start First day (inclusive)
+     * @param end   Last day (inclusive)
+     */
+    record YearWindow(String label, LocalDate start, LocalDate end) {
+    }
+
+    private final HistoricalWeatherService historicalWeatherService;
+    private final int maxYears;
+    private final int concurrency;
+    private final Clock clock;
+
+    public YearComparisonService(
+            HistoricalWeatherService historicalWeatherService,
+            @Value("${openmeteo.compare-years.max-years:30}") int maxYears,
+            @Value("${openmeteo.compare-years.concurrency:4}") int concurrency) {
+        this(historicalWeatherService, maxYears, concurrency, Clock.systemUTC());
+    }
+
+    YearComparisonService(HistoricalWeatherService historicalWeatherService, int maxYears, int concurrency,
+                          Clock clock) {
+        this.historicalWeatherService = historicalWeatherService;
+        this.maxYears = Math.max(1, maxYears);
+        this.concurrency = Math.max(1, concurrency);
+        this.clock = clock;
+    }
+
+    /**
+     * Compares a calendar window over the most recent years for which it is complete.
+     *
+     * @param latitude  Latitude in decimal degrees
+     * @param longitude Longitude in decimal degrees
+     * @param startDay  First day of the window (MM-DD)
+     * @param endDay    Last day of the window (MM-DD); before startDay if the window spans New Year
+     * @param years     Number of years to compare
+     * @param timezone  Timezone for the daily aggregation
+     * @return CompletableFuture with per-year aggregates and a summary
+     */
+    public CompletableFuture<Map<String, Object>> compareYears(
+            double latitude,
+            double longitude,
+            String startDay,
+            String endDay,
+            int years,
+            String timezone) {
+        ValidationUtil.validateLatitude(latitude);
+        ValidationUtil.validateLongitude(longitude);
+        int clampedYears = Math.clamp(years, 1, maxYears);
+
+        log.info("Comparing years: lat={}, lon={}, window={}..{}, years={}, tz={}",
+                latitude, longitude, startDay, endDay, clampedYears, timezone);
+
+        List<YearWindow> windows = windows(parseDay(startDay), parseDay(endDay), clampedYears);
+        // Several years are bulk work; keep them out of the interactive lane
+        Priority priority = windows.size() > 1 ? Priority.BATCH : Priority.INTERACTIVE;
+
+        return Flux.fromIterable(windows)
+                .flatMapSequential(window -> Mono.fromFuture(() -> historicalWeatherService.getHistoricalWeather(
+                                        latitude, longitude, window.start().toString(), window.end().toString(),
+                                        timezone, priority))
+                                .map(response -> aggregate(window, response))
+                                .onErrorResume(e -> Mono.just(failed(window, e))),
+                        concurrency)
+                .collectList()
+                .map(results -> comparison(latitude, longitude, timezone, startDay, endDay, results))
+                .toFuture();
+    }
+
+    /**
+     * Resolves the most recent complete windows, oldest first.
+     */
+    List<YearWindow> windows(MonthDay startDay, MonthDay endDay, int years) {
+        boolean spansNewYear = endDay.isBefore(startDay);
+        LocalDate yesterday = LocalDate.now(clock).minusDays(1);
+        int lastYear = yesterday.getYear();
+        while (window(startDay, endDay, spansNewYear, lastYear).end().isAfter(yesterday)) {
+            lastYear--;
+        }
+
+        List<YearWindow> windows = new ArrayList<>();
+        for (int year = Math.max(1940, lastYear - years + 1); year <= lastYear; year++) {
+            windows.add(window(startDay, endDay, spansNewYear, year));
+        }
+        return windows;
+    }
+
+    private static YearWindow window(MonthDay startDay, MonthDay endDay, boolean spansNewYear, int year) {
+        // MonthDay.atYear maps February 29 to February 28 in common years
+        if (spansNewYear) {
+            return new YearWindow(year + "/" + String.format("%02d", (year + 1) % 100),
+                    startDay.atYear(year), endDay.atYear(year + 1));
+        }
+        return new YearWindow(String.valueOf(year), startDay.atYear(year), endDay.atYear(year));
+    }
+
+    private static MonthDay parseDay(String day) {
+        try {
+            String text = day.trim();
+            return MonthDay.parse("--" + (text.length() > 5 ? text.substring(text.length() - 5) : text));
+        } catch (DateTimeParseException | NullPointerException e) {
+            throw new IllegalArgumentException("Invalid day '" + day + "'. Use MM-DD format", e);
+        }
+    }
+
+    /**
+     * Aggregates the daily columns of one year's window.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> aggregate(YearWindow window, Map<String, Object> response) {
+        if (response.containsKey("error")) {
+            return failed(window, new IllegalStateException(String.valueOf(response.get("message"))));
+        }
+        Map<String, Object> daily = (Map<String, Object>) response.getOrDefault("daily", Map.of());
+        Function<String, List<Double>> column = name ->
+                daily.get(name) instanceof List<?> list ? (List<Double>) list : List.of();
+        List<Double> maxTemperature = column.apply("temperature_2m_max");
+        List<Double> minTemperature = column.apply("temperature_2m_min");
+        List<Double> meanTemperature = column.apply("temperature_2m_mean");
+        List<Double> precipitation = column.apply("precipitation_sum");
+        List<Double> snowfall = column.apply("snowfall_sum");
+        List<Double> windGusts = column.apply("windgusts_10m_max");
+
+        Accumulator max = new Accumulator();
+        Accumulator min = new Accumulator();
+        Accumulator mean = new Accumulator();
+        Accumulator rain = new Accumulator();
+        Accumulator snow = new Accumulator();
+        Accumulator gusts = new Accumulator();
+        int rainyDays = 0;
+        int frostDays = 0;
+        int days = daily.get("time") instanceof List<?> time ? time.size() : 0;
+        for (int row = 0; row < days; row++) {
+            max.add(maxTemperature, row);
+            double low = min.add(minTemperature, row);
+            mean.add(meanTemperature, row);
+            double wet = rain.add(precipitation, row);
+            snow.add(snowfall, row);
+            gusts.add(windGusts, row);
+            if (low < 0) {
+                frostDays++;
+            }
+            if (wet > RAINY_DAY_MM) {
+                rainyDays++;
+            }
+        }
+
+        Map<String, Object> year = new LinkedHashMap<>();
+        year.put("year", window.label());
+        year.put("start_date", window.start().toString());
+        year.put("end_date", window.end().toString());
+        year.put("days", days);
+        year.put("mean_temperature", round(mean.mean()));
+        year.put("mean_max_temperature", round(max.mean()));
+        year.put("mean_min_temperature", round(min.mean()));
+        year.put("highest_temperature", round(max.max));
+        year.put("lowest_temperature", round(min.min));
+        year.put("frost_days", frostDays);
+        year.put("precipitation_total_mm", round(rain.total()));
+        year.put("rainy_days", rainyDays);
+        year.put("snowfall_total_cm", round(snow.total()));
+        year.put("max_wind_gust_kmh", round(gusts.max));
+        return year;
+    }
+
+    private static Map<String, Object> failed(YearWindow window, Throwable error) {
+        log.warn("Year {} of comparison failed: {}", window.label(), error.toString());
+        Map<String, Object> year = new LinkedHashMap<>();
+        year.put("year", window.label());
+        year.put("start_date", window.start().toString());
+        year.put("end_date", window.end().toString());
+        year.put("error", String.valueOf(error.getMessage()));
+        return year;
+    }
+
+    /**
+     * Puts the years side by side and ranks them.
+     */
+    private static Map<String, Object> comparison(double latitude, double longitude, String timezone,
+                                                  String startDay, String endDay,
+                                                  List<Map<String, Object>> years) {
+        List<Map<String, Object>> complete = years.stream()
+                .filter(year -> !year.containsKey("error"))
+                .toList();
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("years_compared", complete.size());
+        summary.put("warmest", extreme(complete, "mean_temperature", true));
+        summary.put("coldest", extreme(complete, "mean_temperature", false));
+        summary.put("wettest", extreme(complete, "precipitation_total_mm", true));
+        summary.put("driest", extreme(complete, "precipitation_total_mm", false));
+        summary.put("snowiest", extreme(complete, "snowfall_total_cm", true));
+        summary.put("average_mean_temperature", average(complete, "mean_temperature"));
+        summary.put("average_precipitation_total_mm", average(complete, "precipitation_total_mm"));
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("latitude", latitude);
+        result.put("longitude", longitude);
+        result.put("timezone", timezone);
+        result.put("window", startDay + ".." + endDay);
+        result.put("years", years);
+        result.put("summary", summary);
+        return result;
+    }
+
+    private static Object extreme(List<Map<String, Object>> years, String key, boolean highest) {
+        Comparator<Map<String, Object>> byValue = Comparator.comparingDouble(year -> (Double) year.get(key));
+        return years.stream()
+                .filter(year -> year.get(key) != null)
+                .max(highest ? byValue : byValue.reversed())
+                .map(year -> year.get("year"))
+                .orElse(null);
+    }
+
+    private static Double average(List<Map<String, Object>> years, String key) {
+        OptionalDouble average = years.stream()
+                .filter(year -> year.get(key) != null)
+                .mapToDouble(year -> (Double) year.get(key))
+                .average();
+        return average.isPresent() ? round(average.getAsDouble()) : null;
+    }
+
+    private static Double round(double value) {
+        return Double.isNaN(value) || Double.isInfinite(value) ? null : Math.round(value * 100.0) / 100.0;
+    }
+
+    /**
+     * Sum, extremes and count of the present values of a column.
+     */
+    private static final class Accumulator {
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private int count;
+
+        /**
+         * Adds the value of a row, if present, and returns it (NaN if missing).
+         */
+        double add(List<Double> values, int row) {
+            double value = row < values.size() ? DoubleColumn.valueAt(values, row) : Double.NaN;
+            if (!Double.isNaN(value)) {
+                sum += value;
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+                count++;
+            }
+            return value;
+        }
+
+        double total() {
+            return count > 0 ? sum : Double.NaN;
+        }
+
+        double mean() {
+            return count > 0 ? sum / count : Double.NaN;
+        }
+    }
+}
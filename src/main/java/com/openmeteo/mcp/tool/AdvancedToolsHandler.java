@@ -1,13 +1,17 @@
 package com.openmeteo.mcp.tool;
 
+import com.openmeteo.mcp.client.OpenMeteoClient;
 import com.openmeteo.mcp.helper.AstronomyCalculator;
 import com.openmeteo.mcp.helper.ComfortIndexCalculator;
 import com.openmeteo.mcp.helper.WeatherAlertGenerator;
+import com.openmeteo.mcp.model.request.Coordinates;
 import com.openmeteo.mcp.service.AirQualityService;
+import com.openmeteo.mcp.service.ClimateNormalsService;
 import com.openmeteo.mcp.service.HistoricalWeatherService;
 import com.openmeteo.mcp.service.LocationService;
 import com.openmeteo.mcp.service.MarineConditionsService;
 import com.openmeteo.mcp.service.WeatherService;
+import com.openmeteo.mcp.service.YearComparisonService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.mcp.annotation.McpTool;
@@ -21,7 +25,7 @@ import java.util.concurrent.CompletableFuture;
 /**
  * Advanced MCP Tools Handler providing weather alerts, comfort index, astronomy, and comparison tools.
  *
- * Exposes 7 advanced Open-Meteo MCP tools for AI assistants:
+ * Exposes 9 advanced Open-Meteo MCP tools for AI assistants:
  * 1. get_weather_alerts - Weather alerts based on thresholds
  * 2. get_comfort_index - Outdoor activity comfort score (0-100)
  * 3. get_astronomy - Sunrise, sunset, golden hour, moon phase
@@ -29,6 +33,8 @@ import java.util.concurrent.CompletableFuture;
  * 5. compare_locations - Multi-location weather comparison
  * 6. get_historical_weather - Historical weather data (1940-present)
  * 7. get_marine_conditions - Wave/swell data for lakes and coasts
+ * 8. get_climate_normals - Climate normals and forecast anomalies
+ * 9. compare_years - Same calendar window compared across years
  */
 @Component
 public class AdvancedToolsHandler {
@@ -40,18 +46,24 @@ public class AdvancedToolsHandler {
     private final LocationService locationService;
     private final HistoricalWeatherService historicalWeatherService;
     private final MarineConditionsService marineConditionsService;
+    private final ClimateNormalsService climateNormalsService;
+    private final YearComparisonService yearComparisonService;
 
     public AdvancedToolsHandler(
             WeatherService weatherService,
             AirQualityService airQualityService,
             LocationService locationService,
             HistoricalWeatherService historicalWeatherService,
-            MarineConditionsService marineConditionsService) {
+            MarineConditionsService marineConditionsService,
+            ClimateNormalsService climateNormalsService,
+            YearComparisonService yearComparisonService) {
         this.weatherService = weatherService;
         this.airQualityService = airQualityService;
         this.locationService = locationService;
         this.historicalWeatherService = historicalWeatherService;
         this.marineConditionsService = marineConditionsService;
+        this.climateNormalsService = climateNormalsService;
+        this.yearComparisonService = yearComparisonService;
     }
 
     /**
@@ -358,45 +370,28 @@ public class AdvancedToolsHandler {
         final String finalCriteria = criteria;
         final int finalForecastDays = forecastDays;
 
-        List<CompletableFuture<Map<String, Object>>> futures = locations.stream()
-                .map(loc -> {
-                    String locName = (String) loc.getOrDefault("name", "Unknown");
-                    double lat = ((Number) loc.getOrDefault("latitude", 46.95)).doubleValue();
-                    double lon = ((Number) loc.getOrDefault("longitude", 7.45)).doubleValue();
-
-                    return weatherService.getWeatherWithInterpretation(lat, lon, finalForecastDays, false, "auto")
-                            .thenCombine(
-                                    airQualityService.getAirQualityWithInterpretation(lat, lon, 1, false, "auto"),
-                                    (weather, airQuality) -> {
-                                        @SuppressWarnings("unchecked")
-                                        Map<String, Object> current = (Map<String, Object>) weather.getOrDefault("current", Map.of());
-                                        @SuppressWarnings("unchecked")
-                                        Map<String, Object> currentAqi = (Map<String, Object>) airQuality.getOrDefault("current", Map.of());
-
-                                        var comfortIndex = ComfortIndexCalculator.calculateComfortIndex(current, currentAqi);
-
-                                        return Map.of(
-                                                "name", locName,
-                                                "latitude", lat,
-                                                "longitude", lon,
-                                                "temperature", current.getOrDefault("temperature", 0.0),
-                                                "wind_speed", current.getOrDefault("windspeed", 0.0),
-                                                "weather_code", current.getOrDefault("weathercode", 0),
-                                                "comfort_index", comfortIndex.get("overall"),
-                                                "aqi", currentAqi.getOrDefault("european_aqi", 0.0),
-                                                "recommendation", comfortIndex.get("recommendation")
-                                        );
-                                    })
-                            .exceptionally(ex -> Map.of("name", locName, "error", ex.getMessage()));
-                })
+        List<String> names = locations.stream()
+                .map(loc -> (String) loc.getOrDefault("name", "Unknown"))
+                .toList();
+        List<Coordinates> coordinates = locations.stream()
+                .map(loc -> new Coordinates(
+                        ((Number) loc.getOrDefault("latitude", 46.95)).doubleValue(),
+                        ((Number) loc.getOrDefault("longitude", 7.45)).doubleValue()))
                 .toList();
 
-        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                .thenApply(v -> {
-                    List<Map<String, Object>> results = futures.stream()
-                            .map(CompletableFuture::join)
-                            .collect(java.util.stream.Collectors.toList());
+        // One batched weather call and one batched air quality call per upstream chunk,
+        // so a failed chunk only affects its own locations
+        List<CompletableFuture<List<Map<String, Object>>>> chunks = new java.util.ArrayList<>();
+        for (int from = 0; from < coordinates.size(); from += OpenMeteoClient.MAX_BATCH_LOCATIONS) {
+            int to = Math.min(from + OpenMeteoClient.MAX_BATCH_LOCATIONS, coordinates.size());
+            chunks.add(compareChunk(names.subList(from, to), coordinates.subList(from, to), finalForecastDays));
+        }
 
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]))
+                .thenApply(v -> chunks.stream()
+                        .flatMap(chunk -> chunk.join().stream())
+                        .collect(java.util.stream.Collectors.toList()))
+                .thenApply(results -> {
                     results.sort((a, b) -> {
                         if (a.containsKey("error") || b.containsKey("error")) return 0;
 
@@ -433,6 +428,53 @@ public class AdvancedToolsHandler {
                 });
     }
 
+    /**
+     * Compares one chunk of locations. A failed weather batch marks each location
+     * of the chunk as an error; a failed air quality batch only replaces the AQI
+     * of each location by an {@code air_quality_error}.
+     */
+    private CompletableFuture<List<Map<String, Object>>> compareChunk(
+            List<String> names, List<Coordinates> coordinates, int forecastDays) {
+        var airQuality = airQualityService.getAirQualityBatchWithInterpretation(coordinates, 1, false, "auto")
+                .handle((list, ex) -> ex == null ? list : java.util.Collections.nCopies(coordinates.size(),
+                        Map.<String, Object>of("air_quality_error", String.valueOf(ex.getMessage()))));
+        return weatherService.getWeatherBatchWithInterpretation(coordinates, forecastDays, false, "auto")
+                .thenCombine(airQuality, (weatherList, airQualityList) -> {
+                    List<Map<String, Object>> results = new java.util.ArrayList<>();
+                    for (int i = 0; i < coordinates.size(); i++) {
+                        @SuppressWarnings("unchecked")
+                        Map<String, Object> current = (Map<String, Object>) weatherList.get(i).getOrDefault("current", Map.of());
+                        @SuppressWarnings("unchecked")
+                        Map<String, Object> currentAqi = (Map<String, Object>) airQualityList.get(i).getOrDefault("current", Map.of());
+
+                        var comfortIndex = ComfortIndexCalculator.calculateComfortIndex(current, currentAqi);
+
+                        Map<String, Object> result = new java.util.HashMap<>();
+                        result.put("name", names.get(i));
+                        result.put("latitude", coordinates.get(i).latitude());
+                        result.put("longitude", coordinates.get(i).longitude());
+                        result.put("temperature", current.getOrDefault("temperature", 0.0));
+                        result.put("wind_speed", current.getOrDefault("windspeed", 0.0));
+                        result.put("weather_code", current.getOrDefault("weathercode", 0));
+                        result.put("comfort_index", comfortIndex.get("overall"));
+                        result.put("recommendation", comfortIndex.get("recommendation"));
+                        if (airQualityList.get(i).containsKey("air_quality_error")) {
+                            // Weather is still compared; without an AQI the location ranks last on air quality
+                            result.put("air_quality_error", airQualityList.get(i).get("air_quality_error"));
+                        } else {
+                            result.put("aqi", currentAqi.getOrDefault("european_aqi", 0.0));
+                        }
+                        results.add(result);
+                    }
+                    return results;
+                })
+                .exceptionally(ex -> {
+                    List<Map<String, Object>> results = new java.util.ArrayList<>();
+                    names.forEach(name -> results.add(Map.of("name", name, "error", String.valueOf(ex.getMessage()))));
+                    return results;
+                });
+    }
+
     /**
      * MCP Tool: get_historical_weather
      *
@@ -532,4 +574,91 @@ public class AdvancedToolsHandler {
 
         return marineConditionsService.getMarineConditions(latitude, longitude, forecastDays, timezone);
     }
+
+    /**
+     * MCP Tool: get_climate_normals
+     *
+     * Compares the forecast with the climate normals of the location.
+     */
+    @McpTool(name = "get_climate_normals", description = """
+            Compares the forecast with the climate normals of the location ("is this warmer than usual?").
+
+            Returns the 1991-2020 climatological normals (mean and 10th/25th/50th/75th/90th
+            percentiles) for each forecast day, and the anomaly of the forecast against them.
+
+            DATA PROVIDED:
+            - Normal max/min temperature and precipitation per calendar day
+            - Forecast value, anomaly (forecast minus normal mean) and category per day
+            - Summary: days above the 75th / below the 25th percentile, overall assessment
+
+            CATEGORIES:
+            - Much below normal: below the 10th percentile
+            - Below normal: 10th-25th percentile
+            - Near normal: 25th-75th percentile
+            - Above normal: 75th-90th percentile
+            - Much above normal: above the 90th percentile
+
+            EXAMPLES:
+            - "Is this week warmer than usual in Zurich?"
+            - "How unusual is the rain forecast for Lugano?"
+
+            PERFORMANCE:
+            - Normals are computed once per ~10 km grid cell and stored; the first call
+              for a new location takes longer
+            """)
+    public CompletableFuture<Map<String, Object>> getClimateNormals(
+            @McpToolParam(description = "Latitude in decimal degrees", required = true) double latitude,
+            @McpToolParam(description = "Longitude in decimal degrees", required = true) double longitude,
+            @McpToolParam(description = "Forecast days to compare (1-16, default: 7)") int forecastDays,
+            @McpToolParam(description = "Timezone for timestamps (default: 'auto')") String timezone) {
+        log.info("Tool invoked: get_climate_normals(lat={}, lon={}, days={}, timezone={})",
+                latitude, longitude, forecastDays, timezone);
+
+        if (forecastDays <= 0) forecastDays = 7;
+        if (timezone == null || timezone.isEmpty()) timezone = "auto";
+
+        return climateNormalsService.getClimateNormals(latitude, longitude, forecastDays, timezone);
+    }
+
+    /**
+     * MCP Tool: compare_years
+     *
+     * Compares the same calendar window across several years.
+     */
+    @McpTool(name = "compare_years", description = """
+            Compares the same calendar window (e.g. Dec 20 to Jan 5) across several years.
+
+            Returns one row of aggregates per year side by side, instead of the daily data
+            of one get_historical_weather call per year.
+
+            DATA PROVIDED (per year):
+            - Mean, mean max and mean min temperature; highest and lowest temperature
+            - Frost days, precipitation total, rainy days, snowfall total
+            - Strongest wind gust
+            - Summary: warmest, coldest, wettest, driest and snowiest year, averages
+
+            WINDOW:
+            - Days in MM-DD format; an end day before the start day spans New Year
+            - The most recent complete windows are compared (up to 30 years)
+
+            EXAMPLES:
+            - "Were the last 10 Christmas holidays in Davos white?"
+            - "How does this summer in Zurich compare with the previous 5?"
+            - "Which of the last 20 Augusts was the wettest in Lugano?"
+            """)
+    public CompletableFuture<Map<String, Object>> compareYears(
+            @McpToolParam(description = "Latitude in decimal degrees", required = true) double latitude,
+            @McpToolParam(description = "Longitude in decimal degrees", required = true) double longitude,
+            @McpToolParam(description = "First day of the window in MM-DD format", required = true) String startDay,
+            @McpToolParam(description = "Last day of the window in MM-DD format", required = true) String endDay,
+            @McpToolParam(description = "Number of years to compare (1-30, default: 5)") int years,
+            @McpToolParam(description = "Timezone for timestamps (default: 'auto')") String timezone) {
+        log.info("Tool invoked: compare_years(lat={}, lon={}, window={}..{}, years={}, timezone={})",
+                latitude, longitude, startDay, endDay, years, timezone);
+
+        if (years <= 0) years = 5;
+        if (timezone == null || timezone.isEmpty()) timezone = "auto";
+
+        return yearComparisonService.compareYears(latitude, longitude, startDay, endDay, years, timezone);
+    }
 }
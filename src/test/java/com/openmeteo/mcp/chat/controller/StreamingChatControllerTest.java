@@ -2,6 +2,8 @@ package com.openmeteo.mcp.chat.controller;
 
 import com.openmeteo.mcp.chat.model.AiResponse;
 import com.openmeteo.mcp.chat.service.ChatHandler;
+import com.openmeteo.mcp.service.StreamPacer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -25,7 +27,8 @@ class StreamingChatControllerTest {
 
     @BeforeEach
     void setUp() {
-        controller = new StreamingChatController(chatHandler);
+        controller = new StreamingChatController(chatHandler,
+                new StreamPacer(new SimpleMeterRegistry(), 0, 32, 0, 32));
     }
 
     @Nested
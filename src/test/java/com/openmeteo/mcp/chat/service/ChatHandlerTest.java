@@ -4,10 +4,13 @@ import com.openmeteo.mcp.chat.exception.ChatException;
 import com.openmeteo.mcp.chat.model.*;
 import com.openmeteo.mcp.chat.observability.ChatMetrics;
 import com.openmeteo.mcp.chat.rag.ContextEnrichmentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.ai.chat.model.ChatModel;
@@ -16,6 +19,7 @@ import org.springframework.ai.chat.model.Generation;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.prompt.Prompt;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
@@ -37,7 +41,7 @@ class ChatHandlerTest {
     @Mock
     private ChatModel chatModel;
 
-    @Mock
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
     private ConversationMemoryService memoryService;
 
     @Mock
@@ -50,7 +54,9 @@ class ChatHandlerTest {
 
     @BeforeEach
     void setUp() {
-        chatHandler = new ChatHandler(chatModel, memoryService, contextEnrichment, metrics);
+        var summarizer = new ConversationSummarizer(chatModel, memoryService, new SimpleMeterRegistry(),
+                false, 10, 5, 200);
+        chatHandler = new ChatHandler(chatModel, memoryService, contextEnrichment, metrics, summarizer);
     }
 
     @Nested
@@ -117,8 +123,89 @@ class ChatHandlerTest {
 
             // Assert
             assertThat(result.content()).isEqualTo(aiResponse);
-            // Verify session was updated with location
-            verify(memoryService, atLeast(2)).saveSession(any(ChatSession.class));
+            // Verify session was saved with location
+            var savedSession = ArgumentCaptor.forClass(ChatSession.class);
+            verify(memoryService).saveSession(savedSession.capture());
+            assertThat(savedSession.getValue().context().currentLocation()).isEqualTo("bern");
+        }
+
+        @Test
+        void shouldLoadSessionHistoryAndLocation_concurrently() throws ExecutionException, InterruptedException {
+            // Arrange - the session lookup is still pending
+            String sessionId = "parallel-session";
+            String userMessage = "Weather in Basel?";
+            var pendingSession = new CompletableFuture<Optional<ChatSession>>();
+            when(memoryService.getSession(sessionId)).thenReturn(pendingSession);
+            when(memoryService.getRecentMessages(eq(sessionId), anyInt()))
+                    .thenReturn(CompletableFuture.completedFuture(List.of()));
+            when(memoryService.getSummary(sessionId))
+                    .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+            when(contextEnrichment.extractLocation(userMessage))
+                    .thenReturn(CompletableFuture.completedFuture("basel"));
+            when(contextEnrichment.enrichPrompt(anyString(), any(ConversationContext.class)))
+                    .thenReturn(CompletableFuture.completedFuture("Enriched prompt"));
+            when(memoryService.saveSession(any(ChatSession.class)))
+                    .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+            when(memoryService.saveMessage(any(Message.class)))
+                    .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+            setupChatModelResponse("Basel: 12°C");
+
+            // Act
+            var result = chatHandler.chat(sessionId, userMessage);
+
+            // Assert - history and location were requested before the session arrived
+            verify(memoryService).getRecentMessages(eq(sessionId), anyInt());
+            verify(contextEnrichment).extractLocation(userMessage);
+            verify(chatModel, never()).call(any(Prompt.class));
+            verify(metrics).recordRequestStarted();
+
+            pendingSession.complete(Optional.of(ChatSession.create(sessionId)));
+            assertThat(result.get().content()).isEqualTo("Basel: 12°C");
+            verify(metrics).recordRequestFinished(any(Duration.class));
+        }
+
+        @Test
+        void shouldSendSummaryAndRecentHistory_withPrompt() throws ExecutionException, InterruptedException {
+            // Arrange
+            String sessionId = "summary-session";
+            var session = ChatSession.create(sessionId);
+            setupExistingSessionMocks(sessionId, session, "Still sunny.");
+            when(memoryService.getSummary(sessionId))
+                    .thenReturn(CompletableFuture.completedFuture(Optional.of("User plans a hike near Zurich.")));
+            when(memoryService.getRecentMessages(sessionId, 20))
+                    .thenReturn(CompletableFuture.completedFuture(List.of(
+                            Message.user(sessionId, "And on Sunday?"),
+                            Message.assistant(sessionId, "Sunny, 22°C."))));
+
+            // Act
+            chatHandler.chat(sessionId, "Any change?").get();
+
+            // Assert - the last 10 turns are sent verbatim after the summary
+            var prompt = ArgumentCaptor.forClass(Prompt.class);
+            verify(chatModel).call(prompt.capture());
+            assertThat(prompt.getValue().getContents())
+                    .contains("Summary of earlier conversation:\nUser plans a hike near Zurich.")
+                    .contains("User: And on Sunday?\nAssistant: Sunny, 22°C.")
+                    .endsWith("Enriched prompt");
+        }
+
+        @Test
+        void shouldReturnReply_whenPersistenceFails() throws ExecutionException, InterruptedException {
+            // Arrange
+            String sessionId = "persist-fail-session";
+            String userMessage = "Any rain today?";
+            var session = ChatSession.create(sessionId);
+            setupExistingSessionMocks(sessionId, session, "No rain expected.");
+            when(memoryService.saveMessage(any(Message.class)))
+                    .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Redis down")));
+
+            // Act
+            var result = chatHandler.chat(sessionId, userMessage).get();
+
+            // Assert
+            assertThat(result.content()).isEqualTo("No rain expected.");
+            verify(metrics).recordSuccess();
+            verify(metrics, never()).recordFailure();
         }
 
         @Test
@@ -136,6 +223,8 @@ class ChatHandlerTest {
 
             verify(metrics).recordRequest();
             verify(metrics).recordFailure();
+            verify(metrics).recordRequestFinished(any(Duration.class));
+            verify(memoryService, never()).saveMessage(any(Message.class));
         }
     }
 
@@ -240,9 +329,11 @@ class ChatHandlerTest {
         when(memoryService.saveMessage(any(Message.class)))
                 .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
 
-        // Get recent messages
+        // Get recent messages and summary
         when(memoryService.getRecentMessages(eq(sessionId), anyInt()))
                 .thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(memoryService.getSummary(sessionId))
+                .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
 
         // Context enrichment
         when(contextEnrichment.enrichPrompt(anyString(), any(ConversationContext.class)))
@@ -263,9 +354,11 @@ class ChatHandlerTest {
         when(memoryService.saveMessage(any(Message.class)))
                 .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
 
-        // Get recent messages
+        // Get recent messages and summary
         when(memoryService.getRecentMessages(eq(sessionId), anyInt()))
                 .thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(memoryService.getSummary(sessionId))
+                .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
 
         // Context enrichment
         when(contextEnrichment.extractLocation(anyString()))
@@ -282,15 +375,11 @@ class ChatHandlerTest {
         when(memoryService.getSession(sessionId))
                 .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
 
-        // Save operations
-        when(memoryService.saveSession(any(ChatSession.class)))
-                .thenReturn(CompletableFuture.completedFuture(ChatSession.create(sessionId)));
-        when(memoryService.saveMessage(any(Message.class)))
-                .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
-
-        // Get recent messages
+        // Get recent messages and summary
         when(memoryService.getRecentMessages(eq(sessionId), anyInt()))
                 .thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(memoryService.getSummary(sessionId))
+                .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
 
         // Context enrichment
         when(contextEnrichment.extractLocation(anyString()))
@@ -0,0 +1,91 @@
+package com.openmeteo.mcp.chat.service;
+
+import com.openmeteo.mcp.chat.model.Message;
+import com.openmeteo.mcp.chat.service.VersionedConversationCodec.Format;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the stored encodings of a chat message: plain JSON (the format
+ * before {@link VersionedConversationCodec}), Smile, and Smile with Deflate
+ * above the compression threshold.
+ * <p>
+ * Reports ns/op for encoding and decoding; the encoded sizes are asserted
+ * in {@code VersionedConversationCodecTest}. No Redis is needed.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversationCodecBenchmark {
+
+    private static final String SHORT_REPLY = "Tomorrow in Zurich: 14°C, light rain in the afternoon.";
+    private static final String LONG_REPLY = """
+        Here is the 7-day forecast for Zurich. Monday: 14°C, light rain in the afternoon, \
+        wind 12 km/h from the west. Tuesday: 16°C, partly cloudy, wind 8 km/h. Wednesday: \
+        18°C, sunny, UV index 5. Thursday: 17°C, showers likely in the evening. Friday: \
+        15°C, overcast with drizzle. Saturday: 19°C, sunny, good conditions for hiking. \
+        Sunday: 20°C, sunny with a light breeze. Snow line stays above 2500 m all week.\
+        """.repeat(3);
+
+    @Param({"json-legacy", "smile", "smile-deflate"})
+    public String encoding;
+
+    @Param({"short", "long"})
+    public String size;
+
+    private ObjectMapper objectMapper;
+    private VersionedConversationCodec codec;
+    private Message message;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder().build();
+        // Disabling compression leaves plain Smile
+        codec = new VersionedConversationCodec(objectMapper, Format.SMILE,
+                encoding.equals("smile-deflate") ? 512 : 0);
+        message = message(size);
+        encoded = encode();
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return encoding.equals("json-legacy") ? objectMapper.writeValueAsBytes(message) : codec.encode(message);
+    }
+
+    @Benchmark
+    public Message decode() {
+        // The codec reads legacy JSON itself
+        return codec.decodeMessage(encoded);
+    }
+
+    static Message message(String size) {
+        return Message.assistant("benchmark-session", size.equals("long") ? LONG_REPLY : SHORT_REPLY);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ConversationCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
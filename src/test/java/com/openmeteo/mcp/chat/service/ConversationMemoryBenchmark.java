@@ -0,0 +1,130 @@
+package com.openmeteo.mcp.chat.service;
+
+import com.openmeteo.mcp.chat.model.ChatSession;
+import com.openmeteo.mcp.chat.model.Message;
+import com.openmeteo.mcp.chat.service.ConversationMemoryService.TurnContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the blocking and the reactive Redis conversation stores on the
+ * reads and writes of one chat turn.
+ * <p>
+ * Needs a local Redis stand-in, e.g. {@code docker run -d -p 6379:6379 redis:alpine}
+ * ({@code REDIS_HOST} and {@code REDIS_PORT} override the address). Run with
+ * {@code main} (or any JMH runner). For a turn read the blocking store makes
+ * three round trips (two of them sequential) and for an append two; the reactive
+ * store makes one for each.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversationMemoryBenchmark {
+
+    private static final String SESSION_ID = "benchmark-session";
+    private static final String APPEND_SESSION_ID = "benchmark-append";
+    private static final int HISTORY = 50;
+    private static final int RECENT = 10;
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisConversationMemoryService blocking;
+    private ReactiveRedisConversationMemoryService reactive;
+    private Message message;
+
+    @Setup
+    public void setUp() {
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(
+                System.getenv().getOrDefault("REDIS_HOST", "localhost"),
+                Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379"))));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        var reactiveTemplate = new ReactiveRedisTemplate<>(connectionFactory, RedisSerializationContext
+                .<String, byte[]>newSerializationContext(new StringRedisSerializer())
+                .value(RedisSerializer.byteArray())
+                .build());
+
+        var codec = new VersionedConversationCodec(JsonMapper.builder().build(), "smile", 512);
+        blocking = new RedisConversationMemoryService(template, codec);
+        reactive = new ReactiveRedisConversationMemoryService(reactiveTemplate, codec);
+        message = Message.user(APPEND_SESSION_ID, "What's the weather in Zurich tomorrow?");
+
+        blocking.deleteSession(SESSION_ID).join();
+        blocking.saveSession(ChatSession.create(SESSION_ID)).join();
+        for (int i = 0; i < HISTORY; i++) {
+            blocking.saveMessage(i % 2 == 0
+                    ? Message.user(SESSION_ID, "Question " + i)
+                    : Message.assistant(SESSION_ID, "Answer " + i)).join();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void clearAppends() {
+        blocking.deleteMessages(APPEND_SESSION_ID).join();
+    }
+
+    @TearDown
+    public void tearDown() {
+        blocking.deleteSession(SESSION_ID).join();
+        blocking.deleteSession(APPEND_SESSION_ID).join();
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public TurnContext blockingTurnRead() {
+        return blocking.getTurnContext(SESSION_ID, RECENT).join();
+    }
+
+    @Benchmark
+    public TurnContext reactiveTurnRead() {
+        return reactive.getTurnContext(SESSION_ID, RECENT).join();
+    }
+
+    @Benchmark
+    public Message blockingAppend() {
+        return blocking.saveMessage(message).join();
+    }
+
+    @Benchmark
+    public Message reactiveAppend() {
+        return reactive.saveMessage(message).join();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ConversationMemoryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,159 @@
+package com.openmeteo.mcp.chat.service;
+
+import com.openmeteo.mcp.chat.model.Message;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ConversationSummarizer.
+ */
+@ExtendWith(MockitoExtension.class)
+class ConversationSummarizerTest {
+
+    private static final String SESSION_ID = "long-session";
+
+    @Mock
+    private ChatModel chatModel;
+
+    private InMemoryConversationMemoryService memoryService;
+    private SimpleMeterRegistry meterRegistry;
+    private ConversationSummarizer summarizer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        memoryService = new InMemoryConversationMemoryService(meterRegistry, 50, Long.MAX_VALUE,
+                Duration.ofHours(1), Clock.systemUTC());
+        // Keep 2 turns verbatim, fold once 1 more turn has accumulated
+        summarizer = new ConversationSummarizer(chatModel, memoryService, meterRegistry, true, 2, 1, 100,
+                Runnable::run);
+    }
+
+    private void saveTurns(int turns) {
+        for (int i = 0; i < turns; i++) {
+            memoryService.saveMessage(Message.user(SESSION_ID, "Question " + i)).join();
+            memoryService.saveMessage(Message.assistant(SESSION_ID, "Answer " + i)).join();
+        }
+    }
+
+    private List<String> storedContents() {
+        return memoryService.getMessages(SESSION_ID).join().stream().map(Message::content).toList();
+    }
+
+    private void replyWith(String text) {
+        when(chatModel.call(any(Prompt.class)))
+                .thenReturn(new ChatResponse(List.of(new Generation(new AssistantMessage(text)))));
+    }
+
+    @Test
+    void shouldKeepHistory_untilBatchHasAccumulated() {
+        // Arrange
+        saveTurns(2);
+
+        // Act
+        var compacted = summarizer.compact(SESSION_ID).join();
+
+        // Assert
+        assertThat(compacted).isFalse();
+        assertThat(storedContents()).hasSize(4);
+        verify(chatModel, never()).call(any(Prompt.class));
+    }
+
+    @Test
+    void shouldFoldOlderTurnsIntoSummary_andTrimThem() {
+        // Arrange
+        memoryService.saveSummary(SESSION_ID, "User lives in Bern.").join();
+        saveTurns(3);
+        replyWith("User lives in Bern and asked question 0.");
+
+        // Act
+        var compacted = summarizer.compact(SESSION_ID).join();
+
+        // Assert
+        assertThat(compacted).isTrue();
+        assertThat(storedContents()).containsExactly("Question 1", "Answer 1", "Question 2", "Answer 2");
+        assertThat(memoryService.getSummary(SESSION_ID).join()).contains("User lives in Bern and asked question 0.");
+
+        var prompt = ArgumentCaptor.forClass(Prompt.class);
+        verify(chatModel).call(prompt.capture());
+        assertThat(prompt.getValue().getContents())
+                .contains("at most 100 words")
+                .contains("Summary so far:\nUser lives in Bern.")
+                .contains("User: Question 0\nAssistant: Answer 0")
+                .doesNotContain("Question 1");
+        assertThat(meterRegistry.get("chat.history.compactions").tag("result", "success").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldKeepMessages_whenSummarizationFails() {
+        // Arrange
+        saveTurns(3);
+        when(chatModel.call(any(Prompt.class))).thenThrow(new RuntimeException("LLM Error"));
+
+        // Act
+        var compacted = summarizer.compact(SESSION_ID).join();
+
+        // Assert
+        assertThat(compacted).isFalse();
+        assertThat(storedContents()).hasSize(6);
+        assertThat(memoryService.getSummary(SESSION_ID).join()).isEmpty();
+        assertThat(meterRegistry.get("chat.history.compactions").tag("result", "error").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldDiscardSummary_whenHistoryChangedDuringCompaction() {
+        // Arrange - another compaction trims the history while the summary is written
+        memoryService.saveSummary(SESSION_ID, "User lives in Bern.").join();
+        saveTurns(3);
+        when(chatModel.call(any(Prompt.class))).thenAnswer(invocation -> {
+            var older = memoryService.getOlderMessages(SESSION_ID, 4).join();
+            memoryService.trimMessages(SESSION_ID, older, "Summary from another instance.").join();
+            return new ChatResponse(List.of(new Generation(new AssistantMessage("Duplicate summary."))));
+        });
+
+        // Act
+        var compacted = summarizer.compact(SESSION_ID).join();
+
+        // Assert - the turn is neither kept twice nor summarized twice
+        assertThat(compacted).isFalse();
+        assertThat(storedContents()).containsExactly("Question 1", "Answer 1", "Question 2", "Answer 2");
+        assertThat(memoryService.getSummary(SESSION_ID).join()).contains("Summary from another instance.");
+        assertThat(meterRegistry.get("chat.history.compactions").tag("result", "success").counter().count())
+                .isZero();
+    }
+
+    @Test
+    void shouldNotCompact_whenDisabled() {
+        // Arrange
+        var disabled = new ConversationSummarizer(chatModel, memoryService, meterRegistry, false, 2, 1, 100,
+                Runnable::run);
+        saveTurns(5);
+
+        // Act & Assert
+        assertThat(disabled.compact(SESSION_ID).join()).isFalse();
+        assertThat(storedContents()).hasSize(10);
+        assertThat(disabled.recentMessages()).isEqualTo(4);
+    }
+}
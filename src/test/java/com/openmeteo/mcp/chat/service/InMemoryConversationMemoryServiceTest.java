@@ -2,12 +2,22 @@ package com.openmeteo.mcp.chat.service;
 
 import com.openmeteo.mcp.chat.model.ChatSession;
 import com.openmeteo.mcp.chat.model.Message;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -16,11 +26,24 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 class InMemoryConversationMemoryServiceTest {
     
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
     private InMemoryConversationMemoryService memoryService;
     
     @BeforeEach
     void setUp() {
-        memoryService = new InMemoryConversationMemoryService();
+        clock = new MutableClock(Instant.parse("2024-01-30T12:00:00Z"));
+        meterRegistry = new SimpleMeterRegistry();
+        memoryService = newService(50, Long.MAX_VALUE);
+    }
+    
+    private InMemoryConversationMemoryService newService(int maxMessagesPerSession, long memoryBudgetBytes) {
+        return new InMemoryConversationMemoryService(meterRegistry, maxMessagesPerSession, memoryBudgetBytes,
+            Duration.ofMinutes(60), clock);
+    }
+    
+    private List<String> contents(String sessionId) throws ExecutionException, InterruptedException {
+        return memoryService.getMessages(sessionId).get().stream().map(Message::content).toList();
     }
     
     @Test
@@ -140,4 +163,144 @@ class InMemoryConversationMemoryServiceTest {
         assertEquals("Message A", messagesA.get(0).content());
         assertEquals("Message B", messagesB.get(0).content());
     }
+    
+    @Test
+    void testTrimOldestMessages() throws ExecutionException, InterruptedException {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            memoryService.saveMessage(Message.user("trim-session", "Message " + i)).get();
+        }
+        var older = memoryService.getOlderMessages("trim-session", 3).get();
+        
+        // When
+        var trimmed = memoryService.trimMessages("trim-session", older, "Messages 0 and 1").get();
+        var trimmedAgain = memoryService.trimMessages("trim-session", older, "Messages 0 to 3").get();
+        
+        // Then - the second trim finds other messages at the start and keeps them and the summary
+        assertEquals(List.of("Message 0", "Message 1"), older.stream().map(Message::content).toList());
+        assertTrue(trimmed);
+        assertFalse(trimmedAgain);
+        assertEquals(List.of("Message 2", "Message 3", "Message 4"),
+            memoryService.getMessages("trim-session").get().stream().map(Message::content).toList());
+        assertEquals(Optional.of("Messages 0 and 1"), memoryService.getSummary("trim-session").get());
+    }
+    
+    @Test
+    void testSaveAndDeleteSummary() throws ExecutionException, InterruptedException {
+        // Given
+        memoryService.saveSummary("summary-session", "Talked about Zurich").get();
+        
+        // When
+        var summary = memoryService.getSummary("summary-session").get();
+        memoryService.deleteSession("summary-session").get();
+        
+        // Then
+        assertEquals(Optional.of("Talked about Zurich"), summary);
+        assertTrue(memoryService.getSummary("summary-session").get().isEmpty());
+    }
+    
+    @Test
+    void testRingBufferKeepsLatestMessages() throws ExecutionException, InterruptedException {
+        // Given
+        memoryService = newService(3, Long.MAX_VALUE);
+        
+        // When
+        for (int i = 0; i < 5; i++) {
+            memoryService.saveMessage(Message.user("ring-session", "Message " + i)).get();
+        }
+        
+        // Then
+        assertEquals(List.of("Message 2", "Message 3", "Message 4"), contents("ring-session"));
+        assertEquals(List.of("Message 3", "Message 4"),
+            memoryService.getRecentMessages("ring-session", 2).get().stream().map(Message::content).toList());
+        assertEquals(List.of("Message 2"),
+            memoryService.getOlderMessages("ring-session", 2).get().stream().map(Message::content).toList());
+    }
+    
+    @Test
+    void testConcurrentAppendsAreAllKept() throws ExecutionException, InterruptedException {
+        // Given
+        memoryService = newService(1000, Long.MAX_VALUE);
+        
+        // When
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            CompletableFuture.allOf(IntStream.range(0, 800)
+                .mapToObj(i -> CompletableFuture.runAsync(
+                    () -> memoryService.saveMessage(Message.user("busy-session", "Message " + i)).join(), executor))
+                .toArray(CompletableFuture[]::new)).get();
+        }
+        
+        // Then
+        var stored = contents("busy-session");
+        assertEquals(800, stored.size());
+        assertEquals(800, new HashSet<>(stored).size());
+    }
+    
+    @Test
+    void testEvictsLeastRecentlyUsedSessionOverBudget() throws ExecutionException, InterruptedException {
+        // Given - room for about two sessions of one message each
+        memoryService = newService(50, 700);
+        memoryService.saveMessage(Message.user("session-old", "Hello")).get();
+        clock.advance(Duration.ofSeconds(1));
+        memoryService.saveMessage(Message.user("session-used", "Hello")).get();
+        clock.advance(Duration.ofSeconds(1));
+        memoryService.getMessages("session-old").get();
+        clock.advance(Duration.ofSeconds(1));
+        
+        // When
+        memoryService.saveMessage(Message.user("session-new", "Hello")).get();
+        
+        // Then - the session read most recently survives
+        assertTrue(memoryService.getMessages("session-used").get().isEmpty());
+        assertEquals(1, memoryService.getMessages("session-old").get().size());
+        assertEquals(1, memoryService.getMessages("session-new").get().size());
+        assertEquals(1.0, meterRegistry.get("chat.memory.evictions").tag("reason", "budget").counter().count());
+    }
+    
+    @Test
+    void testSweepRemovesIdleSessions() throws ExecutionException, InterruptedException {
+        // Given
+        memoryService.saveSession(ChatSession.create("idle-session")).get();
+        memoryService.saveMessage(Message.user("idle-session", "Hello")).get();
+        clock.advance(Duration.ofMinutes(30));
+        memoryService.saveSession(ChatSession.create("active-session")).get();
+        clock.advance(Duration.ofMinutes(31));
+        
+        // When
+        memoryService.sweep();
+        
+        // Then
+        assertTrue(memoryService.getSession("idle-session").get().isEmpty());
+        assertTrue(memoryService.getMessages("idle-session").get().isEmpty());
+        assertTrue(memoryService.getSession("active-session").get().isPresent());
+        assertEquals(1.0, meterRegistry.get("chat.memory.evictions").tag("reason", "expired").counter().count());
+    }
+    
+    private static final class MutableClock extends Clock {
+        
+        private Instant now;
+        
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+        
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+        
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+        
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+        
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
 }
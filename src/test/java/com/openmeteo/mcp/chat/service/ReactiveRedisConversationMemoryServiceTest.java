@@ -0,0 +1,169 @@
+package com.openmeteo.mcp.chat.service;
+
+import com.openmeteo.mcp.chat.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveListOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReactiveRedisConversationMemoryService.
+ * Tests cover single round trip reads and writes and error handling.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReactiveRedisConversationMemoryServiceTest {
+
+    @Mock
+    private ReactiveRedisTemplate<String, byte[]> redisTemplate;
+
+    @Mock
+    private ConversationCodec codec;
+
+    @Mock
+    private ReactiveValueOperations<String, byte[]> valueOperations;
+
+    @Mock
+    private ReactiveListOperations<String, byte[]> listOperations;
+
+    private ReactiveRedisConversationMemoryService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ReactiveRedisConversationMemoryService(redisTemplate, codec);
+    }
+
+    @Test
+    void shouldReadSessionSummaryAndRecentMessages_inOneScript() throws Exception {
+        // Arrange
+        var session = ChatSession.create("session-1");
+        var message = Message.user("session-1", "Hello");
+        byte[] sessionData = {0, 1, 1, 0, 0};
+        byte[] messageData = {0, 1, 1, 0, 0, 42};
+        doReturn(Flux.just(List.of(sessionData, utf8("Talked about Zurich"), messageData)))
+                .when(redisTemplate).execute(eq(ReactiveRedisConversationMemoryService.READ_TURN),
+                        eq(List.of("chat:session:session-1", "chat:messages:session-1", "chat:summary:session-1")),
+                        argThat(args -> args.size() == 1 && Arrays.equals((byte[]) args.get(0), utf8("10"))));
+        when(codec.decodeSession(sessionData)).thenReturn(session);
+        when(codec.decodeMessage(messageData)).thenReturn(message);
+
+        // Act
+        var result = service.getTurnContext("session-1", 10).get();
+
+        // Assert
+        assertThat(result.session()).contains(session);
+        assertThat(result.summary()).contains("Talked about Zurich");
+        assertThat(result.recentMessages()).containsExactly(message);
+        verify(redisTemplate, never()).opsForValue();
+        verify(redisTemplate, never()).opsForList();
+    }
+
+    @Test
+    void shouldReturnEmptySession_whenScriptFindsNone() throws Exception {
+        // Arrange - the reply arrives element by element
+        doReturn(Flux.just(new byte[0], new byte[0]))
+                .when(redisTemplate).execute(eq(ReactiveRedisConversationMemoryService.READ_TURN), anyList(), anyList());
+
+        // Act
+        var result = service.getTurnContext("new-session", 10).get();
+
+        // Assert
+        assertThat(result.session()).isEmpty();
+        assertThat(result.summary()).isEmpty();
+        assertThat(result.recentMessages()).isEmpty();
+    }
+
+    @Test
+    void shouldAppendMessage_andRefreshTtl_inOneScript() throws Exception {
+        // Arrange
+        var message = Message.user("session-1", "Hello");
+        byte[] messageData = {0, 1, 1, 0, 0, 42};
+        when(codec.encode(message)).thenReturn(messageData);
+        doReturn(Flux.just(1L))
+                .when(redisTemplate).execute(eq(ReactiveRedisConversationMemoryService.APPEND_MESSAGE),
+                        eq(List.of("chat:messages:session-1", "chat:summary:session-1")),
+                        argThat(args -> args.size() == 2 && args.get(0) == messageData
+                                && Arrays.equals((byte[]) args.get(1),
+                                        utf8(Long.toString(Duration.ofHours(24).toMillis())))));
+
+        // Act
+        var result = service.saveMessage(message).get();
+
+        // Assert
+        assertThat(result).isEqualTo(message);
+    }
+
+    @Test
+    void shouldThrow_whenSaveMessageFails() throws Exception {
+        // Arrange
+        var message = Message.user("session-1", "Hello");
+        when(codec.encode(message))
+                .thenThrow(new IllegalArgumentException("Serialization error"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> service.saveMessage(message).get())
+                .hasCauseInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Failed to save message");
+    }
+
+    @Test
+    void shouldGetRecentMessages_withSingleRange() throws Exception {
+        // Arrange
+        var message = Message.assistant("session-1", "Hi there");
+        when(redisTemplate.opsForList()).thenReturn(listOperations);
+        byte[] messageData = {0, 1, 1, 0, 0, 42};
+        when(listOperations.range("chat:messages:session-1", -2, -1)).thenReturn(Flux.just(messageData));
+        when(codec.decodeMessage(messageData)).thenReturn(message);
+
+        // Act
+        var result = service.getRecentMessages("session-1", 2).get();
+
+        // Assert
+        assertThat(result).containsExactly(message);
+        verify(listOperations, never()).size(anyString());
+    }
+
+    @Test
+    void shouldReturnEmpty_whenSessionNotFound() throws Exception {
+        // Arrange
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("chat:session:not-found")).thenReturn(Mono.empty());
+
+        // Act
+        var result = service.getSession("not-found").get();
+
+        // Assert
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void shouldDeleteSessionMessagesAndSummary_inOneCommand() throws Exception {
+        // Arrange
+        when(redisTemplate.delete("chat:session:s", "chat:messages:s", "chat:summary:s")).thenReturn(Mono.just(3L));
+
+        // Act
+        service.deleteSession("s").get();
+
+        // Assert
+        verify(redisTemplate).delete("chat:session:s", "chat:messages:s", "chat:summary:s");
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
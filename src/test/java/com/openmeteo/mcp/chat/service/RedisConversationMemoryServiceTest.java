@@ -1,7 +1,5 @@
 package com.openmeteo.mcp.chat.service;
 
-import tools.jackson.core.JacksonException;
-import tools.jackson.databind.ObjectMapper;
 import com.openmeteo.mcp.chat.model.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -13,6 +11,7 @@ import org.springframework.data.redis.core.ListOperations;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
@@ -32,22 +31,22 @@ import static org.mockito.Mockito.*;
 class RedisConversationMemoryServiceTest {
 
     @Mock
-    private RedisTemplate<String, String> redisTemplate;
+    private RedisTemplate<String, byte[]> redisTemplate;
 
     @Mock
-    private ObjectMapper objectMapper;
+    private ConversationCodec codec;
 
     @Mock
-    private ValueOperations<String, String> valueOperations;
+    private ValueOperations<String, byte[]> valueOperations;
 
     @Mock
-    private ListOperations<String, String> listOperations;
+    private ListOperations<String, byte[]> listOperations;
 
     private RedisConversationMemoryService service;
 
     @BeforeEach
     void setUp() {
-        service = new RedisConversationMemoryService(redisTemplate, objectMapper);
+        service = new RedisConversationMemoryService(redisTemplate, codec);
     }
 
     @Nested
@@ -57,25 +56,25 @@ class RedisConversationMemoryServiceTest {
         void shouldSaveSession() throws Exception {
             // Arrange
             var session = ChatSession.create("test-session-1");
-            String sessionJson = "{\"sessionId\":\"test-session-1\"}";
+            byte[] sessionData = {0, 1, 1, 0, 0};
 
             when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-            when(objectMapper.writeValueAsString(session)).thenReturn(sessionJson);
+            when(codec.encode(session)).thenReturn(sessionData);
 
             // Act
             var result = service.saveSession(session).get();
 
             // Assert
             assertThat(result).isEqualTo(session);
-            verify(valueOperations).set(eq("chat:session:test-session-1"), eq(sessionJson), any(Duration.class));
+            verify(valueOperations).set(eq("chat:session:test-session-1"), eq(sessionData), any(Duration.class));
         }
 
         @Test
         void shouldThrow_whenSaveSessionFails() throws Exception {
             // Arrange
             var session = ChatSession.create("test-session-1");
-            when(objectMapper.writeValueAsString(session))
-                    .thenThrow(new JacksonException("Serialization error") {});
+            when(codec.encode(session))
+                    .thenThrow(new IllegalArgumentException("Serialization error"));
 
             // Act & Assert
             assertThatThrownBy(() -> service.saveSession(session).get())
@@ -87,11 +86,11 @@ class RedisConversationMemoryServiceTest {
         void shouldGetSession_whenExists() throws Exception {
             // Arrange
             var session = ChatSession.create("test-session-1");
-            String sessionJson = "{\"sessionId\":\"test-session-1\"}";
+            byte[] sessionData = {0, 1, 1, 0, 0};
 
             when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-            when(valueOperations.get("chat:session:test-session-1")).thenReturn(sessionJson);
-            when(objectMapper.readValue(sessionJson, ChatSession.class)).thenReturn(session);
+            when(valueOperations.get("chat:session:test-session-1")).thenReturn(sessionData);
+            when(codec.decodeSession(sessionData)).thenReturn(session);
 
             // Act
             var result = service.getSession("test-session-1").get();
@@ -117,11 +116,11 @@ class RedisConversationMemoryServiceTest {
         @Test
         void shouldReturnEmpty_whenDeserializationFails() throws Exception {
             // Arrange
-            String invalidJson = "invalid-json";
+            byte[] invalidData = "invalid-json".getBytes(StandardCharsets.UTF_8);
             when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-            when(valueOperations.get("chat:session:bad-session")).thenReturn(invalidJson);
-            when(objectMapper.readValue(invalidJson, ChatSession.class))
-                    .thenThrow(new JacksonException("Parse error") {});
+            when(valueOperations.get("chat:session:bad-session")).thenReturn(invalidData);
+            when(codec.decodeSession(invalidData))
+                    .thenThrow(new IllegalArgumentException("Parse error"));
 
             // Act
             var result = service.getSession("bad-session").get();
@@ -136,6 +135,7 @@ class RedisConversationMemoryServiceTest {
             String sessionId = "delete-session";
             when(redisTemplate.delete("chat:session:delete-session")).thenReturn(true);
             when(redisTemplate.delete("chat:messages:delete-session")).thenReturn(true);
+            when(redisTemplate.delete("chat:summary:delete-session")).thenReturn(true);
 
             // Act
             service.deleteSession(sessionId).get();
@@ -143,6 +143,7 @@ class RedisConversationMemoryServiceTest {
             // Assert
             verify(redisTemplate).delete("chat:session:delete-session");
             verify(redisTemplate).delete("chat:messages:delete-session");
+            verify(redisTemplate).delete("chat:summary:delete-session");
         }
     }
 
@@ -153,10 +154,10 @@ class RedisConversationMemoryServiceTest {
         void shouldSaveMessage() throws Exception {
             // Arrange
             var message = Message.user("session-1", "Hello");
-            String messageJson = "{\"content\":\"Hello\"}";
+            byte[] messageData = {0, 1, 1, 0, 0, 42};
 
             when(redisTemplate.opsForList()).thenReturn(listOperations);
-            when(objectMapper.writeValueAsString(message)).thenReturn(messageJson);
+            when(codec.encode(message)).thenReturn(messageData);
             when(redisTemplate.expire(anyString(), any(Duration.class))).thenReturn(true);
 
             // Act
@@ -164,16 +165,17 @@ class RedisConversationMemoryServiceTest {
 
             // Assert
             assertThat(result.content()).isEqualTo("Hello");
-            verify(listOperations).rightPush("chat:messages:session-1", messageJson);
+            verify(listOperations).rightPush("chat:messages:session-1", messageData);
             verify(redisTemplate).expire(eq("chat:messages:session-1"), any(Duration.class));
+            verify(redisTemplate).expire(eq("chat:summary:session-1"), any(Duration.class));
         }
 
         @Test
         void shouldThrow_whenSaveMessageFails() throws Exception {
             // Arrange
             var message = Message.user("session-1", "Hello");
-            when(objectMapper.writeValueAsString(message))
-                    .thenThrow(new JacksonException("Serialization error") {});
+            when(codec.encode(message))
+                    .thenThrow(new IllegalArgumentException("Serialization error"));
 
             // Act & Assert
             assertThatThrownBy(() -> service.saveMessage(message).get())
@@ -184,16 +186,16 @@ class RedisConversationMemoryServiceTest {
         @Test
         void shouldGetMessages() throws Exception {
             // Arrange
-            String msg1Json = "{\"content\":\"Hello\"}";
-            String msg2Json = "{\"content\":\"Hi there\"}";
+            byte[] msg1Data = "{\"content\":\"Hello\"}".getBytes(StandardCharsets.UTF_8);
+            byte[] msg2Data = "{\"content\":\"Hi there\"}".getBytes(StandardCharsets.UTF_8);
             var msg1 = Message.user("session-1", "Hello");
             var msg2 = Message.assistant("session-1", "Hi there");
 
             when(redisTemplate.opsForList()).thenReturn(listOperations);
             when(listOperations.range("chat:messages:session-1", 0, -1))
-                    .thenReturn(List.of(msg1Json, msg2Json));
-            when(objectMapper.readValue(msg1Json, Message.class)).thenReturn(msg1);
-            when(objectMapper.readValue(msg2Json, Message.class)).thenReturn(msg2);
+                    .thenReturn(List.of(msg1Data, msg2Data));
+            when(codec.decodeMessage(msg1Data)).thenReturn(msg1);
+            when(codec.decodeMessage(msg2Data)).thenReturn(msg2);
 
             // Act
             var result = service.getMessages("session-1").get();
@@ -237,8 +239,8 @@ class RedisConversationMemoryServiceTest {
         @Test
         void shouldGetRecentMessages_withLimit() throws Exception {
             // Arrange
-            String msg1Json = "{\"content\":\"Message 1\"}";
-            String msg2Json = "{\"content\":\"Message 2\"}";
+            byte[] msg1Data = "{\"content\":\"Message 1\"}".getBytes(StandardCharsets.UTF_8);
+            byte[] msg2Data = "{\"content\":\"Message 2\"}".getBytes(StandardCharsets.UTF_8);
             var msg1 = Message.user("session-1", "Message 1");
             var msg2 = Message.assistant("session-1", "Message 2");
 
@@ -246,9 +248,9 @@ class RedisConversationMemoryServiceTest {
             when(listOperations.size("chat:messages:session-1")).thenReturn(5L);
             // For limit=2, start should be 5-2=3
             when(listOperations.range("chat:messages:session-1", 3, -1))
-                    .thenReturn(List.of(msg1Json, msg2Json));
-            when(objectMapper.readValue(msg1Json, Message.class)).thenReturn(msg1);
-            when(objectMapper.readValue(msg2Json, Message.class)).thenReturn(msg2);
+                    .thenReturn(List.of(msg1Data, msg2Data));
+            when(codec.decodeMessage(msg1Data)).thenReturn(msg1);
+            when(codec.decodeMessage(msg2Data)).thenReturn(msg2);
 
             // Act
             var result = service.getRecentMessages("session-1", 2).get();
@@ -260,14 +262,14 @@ class RedisConversationMemoryServiceTest {
         @Test
         void shouldReturnAllMessages_whenLessThanLimit() throws Exception {
             // Arrange
-            String msgJson = "{\"content\":\"Only message\"}";
+            byte[] msgData = "{\"content\":\"Only message\"}".getBytes(StandardCharsets.UTF_8);
             var msg = Message.user("session-1", "Only message");
 
             when(redisTemplate.opsForList()).thenReturn(listOperations);
             when(listOperations.size("chat:messages:session-1")).thenReturn(1L);
             when(listOperations.range("chat:messages:session-1", 0, -1))
-                    .thenReturn(List.of(msgJson));
-            when(objectMapper.readValue(msgJson, Message.class)).thenReturn(msg);
+                    .thenReturn(List.of(msgData));
+            when(codec.decodeMessage(msgData)).thenReturn(msg);
 
             // Act
             var result = service.getRecentMessages("session-1", 10).get();
@@ -290,6 +292,63 @@ class RedisConversationMemoryServiceTest {
         }
     }
 
+    @Nested
+    class HistoryCompactionTests {
+
+        @Test
+        void shouldGetOlderMessages_withNegativeEndIndex() throws Exception {
+            // Arrange
+            byte[] msgData = "{\"content\":\"Old message\"}".getBytes(StandardCharsets.UTF_8);
+            var msg = Message.user("session-1", "Old message");
+            when(redisTemplate.opsForList()).thenReturn(listOperations);
+            when(listOperations.range("chat:messages:session-1", 0, -21)).thenReturn(List.of(msgData));
+            when(codec.decodeMessage(msgData)).thenReturn(msg);
+
+            // Act
+            var result = service.getOlderMessages("session-1", 20).get();
+
+            // Assert
+            assertThat(result).containsExactly(msg);
+            verify(listOperations, never()).size(anyString());
+        }
+
+        @Test
+        void shouldTrimOldestMessages_andSaveSummary_withScript() throws Exception {
+            // Arrange
+            var oldest = List.of(Message.user("session-1", "Q"), Message.assistant("session-1", "A"));
+            when(redisTemplate.execute(eq(RedisConversationMemoryService.TRIM_OLDEST),
+                    eq(List.of("chat:messages:session-1", "chat:summary:session-1")),
+                    eq("2".getBytes(StandardCharsets.UTF_8)),
+                    eq(oldest.get(1).id().getBytes(StandardCharsets.UTF_8)),
+                    eq("Asked Q".getBytes(StandardCharsets.UTF_8)),
+                    eq("86400000".getBytes(StandardCharsets.UTF_8))))
+                    .thenReturn(1L);
+
+            // Act
+            var trimmed = service.trimMessages("session-1", oldest, "Asked Q").get();
+
+            // Assert
+            assertThat(trimmed).isTrue();
+        }
+
+        @Test
+        void shouldSaveAndGetSummary() throws Exception {
+            // Arrange
+            when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+            when(valueOperations.get("chat:summary:session-1"))
+                    .thenReturn("Talked about Zurich".getBytes(StandardCharsets.UTF_8));
+
+            // Act
+            service.saveSummary("session-1", "Talked about Zurich").get();
+            var summary = service.getSummary("session-1").get();
+
+            // Assert
+            assertThat(summary).contains("Talked about Zurich");
+            verify(valueOperations).set(eq("chat:summary:session-1"),
+                    eq("Talked about Zurich".getBytes(StandardCharsets.UTF_8)), any(Duration.class));
+        }
+    }
+
     @Nested
     class CleanupTests {
 
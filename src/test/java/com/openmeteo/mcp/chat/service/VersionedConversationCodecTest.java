@@ -0,0 +1,156 @@
+package com.openmeteo.mcp.chat.service;
+
+import com.openmeteo.mcp.chat.model.ChatSession;
+import com.openmeteo.mcp.chat.model.Message;
+import com.openmeteo.mcp.chat.service.VersionedConversationCodec.Format;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for VersionedConversationCodec.
+ */
+class VersionedConversationCodecTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private final VersionedConversationCodec codec = new VersionedConversationCodec(objectMapper, Format.SMILE, 512);
+
+    @Test
+    void shouldRoundTripSessionAndMessage() {
+        // Arrange
+        var session = ChatSession.create("session-1");
+        var message = Message.user("session-1", "What's the weather in Zurich tomorrow?");
+
+        // Act
+        var decodedSession = codec.decodeSession(codec.encode(session));
+        var decodedMessage = codec.decodeMessage(codec.encode(message));
+
+        // Assert
+        assertThat(decodedSession).isEqualTo(session);
+        assertThat(decodedMessage).isEqualTo(message);
+    }
+
+    @Test
+    void shouldEncodeSmaller_thanJson() {
+        // Arrange
+        var message = Message.assistant("session-1", "Tomorrow in Zurich: 14°C, light rain in the afternoon.");
+
+        // Act
+        var encoded = codec.encode(message);
+
+        // Assert
+        assertThat(encoded[2]).isEqualTo((byte) Format.SMILE.ordinal());
+        assertThat(encoded.length).isLessThan(objectMapper.writeValueAsBytes(message).length);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"short", "long"})
+    void shouldEncodeBenchmarkMessages_smallerThanLegacyJson(String size) {
+        // Arrange - the messages of ConversationCodecBenchmark
+        var message = ConversationCodecBenchmark.message(size);
+        var plainSmile = new VersionedConversationCodec(objectMapper, Format.SMILE, 0);
+
+        // Act
+        int json = objectMapper.writeValueAsBytes(message).length;
+        int smile = plainSmile.encode(message).length;
+        int deflated = codec.encode(message).length;
+
+        // Assert
+        assertThat(smile).isLessThan(json);
+        assertThat(deflated).isLessThanOrEqualTo(smile);
+        if (size.equals("long")) {
+            assertThat(deflated).isLessThan(smile / 2);
+        }
+    }
+
+    @Test
+    void shouldBuildSmileMapper_fromApplicationJsonMapper() {
+        // Arrange
+        var timestampMapper = JsonMapper.builder()
+                .enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        var timestampCodec = new VersionedConversationCodec(timestampMapper, Format.SMILE, 0);
+        var message = Message.user("session-1", "Hello");
+
+        // Act
+        var encoded = timestampCodec.encode(message);
+        int offset = 5 + encoded[4];
+        var payload = SmileMapper.builder().build().readTree(encoded, offset, encoded.length - offset);
+
+        // Assert
+        assertThat(payload.get("timestamp").isNumber()).isTrue();
+        assertThat(timestampCodec.decodeMessage(encoded)).isEqualTo(message);
+    }
+
+    @Test
+    void shouldReadLegacyJson() {
+        // Arrange - written by the stores before the codec existed
+        var session = ChatSession.create("session-1");
+        var message = Message.user("session-1", "Hello");
+        var sessionJson = objectMapper.writeValueAsString(session).getBytes(StandardCharsets.UTF_8);
+        var messageJson = objectMapper.writeValueAsString(message).getBytes(StandardCharsets.UTF_8);
+
+        // Act & Assert
+        assertThat(codec.decodeSession(sessionJson)).isEqualTo(session);
+        assertThat(codec.decodeMessage(messageJson)).isEqualTo(message);
+    }
+
+    @Test
+    void shouldCompressLargeMessages_andKeepIdReadable() {
+        // Arrange
+        var message = Message.assistant("session-1", "Sunny with a high of 22°C. ".repeat(100));
+
+        // Act
+        var encoded = codec.encode(message);
+
+        // Assert
+        assertThat(encoded[3] & VersionedConversationCodec.FLAG_DEFLATE).isEqualTo(1);
+        assertThat(encoded.length).isLessThan(message.content().length() / 4);
+        assertThat(new String(encoded, StandardCharsets.ISO_8859_1)).contains(message.id());
+        assertThat(codec.decodeMessage(encoded)).isEqualTo(message);
+    }
+
+    @Test
+    void shouldReadEntries_writtenInAnotherFormat() {
+        // Arrange
+        var jsonCodec = new VersionedConversationCodec(objectMapper, Format.JSON, 0);
+        var message = Message.user("session-1", "Hello");
+
+        // Act
+        var encoded = jsonCodec.encode(message);
+
+        // Assert
+        assertThat(encoded[2]).isEqualTo((byte) Format.JSON.ordinal());
+        assertThat(codec.decodeMessage(encoded)).isEqualTo(message);
+    }
+
+    @Test
+    void shouldThrow_whenVersionIsUnknown() {
+        // Arrange
+        byte[] entry = {VersionedConversationCodec.MARKER, 99, 1, 0, 0};
+
+        // Act & Assert
+        assertThatThrownBy(() -> codec.decodeMessage(entry))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("version");
+    }
+
+    @Test
+    void shouldThrow_whenPayloadIsCorrupt() {
+        // Arrange
+        byte[] entry = {VersionedConversationCodec.MARKER, VersionedConversationCodec.VERSION, 1, 1, 0, 7, 7, 7};
+
+        // Act & Assert
+        assertThatThrownBy(() -> codec.decodeMessage(entry))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,100 @@
+package com.openmeteo.mcp.client;
+
+import com.openmeteo.mcp.exception.OpenMeteoException;
+import com.openmeteo.mcp.model.column.DoubleColumn;
+import com.openmeteo.mcp.model.column.TimeAxis;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for ArchiveResponseDecoder.
+ */
+class ArchiveResponseDecoderTest {
+
+    private static final String RESPONSE = """
+            {"latitude": 47.38, "longitude": 8.54, "generationtime_ms": 0.5, "utc_offset_seconds": 3600,
+             "timezone": "Europe/Zurich", "elevation": 412.0,
+             "hourly_units": {"time": "iso8601", "temperature_2m": "°C"},
+             "hourly": {"time": ["2023-01-01T00:00", "2023-01-01T01:00"], "temperature_2m": [1.5, null]},
+             "daily": {"time": ["2023-01-01"], "sunrise": ["2023-01-01T08:14"], "precipitation_sum": [0.4]}}
+            """;
+
+    private static Flux<DataBuffer> chunks(String json, int size) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += size) {
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(
+                    Arrays.copyOfRange(bytes, offset, Math.min(bytes.length, offset + size))));
+        }
+        return Flux.fromIterable(buffers);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldDecodeByteByByte() {
+        // Arrange
+        List<String> seen = new ArrayList<>();
+
+        // Act
+        Map<String, Object> result = ArchiveResponseDecoder.decode(chunks(RESPONSE, 1),
+                (column, value) -> seen.add(column + "=" + value)).block(Duration.ofSeconds(5));
+
+        // Assert
+        assertThat(result).containsEntry("timezone", "Europe/Zurich")
+                .containsEntry("latitude", 47.38)
+                .containsEntry("utc_offset_seconds", 3600);
+        assertThat((Map<String, Object>) result.get("hourly_units")).containsEntry("temperature_2m", "°C");
+
+        Map<String, Object> hourly = (Map<String, Object>) result.get("hourly");
+        assertThat(hourly.get("time")).isInstanceOf(TimeAxis.class)
+                .isEqualTo(List.of("2023-01-01T00:00", "2023-01-01T01:00"));
+        assertThat(hourly.get("temperature_2m")).isInstanceOf(DoubleColumn.class)
+                .isEqualTo(Arrays.asList(1.5, null));
+
+        Map<String, Object> daily = (Map<String, Object>) result.get("daily");
+        assertThat(daily.get("sunrise")).isEqualTo(List.of("2023-01-01T08:14"));
+        assertThat(seen).containsExactly("temperature_2m=1.5", "precipitation_sum=0.4");
+    }
+
+    @Test
+    void shouldKeepAllNullColumnAsMissingValues() {
+        // Act
+        Map<String, Object> result = ArchiveResponseDecoder.decode(
+                chunks("{\"daily\": {\"snowfall_sum\": [null, null]}}", 8), (column, value) -> {
+                }).block(Duration.ofSeconds(5));
+
+        // Assert
+        assertThat(((Map<?, ?>) result.get("daily")).get("snowfall_sum")).isEqualTo(Arrays.asList(null, null));
+    }
+
+    @Test
+    void shouldFail_whenColumnContainsUnexpectedValue() {
+        // Act & Assert
+        assertThatThrownBy(() -> ArchiveResponseDecoder.decode(
+                chunks("{\"daily\": {\"rain_sum\": [1.0, true]}}", 16), (column, value) -> {
+                }).block(Duration.ofSeconds(5)))
+                .isInstanceOf(OpenMeteoException.class)
+                .hasMessageContaining("rain_sum");
+    }
+
+    @Test
+    void shouldFail_whenBodyIsIncomplete() {
+        // Act & Assert
+        assertThatThrownBy(() -> ArchiveResponseDecoder.decode(
+                chunks("{\"daily\": {\"rain_sum\": [1.0", 16), (column, value) -> {
+                }).block(Duration.ofSeconds(5)))
+                .isInstanceOf(RuntimeException.class);
+    }
+}
@@ -0,0 +1,233 @@
+package com.openmeteo.mcp.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for CircuitBreakerFilter.
+ */
+class CircuitBreakerFilterTest {
+
+    private static final ClientRequest REQUEST =
+            ClientRequest.create(HttpMethod.GET, URI.create("https://api.open-meteo.com/v1/forecast")).build();
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private AtomicInteger exchanges;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock();
+        exchanges = new AtomicInteger();
+    }
+
+    private CircuitBreakerFilter filter(Duration slowCallThreshold, int halfOpenProbes) {
+        return new CircuitBreakerFilter("test", new CircuitBreakerFilter.Settings(
+                0.5, 0.5, slowCallThreshold, 4, 4, Duration.ofSeconds(30), halfOpenProbes), meterRegistry, clock);
+    }
+
+    private ExchangeFunction respond(HttpStatus status) {
+        return request -> {
+            exchanges.incrementAndGet();
+            return Mono.just(ClientResponse.create(status).build());
+        };
+    }
+
+    private ExchangeFunction fail() {
+        return request -> {
+            exchanges.incrementAndGet();
+            return Mono.error(new IOException("Connection reset by peer"));
+        };
+    }
+
+    private void call(CircuitBreakerFilter filter, ExchangeFunction next) {
+        filter.filter(REQUEST, next).onErrorResume(error -> Mono.empty()).block(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void shouldOpen_whenFailureRateReachesThreshold() {
+        // Arrange
+        CircuitBreakerFilter filter = filter(Duration.ofSeconds(5), 1);
+
+        // Act
+        call(filter, respond(HttpStatus.OK));
+        call(filter, respond(HttpStatus.OK));
+        call(filter, respond(HttpStatus.INTERNAL_SERVER_ERROR));
+        call(filter, fail());
+
+        // Assert
+        assertThat(filter.state()).isEqualTo(CircuitBreakerFilter.State.OPEN);
+        assertThat(meterRegistry.get("openmeteo.circuit.transitions").tag("state", "open").counter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("openmeteo.circuit.state").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void shouldStayClosed_beforeMinimumCalls() {
+        // Arrange
+        CircuitBreakerFilter filter = filter(Duration.ofSeconds(5), 1);
+
+        // Act
+        call(filter, fail());
+        call(filter, fail());
+        call(filter, fail());
+
+        // Assert
+        assertThat(filter.state()).isEqualTo(CircuitBreakerFilter.State.CLOSED);
+    }
+
+    @Test
+    void shouldFailFastWithoutCallingUpstream_whenOpen() {
+        // Arrange
+        CircuitBreakerFilter filter = filter(Duration.ofSeconds(5), 1);
+        for (int i = 0; i < 4; i++) {
+            call(filter, fail());
+        }
+        int before = exchanges.get();
+
+        // Act & Assert
+        assertThatThrownBy(() -> filter.filter(REQUEST, respond(HttpStatus.OK)).block(Duration.ofSeconds(5)))
+                .isInstanceOf(CircuitOpenException.class)
+                .hasMessageContaining("test");
+        assertThat(exchanges.get()).isEqualTo(before);
+        assertThat(meterRegistry.get("openmeteo.circuit.rejected").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldOpen_whenSlowCallRateReachesThreshold() {
+        // Arrange
+        CircuitBreakerFilter filter = filter(Duration.ZERO, 1);
+        ExchangeFunction slow = request -> {
+            exchanges.incrementAndGet();
+            return Mono.delay(Duration.ofMillis(5)).thenReturn(ClientResponse.create(HttpStatus.OK).build());
+        };
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            call(filter, slow);
+        }
+
+        // Assert
+        assertThat(filter.state()).isEqualTo(CircuitBreakerFilter.State.OPEN);
+    }
+
+    @Test
+    void shouldCloseAfterSuccessfulProbes() {
+        // Arrange
+        CircuitBreakerFilter filter = filter(Duration.ofSeconds(5), 2);
+        for (int i = 0; i < 4; i++) {
+            call(filter, fail());
+        }
+        clock.advance(Duration.ofSeconds(31));
+        assertThat(filter.state()).isEqualTo(CircuitBreakerFilter.State.HALF_OPEN);
+
+        // Act
+        call(filter, respond(HttpStatus.OK));
+        CircuitBreakerFilter.State afterFirstProbe = filter.state();
+        call(filter, respond(HttpStatus.OK));
+
+        // Assert
+        assertThat(afterFirstProbe).isEqualTo(CircuitBreakerFilter.State.HALF_OPEN);
+        assertThat(filter.state()).isEqualTo(CircuitBreakerFilter.State.CLOSED);
+    }
+
+    @Test
+    void shouldReopen_whenProbeFails() {
+        // Arrange
+        CircuitBreakerFilter filter = filter(Duration.ofSeconds(5), 2);
+        for (int i = 0; i < 4; i++) {
+            call(filter, fail());
+        }
+        clock.advance(Duration.ofSeconds(31));
+
+        // Act
+        call(filter, respond(HttpStatus.SERVICE_UNAVAILABLE));
+
+        // Assert
+        assertThat(filter.state()).isEqualTo(CircuitBreakerFilter.State.OPEN);
+        assertThat(meterRegistry.get("openmeteo.circuit.transitions").tag("state", "open").counter().count())
+                .isEqualTo(2.0);
+    }
+
+    @Test
+    void shouldIgnoreQuotaRejections() {
+        // Arrange
+        CircuitBreakerFilter filter = filter(Duration.ofSeconds(5), 1);
+        ExchangeFunction overQuota = request -> Mono.error(new QuotaExceededException(1000));
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            call(filter, overQuota);
+        }
+
+        // Assert
+        assertThat(filter.state()).isEqualTo(CircuitBreakerFilter.State.CLOSED);
+    }
+
+    @Test
+    void shouldLimitConcurrentProbes_whenHalfOpen() {
+        // Arrange
+        CircuitBreakerFilter filter = filter(Duration.ofSeconds(5), 1);
+        for (int i = 0; i < 4; i++) {
+            call(filter, fail());
+        }
+        clock.advance(Duration.ofSeconds(31));
+        ExchangeFunction pending = request -> {
+            exchanges.incrementAndGet();
+            return Mono.never();
+        };
+
+        // Act
+        var probe = filter.filter(REQUEST, pending).subscribe();
+
+        // Assert
+        assertThatThrownBy(() -> filter.filter(REQUEST, respond(HttpStatus.OK)).block(Duration.ofSeconds(5)))
+                .isInstanceOf(CircuitOpenException.class);
+        probe.dispose();
+        call(filter, respond(HttpStatus.OK));
+        assertThat(filter.state()).isEqualTo(CircuitBreakerFilter.State.CLOSED);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-15T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
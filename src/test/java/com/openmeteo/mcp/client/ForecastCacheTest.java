@@ -0,0 +1,269 @@
+package com.openmeteo.mcp.client;
+
+import com.openmeteo.mcp.client.ForecastCache.DataProduct;
+import com.openmeteo.mcp.client.ForecastCache.ProductPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for ForecastCache.
+ */
+class ForecastCacheTest {
+
+    private static final Map<DataProduct, ProductPolicy> POLICIES = Map.of(
+            DataProduct.FORECAST, new ProductPolicy(Duration.ofMinutes(15).toMillis(), 0.01),
+            DataProduct.AIR_QUALITY, new ProductPolicy(Duration.ofHours(1).toMillis(), 0.1),
+            DataProduct.GEOCODING, new ProductPolicy(Duration.ofDays(1).toMillis(), 0.0));
+
+    private static final long STALE_RETENTION = Duration.ofHours(6).toMillis();
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private ForecastCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(Instant.parse("2024-01-30T12:01:00Z"));
+        cache = new ForecastCache(meterRegistry, true, 3, POLICIES, STALE_RETENTION, clock);
+    }
+
+    @Test
+    void shouldSnapCoordinatesToGridCell() {
+        // Act
+        String a = cache.key(DataProduct.FORECAST, 46.9479, 7.4474, 7);
+        String b = cache.key(DataProduct.FORECAST, 46.948, 7.4475, 7);
+        String other = cache.key(DataProduct.FORECAST, 47.3769, 8.5417, 7);
+
+        // Assert
+        assertThat(a).isEqualTo(b);
+        assertThat(a).isNotEqualTo(other);
+    }
+
+    @Test
+    void shouldLoadOnceAndServeHits() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        String key = cache.key(DataProduct.FORECAST, 46.95, 7.45);
+
+        // Act
+        cache.getOrLoad(DataProduct.FORECAST, key, () -> CompletableFuture.completedFuture(loads.incrementAndGet())).join();
+        Integer second = cache.getOrLoad(DataProduct.FORECAST, key,
+                () -> CompletableFuture.completedFuture(loads.incrementAndGet())).join();
+
+        // Assert
+        assertThat(second).isEqualTo(1);
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("openmeteo.cache.requests")
+                .tag("product", "forecast").tag("result", "hit").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("openmeteo.cache.requests")
+                .tag("product", "forecast").tag("result", "miss").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldExpireAtNextUpdateBoundary() {
+        // Arrange - 12:01 falls in the 12:00-12:15 update window
+        String key = cache.key(DataProduct.FORECAST, 46.95, 7.45);
+        cache.put(DataProduct.FORECAST, key, "value");
+
+        // Act & Assert
+        clock.set(Instant.parse("2024-01-30T12:14:59Z"));
+        assertThat(cache.lookup(DataProduct.FORECAST, key)).isEqualTo("value");
+
+        clock.set(Instant.parse("2024-01-30T12:15:00Z"));
+        assertThat(cache.lookup(DataProduct.FORECAST, key)).isNull();
+        assertThat(meterRegistry.get("openmeteo.cache.evictions")
+                .tag("product", "forecast").tag("cause", "expired").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsed_whenFull() {
+        // Arrange
+        cache.put(DataProduct.GEOCODING, "a", 1);
+        cache.put(DataProduct.GEOCODING, "b", 2);
+        cache.put(DataProduct.GEOCODING, "c", 3);
+        cache.lookup(DataProduct.GEOCODING, "a");
+
+        // Act
+        cache.put(DataProduct.GEOCODING, "d", 4);
+
+        // Assert
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.lookup(DataProduct.GEOCODING, "b")).isNull();
+        assertThat(cache.lookup(DataProduct.GEOCODING, "a")).isEqualTo(1);
+        assertThat(meterRegistry.get("openmeteo.cache.evictions")
+                .tag("product", "geocoding").tag("cause", "size").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldNotCacheFailures() {
+        // Arrange
+        String key = cache.nameKey(DataProduct.GEOCODING, "Zurich");
+
+        // Act
+        assertThatThrownBy(() -> cache.getOrLoad(DataProduct.GEOCODING, key,
+                () -> CompletableFuture.failedFuture(new IllegalStateException("boom"))).join())
+                .hasCauseInstanceOf(IllegalStateException.class);
+
+        // Assert
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void shouldBypass_whenDisabled() {
+        // Arrange
+        ForecastCache disabled = new ForecastCache(meterRegistry, false, 3, POLICIES, STALE_RETENTION, clock);
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        disabled.getOrLoad(DataProduct.FORECAST, "k", () -> CompletableFuture.completedFuture(loads.incrementAndGet())).join();
+        disabled.getOrLoad(DataProduct.FORECAST, "k", () -> CompletableFuture.completedFuture(loads.incrementAndGet())).join();
+
+        // Assert
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void lookupStale_shouldReturnExpiredValueWithinRetention() {
+        // Arrange
+        String key = cache.key(DataProduct.FORECAST, 46.95, 7.45);
+        cache.put(DataProduct.FORECAST, key, "value");
+        clock.set(Instant.parse("2024-01-30T13:01:00Z"));
+
+        // Act
+        Object fresh = cache.lookup(DataProduct.FORECAST, key);
+        ForecastCache.Lookup stale = cache.lookupStale(DataProduct.FORECAST, key, "down");
+
+        // Assert
+        assertThat(fresh).isNull();
+        assertThat(stale.value()).isEqualTo("value");
+        assertThat(stale.staleness()).isPresent();
+        assertThat(meterRegistry.get("openmeteo.cache.requests")
+                .tag("product", "forecast").tag("result", "stale").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void lookupStale_shouldIgnoreValuesPastRetention() {
+        // Arrange
+        String key = cache.key(DataProduct.FORECAST, 46.95, 7.45);
+        cache.put(DataProduct.FORECAST, key, "value");
+        clock.set(Instant.parse("2024-01-30T18:02:00Z"));
+
+        // Act & Assert
+        assertThat(cache.lookupStale(DataProduct.FORECAST, key, "down")).isNull();
+    }
+
+    @Test
+    void lookupStale_shouldDescribeLastKnownGoodValue() {
+        // Arrange
+        String key = cache.key(DataProduct.FORECAST, 46.95, 7.45);
+        cache.put(DataProduct.FORECAST, key, "value");
+        clock.set(Instant.parse("2024-01-30T12:31:00Z"));
+
+        // Act
+        ForecastCache.Lookup stale = cache.lookupStale(DataProduct.FORECAST, key, "down");
+
+        // Assert
+        assertThat(stale.staleness()).hasValueSatisfying(staleness -> {
+            assertThat(staleness.stale()).isTrue();
+            assertThat(staleness.fetchedAt()).isEqualTo("2024-01-30T12:01:00Z");
+            assertThat(staleness.ageSeconds()).isEqualTo(1800);
+            assertThat(staleness.reason()).isEqualTo("down");
+        });
+    }
+
+    @Test
+    void lookupStale_shouldNotMarkValueReadWhileFresh_whenItLaterExpires() {
+        // Arrange
+        String key = cache.key(DataProduct.FORECAST, 46.95, 7.45);
+        cache.put(DataProduct.FORECAST, key, "value");
+
+        // Act - the same value is served fresh, then stale after it expires
+        ForecastCache.Lookup fresh = cache.lookupStale(DataProduct.FORECAST, key, "down");
+        clock.set(Instant.parse("2024-01-30T12:31:00Z"));
+        ForecastCache.Lookup stale = cache.lookupStale(DataProduct.FORECAST, key, "down");
+
+        // Assert
+        assertThat(stale.value()).isSameAs(fresh.value());
+        assertThat(fresh.staleness()).isEmpty();
+        assertThat(stale.staleness()).isPresent();
+    }
+
+    @Test
+    void put_shouldReplaceLastKnownGoodValue() {
+        // Arrange
+        String key = cache.key(DataProduct.FORECAST, 46.95, 7.45);
+        cache.put(DataProduct.FORECAST, key, "old");
+        clock.set(Instant.parse("2024-01-30T12:31:00Z"));
+        cache.purgeExpired();
+
+        // Act
+        cache.put(DataProduct.FORECAST, key, "new");
+
+        // Assert
+        ForecastCache.Lookup lookup = cache.lookupStale(DataProduct.FORECAST, key, "down");
+        assertThat(lookup.value()).isEqualTo("new");
+        assertThat(lookup.staleness()).isEmpty();
+    }
+
+    @Test
+    void purge_shouldMoveExpiredEntries_andDropStaleValuesPastRetention() {
+        // Arrange - never looked up again after the put
+        String expired = cache.key(DataProduct.FORECAST, 46.95, 7.45);
+        String old = cache.key(DataProduct.FORECAST, 47.37, 8.54);
+        cache.put(DataProduct.FORECAST, old, "old");
+        clock.set(Instant.parse("2024-01-30T12:31:00Z"));
+        cache.purge();
+        cache.put(DataProduct.FORECAST, expired, "value");
+        clock.set(Instant.parse("2024-01-30T18:31:00Z"));
+
+        // Act
+        cache.purge();
+
+        // Assert
+        assertThat(cache.size()).isZero();
+        assertThat(cache.lookupStale(DataProduct.FORECAST, expired, "down").value()).isEqualTo("value");
+        assertThat(cache.lookupStale(DataProduct.FORECAST, old, "down")).isNull();
+        assertThat(meterRegistry.get("openmeteo.cache.evictions")
+                .tag("product", "forecast").tag("cause", "expired").counter().count()).isEqualTo(2.0);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void set(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
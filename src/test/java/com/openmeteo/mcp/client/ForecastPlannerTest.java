@@ -0,0 +1,165 @@
+package com.openmeteo.mcp.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for ForecastPlanner.
+ */
+class ForecastPlannerTest {
+
+    private static final ForecastResponse RESPONSE = new ForecastResponse(
+            46.95, 7.45, null, "Europe/Zurich", null, null, null, null, null, null);
+
+    private SimpleMeterRegistry meterRegistry;
+    private List<Set<ForecastVariable>> upstreamCalls;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        upstreamCalls = new ArrayList<>();
+    }
+
+    @Test
+    void shouldMergeRequestsWithinWindowIntoOneUpstreamCall() throws Exception {
+        // Arrange
+        ForecastPlanner planner = new ForecastPlanner(meterRegistry, 100, 0);
+
+        // Act
+        CompletableFuture<ForecastResponse> weather = planner.fetch("bern", ForecastVariable.weather(false), this::record);
+        CompletableFuture<ForecastResponse> snow = planner.fetch("bern", ForecastVariable.snow(true), this::record);
+
+        // Assert
+        assertThat(weather.get(5, TimeUnit.SECONDS)).isSameAs(snow.get(5, TimeUnit.SECONDS));
+        assertThat(upstreamCalls).hasSize(1);
+        assertThat(upstreamCalls.get(0))
+                .containsAll(ForecastVariable.weather(false))
+                .containsAll(ForecastVariable.snow(true));
+        assertThat(meterRegistry.get("openmeteo.planner.requests").tag("result", "merged").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldJoinInFlightPlanThatCoversRequestedVariables() throws Exception {
+        // Arrange
+        ForecastPlanner planner = new ForecastPlanner(meterRegistry, 0, 0);
+        Sinks.One<ForecastResponse> sink = Sinks.one();
+
+        CompletableFuture<ForecastResponse> first = planner.fetch("bern", ForecastVariable.weather(true), vars -> {
+            upstreamCalls.add(vars);
+            return sink.asMono();
+        });
+
+        // Act - snow daily variables are a subset of the in-flight weather plan
+        CompletableFuture<ForecastResponse> second = planner.fetch("bern", ForecastVariable.snow(false), this::record);
+        sink.tryEmitValue(RESPONSE);
+
+        // Assert
+        assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(first.get(5, TimeUnit.SECONDS));
+        assertThat(upstreamCalls).hasSize(1);
+    }
+
+    @Test
+    void shouldStartNewPlanWhenInFlightPlanLacksVariables() throws Exception {
+        // Arrange
+        ForecastPlanner planner = new ForecastPlanner(meterRegistry, 0, 0);
+        Sinks.One<ForecastResponse> sink = Sinks.one();
+
+        planner.fetch("bern", ForecastVariable.weather(false), vars -> {
+            upstreamCalls.add(vars);
+            return sink.asMono();
+        });
+
+        // Act - hourly snow variables are not covered by the daily-only plan
+        CompletableFuture<ForecastResponse> snow = planner.fetch("bern", ForecastVariable.snow(true), this::record);
+
+        // Assert
+        assertThat(snow.get(5, TimeUnit.SECONDS)).isSameAs(RESPONSE);
+        assertThat(upstreamCalls).hasSize(2);
+        sink.tryEmitValue(RESPONSE);
+    }
+
+    @Test
+    void shouldKeepPlansForDifferentKeysSeparate() throws Exception {
+        // Arrange
+        ForecastPlanner planner = new ForecastPlanner(meterRegistry, 50, 0);
+
+        // Act
+        CompletableFuture<ForecastResponse> bern = planner.fetch("bern", ForecastVariable.weather(false), this::record);
+        CompletableFuture<ForecastResponse> zermatt = planner.fetch("zermatt", ForecastVariable.weather(false), this::record);
+        bern.get(5, TimeUnit.SECONDS);
+        zermatt.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(upstreamCalls).hasSize(2);
+        assertThat(planner.activePlans()).isZero();
+    }
+
+    @Test
+    void shouldPropagateUpstreamErrorToAllMergedCallers() {
+        // Arrange
+        ForecastPlanner planner = new ForecastPlanner(meterRegistry, 50, 0);
+
+        // Act
+        CompletableFuture<ForecastResponse> first = planner.fetch("bern", EnumSet.of(ForecastVariable.DAILY_SUNRISE),
+                vars -> Mono.error(new IllegalStateException("upstream failed")));
+        CompletableFuture<ForecastResponse> second = planner.fetch("bern", EnumSet.of(ForecastVariable.DAILY_SUNSET),
+                vars -> Mono.error(new IllegalStateException("unused")));
+
+        // Assert
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasMessageContaining("upstream failed");
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).hasMessageContaining("upstream failed");
+    }
+
+    @Test
+    void shouldServeLaterCoveredRequestFromRetainedResponse() throws Exception {
+        // Arrange - an hourly weather forecast for a ski trip
+        ForecastPlanner planner = new ForecastPlanner(meterRegistry, 0, 60_000);
+        ForecastResponse weather = planner.fetch("zermatt", ForecastVariable.weather(true), this::record)
+                .get(5, TimeUnit.SECONDS);
+
+        // Act - the daily snow report follows after the weather call completed
+        ForecastResponse snow = planner.fetch("zermatt", ForecastVariable.snow(false), this::record)
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(snow).isSameAs(weather);
+        assertThat(upstreamCalls).hasSize(1);
+        assertThat(meterRegistry.get("openmeteo.planner.requests").tag("result", "retained").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldFetchAgain_whenRetainedResponseLacksVariables() throws Exception {
+        // Arrange
+        ForecastPlanner planner = new ForecastPlanner(meterRegistry, 0, 60_000);
+        planner.fetch("zermatt", ForecastVariable.weather(false), this::record).get(5, TimeUnit.SECONDS);
+
+        // Act - hourly snow variables are not in the daily-only response
+        planner.fetch("zermatt", ForecastVariable.snow(true), this::record).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(upstreamCalls).hasSize(2);
+        assertThat(planner.activePlans()).isEqualTo(1);
+    }
+
+    private Mono<ForecastResponse> record(Set<ForecastVariable> variables) {
+        synchronized (upstreamCalls) {
+            upstreamCalls.add(variables);
+        }
+        return Mono.just(RESPONSE);
+    }
+}
@@ -0,0 +1,205 @@
+package com.openmeteo.mcp.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.PrematureCloseException;
+
+import java.io.IOException;
+import java.net.SocketException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for HedgingRetryFilter.
+ */
+class HedgingRetryFilterTest {
+
+    private MockWebServer mockServer;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mockServer = new MockWebServer();
+        mockServer.start();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mockServer.shutdown();
+    }
+
+    private HedgingRetryFilter filter(boolean hedgeEnabled, int minSamples, double budgetRatio) {
+        return new HedgingRetryFilter("test", new HedgingRetryFilter.Settings(
+                hedgeEnabled, 0.5, Duration.ofMillis(20), minSamples,
+                2, Duration.ofMillis(10), Duration.ofMillis(50), 0.5,
+                budgetRatio, 10), meterRegistry);
+    }
+
+    private WebClient webClient(HedgingRetryFilter filter) {
+        // reactor-netty's own single retry would hide connection resets from the filter
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create().disableRetry(true)))
+                .baseUrl(mockServer.url("/").toString())
+                .filter(filter)
+                .build();
+    }
+
+    private String get(WebClient webClient) {
+        return webClient.get()
+                .uri("/forecast")
+                .exchangeToMono(response -> response.bodyToMono(String.class)
+                        .defaultIfEmpty("")
+                        .map(body -> response.statusCode().value() + ":" + body))
+                .block(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void shouldRetryServerErrorWithinBudget() {
+        // Arrange
+        mockServer.enqueue(new MockResponse().setResponseCode(503));
+        mockServer.enqueue(new MockResponse().setResponseCode(200).setBody("ok"));
+        WebClient webClient = webClient(filter(false, 1, 1.0));
+
+        // Act
+        String result = get(webClient);
+
+        // Assert
+        assertThat(result).isEqualTo("200:ok");
+        assertThat(mockServer.getRequestCount()).isEqualTo(2);
+        assertThat(meterRegistry.get("openmeteo.http.retries").tag("reason", "status").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldReturnServerError_whenBudgetIsExhausted() {
+        // Arrange
+        mockServer.enqueue(new MockResponse().setResponseCode(500).setBody("boom"));
+        WebClient webClient = webClient(filter(false, 1, 0.0));
+
+        // Act
+        String result = get(webClient);
+
+        // Assert
+        assertThat(result).isEqualTo("500:boom");
+        assertThat(mockServer.getRequestCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("openmeteo.http.retry.budget.exhausted").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldReturnLastServerError_whenRetriesAreUsedUp() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            mockServer.enqueue(new MockResponse().setResponseCode(502).setBody("bad gateway " + i));
+        }
+        WebClient webClient = webClient(filter(false, 1, 5.0));
+
+        // Act
+        String result = get(webClient);
+
+        // Assert
+        assertThat(result).isEqualTo("502:bad gateway 2");
+        assertThat(mockServer.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldRetryConnectionReset() {
+        // Arrange
+        mockServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+        mockServer.enqueue(new MockResponse().setResponseCode(200).setBody("ok"));
+        WebClient webClient = webClient(filter(false, 1, 1.0));
+
+        // Act
+        String result = get(webClient);
+
+        // Assert
+        assertThat(result).isEqualTo("200:ok");
+        assertThat(meterRegistry.get("openmeteo.http.retries").tag("reason", "connection").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldTreatOnlyDroppedConnectionsAsResets() {
+        // Act & Assert
+        assertThat(HedgingRetryFilter.isConnectionReset(new SocketException("Connection reset"))).isTrue();
+        assertThat(HedgingRetryFilter.isConnectionReset(
+                new RuntimeException(PrematureCloseException.BEFORE_RESPONSE))).isTrue();
+        assertThat(HedgingRetryFilter.isConnectionReset(new IOException("Unexpected end of body"))).isFalse();
+    }
+
+    @Test
+    void shouldNotRetryNonIdempotentRequests() {
+        // Arrange
+        mockServer.enqueue(new MockResponse().setResponseCode(503));
+        WebClient webClient = webClient(filter(false, 1, 1.0));
+
+        // Act
+        Integer status = webClient.post()
+                .uri("/forecast")
+                .exchangeToMono(response -> Mono.just(response.statusCode().value()))
+                .block(Duration.ofSeconds(10));
+
+        // Assert
+        assertThat(status).isEqualTo(503);
+        assertThat(mockServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldHedgeRequestSlowerThanLearnedPercentile() {
+        // Arrange
+        AtomicInteger requests = new AtomicInteger();
+        mockServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                MockResponse response = new MockResponse().setResponseCode(200)
+                        .setBody("response " + requests.incrementAndGet());
+                // Second request stalls; its hedge (third) answers immediately
+                return requests.get() == 2 ? response.setHeadersDelay(5, TimeUnit.SECONDS) : response;
+            }
+        });
+        HedgingRetryFilter filter = filter(true, 1, 1.0);
+        WebClient webClient = webClient(filter);
+        get(webClient);
+
+        // Act
+        long start = System.nanoTime();
+        String result = get(webClient);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert
+        assertThat(filter.hedgeDelay()).isNotNull();
+        assertThat(result).isEqualTo("200:response 3");
+        assertThat(elapsedMs).isLessThan(4000);
+        assertThat(meterRegistry.get("openmeteo.http.hedges").tag("result", "sent").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldNotHedgeBeforeEnoughSamples() {
+        // Arrange
+        mockServer.enqueue(new MockResponse().setResponseCode(200).setBody("ok"));
+        HedgingRetryFilter filter = filter(true, 5, 1.0);
+
+        // Act
+        String result = get(webClient(filter));
+
+        // Assert
+        assertThat(result).isEqualTo("200:ok");
+        assertThat(filter.hedgeDelay()).isNull();
+        assertThat(mockServer.getRequestCount()).isEqualTo(1);
+    }
+}
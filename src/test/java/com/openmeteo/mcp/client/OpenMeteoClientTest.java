@@ -2,7 +2,11 @@ package com.openmeteo.mcp.client;
 
 import com.openmeteo.mcp.exception.OpenMeteoException;
 import com.openmeteo.mcp.model.dto.GeocodingResponse;
+import com.openmeteo.mcp.model.dto.SnowConditions;
 import com.openmeteo.mcp.model.dto.WeatherForecast;
+import com.openmeteo.mcp.model.request.Coordinates;
+import okhttp3.mockwebserver.Dispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
@@ -13,6 +17,11 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -43,12 +52,23 @@ class OpenMeteoClientTest {
                 .defaultHeader(HttpHeaders.ACCEPT_ENCODING, "gzip")
                 .build();
 
+        client = newClient(weatherClient, 0);
+    }
+
+    private OpenMeteoClient newClient(WebClient webClient, int mergeWindowMs) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
         // Reuse same client for all endpoints in tests
-        client = new OpenMeteoClient(
-                weatherClient,
-                weatherClient,
-                weatherClient,
-                weatherClient
+        return new OpenMeteoClient(
+                webClient,
+                webClient,
+                webClient,
+                webClient,
+                new RequestCoalescer(meterRegistry),
+                new ForecastCache(meterRegistry, true, 100, 900, 0.01, 3600, 0.1, 86400, 86400, 60),
+                new ForecastPlanner(meterRegistry, mergeWindowMs, 0),
+                new UpstreamLimiter(meterRegistry, 20, 2, 200, 0.7, 100, 2000),
+                meterRegistry
         );
     }
 
@@ -282,4 +302,285 @@ class OpenMeteoClientTest {
         assertThat(result.results()).hasSize(1);
         assertThat(result.results().get(0).countryCode()).isEqualTo("CH");
     }
+
+    @Test
+    void shouldCoalesceConcurrentIdenticalRequests() throws Exception {
+        // Arrange - delay the single response so both calls overlap
+        mockServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setBodyDelay(200, TimeUnit.MILLISECONDS)
+                .setBody("""
+                        {
+                            "latitude": 45.9763,
+                            "longitude": 7.6586,
+                            "timezone": "Europe/Zurich"
+                        }
+                        """));
+
+        // Act
+        CompletableFuture<WeatherForecast> first = client.getWeather(45.9763, 7.6586, 3, false, "Europe/Zurich");
+        CompletableFuture<WeatherForecast> second = client.getWeather(45.9763, 7.6586, 3, false, "Europe/Zurich");
+
+        // Assert - both callers get the result from one upstream request
+        assertThat(first.get(5, TimeUnit.SECONDS).latitude()).isEqualTo(45.9763);
+        assertThat(second.get(5, TimeUnit.SECONDS).latitude()).isEqualTo(45.9763);
+        assertThat(mockServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldServeNearbyCoordinatesInSameGridCellFromCache() throws Exception {
+        // Arrange
+        mockServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setBody("""
+                        {
+                            "latitude": 46.95,
+                            "longitude": 7.45,
+                            "timezone": "Europe/Zurich"
+                        }
+                        """));
+
+        // Act - Bern at two slightly different coordinates
+        WeatherForecast first = client.getWeather(46.9479, 7.4474, 3, false, "Europe/Zurich")
+                .get(5, TimeUnit.SECONDS);
+        WeatherForecast second = client.getWeather(46.948, 7.4475, 3, false, "Europe/Zurich")
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert - second call is a cache hit
+        assertThat(second).isSameAs(first);
+        assertThat(mockServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSplitBatchResponseIntoPerLocationForecasts() throws Exception {
+        // Arrange
+        mockServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setBody("""
+                        [
+                            {"latitude": 47.3769, "longitude": 8.5417, "timezone": "Europe/Zurich"},
+                            {"latitude": 46.2044, "longitude": 6.1432, "timezone": "Europe/Zurich"}
+                        ]
+                        """));
+
+        // Act
+        List<WeatherForecast> result = client.getWeatherBatch(
+                List.of(new Coordinates(47.3769, 8.5417), new Coordinates(46.2044, 6.1432)),
+                3, false, "Europe/Zurich"
+        ).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).latitude()).isEqualTo(47.3769);
+        assertThat(result.get(1).latitude()).isEqualTo(46.2044);
+
+        RecordedRequest request = mockServer.takeRequest();
+        assertThat(request.getPath()).contains("latitude=47.3769,46.2044");
+        assertThat(request.getPath()).contains("longitude=8.5417,6.1432");
+    }
+
+    @Test
+    void shouldServeSingleLocationCallsFromBatchResults() throws Exception {
+        // Arrange
+        mockServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setBody("""
+                        [
+                            {"latitude": 47.3769, "longitude": 8.5417, "timezone": "Europe/Zurich"},
+                            {"latitude": 46.2044, "longitude": 6.1432, "timezone": "Europe/Zurich"}
+                        ]
+                        """));
+
+        client.getWeatherBatch(
+                List.of(new Coordinates(47.3769, 8.5417), new Coordinates(46.2044, 6.1432)),
+                3, false, "Europe/Zurich"
+        ).get(5, TimeUnit.SECONDS);
+
+        // Act
+        WeatherForecast single = client.getWeather(46.2044, 6.1432, 3, false, "Europe/Zurich")
+                .get(5, TimeUnit.SECONDS);
+        List<WeatherForecast> again = client.getWeatherBatch(
+                List.of(new Coordinates(47.3769, 8.5417)), 3, false, "Europe/Zurich"
+        ).get(5, TimeUnit.SECONDS);
+
+        // Assert - both served from the cache filled by the batch
+        assertThat(single.latitude()).isEqualTo(46.2044);
+        assertThat(again.get(0).latitude()).isEqualTo(47.3769);
+        assertThat(mockServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldChunkBatchesAboveUpstreamLimit() throws Exception {
+        // Arrange - echo one forecast per requested latitude
+        mockServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String[] latitudes = request.getRequestUrl().queryParameter("latitude").split(",");
+                List<String> items = new ArrayList<>();
+                for (String latitude : latitudes) {
+                    items.add("{\"latitude\": " + latitude + ", \"longitude\": 8.0}");
+                }
+                return new MockResponse()
+                        .setResponseCode(200)
+                        .setHeader("Content-Type", "application/json")
+                        .setBody(latitudes.length == 1 ? items.get(0) : "[" + String.join(",", items) + "]");
+            }
+        });
+
+        List<Coordinates> locations = new ArrayList<>();
+        for (int i = 0; i < OpenMeteoClient.MAX_BATCH_LOCATIONS + 1; i++) {
+            locations.add(new Coordinates(40.0 + i * 0.1, 8.0));
+        }
+
+        // Act
+        List<WeatherForecast> result = client.getWeatherBatch(locations, 1, false, "auto")
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert - two upstream calls, results in input order
+        assertThat(mockServer.getRequestCount()).isEqualTo(2);
+        assertThat(result).hasSize(locations.size());
+        for (int i = 0; i < locations.size(); i++) {
+            assertThat(result.get(i).latitude()).isEqualTo(locations.get(i).latitude());
+        }
+    }
+
+    @Test
+    void shouldFailBatchOnResponseSizeMismatch() {
+        // Arrange - two locations requested, one returned
+        mockServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setBody("""
+                        [{"latitude": 47.3769, "longitude": 8.5417}]
+                        """));
+
+        // Act & Assert
+        CompletableFuture<List<WeatherForecast>> future = client.getWeatherBatch(
+                List.of(new Coordinates(47.3769, 8.5417), new Coordinates(46.2044, 6.1432)),
+                3, false, "auto"
+        );
+
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(OpenMeteoException.class)
+                .hasMessageContaining("size mismatch");
+    }
+
+    @Test
+    void shouldMergeOverlappingWeatherAndSnowQueriesIntoOneCall() throws Exception {
+        // Arrange - merge window long enough for both calls to land in one plan
+        OpenMeteoClient planningClient = newClient(WebClient.builder()
+                .baseUrl(mockServer.url("/").toString())
+                .build(), 200);
+
+        mockServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setBody("""
+                        {
+                            "latitude": 46.02,
+                            "longitude": 7.75,
+                            "timezone": "Europe/Zurich",
+                            "hourly": {
+                                "time": ["2024-01-30T00:00", "2024-01-30T01:00"],
+                                "temperature_2m": [-5.0, -6.0],
+                                "snow_depth": [1.2, 1.2],
+                                "freezinglevel_height": [1500.0, 1450.0]
+                            },
+                            "daily": {
+                                "time": ["2024-01-30"],
+                                "temperature_2m_max": [-1.0],
+                                "snowfall_sum": [12.0],
+                                "sunrise": ["2024-01-30T07:50"]
+                            }
+                        }
+                        """));
+
+        // Act
+        CompletableFuture<WeatherForecast> weather = planningClient.getWeather(46.02, 7.75, 1, false, "Europe/Zurich");
+        CompletableFuture<SnowConditions> snow = planningClient.getSnowConditions(46.02, 7.75, 1, true, "Europe/Zurich");
+
+        WeatherForecast weatherResult = weather.get(5, TimeUnit.SECONDS);
+        SnowConditions snowResult = snow.get(5, TimeUnit.SECONDS);
+
+        // Assert - one upstream call for the union of both variable sets
+        assertThat(mockServer.getRequestCount()).isEqualTo(1);
+        RecordedRequest request = mockServer.takeRequest();
+        assertThat(request.getPath()).contains("freezinglevel_height");
+        assertThat(request.getPath()).contains("sunrise");
+
+        // Projections only expose what each caller asked for, sharing parsed columns
+        assertThat(weatherResult.hourly()).isNull();
+        assertThat(weatherResult.daily().sunrise()).containsExactly("2024-01-30T07:50");
+        assertThat(snowResult.hourly().freezingLevelHeight()).containsExactly(1500.0, 1450.0);
+        assertThat(snowResult.daily().temperature2mMax()).isSameAs(weatherResult.daily().temperature2mMax());
+    }
+
+    @Test
+    void shouldServeLastKnownGoodForecast_whenCircuitIsOpen() throws Exception {
+        // Arrange - entries expire after 1 ms, the circuit opens after one failure in two calls
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CircuitBreakerFilter breaker = new CircuitBreakerFilter("weather", new CircuitBreakerFilter.Settings(
+                0.5, 1.0, Duration.ofSeconds(10), 10, 2, Duration.ofMinutes(1), 1), meterRegistry);
+        WebClient webClient = WebClient.builder()
+                .baseUrl(mockServer.url("/").toString())
+                .filter(breaker)
+                .build();
+        ForecastCache cache = new ForecastCache(meterRegistry, true, 100, Map.of(
+                ForecastCache.DataProduct.FORECAST, new ForecastCache.ProductPolicy(1, 0.01),
+                ForecastCache.DataProduct.AIR_QUALITY, new ForecastCache.ProductPolicy(1, 0.1),
+                ForecastCache.DataProduct.GEOCODING, new ForecastCache.ProductPolicy(1, 0.0)),
+                Duration.ofHours(1).toMillis(), Clock.systemUTC());
+        OpenMeteoClient fallbackClient = new OpenMeteoClient(webClient, webClient, webClient, webClient,
+                new RequestCoalescer(meterRegistry), cache, new ForecastPlanner(meterRegistry, 0, 0),
+                new UpstreamLimiter(meterRegistry, 20, 2, 200, 0.7, 100, 2000), meterRegistry);
+
+        mockServer.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody("""
+                        {"latitude": 47.37, "longitude": 8.54, "timezone": "Europe/Zurich"}
+                        """));
+        mockServer.enqueue(new MockResponse().setResponseCode(500).setBody("down"));
+
+        WeatherForecast good = fallbackClient.getWeather(47.37, 8.54, 1, false, "Europe/Zurich").get(5, TimeUnit.SECONDS);
+        Thread.sleep(5);
+        assertThatThrownBy(() -> fallbackClient.getWeather(47.37, 8.54, 1, false, "Europe/Zurich").get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(OpenMeteoException.class);
+        assertThat(breaker.state()).isEqualTo(CircuitBreakerFilter.State.OPEN);
+
+        // Act
+        OpenMeteoClient.Served<WeatherForecast> served = fallbackClient.serveWeather(
+                47.37, 8.54, 1, false, "Europe/Zurich", UpstreamLimiter.Priority.INTERACTIVE).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(served.value()).isSameAs(good);
+        assertThat(mockServer.getRequestCount()).isEqualTo(2);
+        assertThat(served.staleness()).hasValueSatisfying(staleness -> {
+            assertThat(staleness.stale()).isTrue();
+            assertThat(staleness.reason()).contains("last known good");
+        });
+        assertThat(meterRegistry.get("openmeteo.client.stale.fallbacks").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldFail_whenCircuitIsOpenAndNothingIsCached() {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CircuitBreakerFilter breaker = new CircuitBreakerFilter("weather", new CircuitBreakerFilter.Settings(
+                0.5, 1.0, Duration.ofSeconds(10), 10, 1, Duration.ofMinutes(1), 1), meterRegistry);
+        OpenMeteoClient breakerClient = newClient(WebClient.builder()
+                .baseUrl(mockServer.url("/").toString())
+                .filter(breaker)
+                .build(), 0);
+        mockServer.enqueue(new MockResponse().setResponseCode(503));
+        assertThatThrownBy(() -> breakerClient.getWeather(46.95, 7.45, 1, false, "auto").get(5, TimeUnit.SECONDS));
+
+        // Act & Assert
+        assertThatThrownBy(() -> breakerClient.getWeather(47.37, 8.54, 1, false, "auto").get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(CircuitOpenException.class);
+        assertThat(mockServer.getRequestCount()).isEqualTo(1);
+    }
 }
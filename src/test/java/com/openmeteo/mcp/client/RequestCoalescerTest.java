@@ -0,0 +1,113 @@
+package com.openmeteo.mcp.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for RequestCoalescer.
+ */
+class RequestCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new RequestCoalescer(meterRegistry);
+    }
+
+    @Test
+    void shouldShareInFlightRequest() throws Exception {
+        // Arrange
+        Sinks.One<String> upstream = Sinks.one();
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        // Act
+        CompletableFuture<String> first = coalescer.execute("key",
+                () -> upstream.asMono().doOnSubscribe(s -> subscriptions.incrementAndGet()));
+        CompletableFuture<String> second = coalescer.execute("key",
+                () -> upstream.asMono().doOnSubscribe(s -> subscriptions.incrementAndGet()));
+        upstream.tryEmitValue("result");
+
+        // Assert
+        assertThat(first.get(1, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(second.get(1, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(subscriptions.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("openmeteo.coalescer.calls").tag("result", "coalesced").counter().count())
+                .isEqualTo(1.0);
+        assertThat(coalescer.inFlightCount()).isZero();
+    }
+
+    @Test
+    void shouldNotCancelSharedFetch_whenOneCallerCancels() throws Exception {
+        // Arrange
+        Sinks.One<String> upstream = Sinks.one();
+        CompletableFuture<String> first = coalescer.execute("key", upstream::asMono);
+        CompletableFuture<String> second = coalescer.execute("key", upstream::asMono);
+
+        // Act
+        first.cancel(true);
+        upstream.tryEmitValue("result");
+
+        // Assert
+        assertThat(first).isCancelled();
+        assertThat(second.get(1, TimeUnit.SECONDS)).isEqualTo("result");
+    }
+
+    @Test
+    void shouldIssueNewRequest_afterPreviousCompleted() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        coalescer.execute("key", () -> Mono.fromSupplier(calls::incrementAndGet)).join();
+        coalescer.execute("key", () -> Mono.fromSupplier(calls::incrementAndGet)).join();
+
+        // Assert
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldPropagateErrorToAllCallers() {
+        // Arrange
+        Sinks.One<String> upstream = Sinks.one();
+        CompletableFuture<String> first = coalescer.execute("key", upstream::asMono);
+        CompletableFuture<String> second = coalescer.execute("key", upstream::asMono);
+
+        // Act
+        upstream.tryEmitError(new IllegalStateException("upstream failed"));
+
+        // Assert
+        assertThatThrownBy(first::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(second::join).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldBuildOrderIndependentCanonicalKey() {
+        // Arrange
+        MultiValueMap<String, String> a = new LinkedMultiValueMap<>();
+        a.add("latitude", "47.37");
+        a.add("longitude", "8.54");
+        MultiValueMap<String, String> b = new LinkedMultiValueMap<>();
+        b.add("longitude", "8.54");
+        b.add("latitude", "47.37");
+
+        // Act & Assert
+        assertThat(RequestCoalescer.canonicalKey("weather:/forecast", a))
+                .isEqualTo(RequestCoalescer.canonicalKey("weather:/forecast", b))
+                .isEqualTo("weather:/forecast?latitude=47.37&longitude=8.54");
+    }
+}
@@ -0,0 +1,185 @@
+package com.openmeteo.mcp.client;
+
+import com.openmeteo.mcp.client.UpstreamLimiter.Priority;
+import com.openmeteo.mcp.exception.OpenMeteoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for UpstreamLimiter.
+ */
+class UpstreamLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private List<String> started;
+    private List<Sinks.One<String>> pending;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        started = new ArrayList<>();
+        pending = new ArrayList<>();
+    }
+
+    private UpstreamLimiter limiter(int limit, int queueCapacity, int maxQueueWaitMs) {
+        return new UpstreamLimiter(meterRegistry, limit, 1, 100, 0.5, queueCapacity, maxQueueWaitMs);
+    }
+
+    private CompletableFuture<String> call(UpstreamLimiter limiter, Priority priority, String name) {
+        return limiter.execute(priority, () -> {
+            Sinks.One<String> sink = Sinks.one();
+            started.add(name);
+            pending.add(sink);
+            return sink.asMono();
+        }).toFuture();
+    }
+
+    @Test
+    void shouldQueueCallsBeyondLimitUntilPermitIsReleased() throws Exception {
+        // Arrange
+        UpstreamLimiter limiter = limiter(2, 10, 5000);
+
+        // Act
+        call(limiter, Priority.INTERACTIVE, "a");
+        call(limiter, Priority.INTERACTIVE, "b");
+        CompletableFuture<String> third = call(limiter, Priority.INTERACTIVE, "c");
+
+        // Assert
+        assertThat(started).containsExactly("a", "b");
+        assertThat(limiter.inFlight()).isEqualTo(2);
+        assertThat(limiter.queued(Priority.INTERACTIVE)).isEqualTo(1);
+
+        pending.get(0).tryEmitValue("done");
+        assertThat(started).containsExactly("a", "b", "c");
+
+        pending.get(2).tryEmitValue("third");
+        assertThat(third.get(5, TimeUnit.SECONDS)).isEqualTo("third");
+    }
+
+    @Test
+    void shouldServeInteractiveLaneBeforeBatchAndPrefetch() {
+        // Arrange
+        UpstreamLimiter limiter = limiter(1, 10, 5000);
+        call(limiter, Priority.INTERACTIVE, "first");
+
+        // Act
+        call(limiter, Priority.PREFETCH, "prefetch");
+        call(limiter, Priority.BATCH, "batch");
+        call(limiter, Priority.INTERACTIVE, "interactive");
+        pending.get(0).tryEmitValue("done");
+        pending.get(1).tryEmitValue("done");
+        pending.get(2).tryEmitValue("done");
+
+        // Assert
+        assertThat(started).containsExactly("first", "interactive", "batch", "prefetch");
+    }
+
+    @Test
+    void shouldKeepHeadroomForInteractiveCalls() {
+        // Arrange
+        UpstreamLimiter limiter = limiter(10, 10, 5000);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            call(limiter, Priority.BATCH, "batch-" + i);
+        }
+        call(limiter, Priority.INTERACTIVE, "interactive");
+
+        // Assert
+        assertThat(started).hasSize(9).contains("interactive");
+        assertThat(limiter.queued(Priority.BATCH)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectImmediately_whenLaneQueueIsFull() {
+        // Arrange
+        UpstreamLimiter limiter = limiter(1, 1, 5000);
+        call(limiter, Priority.BATCH, "running");
+        call(limiter, Priority.BATCH, "queued");
+
+        // Act
+        CompletableFuture<String> rejected = call(limiter, Priority.BATCH, "rejected");
+
+        // Assert
+        assertThatThrownBy(() -> rejected.get(1, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(OpenMeteoException.class)
+                .hasMessageContaining("queue is full");
+        assertThat(meterRegistry.get("openmeteo.limiter.rejected")
+                .tag("lane", "batch").tag("reason", "queue-full").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldRejectAndDequeue_whenQueueWaitExceedsMaximum() {
+        // Arrange
+        UpstreamLimiter limiter = limiter(1, 10, 50);
+        call(limiter, Priority.INTERACTIVE, "running");
+
+        // Act
+        CompletableFuture<String> waiting = call(limiter, Priority.INTERACTIVE, "waiting");
+
+        // Assert
+        assertThatThrownBy(() -> waiting.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(OpenMeteoException.class)
+                .hasMessageContaining("no permit within");
+        assertThat(limiter.queued(Priority.INTERACTIVE)).isZero();
+
+        pending.get(0).tryEmitValue("done");
+        assertThat(started).containsExactly("running");
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void shouldBackOffOncePerGeneration_whenUpstreamSignalsOverload() {
+        // Arrange
+        UpstreamLimiter limiter = limiter(8, 10, 5000);
+        call(limiter, Priority.INTERACTIVE, "a");
+        call(limiter, Priority.INTERACTIVE, "b");
+
+        // Act
+        pending.get(0).tryEmitError(new OpenMeteoException("Too Many Requests", 429));
+        pending.get(1).tryEmitError(new OpenMeteoException("Too Many Requests", 429));
+
+        // Assert
+        assertThat(limiter.limit()).isEqualTo(4.0);
+        assertThat(meterRegistry.get("openmeteo.limiter.drops").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void shouldIncreaseLimit_whenCallsSucceedUnderLoad() {
+        // Arrange
+        UpstreamLimiter limiter = limiter(2, 10, 5000);
+        call(limiter, Priority.INTERACTIVE, "a");
+        call(limiter, Priority.INTERACTIVE, "b");
+
+        // Act
+        pending.get(0).tryEmitValue("ok");
+
+        // Assert
+        assertThat(limiter.limit()).isEqualTo(2.5);
+    }
+
+    @Test
+    void shouldNotChangeLimit_whenCallFailsForOtherReasons() {
+        // Arrange
+        UpstreamLimiter limiter = limiter(4, 10, 5000);
+        call(limiter, Priority.INTERACTIVE, "a");
+
+        // Act
+        pending.get(0).tryEmitError(new OpenMeteoException("Bad Request", 400));
+
+        // Assert
+        assertThat(limiter.limit()).isEqualTo(4.0);
+        assertThat(limiter.inFlight()).isZero();
+    }
+}
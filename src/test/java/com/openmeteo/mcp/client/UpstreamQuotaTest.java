@@ -0,0 +1,246 @@
+package com.openmeteo.mcp.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for UpstreamQuota.
+ */
+class UpstreamQuotaTest {
+
+    private static final List<UpstreamQuota.Window> WINDOWS = List.of(
+            new UpstreamQuota.Window("minute", 6, Duration.ofMinutes(1)),
+            new UpstreamQuota.Window("day", 100, Duration.ofDays(1)));
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private List<Integer> requests;
+    private AtomicLong refunded;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock();
+        requests = new ArrayList<>();
+        refunded = new AtomicLong();
+    }
+
+    private UpstreamQuota quota(UpstreamQuota.Backend backend, int maxWaitMs) {
+        return new UpstreamQuota(meterRegistry, true, WINDOWS, 3, 4, Duration.ofSeconds(5),
+                Duration.ofMillis(maxWaitMs), Duration.ofSeconds(30), backend, clock);
+    }
+
+    /**
+     * Backend with a fixed number of tokens left in the shared buckets.
+     */
+    private UpstreamQuota.Backend sharedTokens(long available) {
+        AtomicLong tokens = new AtomicLong(available);
+        return new UpstreamQuota.Backend() {
+            @Override
+            public UpstreamQuota.Grant take(int requested) {
+                synchronized (requests) {
+                    requests.add(requested);
+                }
+                long granted = Math.min(requested, tokens.get());
+                tokens.addAndGet(-granted);
+                return new UpstreamQuota.Grant(granted, granted > 0 ? 0 : 60_000);
+            }
+
+            @Override
+            public void refund(long unused) {
+                tokens.addAndGet(unused);
+                refunded.addAndGet(unused);
+            }
+        };
+    }
+
+    private void acquire(UpstreamQuota quota) {
+        quota.acquire().block(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void shouldServeCallsFromLeasedBatch() {
+        // Arrange
+        UpstreamQuota quota = quota(sharedTokens(100), 0);
+
+        // Act
+        acquire(quota);
+        acquire(quota);
+
+        // Assert
+        assertThat(requests).containsExactly(4);
+        assertThat(quota.leased()).isEqualTo(2);
+        assertThat(meterRegistry.get("openmeteo.quota.fetches").tag("result", "granted").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldReject_whenSharedQuotaIsExhausted() {
+        // Arrange
+        UpstreamQuota quota = quota(sharedTokens(1), 0);
+        acquire(quota);
+
+        // Act & Assert
+        assertThatThrownBy(() -> acquire(quota))
+                .isInstanceOf(QuotaExceededException.class)
+                .satisfies(e -> assertThat(((QuotaExceededException) e).getStatusCode()).isEqualTo(429));
+        assertThat(meterRegistry.get("openmeteo.quota.rejected").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("openmeteo.quota.fetches").tag("result", "empty").counter().count())
+                .isGreaterThanOrEqualTo(1.0);
+    }
+
+    @Test
+    void shouldWaitForRefill_whenWithinMaxWait() {
+        // Arrange
+        AtomicLong calls = new AtomicLong();
+        UpstreamQuota quota = quota(requested -> calls.incrementAndGet() == 1
+                ? new UpstreamQuota.Grant(0, 20)
+                : new UpstreamQuota.Grant(requested, 0), 1000);
+
+        // Act
+        acquire(quota);
+
+        // Assert
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("openmeteo.quota.rejected").counter().count()).isZero();
+    }
+
+    @Test
+    void shouldRefundExpiredLease() throws InterruptedException {
+        // Arrange
+        UpstreamQuota quota = quota(sharedTokens(100), 0);
+        acquire(quota);
+
+        // Act
+        clock.advance(Duration.ofSeconds(6));
+        acquire(quota);
+        for (int i = 0; i < 100 && refunded.get() == 0; i++) {
+            Thread.sleep(10);
+        }
+
+        // Assert
+        assertThat(requests).containsExactly(4, 4);
+        assertThat(meterRegistry.get("openmeteo.quota.expired").counter().count()).isEqualTo(3.0);
+        assertThat(refunded.get()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldRefundLeasedTokens_onRelease() {
+        // Arrange
+        UpstreamQuota quota = quota(sharedTokens(100), 0);
+        acquire(quota);
+
+        // Act
+        quota.release();
+
+        // Assert
+        assertThat(quota.leased()).isZero();
+        assertThat(refunded.get()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldFallBackToPerNodeLimits_whenRedisFails() {
+        // Arrange - 6 calls per minute across 3 replicas leaves 2 for this node
+        UpstreamQuota quota = quota(requested -> {
+            throw new IllegalStateException("Redis connection refused");
+        }, 0);
+
+        // Act
+        acquire(quota);
+        acquire(quota);
+
+        // Assert
+        assertThatThrownBy(() -> acquire(quota)).isInstanceOf(QuotaExceededException.class);
+        assertThat(meterRegistry.get("openmeteo.quota.fallback").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("openmeteo.quota.fetches").tag("result", "error").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldReturnToRedis_afterRetryInterval() {
+        // Arrange
+        AtomicLong calls = new AtomicLong();
+        UpstreamQuota quota = quota(requested -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("Redis connection refused");
+            }
+            return new UpstreamQuota.Grant(requested, 0);
+        }, 0);
+        acquire(quota);
+
+        // Act
+        clock.advance(Duration.ofSeconds(31));
+        acquire(quota);
+
+        // Assert
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(quota.leased()).isEqualTo(3);
+        assertThat(meterRegistry.get("openmeteo.quota.fallback").gauge().value()).isZero();
+    }
+
+    @Test
+    void shouldEnforcePerNodeLimits_withoutRedis() {
+        // Arrange
+        UpstreamQuota quota = quota(null, 0);
+
+        // Act
+        acquire(quota);
+        acquire(quota);
+
+        // Assert
+        assertThatThrownBy(() -> acquire(quota)).isInstanceOf(QuotaExceededException.class);
+        clock.advance(Duration.ofSeconds(31));
+        acquire(quota);
+    }
+
+    @Test
+    void shouldPassThrough_whenDisabled() {
+        // Arrange
+        UpstreamQuota quota = new UpstreamQuota(meterRegistry, false, WINDOWS, 3, 4, Duration.ofSeconds(5),
+                Duration.ZERO, Duration.ofSeconds(30), sharedTokens(0), clock);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            acquire(quota);
+        }
+
+        // Assert
+        assertThat(requests).isEmpty();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-15T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -2,18 +2,25 @@ package com.openmeteo.mcp.controller;
 
 import com.openmeteo.mcp.model.chat.ChatStreamRequest;
 import com.openmeteo.mcp.model.stream.StreamMessage;
+import com.openmeteo.mcp.service.StreamPacer;
+import com.openmeteo.mcp.service.StreamReplayBuffer;
 import com.openmeteo.mcp.service.StreamingChatService;
 import com.openmeteo.mcp.service.StreamingWeatherService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.codec.ServerSentEvent;
 import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
+import tools.jackson.databind.ObjectMapper;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -29,7 +36,15 @@ class StreamingControllerTest {
 
     @BeforeEach
     void setUp() {
-        controller = new StreamingController(weatherService, chatService);
+        controller = controller(false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private StreamingController controller(boolean replay) {
+        return new StreamingController(weatherService, chatService,
+                new StreamPacer(new SimpleMeterRegistry(), 0, 32, 0, 32),
+                new StreamReplayBuffer(mock(ObjectProvider.class), new ObjectMapper(), new SimpleMeterRegistry(),
+                        replay, 1000, 300, 64, false, "openmeteo:replay"));
     }
 
     @Nested
@@ -50,15 +65,17 @@ class StreamingControllerTest {
     class DataStreamTests {
         @Test
         void parametersAreClampedToMaximums() {
-            // count=200 should be clamped to 100, delay=10000 to 5000
-            // We only verify it doesn't throw and returns a Flux
-            var flux = controller.streamData(200, 10000);
-            assertNotNull(flux);
+            var flux = controller.streamData(200);
+
+            // 100 data events + 1 complete event
+            StepVerifier.create(flux)
+                    .expectNextCount(101)
+                    .verifyComplete();
         }
 
         @Test
         void parametersAreClampedToMinimums() {
-            var flux = controller.streamData(0, 0);
+            var flux = controller.streamData(0);
             assertNotNull(flux);
 
             // Verify exactly 1 chunk + 1 complete event
@@ -69,7 +86,7 @@ class StreamingControllerTest {
 
         @Test
         void emitsCorrectEventCount() {
-            var flux = controller.streamData(3, 10);
+            var flux = controller.streamData(3);
 
             // 3 data events + 1 complete event = 4 total
             StepVerifier.create(flux)
@@ -79,7 +96,7 @@ class StreamingControllerTest {
 
         @Test
         void dataEventsHaveCorrectEventType() {
-            var flux = controller.streamData(1, 10);
+            var flux = controller.streamData(1);
 
             StepVerifier.create(flux)
                     .assertNext(sse -> assertEquals("data", sse.event()))
@@ -97,7 +114,7 @@ class StreamingControllerTest {
             when(weatherService.streamCurrentWeather(47.3, 8.5, "auto"))
                     .thenReturn(Flux.just(message));
 
-            var flux = controller.streamCurrentWeather(47.3, 8.5, "auto");
+            var flux = controller.streamCurrentWeather(47.3, 8.5, "auto", null, null);
 
             StepVerifier.create(flux)
                     .assertNext(sse -> {
@@ -116,7 +133,7 @@ class StreamingControllerTest {
             when(weatherService.streamForecast(47.3, 8.5, 7, false, "auto"))
                     .thenReturn(Flux.just(message));
 
-            var flux = controller.streamForecast(47.3, 8.5, 7, false, "auto");
+            var flux = controller.streamForecast(47.3, 8.5, 7, false, "auto", null, null);
 
             StepVerifier.create(flux)
                     .assertNext(sse -> assertEquals("forecast", sse.event()))
@@ -132,7 +149,7 @@ class StreamingControllerTest {
             when(weatherService.streamHistoricalWeather(47.3, 8.5, start, end, "auto"))
                     .thenReturn(Flux.just(message));
 
-            var flux = controller.streamHistoricalWeather(47.3, 8.5, start, end, "auto");
+            var flux = controller.streamHistoricalWeather(47.3, 8.5, start, end, "auto", null, null);
 
             StepVerifier.create(flux)
                     .assertNext(sse -> assertEquals("historical", sse.event()))
@@ -146,19 +163,84 @@ class StreamingControllerTest {
             when(weatherService.streamWithProgress(47.3, 8.5, 7, "auto"))
                     .thenReturn(Flux.just(message));
 
-            var flux = controller.streamWithProgress(47.3, 8.5, 7, "auto");
+            var flux = controller.streamWithProgress(47.3, 8.5, 7, "auto", null, null);
 
             StepVerifier.create(flux)
                     .assertNext(sse -> assertEquals("progress", sse.event()))
                     .verifyComplete();
         }
 
+        @Test
+        void assignsSequentialIdsPerStream() {
+            when(weatherService.streamForecast(47.3, 8.5, 7, false, "auto"))
+                    .thenReturn(Flux.just(StreamMessage.progress(1, 2, "Fetching"), StreamMessage.data("forecast"),
+                            StreamMessage.complete()));
+
+            var events = controller.streamForecast(47.3, 8.5, 7, false, "auto", null, null).collectList().block();
+
+            assertNotNull(events);
+            var streamId = events.getFirst().id().substring(0, events.getFirst().id().lastIndexOf(':'));
+            assertEquals(List.of(streamId + ":0", streamId + ":1", streamId + ":2"),
+                    events.stream().map(ServerSentEvent::id).toList());
+        }
+
+        @Test
+        void resumesAfterLastEventIdWithoutRefetching() {
+            controller = controller(true);
+            when(weatherService.streamForecast(47.3, 8.5, 7, false, "auto"))
+                    .thenReturn(Flux.just(StreamMessage.progress(1, 2, "Fetching"), StreamMessage.data("forecast"),
+                            StreamMessage.complete()));
+            var first = controller.streamForecast(47.3, 8.5, 7, false, "auto", null, null).blockFirst();
+            assertNotNull(first);
+
+            var flux = controller.streamForecast(47.3, 8.5, 7, false, "auto", first.id(), null);
+
+            StepVerifier.create(flux)
+                    .assertNext(sse -> assertEquals("data", sse.event()))
+                    .assertNext(sse -> assertEquals("complete", sse.event()))
+                    .verifyComplete();
+            verify(weatherService, times(1)).streamForecast(47.3, 8.5, 7, false, "auto");
+        }
+
+        @Test
+        void startsNewStreamWhenLastEventIdBelongsToAnotherClient() {
+            controller = controller(true);
+            when(weatherService.streamForecast(47.3, 8.5, 7, false, "auto"))
+                    .thenAnswer(invocation -> Flux.just(StreamMessage.data("forecast"), StreamMessage.complete()));
+            var first = controller.streamForecast(47.3, 8.5, 7, false, "auto", null, () -> "alice").blockFirst();
+            assertNotNull(first);
+
+            var events = controller.streamForecast(47.3, 8.5, 7, false, "auto", first.id(), () -> "bob")
+                    .collectList().block();
+
+            assertNotNull(events);
+            assertEquals(2, events.size());
+            assertNotEquals(first.id().substring(0, first.id().lastIndexOf(':')),
+                    events.getFirst().id().substring(0, events.getFirst().id().lastIndexOf(':')));
+            verify(weatherService, times(2)).streamForecast(47.3, 8.5, 7, false, "auto");
+        }
+
+        @Test
+        void watchesWeatherAsClient() {
+            var message = mock(StreamMessage.class);
+            when(message.type()).thenReturn("data");
+            when(weatherService.watchWeather(47.3, 8.5, "auto", "alice"))
+                    .thenReturn(Flux.just(message, message));
+
+            var flux = controller.watchWeather(47.3, 8.5, "auto", () -> "alice");
+
+            StepVerifier.create(flux)
+                    .assertNext(sse -> assertEquals("0", sse.id()))
+                    .assertNext(sse -> assertEquals("1", sse.id()))
+                    .verifyComplete();
+        }
+
         @Test
         void propagatesWeatherServiceError() {
             when(weatherService.streamCurrentWeather(anyDouble(), anyDouble(), anyString()))
                     .thenReturn(Flux.error(new RuntimeException("API failure")));
 
-            var flux = controller.streamCurrentWeather(0.0, 0.0, "auto");
+            var flux = controller.streamCurrentWeather(0.0, 0.0, "auto", null, null);
 
             StepVerifier.create(flux)
                     .expectError(RuntimeException.class)
@@ -176,7 +258,7 @@ class StreamingControllerTest {
                     .thenReturn(Flux.just(message));
 
             var request = ChatStreamRequest.simple("session1", "hello");
-            var flux = controller.streamChat(request);
+            var flux = controller.streamChat(request, null, null);
 
             StepVerifier.create(flux)
                     .assertNext(sse -> assertEquals("token", sse.event()))
@@ -191,7 +273,7 @@ class StreamingControllerTest {
                     .thenReturn(Flux.just(message));
 
             var request = ChatStreamRequest.simple("session1", "hello");
-            var flux = controller.streamChatWithProgress(request);
+            var flux = controller.streamChatWithProgress(request, null, null);
 
             StepVerifier.create(flux)
                     .assertNext(sse -> assertEquals("progress", sse.event()))
@@ -206,7 +288,7 @@ class StreamingControllerTest {
                     .thenReturn(Flux.just(message));
 
             var request = ChatStreamRequest.withWeather("session1", "weather?", 47.3, 8.5);
-            var flux = controller.streamChatWithContext(request);
+            var flux = controller.streamChatWithContext(request, null, null);
 
             StepVerifier.create(flux)
                     .assertNext(sse -> assertEquals("context", sse.event()))
@@ -222,7 +304,7 @@ class StreamingControllerTest {
 
             // No weather coords — shouldIncludeWeather() returns false
             var request = ChatStreamRequest.simple("session1", "hello");
-            var flux = controller.streamChatWithContext(request);
+            var flux = controller.streamChatWithContext(request, null, null);
 
             StepVerifier.create(flux)
                     .assertNext(sse -> assertEquals("token", sse.event()))
@@ -1,5 +1,6 @@
 package com.openmeteo.mcp.helper;
 
+import com.openmeteo.mcp.model.column.DoubleColumn;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -35,6 +36,21 @@ class WeatherAlertGeneratorTest {
         assertEquals("Info", alerts.get(0).get("severity"));
     }
 
+    @Test
+    void testGenerateWeatherAlerts_HeatWarningFromColumn_missingHourResetsStreak() {
+        Map<String, Object> current = Map.of("temperature", 25.0, "windspeed", 10.0, "weathercode", 0);
+
+        List<Map<String, Object>> interrupted = WeatherAlertGenerator.generateWeatherAlerts(current,
+                Map.of("temperature", new DoubleColumn(new double[]{31.0, 32.0, Double.NaN, 33.0, 34.0})),
+                Map.of(), "Europe/Zurich");
+        List<Map<String, Object>> sustained = WeatherAlertGenerator.generateWeatherAlerts(current,
+                Map.of("temperature", new DoubleColumn(new double[]{31.0, 32.0, Double.NaN, 33.0, 34.0, 35.0})),
+                Map.of(), "Europe/Zurich");
+
+        assertEquals("ALL_CLEAR", interrupted.get(0).get("type"));
+        assertEquals("HEAT_WARNING", sustained.get(0).get("type"));
+    }
+
     @Test
     void testGenerateWeatherAlerts_HeatWarning() {
         Map<String, Object> current = Map.of(
@@ -0,0 +1,113 @@
+package com.openmeteo.mcp.model.column;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.annotation.JsonDeserialize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for DoubleColumn.
+ */
+class DoubleColumnTest {
+
+    record Holder(@JsonProperty("values") @JsonDeserialize(using = DoubleColumn.Deserializer.class) List<Double> values) {
+    }
+
+    private final ObjectMapper mapper = JsonMapper.builder().build();
+
+    @Test
+    void shouldDeserializeIntoPrimitiveColumn() {
+        // Act
+        var holder = mapper.readValue("{\"values\":[1.5,null,-3.25]}", Holder.class);
+
+        // Assert
+        assertThat(holder.values()).isInstanceOf(DoubleColumn.class);
+        assertThat(holder.values()).containsExactly(1.5, null, -3.25);
+        assertThat(((DoubleColumn) holder.values()).getDouble(1)).isNaN();
+    }
+
+    @Test
+    void shouldSerializeToIdenticalJson() {
+        // Arrange
+        var json = "{\"values\":[10.5,null,0.0,1013.2]}";
+
+        // Act
+        var holder = mapper.readValue(json, Holder.class);
+
+        // Assert
+        assertThat(mapper.writeValueAsString(holder)).isEqualTo(json);
+    }
+
+    @Test
+    void shouldEqualBoxedList() {
+        // Arrange
+        var column = new DoubleColumn(new double[]{1.0, Double.NaN, 2.0});
+
+        // Assert
+        assertThat(column).isEqualTo(Arrays.asList(1.0, null, 2.0));
+        assertThat(column.hashCode()).isEqualTo(Arrays.asList(1.0, null, 2.0).hashCode());
+    }
+
+    @Test
+    void shouldGrowBeyondInitialBuffer() {
+        // Arrange
+        var sb = new StringBuilder("{\"values\":[");
+        for (int i = 0; i < 200; i++) {
+            sb.append(i == 0 ? "" : ",").append(i).append(".5");
+        }
+        sb.append("]}");
+
+        // Act
+        var holder = mapper.readValue(sb.toString(), Holder.class);
+
+        // Assert
+        assertThat(holder.values()).hasSize(200);
+        assertThat(holder.values().get(199)).isEqualTo(199.5);
+    }
+
+    @Test
+    void valueAt_shouldReadColumnsAndBoxedLists() {
+        // Arrange
+        var column = new DoubleColumn(new double[]{4.0, Double.NaN});
+        var boxed = Arrays.asList(4.0, null);
+
+        // Assert
+        assertThat(DoubleColumn.valueAt(column, 0)).isEqualTo(4.0);
+        assertThat(DoubleColumn.valueAt(column, 1)).isNaN();
+        assertThat(DoubleColumn.valueAt(boxed, 0)).isEqualTo(4.0);
+        assertThat(DoubleColumn.valueAt(boxed, 1)).isNaN();
+    }
+
+    @Test
+    void shouldDeserializeEmptyArray() {
+        // Act
+        var holder = mapper.readValue("{\"values\":[]}", Holder.class);
+
+        // Assert
+        assertThat(holder.values()).isEmpty();
+    }
+
+    @Test
+    void subList_shouldReturnColumnViewOverSameValues() {
+        // Arrange
+        var column = new DoubleColumn(new double[]{1.0, Double.NaN, 2.0, 3.0});
+
+        // Act
+        var view = column.subList(1, 3);
+
+        // Assert
+        assertThat(view).isInstanceOf(DoubleColumn.class).containsExactly(null, 2.0);
+        assertThat(view.getDouble(1)).isEqualTo(2.0);
+        assertThat(view.subList(1, 2)).containsExactly(2.0);
+        assertThat(DoubleColumn.valueAt(view, 0)).isNaN();
+        assertThat(mapper.writeValueAsString(new Holder(view))).isEqualTo("{\"values\":[null,2.0]}");
+        assertThatThrownBy(() -> view.getDouble(2)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
@@ -0,0 +1,151 @@
+package com.openmeteo.mcp.model.column;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.openmeteo.mcp.helper.WeatherAlertGenerator;
+import com.openmeteo.mcp.model.dto.HourlyWeather;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing a 16-day hourly forecast into boxed lists versus columns,
+ * and scanning the parsed series for weather alerts.
+ * <p>
+ * Run with {@code main} (or any JMH runner); the GC profiler reports
+ * {@code gc.alloc.rate.norm}, the bytes allocated per parsed response or
+ * per scan. Scanning a column should allocate only the alert itself,
+ * independently of the number of hours.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ForecastColumnsBenchmark {
+
+    private static final int HOURS = 16 * 24;
+
+    /**
+     * Same shape as {@link HourlyWeather} without the column deserializers.
+     */
+    public record BoxedHourly(
+            @JsonProperty("time") List<String> time,
+            @JsonProperty("temperature_2m") List<Double> temperature2m,
+            @JsonProperty("apparent_temperature") List<Double> apparentTemperature,
+            @JsonProperty("precipitation") List<Double> precipitation,
+            @JsonProperty("rain") List<Double> rain,
+            @JsonProperty("snowfall") List<Double> snowfall,
+            @JsonProperty("snow_depth") List<Double> snowDepth,
+            @JsonProperty("weathercode") List<Integer> weathercode,
+            @JsonProperty("cloudcover") List<Integer> cloudCover,
+            @JsonProperty("visibility") List<Double> visibility,
+            @JsonProperty("windspeed_10m") List<Double> windspeed10m,
+            @JsonProperty("winddirection_10m") List<Integer> winddirection10m,
+            @JsonProperty("windgusts_10m") List<Double> windgusts10m,
+            @JsonProperty("surface_pressure") List<Double> surfacePressure,
+            @JsonProperty("relativehumidity_2m") List<Integer> relativehumidity2m,
+            @JsonProperty("dewpoint_2m") List<Double> dewpoint2m,
+            @JsonProperty("precipitation_probability") List<Integer> precipitationProbability,
+            @JsonProperty("uv_index") List<Double> uvIndex
+    ) {
+    }
+
+    private static final String[] DOUBLE_VARIABLES = {
+            "temperature_2m", "apparent_temperature", "precipitation", "rain", "snowfall", "snow_depth",
+            "visibility", "windspeed_10m", "windgusts_10m", "surface_pressure", "dewpoint_2m", "uv_index"
+    };
+
+    private static final String[] INT_VARIABLES = {
+            "weathercode", "cloudcover", "winddirection_10m", "relativehumidity_2m", "precipitation_probability"
+    };
+
+    private static final Map<String, Object> CURRENT = Map.of("temperature", 20.0, "windspeed", 10.0,
+            "weathercode", 0);
+
+    private ObjectMapper mapper;
+    private String json;
+    private Map<String, Object> boxedSeries;
+    private Map<String, Object> columnSeries;
+
+    @Setup
+    public void setUp() {
+        mapper = JsonMapper.builder().build();
+        json = hourlyJson();
+        // Mild temperatures, so every scan runs over all hours
+        boxedSeries = Map.of("temperature", mapper.readValue(json, BoxedHourly.class).dewpoint2m().stream()
+                .map(value -> value / 10).toList());
+        columnSeries = Map.of("temperature", new DoubleColumn(((List<?>) boxedSeries.get("temperature")).stream()
+                .mapToDouble(value -> (Double) value).toArray()));
+    }
+
+    @Benchmark
+    public BoxedHourly boxedLists() {
+        return mapper.readValue(json, BoxedHourly.class);
+    }
+
+    @Benchmark
+    public HourlyWeather columns() {
+        return mapper.readValue(json, HourlyWeather.class);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> alertsOverBoxedList() {
+        return WeatherAlertGenerator.generateWeatherAlerts(CURRENT, boxedSeries, Map.of(), "UTC");
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> alertsOverColumn() {
+        return WeatherAlertGenerator.generateWeatherAlerts(CURRENT, columnSeries, Map.of(), "UTC");
+    }
+
+    static String hourlyJson() {
+        StringBuilder sb = new StringBuilder("{\"time\":[");
+        LocalDateTime start = LocalDateTime.of(2024, 1, 30, 0, 0);
+        for (int h = 0; h < HOURS; h++) {
+            sb.append(h == 0 ? "" : ",").append('"').append(start.plusHours(h)).append('"');
+        }
+        sb.append(']');
+        for (String variable : DOUBLE_VARIABLES) {
+            sb.append(",\"").append(variable).append("\":[");
+            for (int h = 0; h < HOURS; h++) {
+                sb.append(h == 0 ? "" : ",").append(Math.round(Math.sin(h / 12.0) * 1000) / 10.0);
+            }
+            sb.append(']');
+        }
+        for (String variable : INT_VARIABLES) {
+            sb.append(",\"").append(variable).append("\":[");
+            for (int h = 0; h < HOURS; h++) {
+                sb.append(h == 0 ? "" : ",").append(h % 100);
+            }
+            sb.append(']');
+        }
+        return sb.append('}').toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ForecastColumnsBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
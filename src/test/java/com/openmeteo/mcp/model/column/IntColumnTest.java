@@ -0,0 +1,83 @@
+package com.openmeteo.mcp.model.column;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.annotation.JsonDeserialize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for IntColumn.
+ */
+class IntColumnTest {
+
+    record Holder(@JsonProperty("values") @JsonDeserialize(using = IntColumn.Deserializer.class) List<Integer> values) {
+    }
+
+    private final ObjectMapper mapper = JsonMapper.builder().build();
+
+    @Test
+    void shouldDeserializeIntoPrimitiveColumn() {
+        // Act
+        var holder = mapper.readValue("{\"values\":[0,null,95]}", Holder.class);
+
+        // Assert
+        assertThat(holder.values()).isInstanceOf(IntColumn.class);
+        assertThat(holder.values()).containsExactly(0, null, 95);
+        assertThat(((IntColumn) holder.values()).getInt(1)).isEqualTo(IntColumn.MISSING);
+    }
+
+    @Test
+    void shouldSerializeToIdenticalJson() {
+        // Arrange
+        var json = "{\"values\":[3,null,61,-2]}";
+
+        // Act
+        var holder = mapper.readValue(json, Holder.class);
+
+        // Assert
+        assertThat(mapper.writeValueAsString(holder)).isEqualTo(json);
+    }
+
+    @Test
+    void shouldEqualBoxedList() {
+        // Arrange
+        var column = new IntColumn(new int[]{1, IntColumn.MISSING, 2});
+
+        // Assert
+        assertThat(column).isEqualTo(Arrays.asList(1, null, 2));
+        assertThat(List.of(1, 2)).isEqualTo(new IntColumn(new int[]{1, 2}));
+    }
+
+    @Test
+    void valueAt_shouldReadColumnsAndBoxedLists() {
+        // Arrange
+        var column = new IntColumn(new int[]{7, IntColumn.MISSING});
+        var boxed = Arrays.asList(7, null);
+
+        // Assert
+        assertThat(IntColumn.valueAt(column, 0)).isEqualTo(7);
+        assertThat(IntColumn.valueAt(column, 1)).isEqualTo(IntColumn.MISSING);
+        assertThat(IntColumn.valueAt(boxed, 0)).isEqualTo(7);
+        assertThat(IntColumn.valueAt(boxed, 1)).isEqualTo(IntColumn.MISSING);
+    }
+
+    @Test
+    void subList_shouldReturnColumnViewOverSameValues() {
+        // Arrange
+        var column = new IntColumn(new int[]{3, IntColumn.MISSING, 61, 80});
+
+        // Act
+        var view = column.subList(1, 3);
+
+        // Assert
+        assertThat(view).isInstanceOf(IntColumn.class).containsExactly(null, 61);
+        assertThat(IntColumn.valueAt(view, 1)).isEqualTo(61);
+        assertThat(view.subList(2, 2)).isEmpty();
+    }
+}
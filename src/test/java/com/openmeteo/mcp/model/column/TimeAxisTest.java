@@ -0,0 +1,114 @@
+package com.openmeteo.mcp.model.column;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.annotation.JsonDeserialize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TimeAxis.
+ */
+class TimeAxisTest {
+
+    record Holder(@JsonProperty("time") @JsonDeserialize(using = TimeAxis.Deserializer.class) List<String> time) {
+    }
+
+    private final ObjectMapper mapper = JsonMapper.builder().build();
+
+    @Test
+    void shouldStoreHourlySeriesAsStartPlusStep() {
+        // Act
+        var holder = mapper.readValue(
+                "{\"time\":[\"2024-01-30T22:00\",\"2024-01-30T23:00\",\"2024-01-31T00:00\"]}", Holder.class);
+
+        // Assert
+        assertThat(holder.time()).isInstanceOf(TimeAxis.class);
+        var axis = (TimeAxis) holder.time();
+        assertThat(axis.isRegular()).isTrue();
+        assertThat(axis.stepSeconds()).isEqualTo(3_600L);
+        assertThat(axis.format()).isEqualTo(TimeAxis.Format.DATE_TIME);
+        assertThat(axis).containsExactly("2024-01-30T22:00", "2024-01-30T23:00", "2024-01-31T00:00");
+    }
+
+    @Test
+    void shouldStoreDailySeries() {
+        // Act
+        var holder = mapper.readValue("{\"time\":[\"2024-02-28\",\"2024-02-29\",\"2024-03-01\"]}", Holder.class);
+
+        // Assert
+        var axis = (TimeAxis) holder.time();
+        assertThat(axis.isRegular()).isTrue();
+        assertThat(axis.stepSeconds()).isEqualTo(86_400L);
+        assertThat(axis).isEqualTo(List.of("2024-02-28", "2024-02-29", "2024-03-01"));
+    }
+
+    @Test
+    void shouldKeepIrregularSeries() {
+        // Act
+        var holder = mapper.readValue(
+                "{\"time\":[\"2024-03-31T01:00\",\"2024-03-31T03:00\",\"2024-03-31T04:00\"]}", Holder.class);
+
+        // Assert
+        var axis = (TimeAxis) holder.time();
+        assertThat(axis.isRegular()).isFalse();
+        assertThat(axis).containsExactly("2024-03-31T01:00", "2024-03-31T03:00", "2024-03-31T04:00");
+    }
+
+    @Test
+    void shouldFallBackToStringsForUnsupportedFormat() {
+        // Act
+        var holder = mapper.readValue(
+                "{\"time\":[\"2024-01-30T00:00\",\"2024-01-30T01:00Z\",null]}", Holder.class);
+
+        // Assert
+        assertThat(holder.time()).isNotInstanceOf(TimeAxis.class);
+        assertThat(holder.time()).containsExactly("2024-01-30T00:00", "2024-01-30T01:00Z", null);
+    }
+
+    @Test
+    void shouldSerializeToIdenticalJson() {
+        // Arrange
+        var json = "{\"time\":[\"2024-01-30T00:00\",\"2024-01-30T01:00\"]}";
+
+        // Act
+        var holder = mapper.readValue(json, Holder.class);
+
+        // Assert
+        assertThat(mapper.writeValueAsString(holder)).isEqualTo(json);
+    }
+
+    @Test
+    void epochSecondAt_shouldReturnLocalEpochSeconds() {
+        // Arrange
+        var axis = TimeAxis.regular(TimeAxis.Format.DATE_TIME, 1_706_572_800L, 3_600L, 24);
+
+        // Assert
+        assertThat(axis).hasSize(24);
+        assertThat(axis.get(0)).isEqualTo("2024-01-30T00:00");
+        assertThat(axis.epochSecondAt(23)).isEqualTo(1_706_572_800L + 23 * 3_600L);
+    }
+
+    @Test
+    void subList_shouldKeepRegularAndIrregularAxes() {
+        // Arrange
+        var regular = TimeAxis.regular(TimeAxis.Format.DATE_TIME, 1_706_572_800L, 3_600L, 48);
+        var irregular = TimeAxis.of(TimeAxis.Format.DATE_TIME,
+                new long[]{1_711_846_800L, 1_711_854_000L, 1_711_857_600L, 1_711_861_200L});
+
+        // Act
+        var secondDay = regular.subList(24, 48);
+        var tail = irregular.subList(1, 3);
+
+        // Assert
+        assertThat(secondDay.isRegular()).isTrue();
+        assertThat(secondDay).hasSize(24);
+        assertThat(secondDay.getFirst()).isEqualTo("2024-01-31T00:00");
+        assertThat(tail).containsExactly("2024-03-31T03:00", "2024-03-31T04:00");
+        assertThat(tail.epochSecondAt(1)).isEqualTo(1_711_857_600L);
+    }
+}
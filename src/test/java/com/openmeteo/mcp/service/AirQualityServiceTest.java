@@ -10,6 +10,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -125,9 +126,10 @@ class AirQualityServiceTest {
                 current, null, 1.0
         );
 
-        when(client.getAirQuality(anyDouble(), anyDouble(), anyInt(),
+        when(client.serveAirQuality(anyDouble(), anyDouble(), anyInt(),
                 anyBoolean(), anyString()))
-                .thenReturn(CompletableFuture.completedFuture(mockForecast));
+                .thenReturn(CompletableFuture.completedFuture(
+                        new OpenMeteoClient.Served<>(mockForecast, Optional.empty())));
 
         // Act
         var result = service.getAirQualityWithInterpretation(
@@ -160,9 +162,10 @@ class AirQualityServiceTest {
                 null, null
         );
 
-        when(client.getAirQuality(anyDouble(), anyDouble(), anyInt(),
+        when(client.serveAirQuality(anyDouble(), anyDouble(), anyInt(),
                 anyBoolean(), anyString()))
-                .thenReturn(CompletableFuture.completedFuture(mockForecast));
+                .thenReturn(CompletableFuture.completedFuture(
+                        new OpenMeteoClient.Served<>(mockForecast, Optional.empty())));
 
         // Act
         var result = service.getAirQualityWithInterpretation(
@@ -190,9 +193,10 @@ class AirQualityServiceTest {
                 current, null, 1.0
         );
 
-        when(client.getAirQuality(anyDouble(), anyDouble(), anyInt(),
+        when(client.serveAirQuality(anyDouble(), anyDouble(), anyInt(),
                 anyBoolean(), anyString()))
-                .thenReturn(CompletableFuture.completedFuture(mockForecast));
+                .thenReturn(CompletableFuture.completedFuture(
+                        new OpenMeteoClient.Served<>(mockForecast, Optional.empty())));
 
         // Act
         var result = service.getAirQualityWithInterpretation(
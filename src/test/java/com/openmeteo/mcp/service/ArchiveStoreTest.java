@@ -0,0 +1,290 @@
+package com.openmeteo.mcp.service;
+
+import com.openmeteo.mcp.model.column.DoubleColumn;
+import com.openmeteo.mcp.model.column.IntColumn;
+import com.openmeteo.mcp.model.column.TimeAxis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ArchiveStore.
+ */
+class ArchiveStoreTest {
+
+    private static final String DATASET = "temperature_2m_max,weathercode";
+
+    @TempDir
+    private Path directory;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock();
+    }
+
+    private ArchiveStore store(long maxBytes) {
+        return new ArchiveStore(meterRegistry, true, directory, 0.1, 90, maxBytes, 4, clock);
+    }
+
+    /**
+     * Daily columns for the range; values depend only on the date, every 5th temperature is missing.
+     */
+    private static Map<String, Object> daily(String start, String end) {
+        TimeAxis.Builder time = new TimeAxis.Builder();
+        DoubleColumn.Builder temperature = new DoubleColumn.Builder();
+        IntColumn.Builder weatherCode = new IntColumn.Builder();
+        for (LocalDate day = LocalDate.parse(start); !day.isAfter(LocalDate.parse(end)); day = day.plusDays(1)) {
+            String text = day.toString();
+            time.add(text.toCharArray(), 0, text.length());
+            long n = day.toEpochDay();
+            temperature.add(n % 5 == 0 ? Double.NaN : (n % 41) * 0.41 - 3.3);
+            weatherCode.add((int) (n % 7));
+        }
+        Map<String, Object> daily = new LinkedHashMap<>();
+        daily.put("time", time.build());
+        daily.put("temperature_2m_max", temperature.build());
+        daily.put("weathercode", weatherCode.build());
+        return daily;
+    }
+
+    private List<ArchiveStore.Run> lookup(ArchiveStore store, String start, String end) {
+        return store.lookup(DATASET, 46.80, 9.84, "Europe/Zurich", LocalDate.parse(start), LocalDate.parse(end));
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    @Test
+    void shouldReturnStoredDaysExactly_asRunsAroundGaps() {
+        // Arrange
+        ArchiveStore store = store(Long.MAX_VALUE);
+        store.store(DATASET, 46.80, 9.84, "Europe/Zurich", daily("2023-12-20", "2024-01-10"));
+        store.store(DATASET, 46.80, 9.84, "Europe/Zurich", daily("2024-01-20", "2024-01-31"));
+
+        // Act
+        List<ArchiveStore.Run> runs = lookup(store, "2023-12-25", "2024-02-05");
+
+        // Assert
+        assertThat(runs).extracting(run -> run.start() + ".." + run.end())
+                .containsExactly("2023-12-25..2024-01-10", "2024-01-20..2024-01-31");
+        Map<String, Object> expected = daily("2023-12-25", "2024-01-10");
+        assertThat(runs.getFirst().daily()).isEqualTo(expected);
+        assertThat(runs.getFirst().daily().get("time")).isInstanceOf(TimeAxis.class);
+        assertThat(runs.getFirst().daily().get("weathercode")).isInstanceOf(IntColumn.class);
+        assertThat(meterRegistry.get("openmeteo.archive.store.days").tag("result", "local").counter().count())
+                .isEqualTo(29.0);
+    }
+
+    @Test
+    void shouldNotStoreDaysWithinFinalizationDelay() {
+        // Arrange - the clock is at 2026-01-15, so days after 2025-10-17 may still change
+        ArchiveStore store = store(Long.MAX_VALUE);
+
+        // Act
+        store.store(DATASET, 46.80, 9.84, "Europe/Zurich", daily("2025-10-10", "2025-10-31"));
+
+        // Assert
+        assertThat(lookup(store, "2025-10-01", "2025-10-31")).extracting(run -> run.start() + ".." + run.end())
+                .containsExactly("2025-10-10..2025-10-17");
+    }
+
+    @Test
+    void shouldShareGridCell_butNotTimezone() {
+        // Arrange
+        ArchiveStore store = store(Long.MAX_VALUE);
+        store.store(DATASET, 46.80, 9.84, "Europe/Zurich", daily("2023-01-01", "2023-01-31"));
+
+        // Act & Assert
+        assertThat(store.lookup(DATASET, 46.8021, 9.8388, "Europe/Zurich",
+                LocalDate.parse("2023-01-01"), LocalDate.parse("2023-01-31"))).hasSize(1);
+        assertThat(store.lookup(DATASET, 46.80, 9.84, "UTC",
+                LocalDate.parse("2023-01-01"), LocalDate.parse("2023-01-31"))).isEmpty();
+        assertThat(store.lookup("precipitation_sum", 46.80, 9.84, "Europe/Zurich",
+                LocalDate.parse("2023-01-01"), LocalDate.parse("2023-01-31"))).isEmpty();
+    }
+
+    @Test
+    void shouldCompactSegments_whenThresholdIsExceeded() {
+        // Arrange
+        ArchiveStore store = store(Long.MAX_VALUE);
+
+        // Act
+        for (int month = 1; month <= 5; month++) {
+            LocalDate start = LocalDate.of(2023, month, 1);
+            store.store(DATASET, 46.80, 9.84, "Europe/Zurich",
+                    daily(start.toString(), start.plusMonths(1).minusDays(1).toString()));
+        }
+        store.store(DATASET, 46.80, 9.84, "Europe/Zurich", daily("2023-02-01", "2023-02-28"));
+
+        // Assert
+        assertThat(store.segmentCount(DATASET, 46.80, 9.84, "Europe/Zurich", 2023)).isEqualTo(1);
+        assertThat(meterRegistry.get("openmeteo.archive.store.compactions").counter().count()).isEqualTo(1.0);
+        assertThat(lookup(store, "2023-01-01", "2023-05-31")).singleElement()
+                .satisfies(run -> assertThat(run.daily()).isEqualTo(daily("2023-01-01", "2023-05-31")));
+    }
+
+    @Test
+    void shouldReopenExistingStore_andRemoveInterruptedWrites() throws IOException {
+        // Arrange
+        store(Long.MAX_VALUE).store(DATASET, 46.80, 9.84, "Europe/Zurich", daily("2023-01-01", "2023-01-31"));
+        Path segment = files().getFirst();
+        Path leftover = segment.resolveSibling("2023-9.seg.tmp");
+        Files.write(leftover, new byte[]{1, 2, 3});
+
+        // Act
+        ArchiveStore reopened = store(Long.MAX_VALUE);
+
+        // Assert
+        assertThat(Files.exists(leftover)).isFalse();
+        assertThat(reopened.sizeBytes()).isEqualTo(Files.size(segment));
+        assertThat(lookup(reopened, "2023-01-01", "2023-01-31")).singleElement()
+                .satisfies(run -> assertThat(run.daily()).isEqualTo(daily("2023-01-01", "2023-01-31")));
+    }
+
+    @Test
+    void shouldDiscardCorruptSegment() throws IOException {
+        // Arrange
+        store(Long.MAX_VALUE).store(DATASET, 46.80, 9.84, "Europe/Zurich", daily("2023-01-01", "2023-01-31"));
+        Path segment = files().getFirst();
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(segment, bytes);
+        ArchiveStore reopened = store(Long.MAX_VALUE);
+
+        // Act
+        List<ArchiveStore.Run> runs = lookup(reopened, "2023-01-01", "2023-01-31");
+
+        // Assert
+        assertThat(runs).isEmpty();
+        assertThat(Files.exists(segment)).isFalse();
+        assertThat(reopened.sizeBytes()).isZero();
+        assertThat(meterRegistry.get("openmeteo.archive.store.corrupt").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedCell_whenOverSizeCap() throws IOException {
+        // Arrange - room for two cells
+        ArchiveStore probe = new ArchiveStore(new SimpleMeterRegistry(), true, directory.resolve("probe"),
+                0.1, 90, Long.MAX_VALUE, 4, clock);
+        probe.store(DATASET, 0, 0, "UTC", daily("2023-01-01", "2023-12-31"));
+        ArchiveStore store = store(probe.sizeBytes() * 5 / 2);
+
+        List<double[]> cells = new ArrayList<>(List.of(new double[]{10, 10}, new double[]{20, 20}, new double[]{30, 30}));
+        store.store(DATASET, 10, 10, "UTC", daily("2023-01-01", "2023-12-31"));
+        clock.advance(Duration.ofMinutes(1));
+        store.store(DATASET, 20, 20, "UTC", daily("2023-01-01", "2023-12-31"));
+        clock.advance(Duration.ofMinutes(1));
+        store.lookup(DATASET, 10, 10, "UTC", LocalDate.parse("2023-01-01"), LocalDate.parse("2023-01-02"));
+        clock.advance(Duration.ofMinutes(1));
+
+        // Act
+        store.store(DATASET, 30, 30, "UTC", daily("2023-01-01", "2023-12-31"));
+
+        // Assert
+        assertThat(cells).extracting(cell -> store.lookup(DATASET, cell[0], cell[1], "UTC",
+                        LocalDate.parse("2023-01-01"), LocalDate.parse("2023-01-02")).isEmpty())
+                .containsExactly(false, true, false);
+        assertThat(store.sizeBytes()).isLessThanOrEqualTo(probe.sizeBytes() * 5 / 2);
+        assertThat(meterRegistry.get("openmeteo.archive.store.evictions").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldKeepSizeInSyncWithDisk_whenStoringWhileEvicting() throws Exception {
+        // Arrange - room for about one cell, so most stores evict the other cell
+        ArchiveStore probe = new ArchiveStore(new SimpleMeterRegistry(), true, directory.resolve("probe"),
+                0.1, 90, Long.MAX_VALUE, 4, clock);
+        probe.store(DATASET, 0, 0, "UTC", daily("2001-01-01", "2001-12-31"));
+        ArchiveStore store = store(probe.sizeBytes() * 3 / 2);
+
+        // Act
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int cell = 0; cell < 2; cell++) {
+                double coordinate = 10 + cell * 10;
+                writers.add(executor.submit(() -> {
+                    for (int year = 2001; year <= 2040; year++) {
+                        store.store(DATASET, coordinate, coordinate, "UTC", daily(year + "-01-01", year + "-12-31"));
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+        }
+
+        // Assert - every counted byte is still on disk
+        long onDisk = 0;
+        for (Path file : files()) {
+            if (!file.startsWith(directory.resolve("probe"))) {
+                onDisk += Files.size(file);
+            }
+        }
+        assertThat(store.sizeBytes()).isEqualTo(onDisk);
+    }
+
+    @Test
+    void shouldIgnoreEverything_whenDisabled() {
+        // Arrange
+        ArchiveStore store = new ArchiveStore(meterRegistry, false, directory, 0.1, 90, Long.MAX_VALUE, 4, clock);
+
+        // Act
+        store.store(DATASET, 46.80, 9.84, "Europe/Zurich", daily("2023-01-01", "2023-01-31"));
+
+        // Assert
+        assertThat(lookup(store, "2023-01-01", "2023-01-31")).isEmpty();
+        assertThat(Arrays.asList(directory.toFile().list())).isEmpty();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-15T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
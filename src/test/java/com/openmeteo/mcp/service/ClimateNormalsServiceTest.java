@@ -0,0 +1,209 @@
+package com.openmeteo.mcp.service;
+
+import com.openmeteo.mcp.client.UpstreamLimiter.Priority;
+import com.openmeteo.mcp.model.dto.DailyWeather;
+import com.openmeteo.mcp.model.dto.WeatherForecast;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ClimateNormalsService.
+ */
+@ExtendWith(MockitoExtension.class)
+class ClimateNormalsServiceTest {
+
+    @Mock
+    private HistoricalWeatherService historicalWeatherService;
+
+    @Mock
+    private WeatherService weatherService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private ClimateNormalsService service(ArchiveStore archiveStore, int smoothingDays) {
+        return new ClimateNormalsService(historicalWeatherService, weatherService, archiveStore, meterRegistry,
+                1991, 1992, smoothingDays, 100);
+    }
+
+    private static ArchiveStore disabledStore() {
+        return new ArchiveStore(new SimpleMeterRegistry(), false, Path.of("unused"), 0.1, 90,
+                Long.MAX_VALUE, 4, Clock.systemUTC());
+    }
+
+    /**
+     * Reference period where 1991 is uniformly cooler and drier than 1992.
+     */
+    private void stubReferencePeriod() {
+        List<String> time = new ArrayList<>();
+        List<Double> maxTemperature = new ArrayList<>();
+        List<Double> minTemperature = new ArrayList<>();
+        List<Double> precipitation = new ArrayList<>();
+        for (LocalDate day = LocalDate.of(1991, 1, 1); day.getYear() < 1993; day = day.plusDays(1)) {
+            boolean first = day.getYear() == 1991;
+            time.add(day.toString());
+            maxTemperature.add(first ? 1.0 : 3.0);
+            minTemperature.add(first ? -3.0 : -1.0);
+            precipitation.add(first ? 0.0 : 10.0);
+        }
+        Map<String, Object> daily = new LinkedHashMap<>();
+        daily.put("time", time);
+        daily.put("temperature_2m_max", maxTemperature);
+        daily.put("temperature_2m_min", minTemperature);
+        daily.put("precipitation_sum", precipitation);
+        when(historicalWeatherService.getHistoricalWeather(anyDouble(), anyDouble(), eq("1991-01-01"),
+                eq("1992-12-31"), anyString(), eq(Priority.BATCH)))
+                .thenReturn(CompletableFuture.completedFuture(Map.of("daily", daily)));
+    }
+
+    private void stubForecast() {
+        DailyWeather daily = new DailyWeather(List.of("2026-10-16", "2026-10-17"), List.of(5.0, 2.0),
+                List.of(-2.0, -5.0), null, null, List.of(0.0, 4.0), null, null, null, null, null, null, null,
+                null, null, null);
+        when(weatherService.getWeather(anyDouble(), anyDouble(), anyInt(), anyBoolean(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(new WeatherForecast(47.3769, 8.5417, null,
+                        "Europe/Zurich", null, null, null, null, daily, null)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReturnNormalsAndForecastAnomalies() {
+        // Arrange
+        stubReferencePeriod();
+        stubForecast();
+
+        // Act
+        var result = service(disabledStore(), 0).getClimateNormals(47.3769, 8.5417, 2, "Europe/Zurich").join();
+
+        // Assert
+        assertThat(result).containsEntry("reference_period", "1991-1992");
+        List<Map<String, Object>> days = (List<Map<String, Object>>) result.get("days");
+        assertThat(days).hasSize(2);
+
+        Map<String, Object> warm = (Map<String, Object>) days.get(0).get("temperature_2m_max");
+        assertThat(warm).containsEntry("normal_mean", 2.0)
+                .containsEntry("normal_p10", 1.2)
+                .containsEntry("normal_p50", 2.0)
+                .containsEntry("normal_p90", 2.8)
+                .containsEntry("forecast", 5.0)
+                .containsEntry("anomaly", 3.0)
+                .containsEntry("category", "much above normal");
+        Map<String, Object> cold = (Map<String, Object>) days.get(1).get("temperature_2m_min");
+        assertThat(cold).containsEntry("anomaly", -3.0).containsEntry("category", "much below normal");
+        Map<String, Object> usual = (Map<String, Object>) days.get(1).get("temperature_2m_max");
+        assertThat(usual).containsEntry("category", "near normal");
+
+        Map<String, Object> summary = (Map<String, Object>) result.get("summary");
+        assertThat(summary).containsEntry("days_above_p75", 1)
+                .containsEntry("mean_max_temperature_anomaly", 1.5)
+                .containsEntry("assessment", "near normal");
+    }
+
+    @Test
+    void shouldComputeNormalsOncePerGridCell() {
+        // Arrange
+        stubReferencePeriod();
+        ClimateNormalsService service = service(disabledStore(), 0);
+
+        // Act
+        var first = service.getNormals(47.3769, 8.5417, "Europe/Zurich").join();
+        var second = service.getNormals(47.3771, 8.5419, "Europe/Zurich").join();
+
+        // Assert
+        assertThat(second).isSameAs(first);
+        verify(historicalWeatherService, times(1)).getHistoricalWeather(anyDouble(), anyDouble(), anyString(),
+                anyString(), anyString(), eq(Priority.BATCH));
+        assertThat(meterRegistry.get("openmeteo.normals.requests").tag("result", "memory").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldReadPersistedNormals_withoutDownloadingAgain(@TempDir Path directory) throws InterruptedException {
+        // Arrange
+        stubReferencePeriod();
+        ArchiveStore store = new ArchiveStore(new SimpleMeterRegistry(), true, directory, 0.1, 90,
+                Long.MAX_VALUE, 4, Clock.fixed(Instant.parse("2026-01-15T00:00:00Z"), ZoneOffset.UTC));
+        var computed = service(store, 0).getNormals(47.3769, 8.5417, "Europe/Zurich").join();
+        for (int i = 0; i < 100 && store.sizeBytes() == 0; i++) {
+            Thread.sleep(50);
+        }
+
+        // Act
+        var persisted = service(store, 0).getNormals(47.3769, 8.5417, "Europe/Zurich").join();
+
+        // Assert
+        assertThat(persisted.columns()).isEqualTo(computed.columns());
+        verify(historicalWeatherService, times(1)).getHistoricalWeather(anyDouble(), anyDouble(), anyString(),
+                anyString(), anyString(), eq(Priority.BATCH));
+        assertThat(meterRegistry.get("openmeteo.normals.requests").tag("result", "store").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldPoolNeighbouringDays_whenSmoothing() {
+        // Arrange
+        stubReferencePeriod();
+
+        // Act
+        var normals = service(disabledStore(), 1).getNormals(47.3769, 8.5417, "UTC").join();
+
+        // Assert - February 29 only exists in 1992 but pools February 28 and March 1 of both years
+        assertThat(ClimateNormalsService.slot(LocalDate.of(1992, 2, 29))).isEqualTo(59);
+        assertThat(ClimateNormalsService.slot(LocalDate.of(1991, 3, 1))).isEqualTo(60);
+        assertThat(normals.value("temperature_2m_max", "mean", LocalDate.of(1992, 2, 29))).isEqualTo(2.2);
+        assertThat(normals.value("precipitation_sum", "p50", LocalDate.of(2026, 6, 1))).isEqualTo(5.0);
+    }
+
+    @Test
+    void shouldReturnError_andRetryLater_whenReferencePeriodFails() {
+        // Arrange
+        when(historicalWeatherService.getHistoricalWeather(anyDouble(), anyDouble(), anyString(), anyString(),
+                anyString(), eq(Priority.BATCH)))
+                .thenReturn(CompletableFuture.completedFuture(Map.of(
+                        "error", "Failed to fetch historical weather data",
+                        "message", "503 Service Unavailable")));
+        stubForecast();
+        ClimateNormalsService service = service(disabledStore(), 0);
+
+        // Act
+        var first = service.getClimateNormals(47.3769, 8.5417, 2, "Europe/Zurich").join();
+        var second = service.getClimateNormals(47.3769, 8.5417, 2, "Europe/Zurich").join();
+
+        // Assert
+        assertThat(first).containsEntry("error", "Failed to compute climate normals");
+        assertThat((String) first.get("message")).contains("503");
+        assertThat(second).containsKey("error");
+        verify(historicalWeatherService, times(2)).getHistoricalWeather(anyDouble(), anyDouble(), anyString(),
+                anyString(), anyString(), eq(Priority.BATCH));
+    }
+}
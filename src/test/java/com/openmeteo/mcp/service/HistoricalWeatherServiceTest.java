@@ -1,23 +1,60 @@
 package com.openmeteo.mcp.service;
 
+import com.openmeteo.mcp.client.CircuitOpenException;
+import com.openmeteo.mcp.client.QuotaExceededException;
+import com.openmeteo.mcp.client.UpstreamLimiter;
+import com.openmeteo.mcp.exception.OpenMeteoException;
+import com.openmeteo.mcp.model.column.DoubleColumn;
+import com.openmeteo.mcp.model.column.IntColumn;
+import com.openmeteo.mcp.model.column.TimeAxis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
-
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 /**
@@ -27,6 +64,8 @@ import static org.mockito.Mockito.when;
 @ExtendWith(MockitoExtension.class)
 class HistoricalWeatherServiceTest {
 
+    private static final ObjectMapper MAPPER = JsonMapper.builder().build();
+
     @Mock
     private WebClient.Builder webClientBuilder;
 
@@ -48,7 +87,9 @@ class HistoricalWeatherServiceTest {
     void setUp() {
         when(webClientBuilder.baseUrl(any(String.class))).thenReturn(webClientBuilder);
         when(webClientBuilder.build()).thenReturn(webClient);
-        service = new HistoricalWeatherService(webClientBuilder);
+        service = new HistoricalWeatherService(webClientBuilder,
+                new UpstreamLimiter(new SimpleMeterRegistry(), 20, 2, 200, 0.7, 100, 2000),
+                disabledArchiveStore(), 366, "year", "season", 4, 2, 1);
     }
 
     @Nested
@@ -94,8 +135,8 @@ class HistoricalWeatherServiceTest {
             when(webClient.get()).thenReturn(requestHeadersUriSpec);
             when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
             when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-            when(responseSpec.bodyToMono(Map.class))
-                    .thenReturn(Mono.error(new RuntimeException("API Error")));
+            when(responseSpec.bodyToFlux(DataBuffer.class))
+                    .thenReturn(Flux.error(new RuntimeException("API Error")));
 
             // Act
             var result = service.getHistoricalWeather(47.3769, 8.5417, "2023-01-01", "2023-01-03", "UTC").join();
@@ -308,13 +349,367 @@ class HistoricalWeatherServiceTest {
         }
     }
 
+    @Nested
+    class StreamingDecodeTests {
+
+        @Test
+        void shouldDecodeResponseSplitAcrossBuffers_intoPrimitiveColumns() {
+            // Arrange
+            Map<String, Object> apiResponse = Map.of(
+                    "latitude", 47.38,
+                    "daily_units", Map.of("temperature_2m_max", "°C"),
+                    "daily", Map.of(
+                            "time", List.of("2023-01-01", "2023-01-02", "2023-01-03"),
+                            "temperature_2m_max", Arrays.asList(5.5, null, 7.25),
+                            "weathercode", List.of(3, 61, 0)
+                    )
+            );
+            setupWebClientMock(apiResponse, 7);
+
+            // Act
+            var result = service.getHistoricalWeather(47.3769, 8.5417, "2023-01-01", "2023-01-03", "UTC").join();
+
+            // Assert
+            @SuppressWarnings("unchecked")
+            Map<String, Object> daily = (Map<String, Object>) result.get("daily");
+            assertThat(daily.get("time")).isInstanceOf(TimeAxis.class)
+                    .isEqualTo(List.of("2023-01-01", "2023-01-02", "2023-01-03"));
+            assertThat(daily.get("temperature_2m_max")).isInstanceOf(DoubleColumn.class)
+                    .isEqualTo(Arrays.asList(5.5, null, 7.25));
+            assertThat(daily.get("weathercode")).isInstanceOf(IntColumn.class)
+                    .isEqualTo(List.of(3, 61, 0));
+        }
+
+        @Test
+        void shouldSkipMissingValues_inStatistics() {
+            // Arrange
+            Map<String, Object> apiResponse = Map.of(
+                    "daily", Map.of(
+                            "temperature_2m_max", Arrays.asList(null, 10.0, 20.0),
+                            "windspeed_10m_max", Arrays.asList(10.0, null, 20.0)
+                    )
+            );
+            setupWebClientMock(apiResponse, 5);
+
+            // Act
+            var result = service.getHistoricalWeather(47.3769, 8.5417, "2023-01-01", "2023-01-03", "UTC").join();
+
+            // Assert
+            @SuppressWarnings("unchecked")
+            Map<String, Object> statistics = (Map<String, Object>) result.get("statistics");
+            @SuppressWarnings("unchecked")
+            Map<String, Object> windStats = (Map<String, Object>) statistics.get("wind");
+            @SuppressWarnings("unchecked")
+            Map<String, Object> tempStats = (Map<String, Object>) statistics.get("temperature");
+            assertThat(windStats.get("average_speed_kmh")).isEqualTo(15.0);
+            assertThat(tempStats.get("max")).isEqualTo(20.0);
+        }
+
+        @Test
+        void shouldReturnError_whenResponseIsTruncated() {
+            // Arrange
+            when(webClient.get()).thenReturn(requestHeadersUriSpec);
+            when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
+            when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+            when(responseSpec.bodyToFlux(DataBuffer.class))
+                    .thenReturn(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(
+                            "{\"daily\": {\"temperature_2m_max\": [1.0, 2".getBytes())));
+
+            // Act
+            var result = service.getHistoricalWeather(47.3769, 8.5417, "2023-01-01", "2023-01-03", "UTC").join();
+
+            // Assert
+            assertThat(result.get("error")).isEqualTo("Failed to fetch historical weather data");
+        }
+    }
+
+    @Nested
+    class WindowedFetchTests {
+
+        private MockWebServer mockServer;
+        private Map<String, AtomicInteger> requestsByStart;
+        private Set<String> slowStarts;
+
+        @BeforeEach
+        void setUp() throws IOException {
+            mockServer = new MockWebServer();
+            requestsByStart = new ConcurrentHashMap<>();
+            slowStarts = ConcurrentHashMap.newKeySet();
+            mockServer.setDispatcher(new Dispatcher() {
+                @Override
+                public MockResponse dispatch(RecordedRequest request) {
+                    String start = request.getRequestUrl().queryParameter("start_date");
+                    String end = request.getRequestUrl().queryParameter("end_date");
+                    int attempt = requestsByStart.computeIfAbsent(start, key -> new AtomicInteger()).incrementAndGet();
+                    if ("2021-01-01".equals(start) && attempt == 1) {
+                        return new MockResponse().setResponseCode(500).setBody("busy");
+                    }
+                    return new MockResponse()
+                            .setHeader("Content-Type", "application/json")
+                            .setBodyDelay(slowStarts.contains(start) ? 3 : 0, TimeUnit.SECONDS)
+                            .setBody(archiveResponse(LocalDate.parse(start), LocalDate.parse(end)));
+                }
+            });
+            mockServer.start();
+        }
+
+        @AfterEach
+        void tearDown() throws IOException {
+            mockServer.shutdown();
+        }
+
+        private HistoricalWeatherService windowedService(int splitThresholdDays, String windowUnit) {
+            return windowedService(splitThresholdDays, windowUnit, disabledArchiveStore());
+        }
+
+        private HistoricalWeatherService windowedService(int splitThresholdDays, String windowUnit,
+                                                         ArchiveStore archiveStore) {
+            WebClient.Builder archiveBuilder = mock(WebClient.Builder.class);
+            when(archiveBuilder.baseUrl(anyString()))
+                    .thenReturn(WebClient.builder().baseUrl(mockServer.url("/v1/archive").toString()));
+            return new HistoricalWeatherService(archiveBuilder,
+                    new UpstreamLimiter(new SimpleMeterRegistry(), 20, 2, 200, 0.7, 100, 2000),
+                    archiveStore, splitThresholdDays, windowUnit, windowUnit, 3, 2, 1);
+        }
+
+        @Test
+        void shouldServeStoredDaysLocally_andFetchOnlyMissingDays(@TempDir Path storeDirectory) throws InterruptedException {
+            // Arrange
+            ArchiveStore store = new ArchiveStore(new SimpleMeterRegistry(), true, storeDirectory, 0.1, 90,
+                    Long.MAX_VALUE, 4, Clock.fixed(Instant.parse("2026-01-15T00:00:00Z"), ZoneOffset.UTC));
+            HistoricalWeatherService cached = windowedService(366, "year", store);
+            HistoricalWeatherService uncached = windowedService(366, "year");
+            cached.getHistoricalWeather(47.3769, 8.5417, "2022-03-01", "2022-06-30", "UTC").join();
+            for (int i = 0; i < 100 && store.sizeBytes() == 0; i++) {
+                Thread.sleep(50);
+            }
+            requestsByStart.clear();
+
+            // Act
+            var result = cached.getHistoricalWeather(47.3769, 8.5417, "2022-01-01", "2022-12-31", "UTC").join();
+
+            // Assert
+            assertThat(requestsByStart).containsOnlyKeys("2022-01-01", "2022-07-01");
+            var expected = uncached.getHistoricalWeather(47.3769, 8.5417, "2022-01-01", "2022-12-31", "UTC").join();
+            assertThat(result.get("daily")).isEqualTo(expected.get("daily"));
+            assertThat(result.get("statistics")).isEqualTo(expected.get("statistics"));
+        }
+
+        @Test
+        void shouldMatchSingleRequest_whenRangeIsSplitIntoYears() {
+            // Arrange
+            HistoricalWeatherService split = windowedService(366, "year");
+            HistoricalWeatherService single = windowedService(100_000, "year");
+
+            // Act
+            var splitResult = split.getHistoricalWeather(47.3769, 8.5417, "2020-03-15", "2023-02-10", "UTC").join();
+            var singleResult = single.getHistoricalWeather(47.3769, 8.5417, "2020-03-15", "2023-02-10", "UTC").join();
+
+            // Assert
+            assertThat(splitResult).doesNotContainKey("error");
+            assertThat(splitResult.get("statistics")).isEqualTo(singleResult.get("statistics"));
+            assertThat(splitResult.get("daily")).isEqualTo(singleResult.get("daily"));
+
+            @SuppressWarnings("unchecked")
+            Map<String, Object> daily = (Map<String, Object>) splitResult.get("daily");
+            assertThat(daily.get("time")).isInstanceOf(TimeAxis.class);
+            assertThat(daily.get("weathercode")).isInstanceOf(IntColumn.class);
+            assertThat((List<?>) daily.get("time")).hasSize(1063)
+                    .startsWith("2020-03-15")
+                    .endsWith("2023-02-10");
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        void shouldStreamEachWindowOnce_withRunningStatistics() {
+            // Arrange
+            HistoricalWeatherService streaming = windowedService(366, "season");
+            var single = windowedService(100_000, "year")
+                    .getHistoricalWeather(47.3769, 8.5417, "2020-03-15", "2023-02-10", "UTC").join();
+
+            // Act
+            List<HistoricalWeatherService.WindowData> windows = streaming.streamHistoricalWeather(47.3769, 8.5417,
+                    "2020-03-15", "2023-02-10", "UTC", UpstreamLimiter.Priority.BATCH).collectList().block();
+
+            // Assert - 2020 spring to 2022/23 winter
+            assertThat(windows).hasSize(12);
+            assertThat(windows).extracting(HistoricalWeatherService.WindowData::index)
+                    .containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11);
+            assertThat(windows.getFirst().window()).isEqualTo(new HistoricalWeatherService.Window(
+                    LocalDate.parse("2020-03-15"), LocalDate.parse("2020-05-31")));
+            List<String> time = new ArrayList<>();
+            for (var window : windows) {
+                List<String> windowTime = (List<String>) window.daily().get("time");
+                assertThat(windowTime.getFirst()).isEqualTo(window.window().start().toString());
+                assertThat(windowTime.getLast()).isEqualTo(window.window().end().toString());
+                time.addAll(windowTime);
+            }
+            assertThat(time).isEqualTo(((Map<String, Object>) single.get("daily")).get("time"));
+            assertThat(windows.getLast().statistics()).isEqualTo(single.get("statistics"));
+            assertThat(windows.getFirst().statistics()).isNotEqualTo(single.get("statistics"));
+        }
+
+        @Test
+        void shouldStreamFirstWindow_beforeLaterWindowsArrive() {
+            // Arrange
+            HistoricalWeatherService streaming = windowedService(366, "season");
+            slowStarts.add("2020-06-01");
+
+            // Act
+            var first = streaming.streamHistoricalWeather(47.3769, 8.5417, "2020-03-15", "2023-02-10", "UTC",
+                    UpstreamLimiter.Priority.BATCH).blockFirst(Duration.ofSeconds(2));
+
+            // Assert
+            assertThat(first.index()).isZero();
+            assertThat(first.total()).isEqualTo(12);
+            assertThat((List<?>) first.daily().get("time")).hasSize(78);
+        }
+
+        @Test
+        void shouldRetryOnlyTheFailedWindow() {
+            // Arrange
+            HistoricalWeatherService split = windowedService(366, "year");
+
+            // Act
+            var result = split.getHistoricalWeather(47.3769, 8.5417, "2020-03-15", "2023-02-10", "UTC").join();
+
+            // Assert
+            assertThat(result).doesNotContainKey("error");
+            assertThat(requestsByStart.get("2021-01-01").get()).isEqualTo(2);
+            assertThat(requestsByStart.get("2020-03-15").get()).isEqualTo(1);
+            assertThat(requestsByStart.get("2022-01-01").get()).isEqualTo(1);
+            assertThat(requestsByStart.get("2023-01-01").get()).isEqualTo(1);
+        }
+
+        @Test
+        void shouldReportProgressPerWindow() {
+            // Arrange
+            HistoricalWeatherService split = windowedService(366, "year");
+            List<String> progress = new CopyOnWriteArrayList<>();
+
+            // Act
+            split.getHistoricalWeather(47.3769, 8.5417, "2020-03-15", "2023-02-10", "UTC",
+                    UpstreamLimiter.Priority.INTERACTIVE,
+                    (completed, total, window) -> progress.add(completed + "/" + total)).join();
+
+            // Assert
+            assertThat(progress).containsExactly("1/4", "2/4", "3/4", "4/4");
+        }
+
+        @Test
+        void shouldNotSplit_whenRangeIsWithinThreshold() {
+            // Arrange
+            HistoricalWeatherService split = windowedService(366, "year");
+
+            // Act
+            var windows = split.windows(LocalDate.parse("2023-01-01"), LocalDate.parse("2024-01-01"));
+
+            // Assert
+            assertThat(windows).containsExactly(new HistoricalWeatherService.Window(
+                    LocalDate.parse("2023-01-01"), LocalDate.parse("2024-01-01")));
+        }
+
+        @Test
+        void shouldSplitAtMeteorologicalSeasons() {
+            // Arrange
+            HistoricalWeatherService split = windowedService(30, "season");
+
+            // Act
+            var windows = split.windows(LocalDate.parse("2022-11-20"), LocalDate.parse("2023-07-01"));
+
+            // Assert
+            assertThat(windows).extracting(window -> window.start() + ".." + window.end()).containsExactly(
+                    "2022-11-20..2022-11-30",
+                    "2022-12-01..2023-02-28",
+                    "2023-03-01..2023-05-31",
+                    "2023-06-01..2023-07-01");
+        }
+
+        /**
+         * Deterministic archive response for the range; values depend only on the date.
+         */
+        private String archiveResponse(LocalDate start, LocalDate end) {
+            List<String> time = new ArrayList<>();
+            List<Double> maxTemperature = new ArrayList<>();
+            List<Double> minTemperature = new ArrayList<>();
+            List<Double> meanTemperature = new ArrayList<>();
+            List<Double> precipitation = new ArrayList<>();
+            List<Double> windSpeed = new ArrayList<>();
+            List<Integer> weatherCode = new ArrayList<>();
+            for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+                long n = day.toEpochDay();
+                time.add(day.toString());
+                maxTemperature.add((n % 37) * 0.37 + 0.1);
+                minTemperature.add((n % 29) * -0.29 - 0.3);
+                meanTemperature.add(n % 11 == 0 ? null : (n % 31) * 0.31 - 1.7);
+                precipitation.add((n * 7 % 13) * 0.13);
+                windSpeed.add((n % 17) * 1.7 + 0.01);
+                weatherCode.add((int) (n % 4));
+            }
+            Map<String, Object> daily = new LinkedHashMap<>();
+            daily.put("time", time);
+            daily.put("temperature_2m_max", maxTemperature);
+            daily.put("temperature_2m_min", minTemperature);
+            daily.put("temperature_2m_mean", meanTemperature);
+            daily.put("precipitation_sum", precipitation);
+            daily.put("weathercode", weatherCode);
+            daily.put("windspeed_10m_max", windSpeed);
+            return MAPPER.writeValueAsString(Map.of("daily", daily));
+        }
+    }
+
+    @Nested
+    class RetryTests {
+
+        @Test
+        void shouldRetryTransientUpstreamFailures() {
+            // Act & Assert
+            assertThat(HistoricalWeatherService.isRetryable(upstreamError(503))).isTrue();
+            assertThat(HistoricalWeatherService.isRetryable(upstreamError(429))).isTrue();
+            assertThat(HistoricalWeatherService.isRetryable(new TimeoutException("slow"))).isTrue();
+            assertThat(HistoricalWeatherService.isRetryable(new IOException("connection reset"))).isTrue();
+        }
+
+        @Test
+        void shouldNotRetryLocalRejectionsOrClientErrors() {
+            // Act & Assert
+            assertThat(HistoricalWeatherService.isRetryable(new CircuitOpenException("archive"))).isFalse();
+            assertThat(HistoricalWeatherService.isRetryable(new QuotaExceededException(1000))).isFalse();
+            assertThat(HistoricalWeatherService.isRetryable(
+                    new OpenMeteoException("Upstream concurrency limit reached", 503))).isFalse();
+            assertThat(HistoricalWeatherService.isRetryable(upstreamError(400))).isFalse();
+        }
+
+        private WebClientResponseException upstreamError(int status) {
+            return WebClientResponseException.create(status, "error", new HttpHeaders(), new byte[0], null);
+        }
+    }
+
     // ========== Helper Methods ==========
 
-    @SuppressWarnings("unchecked")
+    private static ArchiveStore disabledArchiveStore() {
+        return new ArchiveStore(new SimpleMeterRegistry(), false, Path.of("unused"), 0.1, 90,
+                Long.MAX_VALUE, 4, Clock.systemUTC());
+    }
+
     private void setupWebClientMock(Map<String, Object> apiResponse) {
+        setupWebClientMock(apiResponse, 4096);
+    }
+
+    /**
+     * Serves the response as JSON split into buffers of the given size.
+     */
+    @SuppressWarnings("unchecked")
+    private void setupWebClientMock(Map<String, Object> apiResponse, int bufferSize) {
+        byte[] json = MAPPER.writeValueAsBytes(apiResponse);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < json.length; offset += bufferSize) {
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(
+                    Arrays.copyOfRange(json, offset, Math.min(json.length, offset + bufferSize))));
+        }
         when(webClient.get()).thenReturn(requestHeadersUriSpec);
         when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.bodyToMono(Map.class)).thenReturn(Mono.just(apiResponse));
+        when(responseSpec.bodyToFlux(DataBuffer.class)).thenReturn(Flux.fromIterable(buffers));
     }
 }
@@ -0,0 +1,173 @@
+package com.openmeteo.mcp.service;
+
+import com.openmeteo.mcp.client.ForecastCache;
+import com.openmeteo.mcp.client.UpstreamLimiter.Priority;
+import com.openmeteo.mcp.model.dto.WeatherForecast;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for LiveWeatherHub.
+ */
+@ExtendWith(MockitoExtension.class)
+class LiveWeatherHubTest {
+
+    @Mock
+    private WeatherService weatherService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StreamConnectionManager connectionManager;
+    private VirtualTimeScheduler scheduler;
+    private LiveWeatherHub hub;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        connectionManager = new StreamConnectionManager(2, 3600000);
+        scheduler = VirtualTimeScheduler.getOrSet();
+        ForecastCache forecastCache = new ForecastCache(meterRegistry, true, 100, 900, 0.01, 3600, 0.1,
+                86400, 86400, 60);
+        hub = new LiveWeatherHub(weatherService, forecastCache, connectionManager, meterRegistry,
+                Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        VirtualTimeScheduler.reset();
+    }
+
+    private void stubPoll() {
+        when(weatherService.getWeather(anyDouble(), anyDouble(), anyInt(), anyBoolean(), anyString(),
+                eq(Priority.PREFETCH)))
+                .thenReturn(CompletableFuture.completedFuture(new WeatherForecast(47.37, 8.54, null,
+                        "Europe/Zurich", null, null, null, null, null, null)));
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    @Test
+    void shouldPollEachCellOnce_andFanOutToAllSubscribers() {
+        // Arrange
+        stubPoll();
+        List<WeatherForecast> first = new CopyOnWriteArrayList<>();
+        List<WeatherForecast> second = new CopyOnWriteArrayList<>();
+
+        // Act - two nearby subscribers share the cell of the first one
+        Disposable a = hub.subscribe(47.3769, 8.5417, "Europe/Zurich", "alice").subscribe(first::add);
+        Disposable b = hub.subscribe(47.3771, 8.5419, "Europe/Zurich", "bob").subscribe(second::add);
+        scheduler.advanceTimeBy(Duration.ofMinutes(10));
+
+        // Assert - polls at 0, 5 and 10 minutes; the late joiner got the latest update at once
+        verify(weatherService, times(3)).getWeather(anyDouble(), anyDouble(), anyInt(), anyBoolean(),
+                anyString(), eq(Priority.PREFETCH));
+        assertThat(first).hasSize(3);
+        assertThat(second).hasSize(3);
+        assertThat(gauge("openmeteo.watch.cells")).isEqualTo(1.0);
+        assertThat(gauge("openmeteo.watch.subscribers")).isEqualTo(2.0);
+        assertThat(connectionManager.getActiveConnectionCount()).isEqualTo(2);
+        a.dispose();
+        b.dispose();
+    }
+
+    @Test
+    void shouldStopPolling_whenLastSubscriberLeaves() {
+        // Arrange
+        stubPoll();
+        Disposable a = hub.subscribe(47.3769, 8.5417, "Europe/Zurich", "alice").subscribe();
+        Disposable b = hub.subscribe(47.3769, 8.5417, "Europe/Zurich", "bob").subscribe();
+
+        // Act
+        a.dispose();
+        scheduler.advanceTimeBy(Duration.ofMinutes(5));
+        b.dispose();
+        scheduler.advanceTimeBy(Duration.ofMinutes(30));
+
+        // Assert - polls at 0 and 5 minutes only
+        verify(weatherService, times(2)).getWeather(anyDouble(), anyDouble(), anyInt(), anyBoolean(),
+                anyString(), eq(Priority.PREFETCH));
+        assertThat(gauge("openmeteo.watch.cells")).isZero();
+        assertThat(connectionManager.getActiveConnectionCount()).isZero();
+    }
+
+    @Test
+    void shouldPollDistantLocationsSeparately() {
+        // Arrange
+        stubPoll();
+
+        // Act
+        Disposable zurich = hub.subscribe(47.3769, 8.5417, "auto", "alice").subscribe();
+        Disposable geneva = hub.subscribe(46.2044, 6.1432, "auto", "bob").subscribe();
+
+        // Assert
+        verify(weatherService).getWeather(eq(47.3769), eq(8.5417), anyInt(), anyBoolean(), anyString(),
+                eq(Priority.PREFETCH));
+        verify(weatherService).getWeather(eq(46.2044), eq(6.1432), anyInt(), anyBoolean(), anyString(),
+                eq(Priority.PREFETCH));
+        assertThat(gauge("openmeteo.watch.cells")).isEqualTo(2.0);
+        zurich.dispose();
+        geneva.dispose();
+    }
+
+    @Test
+    void shouldKeepPolling_whenOnePollFails() {
+        // Arrange
+        when(weatherService.getWeather(anyDouble(), anyDouble(), anyInt(), anyBoolean(), anyString(),
+                eq(Priority.PREFETCH)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("503")))
+                .thenReturn(CompletableFuture.completedFuture(new WeatherForecast(47.37, 8.54, null,
+                        "Europe/Zurich", null, null, null, null, null, null)));
+        List<WeatherForecast> updates = new CopyOnWriteArrayList<>();
+
+        // Act
+        Disposable a = hub.subscribe(47.3769, 8.5417, "auto", "alice").subscribe(updates::add);
+        scheduler.advanceTimeBy(Duration.ofMinutes(5));
+
+        // Assert
+        assertThat(updates).hasSize(1);
+        assertThat(meterRegistry.get("openmeteo.watch.polls").tag("result", "error").counter().count())
+                .isEqualTo(1.0);
+        a.dispose();
+    }
+
+    @Test
+    void shouldRejectSubscription_atConnectionLimit() {
+        // Arrange - the connection manager allows two connections
+        stubPoll();
+        Disposable a = hub.subscribe(47.3769, 8.5417, "auto", "alice").subscribe();
+        Disposable b = hub.subscribe(47.3769, 8.5417, "auto", "bob").subscribe();
+
+        // Act & Assert
+        StepVerifier.create(hub.subscribe(47.3769, 8.5417, "auto", "carol"))
+                .expectError(IllegalStateException.class)
+                .verify();
+        verify(weatherService, never()).getWeather(anyDouble(), anyDouble(), anyInt(), anyBoolean(), anyString());
+        a.dispose();
+        b.dispose();
+    }
+}
@@ -1,5 +1,7 @@
 package com.openmeteo.mcp.service;
 
+import com.openmeteo.mcp.client.UpstreamLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -45,7 +47,8 @@ class MarineConditionsServiceTest {
     void setUp() {
         when(webClientBuilder.baseUrl(any(String.class))).thenReturn(webClientBuilder);
         when(webClientBuilder.build()).thenReturn(webClient);
-        service = new MarineConditionsService(webClientBuilder);
+        service = new MarineConditionsService(webClientBuilder,
+                new UpstreamLimiter(new SimpleMeterRegistry(), 20, 2, 200, 0.7, 100, 2000));
     }
 
     @Nested
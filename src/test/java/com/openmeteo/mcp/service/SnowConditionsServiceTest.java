@@ -12,6 +12,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -138,9 +139,10 @@ class SnowConditionsServiceTest {
                 null, hourly, daily, 1.0
         );
 
-        when(client.getSnowConditions(anyDouble(), anyDouble(), anyInt(),
+        when(client.serveSnowConditions(anyDouble(), anyDouble(), anyInt(),
                 anyBoolean(), anyString()))
-                .thenReturn(CompletableFuture.completedFuture(mockConditions));
+                .thenReturn(CompletableFuture.completedFuture(
+                        new OpenMeteoClient.Served<>(mockConditions, Optional.empty())));
 
         // Act
         var result = service.getSnowConditionsWithAssessment(
@@ -174,9 +176,10 @@ class SnowConditionsServiceTest {
                 null, null, null, null  // No hourly/daily data
         );
 
-        when(client.getSnowConditions(anyDouble(), anyDouble(), anyInt(),
+        when(client.serveSnowConditions(anyDouble(), anyDouble(), anyInt(),
                 anyBoolean(), anyString()))
-                .thenReturn(CompletableFuture.completedFuture(mockConditions));
+                .thenReturn(CompletableFuture.completedFuture(
+                        new OpenMeteoClient.Served<>(mockConditions, Optional.empty())));
 
         // Act
         var result = service.getSnowConditionsWithAssessment(
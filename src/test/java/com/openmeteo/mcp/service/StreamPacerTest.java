@@ -0,0 +1,128 @@
+package com.openmeteo.mcp.service;
+
+import com.openmeteo.mcp.model.stream.StreamChunk;
+import com.openmeteo.mcp.model.stream.StreamMessage;
+import com.openmeteo.mcp.model.stream.StreamMetadata;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for StreamPacer.
+ */
+class StreamPacerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private StreamPacer pacer(long coalesceWindowMs, int maxMessagesPerSecond) {
+        return new StreamPacer(meterRegistry, coalesceWindowMs, 32, maxMessagesPerSecond, 32);
+    }
+
+    private static StreamMessage text(int chunkId, String content) {
+        return StreamMessage.data(StreamChunk.of(chunkId, content));
+    }
+
+    @Test
+    void shouldSendOnDemand_withoutDelay() {
+        // Arrange
+        Flux<Integer> paced = pacer(0, 0).pace("data", Flux.range(0, 3));
+
+        // Act & Assert - each requested element arrives at once, nothing is pushed ahead of demand
+        StepVerifier.create(paced, 0)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenRequest(1)
+                .expectNext(0)
+                .thenRequest(2)
+                .expectNext(1, 2)
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        assertThat(meterRegistry.get("openmeteo.stream.messages").tag("endpoint", "data").counter().count())
+                .isEqualTo(3.0);
+        assertThat(meterRegistry.get("openmeteo.stream.connection.duration")
+                .tag("endpoint", "data").tag("outcome", "complete").timer().count())
+                .isEqualTo(1L);
+    }
+
+    @Test
+    void shouldRecordCancelledConnections() {
+        // Act
+        StepVerifier.create(pacer(0, 0).pace("data", Flux.never()))
+                .thenCancel()
+                .verify();
+
+        // Assert
+        assertThat(meterRegistry.get("openmeteo.stream.connection.duration")
+                .tag("endpoint", "data").tag("outcome", "cancel").timer().count())
+                .isEqualTo(1L);
+    }
+
+    @Test
+    void shouldCapRatePerConnection_afterBurst() {
+        // Act & Assert - 5 messages per second: a burst of 5, then one every 200 ms
+        StepVerifier.withVirtualTime(() -> pacer(0, 5).pace("data", Flux.range(0, 8)))
+                .expectSubscription()
+                .expectNext(0, 1, 2, 3, 4)
+                .expectNoEvent(Duration.ofMillis(199))
+                .thenAwait(Duration.ofMillis(1))
+                .expectNext(5)
+                .expectNoEvent(Duration.ofMillis(199))
+                .thenAwait(Duration.ofMillis(201))
+                .expectNext(6, 7)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldCoalesceTextChunks_withinWindow() {
+        // Arrange
+        StreamMessage metadata = StreamMessage.metadata(StreamMetadata.of("chat"));
+        StreamMessage last = StreamMessage.data(StreamChunk.last(3, "ld"));
+
+        // Act & Assert - the last chunk arrives after the window and is sent on its own
+        StepVerifier.withVirtualTime(() -> pacer(20, 0).coalesce("chat",
+                        Flux.just(metadata, text(0, "Hel"), text(1, "lo "), text(2, "wor"))
+                                .concatWith(Flux.just(last).delaySubscription(Duration.ofMillis(100)))))
+                .expectSubscription()
+                .thenAwait(Duration.ofMillis(20))
+                .expectNext(metadata)
+                .assertNext(message -> assertThat((StreamChunk) message.data())
+                        .extracting(StreamChunk::chunkId, StreamChunk::content)
+                        .containsExactly(0, "Hello wor"))
+                .thenAwait(Duration.ofMillis(100))
+                .expectNext(last)
+                .verifyComplete();
+
+        assertThat(meterRegistry.get("openmeteo.stream.coalesced").tag("endpoint", "chat").counter().count())
+                .isEqualTo(2.0);
+    }
+
+    @Test
+    void shouldMergeOnlyConsecutiveTextChunks() {
+        // Arrange
+        StreamMessage progress = StreamMessage.progress(1, 2, "Generating response...");
+
+        // Act
+        List<StreamMessage> merged = StreamPacer.merge(List.of(
+                text(0, "a"), text(1, "b"), progress, text(2, "c"),
+                StreamMessage.data(StreamChunk.last(3, "d")), text(4, "e")));
+
+        // Assert - progress and the last chunk end a run
+        assertThat(merged).extracting(message -> message.data() instanceof StreamChunk chunk
+                        ? chunk.content() : message.type())
+                .containsExactly("ab", "progress", "cd", "e");
+        assertThat(((StreamChunk) merged.get(2).data()).isLastChunk()).isTrue();
+    }
+}
@@ -0,0 +1,268 @@
+package com.openmeteo.mcp.service;
+
+import com.openmeteo.mcp.model.stream.StreamMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for StreamReplayBuffer.
+ */
+class StreamReplayBufferTest {
+
+    private static final String SCOPE = "weather-forecast|alice|[47.3, 8.5]";
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger sourceCalls;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sourceCalls = new AtomicInteger();
+    }
+
+    private StreamReplayBuffer buffer(int maxEvents, long budgetBytes, StreamReplayBuffer.Backend backend) {
+        return new StreamReplayBuffer(new ObjectMapper(), meterRegistry, true, maxEvents, Duration.ofMinutes(5),
+                budgetBytes, backend, Clock.systemUTC());
+    }
+
+    private Flux<StreamMessage> messages(int count) {
+        sourceCalls.incrementAndGet();
+        return Flux.range(0, count).map(i -> StreamMessage.data("chunk " + i));
+    }
+
+    private double resumes(String result) {
+        return meterRegistry.get("openmeteo.stream.replay.resumes").tag("result", result).counter().count();
+    }
+
+    @Test
+    void shouldResumeAfterLastEventId_withBufferedEventsThenLiveTail() {
+        // Arrange - a running stream the client drops after two events
+        StreamReplayBuffer buffer = buffer(100, Long.MAX_VALUE, null);
+        Sinks.Many<StreamMessage> upstream = Sinks.many().unicast().onBackpressureBuffer();
+        List<ServerSentEvent<StreamMessage>> received = buffer.stream(SCOPE, null, () -> {
+            sourceCalls.incrementAndGet();
+            return upstream.asFlux();
+        }).doOnSubscribe(s -> {
+            upstream.tryEmitNext(StreamMessage.data("a"));
+            upstream.tryEmitNext(StreamMessage.data("b"));
+        }).take(2).collectList().block();
+        assertThat(received).hasSize(2);
+        upstream.tryEmitNext(StreamMessage.data("c"));
+
+        // Act
+        Flux<ServerSentEvent<StreamMessage>> resumed = buffer.stream(SCOPE, received.get(0).id(), () -> messages(1));
+
+        // Assert
+        String streamId = received.get(0).id().substring(0, received.get(0).id().lastIndexOf(':'));
+        StepVerifier.create(resumed)
+                .assertNext(sse -> assertThat(sse.id()).isEqualTo(streamId + ":1"))
+                .assertNext(sse -> assertThat(sse.id()).isEqualTo(streamId + ":2"))
+                .then(() -> {
+                    upstream.tryEmitNext(StreamMessage.complete());
+                    upstream.tryEmitComplete();
+                })
+                .assertNext(sse -> assertThat(sse.event()).isEqualTo("complete"))
+                .verifyComplete();
+        assertThat(sourceCalls).hasValue(1);
+        assertThat(resumes("memory")).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldRequestFromSource_onlyAsReaderDrains() {
+        // Arrange
+        StreamReplayBuffer buffer = buffer(100, Long.MAX_VALUE, null);
+        AtomicLong requested = new AtomicLong();
+        Flux<ServerSentEvent<StreamMessage>> stream = buffer.stream(SCOPE, null, () -> Flux.range(0, 10_000)
+                .map(i -> StreamMessage.data("chunk " + i))
+                .doOnRequest(requested::addAndGet));
+
+        // Act & Assert - a reader taking one event at a time keeps the source a few events ahead
+        StepVerifier.create(stream, 1)
+                .expectNextCount(1)
+                .then(() -> assertThat(requested.get()).isLessThanOrEqualTo(33))
+                .thenRequest(9)
+                .expectNextCount(9)
+                .then(() -> assertThat(requested.get()).isBetween(10L, 42L))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void shouldCancelSource_whenNoReaderReturnsWithinTtl() {
+        // Arrange - the client drops a stream whose source never ends
+        MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+        StreamReplayBuffer buffer = new StreamReplayBuffer(new ObjectMapper(), meterRegistry, true, 100,
+                Duration.ofMinutes(5), Long.MAX_VALUE, null, clock);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        List<ServerSentEvent<StreamMessage>> received = buffer.stream(SCOPE, null, () -> Flux.<StreamMessage>never()
+                .startWith(StreamMessage.data("a"))
+                .doOnCancel(() -> cancelled.set(true))).take(1).collectList().block();
+        assertThat(received).hasSize(1);
+
+        // Act - the next event of another stream sweeps the buffers
+        clock.advance(Duration.ofMinutes(6));
+        buffer.stream(SCOPE, null, () -> messages(1)).blockLast();
+
+        // Assert
+        assertThat(cancelled).isTrue();
+        assertThat(meterRegistry.get("openmeteo.stream.replay.evictions").tag("reason", "expired").counter().count())
+                .isEqualTo(1.0);
+        buffer.stream(SCOPE, received.get(0).id(), () -> messages(1)).blockLast();
+        assertThat(resumes("miss")).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldStartNewStream_whenLastEventIdIsUnknown() {
+        // Arrange
+        StreamReplayBuffer buffer = buffer(100, Long.MAX_VALUE, null);
+
+        // Act
+        List<ServerSentEvent<StreamMessage>> events = buffer.stream(SCOPE, "gone:3", () -> messages(2))
+                .collectList().block();
+
+        // Assert
+        assertThat(events).extracting(ServerSentEvent::id).allMatch(id -> !id.startsWith("gone:"));
+        assertThat(events).extracting(sse -> sse.id().substring(sse.id().lastIndexOf(':') + 1))
+                .containsExactly("0", "1");
+        assertThat(sourceCalls).hasValue(1);
+        assertThat(resumes("miss")).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldStartNewStream_whenScopeDiffers() {
+        // Arrange
+        StreamReplayBuffer buffer = buffer(100, Long.MAX_VALUE, null);
+        List<ServerSentEvent<StreamMessage>> events = buffer.stream(SCOPE, null, () -> messages(2))
+                .collectList().block();
+
+        // Act - the same id on another endpoint and by another client
+        List<ServerSentEvent<StreamMessage>> otherEndpoint = buffer.stream("chat|alice|hello", events.get(0).id(),
+                () -> messages(2)).collectList().block();
+        List<ServerSentEvent<StreamMessage>> otherClient = buffer.stream("weather-forecast|bob|[47.3, 8.5]",
+                events.get(0).id(), () -> messages(2)).collectList().block();
+
+        // Assert
+        assertThat(otherEndpoint).extracting(ServerSentEvent::id).doesNotContain(events.get(1).id());
+        assertThat(otherClient).extracting(ServerSentEvent::id).doesNotContain(events.get(1).id());
+        assertThat(sourceCalls).hasValue(3);
+        assertThat(resumes("miss")).isEqualTo(2.0);
+    }
+
+    @Test
+    void shouldNotResume_whenEventsWereTrimmedFromBuffer() {
+        // Arrange - only the last 2 of 5 events are kept
+        StreamReplayBuffer buffer = buffer(2, Long.MAX_VALUE, null);
+        List<ServerSentEvent<StreamMessage>> events = buffer.stream(SCOPE, null, () -> messages(5))
+                .collectList().block();
+
+        // Act
+        buffer.stream(SCOPE, events.get(0).id(), () -> messages(5)).blockLast();
+        List<ServerSentEvent<StreamMessage>> tail = buffer.stream(SCOPE, events.get(2).id(), () -> messages(5))
+                .collectList().block();
+
+        // Assert - event 1 is gone, events 3 and 4 are still there
+        assertThat(resumes("miss")).isEqualTo(1.0);
+        assertThat(tail).extracting(ServerSentEvent::id).containsExactly(events.get(3).id(), events.get(4).id());
+        assertThat(sourceCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldEvictBuffers_overMemoryBudget() {
+        // Arrange - the budget holds only a few small events
+        StreamReplayBuffer buffer = buffer(100, 150, null);
+        List<ServerSentEvent<StreamMessage>> first = buffer.stream(SCOPE, null, () -> messages(3))
+                .collectList().block();
+        buffer.stream(SCOPE, null, () -> messages(3)).blockLast();
+
+        // Act
+        buffer.stream(SCOPE, first.get(0).id(), () -> messages(3)).blockLast();
+
+        // Assert
+        assertThat(meterRegistry.get("openmeteo.stream.replay.evictions").tag("reason", "budget").counter().count())
+                .isGreaterThanOrEqualTo(1.0);
+        assertThat(meterRegistry.get("openmeteo.stream.replay.bytes").gauge().value()).isLessThanOrEqualTo(150.0);
+        assertThat(resumes("miss")).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldResumeCompletedStream_fromBackend_onAnotherInstance() throws InterruptedException {
+        // Arrange
+        Map<String, List<String>> shared = new ConcurrentHashMap<>();
+        StreamReplayBuffer.Backend backend = new StreamReplayBuffer.Backend() {
+            @Override
+            public void write(String streamId, String scope, List<String> events, Duration ttl) {
+                shared.put(scope + "|" + streamId, events);
+            }
+
+            @Override
+            public List<String> read(String streamId, String scope) {
+                return shared.getOrDefault(scope + "|" + streamId, List.of());
+            }
+        };
+        List<ServerSentEvent<StreamMessage>> events = buffer(100, Long.MAX_VALUE, backend)
+                .stream(SCOPE, null, () -> messages(3)).collectList().block();
+        for (int i = 0; i < 100 && shared.isEmpty(); i++) {
+            Thread.sleep(20);
+        }
+
+        // Act
+        Flux<ServerSentEvent<StreamMessage>> resumed = buffer(100, Long.MAX_VALUE, backend)
+                .stream(SCOPE, events.get(0).id(), () -> messages(3));
+
+        // Assert
+        StepVerifier.create(resumed)
+                .assertNext(sse -> assertThat(sse.id()).isEqualTo(events.get(1).id()))
+                .assertNext(sse -> assertThat(sse.id()).isEqualTo(events.get(2).id()))
+                .verifyComplete();
+        assertThat(sourceCalls).hasValue(1);
+        assertThat(resumes("redis")).isEqualTo(1.0);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
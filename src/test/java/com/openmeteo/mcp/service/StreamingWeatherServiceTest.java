@@ -1,7 +1,12 @@
 package com.openmeteo.mcp.service;
 
 import com.openmeteo.mcp.client.OpenMeteoClient;
+import com.openmeteo.mcp.client.UpstreamLimiter.Priority;
+import com.openmeteo.mcp.model.column.DoubleColumn;
+import com.openmeteo.mcp.model.column.TimeAxis;
 import com.openmeteo.mcp.model.dto.CurrentWeather;
+import com.openmeteo.mcp.model.dto.DailyWeather;
+import com.openmeteo.mcp.model.dto.HourlyWeather;
 import com.openmeteo.mcp.model.dto.WeatherForecast;
 import com.openmeteo.mcp.model.stream.StreamMessage;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +15,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
 import java.time.Duration;
@@ -39,6 +45,9 @@ class StreamingWeatherServiceTest {
     @Mock
     private HistoricalWeatherService mockHistoricalWeatherService;
 
+    @Mock
+    private LiveWeatherHub mockLiveWeatherHub;
+
     private StreamingWeatherService streamingWeatherService;
 
     @BeforeEach
@@ -46,7 +55,8 @@ class StreamingWeatherServiceTest {
         streamingWeatherService = new StreamingWeatherService(
                 mockClient,
                 mockWeatherService,
-                mockHistoricalWeatherService
+                mockHistoricalWeatherService,
+                mockLiveWeatherHub
         );
     }
 
@@ -72,6 +82,44 @@ class StreamingWeatherServiceTest {
                 .verify(Duration.ofSeconds(5));
     }
 
+    @Test
+    @DisplayName("Should stream every live update of the hub")
+    void shouldStreamLiveUpdates() {
+        // Given
+        WeatherForecast forecast = createMockForecast(47.37, 8.54);
+        when(mockLiveWeatherHub.subscribe(47.37, 8.54, "auto", "client-1"))
+                .thenReturn(Flux.just(forecast, forecast));
+
+        // When
+        var result = streamingWeatherService.watchWeather(47.37, 8.54, "auto", "client-1");
+
+        // Then
+        StepVerifier.create(result)
+                .assertNext(msg -> assertThat(msg.type()).isEqualTo("data"))
+                .assertNext(msg -> assertThat(msg.type()).isEqualTo("data"))
+                .assertNext(msg -> assertThat(msg.type()).isEqualTo("complete"))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Should end live stream with error when the hub rejects the subscription")
+    void shouldEndLiveStreamWithError_whenRejected() {
+        // Given
+        when(mockLiveWeatherHub.subscribe(anyDouble(), anyDouble(), anyString(), anyString()))
+                .thenReturn(Flux.error(new IllegalStateException("Too many streaming connections")));
+
+        // When
+        var result = streamingWeatherService.watchWeather(47.37, 8.54, "auto", "client-1");
+
+        // Then
+        StepVerifier.create(result)
+                .assertNext(msg -> assertThat(msg.type()).isEqualTo("error"))
+                .assertNext(msg -> assertThat(msg.type()).isEqualTo("complete"))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
     @Test
     @DisplayName("Should stream forecast with single chunk for small dataset")
     void shouldStreamForecastWithSingleChunk() {
@@ -109,17 +157,70 @@ class StreamingWeatherServiceTest {
                 .verify(Duration.ofSeconds(10));
     }
 
+    @Test
+    @DisplayName("Should stream large forecast as one real chunk per day")
+    void shouldStreamLargeForecastAsDaySlices() {
+        // Given - 5 days with 24 hours each
+        WeatherForecast forecast = createHourlyForecast(5);
+        when(mockWeatherService.getWeather(anyDouble(), anyDouble(), eq(5), eq(true), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(forecast));
+
+        // When
+        var result = streamingWeatherService.streamForecast(47.37, 8.54, 5, true, "Europe/Zurich");
+
+        // Then
+        List<StreamMessage> messages = result.collectList().block(Duration.ofSeconds(5));
+        assertThat(messages).hasSize(6);
+        assertThat(messages.getLast().type()).isEqualTo("complete");
+        for (int day = 0; day < 5; day++) {
+            StreamMessage message = messages.get(day);
+            WeatherForecast chunk = (WeatherForecast) message.data();
+            String date = LocalDate.of(2024, 1, 30).plusDays(day).toString();
+
+            assertThat(message.metadata().chunkIndex()).isEqualTo(day);
+            assertThat(message.metadata().totalChunks()).isEqualTo(5);
+            assertThat(message.metadata().progress()).isEqualTo((day + 1) * 20);
+            assertThat(chunk.daily().time()).containsExactly(date);
+            assertThat(chunk.daily().temperature2mMax()).containsExactly(10.0 + day);
+            assertThat(chunk.hourly().time()).hasSize(24).allMatch(time -> time.startsWith(date));
+            assertThat(chunk.hourly().temperature2m().getFirst()).isEqualTo(day * 24.0);
+            // Views over the parsed columns, not copies
+            assertThat(chunk.hourly().temperature2m()).isInstanceOf(DoubleColumn.class);
+            assertThat(chunk.currentWeather() != null).isEqualTo(day == 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should emit forecast chunks only on demand")
+    void shouldEmitForecastChunksOnDemand() {
+        // Given
+        WeatherForecast forecast = createHourlyForecast(5);
+        when(mockWeatherService.getWeather(anyDouble(), anyDouble(), eq(5), eq(true), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(forecast));
+
+        // When
+        var result = streamingWeatherService.streamForecast(47.37, 8.54, 5, true, "Europe/Zurich");
+
+        // Then - no artificial delay: each requested chunk arrives immediately
+        StepVerifier.create(result, 2)
+                .expectNextCount(2)
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenRequest(4)
+                .expectNextCount(4)
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+    }
+
     @Test
     @DisplayName("Should stream historical weather for small date range")
     void shouldStreamHistoricalWeatherSmallRange() {
         // Given
-        var historicalData = createMockHistoricalData();
-        LocalDate startDate = LocalDate.now().minusDays(30);
-        LocalDate endDate = LocalDate.now();
-        
-        when(mockHistoricalWeatherService.getHistoricalWeather(
-                anyDouble(), anyDouble(), anyString(), anyString(), anyString()))
-                .thenReturn(CompletableFuture.completedFuture(historicalData));
+        LocalDate startDate = LocalDate.of(2024, 1, 1);
+        LocalDate endDate = LocalDate.of(2024, 1, 2);
+
+        when(mockHistoricalWeatherService.streamHistoricalWeather(
+                anyDouble(), anyDouble(), eq("2024-01-01"), eq("2024-01-02"), anyString(), eq(Priority.BATCH)))
+                .thenReturn(Flux.just(createWindow(0, 1, "2024-01-01", "2024-01-02")));
 
         // When
         var result = streamingWeatherService.streamHistoricalWeather(
@@ -134,51 +235,63 @@ class StreamingWeatherServiceTest {
     }
 
     @Test
-    @DisplayName("Should stream historical weather in week chunks for medium range")
-    void shouldStreamHistoricalWeatherMediumRange() {
+    @DisplayName("Should stream each historical window once")
+    @SuppressWarnings("unchecked")
+    void shouldStreamHistoricalWeatherWindowByWindow() {
         // Given
-        var historicalData = createMockHistoricalData();
-        LocalDate startDate = LocalDate.now().minusDays(120);
-        LocalDate endDate = LocalDate.now();
-        
-        when(mockHistoricalWeatherService.getHistoricalWeather(
-                anyDouble(), anyDouble(), anyString(), anyString(), anyString()))
-                .thenReturn(CompletableFuture.completedFuture(historicalData));
+        when(mockHistoricalWeatherService.streamHistoricalWeather(
+                anyDouble(), anyDouble(), anyString(), anyString(), anyString(), eq(Priority.BATCH)))
+                .thenReturn(Flux.just(
+                        createWindow(0, 3, "2023-12-01", "2024-02-29"),
+                        createWindow(1, 3, "2024-03-01", "2024-05-31"),
+                        createWindow(2, 3, "2024-06-01", "2024-06-30")));
 
         // When
         var result = streamingWeatherService.streamHistoricalWeather(
-                12.5, 78.0, startDate, endDate, "auto");
+                12.5, 78.0, LocalDate.of(2023, 12, 1), LocalDate.of(2024, 6, 30), "auto");
 
-        // Then - expect week chunks + complete
+        // Then
         StepVerifier.create(result)
-                .expectNextCount(18) // ~18 week chunks
+                .assertNext(msg -> {
+                    var data = (java.util.Map<String, Object>) msg.data();
+                    assertThat(data).containsEntry("latitude", 12.5).containsEntry("start_date", "2023-12-01");
+                    assertThat(msg.metadata().chunkIndex()).isZero();
+                    assertThat(msg.metadata().totalChunks()).isEqualTo(3);
+                })
+                .assertNext(msg -> {
+                    var data = (java.util.Map<String, Object>) msg.data();
+                    assertThat(data).doesNotContainKey("latitude").containsEntry("end_date", "2024-05-31");
+                    assertThat((java.util.Map<String, Object>) data.get("daily")).containsEntry("time",
+                            List.of("2024-03-01", "2024-05-31"));
+                    assertThat(msg.metadata().progress()).isEqualTo(66);
+                })
+                .assertNext(msg -> assertThat(msg.metadata().chunkIndex()).isEqualTo(2))
                 .assertNext(msg -> assertThat(msg.type()).isEqualTo("complete"))
                 .expectComplete()
-                .verify(Duration.ofSeconds(10));
+                .verify(Duration.ofSeconds(5));
     }
 
     @Test
-    @DisplayName("Should stream historical weather in month chunks for large range")
-    void shouldStreamHistoricalWeatherLargeRange() {
+    @DisplayName("Should end historical stream with error when a window fails")
+    void shouldEndHistoricalStreamWithError_whenWindowFails() {
         // Given
-        var historicalData = createMockHistoricalData();
-        LocalDate startDate = LocalDate.now().minusYears(2);
-        LocalDate endDate = LocalDate.now();
-        
-        when(mockHistoricalWeatherService.getHistoricalWeather(
-                anyDouble(), anyDouble(), anyString(), anyString(), anyString()))
-                .thenReturn(CompletableFuture.completedFuture(historicalData));
+        when(mockHistoricalWeatherService.streamHistoricalWeather(
+                anyDouble(), anyDouble(), anyString(), anyString(), anyString(), eq(Priority.BATCH)))
+                .thenReturn(Flux.concat(
+                        Flux.just(createWindow(0, 2, "2024-01-01", "2024-02-29")),
+                        Flux.error(new RuntimeException("503 Service Unavailable"))));
 
         // When
         var result = streamingWeatherService.streamHistoricalWeather(
-                12.5, 78.0, startDate, endDate, "auto");
+                12.5, 78.0, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 5, 31), "auto");
 
-        // Then - expect month chunks + complete
+        // Then
         StepVerifier.create(result)
-                .expectNextCount(25) // ~24 month chunks
+                .assertNext(msg -> assertThat(msg.type()).isEqualTo("data"))
+                .assertNext(msg -> assertThat(msg.type()).isEqualTo("error"))
                 .assertNext(msg -> assertThat(msg.type()).isEqualTo("complete"))
                 .expectComplete()
-                .verify(Duration.ofSeconds(15));
+                .verify(Duration.ofSeconds(5));
     }
 
     @Test
@@ -281,14 +394,36 @@ class StreamingWeatherServiceTest {
         );
     }
 
-    private java.util.Map<String, Object> createMockHistoricalData() {
-        return java.util.Map.of(
-                "latitude", 12.5,
-                "longitude", 78.0,
-                "daily", java.util.Map.of(
-                        "time", List.of("2024-01-01", "2024-01-02"),
+    private WeatherForecast createHourlyForecast(int days) {
+        CurrentWeather current = new CurrentWeather(20.0, 10.0, 180, 0, "2024-01-30T12:00");
+        double[] maxTemperature = new double[days];
+        double[] temperature = new double[days * 24];
+        for (int day = 0; day < days; day++) {
+            maxTemperature[day] = 10.0 + day;
+        }
+        for (int hour = 0; hour < temperature.length; hour++) {
+            temperature[hour] = hour;
+        }
+        DailyWeather daily = new DailyWeather(
+                TimeAxis.regular(TimeAxis.Format.DATE, 1_706_572_800L, 86_400L, days),
+                new DoubleColumn(maxTemperature), null, null, null, null, null, null, null,
+                null, null, null, null, null, null, null);
+        HourlyWeather hourly = new HourlyWeather(
+                TimeAxis.regular(TimeAxis.Format.DATE_TIME, 1_706_572_800L, 3_600L, days * 24),
+                new DoubleColumn(temperature), null, null, null, null, null, null, null, null,
+                null, null, null, null, null, null, null, null);
+        return new WeatherForecast(47.37, 8.54, 408.0, "Europe/Zurich", "CET", 3600,
+                current, hourly, daily, 0.5);
+    }
+
+    private HistoricalWeatherService.WindowData createWindow(int index, int total, String start, String end) {
+        return new HistoricalWeatherService.WindowData(
+                new HistoricalWeatherService.Window(LocalDate.parse(start), LocalDate.parse(end)),
+                index, total,
+                java.util.Map.of(
+                        "time", List.of(start, end),
                         "temperature_2m_max", List.of(25.0, 26.0)
-                )
-        );
+                ),
+                java.util.Map.of("temperature", java.util.Map.of("max", 26.0)));
     }
 }
@@ -10,6 +10,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -118,9 +119,10 @@ class WeatherServiceTest {
                 null, null, null
         );
 
-        when(client.getWeather(anyDouble(), anyDouble(), anyInt(),
-                anyBoolean(), anyString()))
-                .thenReturn(CompletableFuture.completedFuture(mockForecast));
+        when(client.serveWeather(anyDouble(), anyDouble(), anyInt(),
+                anyBoolean(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(
+                        new OpenMeteoClient.Served<>(mockForecast, Optional.empty())));
 
         // Act
         var result = service.getWeatherWithInterpretation(
@@ -156,9 +158,10 @@ class WeatherServiceTest {
                 null, null, null
         );
 
-        when(client.getWeather(anyDouble(), anyDouble(), anyInt(),
-                anyBoolean(), anyString()))
-                .thenReturn(CompletableFuture.completedFuture(mockForecast));
+        when(client.serveWeather(anyDouble(), anyDouble(), anyInt(),
+                anyBoolean(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(
+                        new OpenMeteoClient.Served<>(mockForecast, Optional.empty())));
 
         // Act
         var result = service.getWeatherWithInterpretation(
@@ -0,0 +1,178 @@
+package com.openmeteo.mcp.service;
+
+import com.openmeteo.mcp.client.UpstreamLimiter.Priority;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for YearComparisonService.
+ */
+@ExtendWith(MockitoExtension.class)
+class YearComparisonServiceTest {
+
+    @Mock
+    private HistoricalWeatherService historicalWeatherService;
+
+    private YearComparisonService service(String today) {
+        return new YearComparisonService(historicalWeatherService, 30, 4,
+                Clock.fixed(Instant.parse(today + "T12:00:00Z"), ZoneOffset.UTC));
+    }
+
+    /**
+     * Daily data for a window; each year is one degree warmer and 10 mm wetter than the previous.
+     */
+    private static Map<String, Object> response(String start, String end) {
+        int offset = LocalDate.parse(start).getYear() - 2022;
+        List<String> time = new ArrayList<>();
+        List<Double> maxTemperature = new ArrayList<>();
+        List<Double> minTemperature = new ArrayList<>();
+        List<Double> meanTemperature = new ArrayList<>();
+        List<Double> precipitation = new ArrayList<>();
+        List<Double> snowfall = new ArrayList<>();
+        for (LocalDate day = LocalDate.parse(start); !day.isAfter(LocalDate.parse(end)); day = day.plusDays(1)) {
+            time.add(day.toString());
+            maxTemperature.add(2.0 + offset);
+            minTemperature.add(time.size() % 2 == 0 ? -4.0 + offset : 0.0 + offset);
+            meanTemperature.add(offset == 1 && time.size() == 1 ? null : -1.0 + offset);
+            precipitation.add(time.size() == 1 ? 10.0 * (offset + 1) : 0.0);
+            snowfall.add(offset == 0 ? 1.5 : 0.0);
+        }
+        Map<String, Object> daily = new LinkedHashMap<>();
+        daily.put("time", time);
+        daily.put("temperature_2m_max", maxTemperature);
+        daily.put("temperature_2m_min", minTemperature);
+        daily.put("temperature_2m_mean", meanTemperature);
+        daily.put("precipitation_sum", precipitation);
+        daily.put("snowfall_sum", snowfall);
+        daily.put("windgusts_10m_max", Arrays.asList(null, 55.0 + offset));
+        return Map.of("daily", daily, "statistics", Map.of());
+    }
+
+    private void stubYear(String start, String end, Priority priority) {
+        when(historicalWeatherService.getHistoricalWeather(anyDouble(), anyDouble(), eq(start), eq(end),
+                anyString(), eq(priority)))
+                .thenReturn(CompletableFuture.completedFuture(response(start, end)));
+    }
+
+    @Test
+    void shouldResolveMostRecentCompleteWindows_acrossNewYear() {
+        // Act - on 2026-01-03 the 2025/26 window is not complete yet
+        var windows = service("2026-01-03").windows(MonthDay.of(12, 20), MonthDay.of(1, 5), 3);
+
+        // Assert
+        assertThat(windows).extracting(window -> window.label() + " " + window.start() + ".." + window.end())
+                .containsExactly(
+                        "2022/23 2022-12-20..2023-01-05",
+                        "2023/24 2023-12-20..2024-01-05",
+                        "2024/25 2024-12-20..2025-01-05");
+    }
+
+    @Test
+    void shouldResolveLeapDay_toLastDayOfFebruary() {
+        // Act
+        var windows = service("2026-10-16").windows(MonthDay.of(2, 1), MonthDay.of(2, 29), 3);
+
+        // Assert
+        assertThat(windows).extracting(window -> window.end().toString())
+                .containsExactly("2024-02-29", "2025-02-28", "2026-02-28");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReturnAggregatesPerYear_sideBySide() {
+        // Arrange
+        stubYear("2022-12-20", "2023-01-05", Priority.BATCH);
+        stubYear("2023-12-20", "2024-01-05", Priority.BATCH);
+        stubYear("2024-12-20", "2025-01-05", Priority.BATCH);
+
+        // Act
+        var result = service("2026-01-03").compareYears(46.80, 9.84, "12-20", "01-05", 3, "Europe/Zurich").join();
+
+        // Assert
+        assertThat(result).containsEntry("window", "12-20..01-05").doesNotContainKey("daily");
+        List<Map<String, Object>> years = (List<Map<String, Object>>) result.get("years");
+        assertThat(years).extracting(year -> year.get("year")).containsExactly("2022/23", "2023/24", "2024/25");
+        assertThat(years.getFirst())
+                .containsEntry("days", 17)
+                .containsEntry("mean_temperature", -1.0)
+                .containsEntry("mean_max_temperature", 2.0)
+                .containsEntry("mean_min_temperature", -1.88)
+                .containsEntry("lowest_temperature", -4.0)
+                .containsEntry("frost_days", 8)
+                .containsEntry("precipitation_total_mm", 10.0)
+                .containsEntry("rainy_days", 1)
+                .containsEntry("snowfall_total_cm", 25.5)
+                .containsEntry("max_wind_gust_kmh", 55.0);
+        // A missing value is skipped, not counted as zero
+        assertThat(years.get(1)).containsEntry("mean_temperature", 0.0);
+
+        Map<String, Object> summary = (Map<String, Object>) result.get("summary");
+        assertThat(summary)
+                .containsEntry("years_compared", 3)
+                .containsEntry("warmest", "2024/25")
+                .containsEntry("coldest", "2022/23")
+                .containsEntry("wettest", "2024/25")
+                .containsEntry("driest", "2022/23")
+                .containsEntry("snowiest", "2022/23")
+                .containsEntry("average_precipitation_total_mm", 20.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldKeepOtherYears_whenOneYearFails() {
+        // Arrange
+        stubYear("2022-12-20", "2023-01-05", Priority.BATCH);
+        when(historicalWeatherService.getHistoricalWeather(anyDouble(), anyDouble(), eq("2023-12-20"),
+                eq("2024-01-05"), anyString(), eq(Priority.BATCH)))
+                .thenReturn(CompletableFuture.completedFuture(Map.of(
+                        "error", "Failed to fetch historical weather data",
+                        "message", "503 Service Unavailable")));
+
+        // Act
+        var result = service("2024-06-01").compareYears(46.80, 9.84, "12-20", "01-05", 2, "UTC").join();
+
+        // Assert
+        List<Map<String, Object>> years = (List<Map<String, Object>>) result.get("years");
+        assertThat(years).hasSize(2);
+        assertThat(years.getFirst()).containsKey("mean_temperature").doesNotContainKey("error");
+        assertThat(years.get(1)).containsEntry("error", "503 Service Unavailable");
+        assertThat((Map<String, Object>) result.get("summary"))
+                .containsEntry("years_compared", 1)
+                .containsEntry("warmest", "2022/23");
+    }
+
+    @Test
+    void shouldUseInteractiveLane_forSingleYear() {
+        // Arrange
+        stubYear("2025-07-01", "2025-07-31", Priority.INTERACTIVE);
+
+        // Act
+        service("2026-03-01").compareYears(47.37, 8.54, "07-01", "07-31", 1, "UTC").join();
+
+        // Assert
+        verify(historicalWeatherService, times(1)).getHistoricalWeather(anyDouble(), anyDouble(), anyString(),
+                anyString(), anyString(), eq(Priority.INTERACTIVE));
+    }
+}
@@ -1,5 +1,6 @@
 package com.openmeteo.mcp.tool;
 
+import com.openmeteo.mcp.client.OpenMeteoClient;
 import com.openmeteo.mcp.model.dto.GeocodingResponse;
 import com.openmeteo.mcp.model.dto.GeocodingResult;
 import com.openmeteo.mcp.service.*;
@@ -10,6 +11,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,7 +24,7 @@ import static org.mockito.Mockito.when;
 
 /**
  * Unit tests for AdvancedToolsHandler.
- * Tests the 7 advanced MCP tools with mocked service dependencies.
+ * Tests the 9 advanced MCP tools with mocked service dependencies.
  */
 @ExtendWith(MockitoExtension.class)
 class AdvancedToolsHandlerTest {
@@ -42,6 +44,12 @@ class AdvancedToolsHandlerTest {
     @Mock
     private MarineConditionsService marineConditionsService;
 
+    @Mock
+    private ClimateNormalsService climateNormalsService;
+
+    @Mock
+    private YearComparisonService yearComparisonService;
+
     private AdvancedToolsHandler handler;
 
     @BeforeEach
@@ -51,7 +59,9 @@ class AdvancedToolsHandlerTest {
                 airQualityService,
                 locationService,
                 historicalWeatherService,
-                marineConditionsService
+                marineConditionsService,
+                climateNormalsService,
+                yearComparisonService
         );
     }
 
@@ -404,6 +414,107 @@ class AdvancedToolsHandlerTest {
         assertThat(result.get("criteria")).isEqualTo("best_overall");
     }
 
+    @Test
+    void compareLocations_shouldFetchAllLocationsInOneBatch() {
+        // Arrange
+        setupCompareLocationsWeatherMocks();
+
+        List<Map<String, Object>> locations = new ArrayList<>();
+        locations.add(createLocationMap("Zurich", 47.3769, 8.5417));
+        locations.add(createLocationMap("Geneva", 46.2044, 6.1432));
+        locations.add(createLocationMap("Lugano", 46.0037, 8.9511));
+
+        // Act
+        var result = handler.compareLocations(locations, "warmest", 1).join();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> locationResults = (List<Map<String, Object>>) result.get("locations");
+        assertThat(locationResults).hasSize(3);
+        verify(weatherService).getWeatherBatchWithInterpretation(anyList(), eq(1), eq(false), eq("auto"));
+        verify(airQualityService).getAirQualityBatchWithInterpretation(anyList(), eq(1), eq(false), eq("auto"));
+    }
+
+    @Test
+    void compareLocations_shouldReportErrorPerLocation_whenBatchFails() {
+        // Arrange
+        when(weatherService.getWeatherBatchWithInterpretation(anyList(), anyInt(), anyBoolean(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("upstream down")));
+        when(airQualityService.getAirQualityBatchWithInterpretation(anyList(), anyInt(), anyBoolean(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        List<Map<String, Object>> locations = new ArrayList<>();
+        locations.add(createLocationMap("Zurich", 47.3769, 8.5417));
+        locations.add(createLocationMap("Geneva", 46.2044, 6.1432));
+
+        // Act
+        var result = handler.compareLocations(locations, "warmest", 1).join();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> locationResults = (List<Map<String, Object>>) result.get("locations");
+        assertThat(locationResults).hasSize(2);
+        assertThat(locationResults).allSatisfy(loc -> assertThat(loc).containsKey("error"));
+    }
+
+    @Test
+    void compareLocations_shouldOnlyMarkFailedChunk_whenOneWeatherChunkFails() {
+        // Arrange - the second chunk holds a single location and fails
+        Map<String, Object> weatherData = Map.of("current", Map.of("temperature", 20.0));
+        when(weatherService.getWeatherBatchWithInterpretation(anyList(), anyInt(), anyBoolean(), anyString()))
+                .thenAnswer(invocation -> {
+                    int size = invocation.<List<?>>getArgument(0).size();
+                    return size == 1
+                            ? CompletableFuture.failedFuture(new RuntimeException("upstream down"))
+                            : CompletableFuture.completedFuture(Collections.nCopies(size, weatherData));
+                });
+        when(airQualityService.getAirQualityBatchWithInterpretation(anyList(), anyInt(), anyBoolean(), anyString()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(
+                        Collections.nCopies(invocation.<List<?>>getArgument(0).size(), Map.of())));
+
+        List<Map<String, Object>> locations = new ArrayList<>();
+        for (int i = 0; i <= OpenMeteoClient.MAX_BATCH_LOCATIONS; i++) {
+            locations.add(createLocationMap("Location " + i, 46.0 + i * 0.01, 7.0));
+        }
+
+        // Act
+        var result = handler.compareLocations(locations, "warmest", 1).join();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> locationResults = (List<Map<String, Object>>) result.get("locations");
+        assertThat(locationResults).hasSize(OpenMeteoClient.MAX_BATCH_LOCATIONS + 1);
+        assertThat(locationResults).filteredOn(loc -> loc.containsKey("error"))
+                .extracting(loc -> loc.get("name"))
+                .containsExactly("Location " + OpenMeteoClient.MAX_BATCH_LOCATIONS);
+    }
+
+    @Test
+    void compareLocations_shouldKeepWeather_whenAirQualityBatchFails() {
+        // Arrange
+        Map<String, Object> weatherData = Map.of("current", Map.of("temperature", 20.0));
+        when(weatherService.getWeatherBatchWithInterpretation(anyList(), anyInt(), anyBoolean(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(List.of(weatherData, weatherData)));
+        when(airQualityService.getAirQualityBatchWithInterpretation(anyList(), anyInt(), anyBoolean(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("air quality down")));
+
+        List<Map<String, Object>> locations = new ArrayList<>();
+        locations.add(createLocationMap("Zurich", 47.3769, 8.5417));
+        locations.add(createLocationMap("Geneva", 46.2044, 6.1432));
+
+        // Act
+        var result = handler.compareLocations(locations, "warmest", 1).join();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> locationResults = (List<Map<String, Object>>) result.get("locations");
+        assertThat(locationResults).hasSize(2).allSatisfy(loc -> {
+            assertThat(loc).doesNotContainKeys("error", "aqi");
+            assertThat(loc.get("temperature")).isEqualTo(20.0);
+            assertThat((String) loc.get("air_quality_error")).contains("air quality down");
+        });
+    }
+
     // ========== getHistoricalWeather Tests ==========
 
     @Test
@@ -495,6 +606,43 @@ class AdvancedToolsHandlerTest {
         verify(marineConditionsService).getMarineConditions(46.4544, 6.5886, 7, "auto");
     }
 
+    // ========== getClimateNormals Tests ==========
+
+    @Test
+    void getClimateNormals_shouldDelegateWithDefaults_whenParametersInvalid() {
+        // Arrange
+        Map<String, Object> normals = Map.of("reference_period", "1991-2020");
+
+        when(climateNormalsService.getClimateNormals(anyDouble(), anyDouble(), anyInt(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(normals));
+
+        // Act
+        Map<String, Object> result = handler.getClimateNormals(47.3769, 8.5417, 0, null).join();
+
+        // Assert
+        assertThat(result).isEqualTo(normals);
+        verify(climateNormalsService).getClimateNormals(47.3769, 8.5417, 7, "auto");
+    }
+
+    // ========== compareYears Tests ==========
+
+    @Test
+    void compareYears_shouldDelegateWithDefaults_whenParametersInvalid() {
+        // Arrange
+        Map<String, Object> comparison = Map.of("window", "12-20..01-05");
+
+        when(yearComparisonService.compareYears(anyDouble(), anyDouble(), anyString(), anyString(), anyInt(),
+                anyString()))
+                .thenReturn(CompletableFuture.completedFuture(comparison));
+
+        // Act
+        Map<String, Object> result = handler.compareYears(46.8, 9.84, "12-20", "01-05", 0, "").join();
+
+        // Assert
+        assertThat(result).isEqualTo(comparison);
+        verify(yearComparisonService).compareYears(46.8, 9.84, "12-20", "01-05", 5, "auto");
+    }
+
     // ========== Helper Methods ==========
 
     private void setupCompareLocationsWeatherMocks() {
@@ -512,10 +660,12 @@ class AdvancedToolsHandlerTest {
                 )
         );
 
-        when(weatherService.getWeatherWithInterpretation(anyDouble(), anyDouble(), anyInt(), anyBoolean(), anyString()))
-                .thenReturn(CompletableFuture.completedFuture(weatherData));
-        when(airQualityService.getAirQualityWithInterpretation(anyDouble(), anyDouble(), anyInt(), anyBoolean(), anyString()))
-                .thenReturn(CompletableFuture.completedFuture(airQualityData));
+        when(weatherService.getWeatherBatchWithInterpretation(anyList(), anyInt(), anyBoolean(), anyString()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(
+                        Collections.nCopies(invocation.<List<?>>getArgument(0).size(), weatherData)));
+        when(airQualityService.getAirQualityBatchWithInterpretation(anyList(), anyInt(), anyBoolean(), anyString()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(
+                        Collections.nCopies(invocation.<List<?>>getArgument(0).size(), airQualityData)));
     }
 
     private Map<String, Object> createLocationMap(String name, double latitude, double longitude) {